@@ -0,0 +1,72 @@
+package nl.pim16aap2.animatedarchitecture.core.api;
+
+import javax.annotation.concurrent.GuardedBy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps track of the chunks that are kept loaded on behalf of a single task, such as a toggle.
+ * <p>
+ * An {@link IChunkLoader} adds a ticket for every chunk it keeps loaded. Once the task no longer needs the chunks, it
+ * releases all tickets at once using {@link #release()}.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Pim
+ */
+public final class ChunkTickets
+{
+    @GuardedBy("this")
+    private final List<Runnable> releaseActions = new ArrayList<>();
+
+    @GuardedBy("this")
+    private boolean released = false;
+
+    /**
+     * Adds a ticket.
+     * <p>
+     * If the tickets have already been released, the new ticket is released right away.
+     *
+     * @param releaseAction
+     *     The action that releases the ticket.
+     */
+    public void add(Runnable releaseAction)
+    {
+        synchronized (this)
+        {
+            if (!released)
+            {
+                releaseActions.add(releaseAction);
+                return;
+            }
+        }
+        releaseAction.run();
+    }
+
+    /**
+     * Releases all tickets.
+     * <p>
+     * Calling this method more than once has no effect.
+     */
+    public void release()
+    {
+        final List<Runnable> actions;
+        synchronized (this)
+        {
+            if (released)
+                return;
+            released = true;
+            actions = new ArrayList<>(releaseActions);
+            releaseActions.clear();
+        }
+        actions.forEach(Runnable::run);
+    }
+
+    /**
+     * @return The number of tickets that have not been released yet.
+     */
+    public synchronized int size()
+    {
+        return releaseActions.size();
+    }
+}
@@ -1,5 +1,8 @@
 package nl.pim16aap2.animatedarchitecture.core.api;
 
+import nl.pim16aap2.animatedarchitecture.core.util.Cuboid;
+import nl.pim16aap2.animatedarchitecture.core.util.ObstructionMap;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Analyzes blocks to obtain various information.
@@ -26,6 +29,28 @@ public interface IBlockAnalyzer
      */
     boolean isAllowedBlock(ILocation location);
 
+    /**
+     * Finds all blocks in a cuboid that are not air or liquid. See {@link #isAirOrLiquid(ILocation)}.
+     * <p>
+     * Unlike {@link #isAirOrLiquid(ILocation)}, this method checks the entire cuboid in a single pass.
+     * <p>
+     * All chunks that intersect with the cuboid are expected to be loaded. Implementations should not load any chunks
+     * and should consider all positions in chunks that are not loaded to be obstructed instead.
+     *
+     * @param world
+     *     The world to check the blocks in.
+     * @param cuboid
+     *     The region to check.
+     * @param exclusion
+     *     The region whose positions to ignore. Positions in this region are never marked as obstructed. May be null
+     *     to check every position in the cuboid.
+     * @param stopAtFirst
+     *     True to stop analyzing the cuboid as soon as a single obstruction has been found. This is useful when the
+     *     only thing of interest is whether the cuboid is obstructed at all.
+     * @return The obstructed positions in the cuboid.
+     */
+    ObstructionMap getObstructions(IWorld world, Cuboid cuboid, @Nullable Cuboid exclusion, boolean stopAtFirst);
+
     /**
      * Represents the status of a material.
      *
@@ -3,6 +3,8 @@ package nl.pim16aap2.animatedarchitecture.core.api;
 import nl.pim16aap2.animatedarchitecture.core.util.Cuboid;
 import nl.pim16aap2.animatedarchitecture.core.util.vector.IVector3D;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Tool that can be used to load chunks or check if they are already loaded.
  *
@@ -24,6 +26,32 @@ public interface IChunkLoader
      */
     ChunkLoadResult checkChunks(IWorld world, Cuboid cuboid, ChunkLoadMode chunkLoadMode);
 
+    /**
+     * Checks if all chunks intersecting with a cuboid are loaded without blocking the calling thread. See
+     * {@link #checkChunks(IWorld, Cuboid, ChunkLoadMode)}.
+     * <p>
+     * When chunks have to be loaded, they are all loaded concurrently. Implementations should use the asynchronous
+     * chunk loading API of the platform where available.
+     * <p>
+     * When chunks may be loaded (see {@link ChunkLoadMode#ATTEMPT_LOAD}), all chunks in the region are kept loaded
+     * until the provided tickets are released, so the server does not unload them before the caller is done with them.
+     *
+     * @param world
+     *     The world whose chunks to check.
+     * @param cuboid
+     *     The region to check. All chunks that are at least partially inside this cuboid will be checked.
+     * @param chunkLoadMode
+     *     The type of chunk loading to use if the chunk is not loaded.
+     * @param tickets
+     *     The tickets to add the chunks that are kept loaded to. The caller is responsible for releasing them.
+     * @return The future result of the action. This future may be completed on any thread.
+     */
+    default CompletableFuture<ChunkLoadResult> checkChunksAsync(
+        IWorld world, Cuboid cuboid, ChunkLoadMode chunkLoadMode, ChunkTickets tickets)
+    {
+        return CompletableFuture.completedFuture(checkChunks(world, cuboid, chunkLoadMode));
+    }
+
     /**
      * Checks if the chunk a position exists in is loaded.
      *
@@ -1,7 +1,10 @@
 package nl.pim16aap2.animatedarchitecture.core.api;
 
 import nl.pim16aap2.animatedarchitecture.core.api.restartable.IRestartable;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationExecutionMode;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.PreviewDetail;
 import nl.pim16aap2.animatedarchitecture.core.structures.StructureType;
+import nl.pim16aap2.animatedarchitecture.core.util.ThreadingMode;
 
 import java.util.Locale;
 import java.util.OptionalInt;
@@ -74,6 +77,16 @@ public interface IConfig extends IRestartable
      */
     int cacheTimeout();
 
+    /**
+     * Gets the maximum number of structures to keep in memory.
+     * <p>
+     * Structures that are in use may be kept in memory regardless of this limit.
+     *
+     * @return The maximum number of structures to keep in memory. Values less than 1 mean that structures are kept in
+     * memory until the garbage collector reclaims them.
+     */
+    int maxCachedStructures();
+
     /**
      * Gets the global maximum number of structures a player can own.
      *
@@ -146,6 +159,76 @@ public interface IConfig extends IRestartable
      */
     double maxBlockSpeed();
 
+    /**
+     * Gets the way in which the steps of active animations are executed.
+     *
+     * @return The {@link AnimationExecutionMode} to use for animations.
+     */
+    AnimationExecutionMode animationExecutionMode();
+
+    /**
+     * Gets the distance (in blocks) between an animation and the nearest player beyond which the animated blocks are
+     * updated less frequently.
+     *
+     * @return The level of detail distance. Values less than 1 mean that animations are always updated every tick.
+     */
+    int animationLevelOfDetailDistance();
+
+    /**
+     * Gets the distance (in blocks) between an animation and the nearest player beyond which the animated blocks are
+     * not updated for clients until the animation finishes.
+     *
+     * @return The hidden distance. Values less than 1 mean that animations are never hidden.
+     */
+    int animationHiddenDistance();
+
+    /**
+     * Gets the level of detail of animation previews.
+     *
+     * @return The {@link PreviewDetail} to use for animation previews.
+     */
+    PreviewDetail previewDetail();
+
+    /**
+     * Gets the distance (in blocks) between two previewed blocks on an edge for {@link PreviewDetail#SPARSE_EDGES}.
+     *
+     * @return The preview stride.
+     */
+    int previewStride();
+
+    /**
+     * Gets the maximum number of blocks to show in a single animation preview for {@link PreviewDetail#ADAPTIVE}.
+     *
+     * @return The maximum number of preview blocks. Values less than 1 mean there is no limit.
+     */
+    int maxPreviewBlocks();
+
+    /**
+     * Gets the maximum number of animated blocks to process per tick when starting an animation.
+     * <p>
+     * When a structure has more blocks than this, the creation and spawning of its animated blocks is spread out over
+     * multiple ticks before the animation starts.
+     *
+     * @return The maximum number of animated blocks to process per tick. Values less than 1 mean there is no limit.
+     */
+    int animatedBlocksPerTick();
+
+    /**
+     * Gets the kind of threads to use for blocking work, such as database access and asynchronous tasks.
+     *
+     * @return The {@link ThreadingMode} to use for blocking work.
+     */
+    ThreadingMode threadingMode();
+
+    /**
+     * Gets the maximum number of database tasks that can run at the same time.
+     * <p>
+     * Any additional tasks wait until one of the running tasks has finished.
+     *
+     * @return The maximum number of concurrent database tasks.
+     */
+    int maxConcurrentDatabaseTasks();
+
     /**
      * The log level to use.
      *
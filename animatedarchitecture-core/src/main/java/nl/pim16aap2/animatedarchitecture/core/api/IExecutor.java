@@ -69,7 +69,8 @@ public interface IExecutor
      *
      * @param runnable
      *     The action to run.
-     * @return The ID of the task.
+     * @return The ID of the task, or -1 if the task is not managed by a scheduler that assigns IDs to its tasks (e.g.
+     * when it runs on a virtual thread). Tasks without an ID cannot be cancelled.
      */
     int runAsync(Runnable runnable);
 
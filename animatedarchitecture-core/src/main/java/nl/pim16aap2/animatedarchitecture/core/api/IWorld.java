@@ -1,6 +1,7 @@
 package nl.pim16aap2.animatedarchitecture.core.api;
 
 import nl.pim16aap2.animatedarchitecture.core.util.WorldTime;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.IVector3D;
 
 /**
  * Represents a AnimatedArchitecture world.
@@ -29,4 +30,17 @@ public interface IWorld
      * @return Gets the time in this world.
      */
     WorldTime getTime();
+
+    /**
+     * Gets the distance between a position and the player closest to it in this world.
+     *
+     * @param position
+     *     The position to measure the distance from.
+     * @return The distance to the nearest player, or {@link Double#POSITIVE_INFINITY} if there are no players in this
+     * world. Implementations that do not keep track of players return 0.
+     */
+    default double getNearestPlayerDistance(IVector3D position)
+    {
+        return 0;
+    }
 }
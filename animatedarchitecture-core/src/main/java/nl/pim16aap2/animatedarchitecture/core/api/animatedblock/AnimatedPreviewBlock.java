@@ -33,13 +33,15 @@ public class AnimatedPreviewBlock implements IAnimatedBlock
     private final IPlayer player;
     private final Vector3Dd startPosition;
     private final Vector3Dd finalPosition;
+    private final PreviewFrame previewFrame;
 
     private volatile Vector3Dd previousTarget;
     private volatile Vector3Dd currentTarget;
 
     public AnimatedPreviewBlock(
         ILocationFactory locationFactory, GlowingBlockSpawner glowingBlockSpawner, IWorld world, IPlayer player,
-        Vector3Dd position, Vector3Dd finalPosition, float startAngle, float startRadius, Color color)
+        Vector3Dd position, Vector3Dd finalPosition, float startAngle, float startRadius, Color color,
+        PreviewFrame previewFrame)
     {
         this.locationFactory = locationFactory;
         this.glowingBlockSpawner = glowingBlockSpawner;
@@ -51,6 +53,7 @@ public class AnimatedPreviewBlock implements IAnimatedBlock
         this.startAngle = startAngle;
         this.startRadius = startRadius;
         this.color = color;
+        this.previewFrame = previewFrame;
     }
 
     private synchronized void cycleTargets(Vector3Dd newTarget)
@@ -109,6 +112,9 @@ public class AnimatedPreviewBlock implements IAnimatedBlock
 
         cycleTargets(target);
 
+        if (!previewFrame.claim(movementTicks, target))
+            return;
+
         glowingBlockSpawner
             .builder()
             .forPlayer(player)
@@ -56,6 +56,25 @@ public interface IAnimatedBlock
      */
     void moveToTarget(Vector3Dd target, int ticksRemaining);
 
+    /**
+     * Moves this animated block to the target.
+     * <p>
+     * See {@link #moveToTarget(Vector3Dd, int)}.
+     *
+     * @param x
+     *     The x coordinate of the target position.
+     * @param y
+     *     The y coordinate of the target position.
+     * @param z
+     *     The z coordinate of the target position.
+     * @param ticksRemaining
+     *     The number of ticks remaining in the animation.
+     */
+    default void moveToTarget(double x, double y, double z, int ticksRemaining)
+    {
+        moveToTarget(new Vector3Dd(x, y, z), ticksRemaining);
+    }
+
     /**
      * Teleports the entity to the provided position.
      *
@@ -201,6 +220,13 @@ public interface IAnimatedBlock
         /**
          * Teleports the animated object to the absolute location.
          */
-        ABSOLUTE
+        ABSOLUTE,
+
+        /**
+         * Updates the server-side location of the animated object without informing any clients.
+         * <p>
+         * Clients will keep moving the animated object based on the last velocity they received.
+         */
+        SILENT
     }
 }
@@ -4,6 +4,7 @@ import nl.pim16aap2.animatedarchitecture.core.api.ILocation;
 import nl.pim16aap2.animatedarchitecture.core.moveblocks.Animator;
 import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Dd;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -39,4 +40,39 @@ public interface IAnimatedBlockFactory
         ILocation loc, float radius, float startAngle, boolean bottom, boolean onEdge, AnimationContext context,
         Vector3Dd finalPosition, Animator.MovementMethod movementMethod)
         throws Exception;
+
+    /**
+     * Places the blocks of a list of animated blocks at their final positions. See
+     * {@link IAnimatedBlock#getFinalPosition()}.
+     * <p>
+     * Implementations may place all the blocks in bulk, so the clients are informed about all the changed blocks at
+     * once. The default implementation places every block separately using {@link IAnimatedBlockData#putBlock}.
+     * <p>
+     * This method must be called on the main thread.
+     *
+     * @param animatedBlocks
+     *     The animated blocks whose blocks to place.
+     */
+    default void putBlocks(List<? extends IAnimatedBlock> animatedBlocks)
+    {
+        for (final IAnimatedBlock animatedBlock : animatedBlocks)
+            animatedBlock.getAnimatedBlockData().putBlock(animatedBlock.getFinalPosition());
+    }
+
+    /**
+     * Removes the original blocks of a list of animated blocks from the world without applying any physics.
+     * <p>
+     * Implementations may remove all the blocks in bulk. The default implementation removes every block separately
+     * using {@link IAnimatedBlockData#deleteOriginalBlock(boolean)}.
+     * <p>
+     * This method must be called on the main thread.
+     *
+     * @param animatedBlocks
+     *     The animated blocks whose original blocks to remove.
+     */
+    default void deleteOriginalBlocks(List<? extends IAnimatedBlock> animatedBlocks)
+    {
+        for (final IAnimatedBlock animatedBlock : animatedBlocks)
+            animatedBlock.getAnimatedBlockData().deleteOriginalBlock(false);
+    }
 }
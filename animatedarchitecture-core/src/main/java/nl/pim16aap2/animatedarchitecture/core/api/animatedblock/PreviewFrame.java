@@ -0,0 +1,51 @@
+package nl.pim16aap2.animatedarchitecture.core.api.animatedblock;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import nl.pim16aap2.animatedarchitecture.core.util.Util;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Dd;
+
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Keeps track of the positions that are shown by a group of {@link AnimatedPreviewBlock}s.
+ * <p>
+ * Preview blocks whose trajectories cross or overlap would otherwise show multiple glowing blocks at the same position
+ * at the same time. By sharing a single frame, only the first preview block at any given position shows it.
+ *
+ * @author Pim
+ */
+public final class PreviewFrame
+{
+    @GuardedBy("this")
+    private final LongSet positions = new LongOpenHashSet();
+
+    @GuardedBy("this")
+    private int frame = Integer.MIN_VALUE;
+
+    /**
+     * Attempts to claim a position for the current frame.
+     *
+     * @param frame
+     *     The frame in which the position will be shown. When this is newer than the current frame, all previously
+     *     claimed positions are released.
+     * @param position
+     *     The position to claim.
+     * @return True if the position was claimed. False if another preview block already claimed the same block position
+     * in this frame.
+     */
+    public synchronized boolean claim(int frame, Vector3Dd position)
+    {
+        if (frame < this.frame)
+            return true;
+
+        if (frame > this.frame)
+        {
+            this.frame = frame;
+            positions.clear();
+        }
+
+        return positions.add(Util.getPositionKey(
+            (int) Math.floor(position.x()), (int) Math.floor(position.y()), (int) Math.floor(position.z())));
+    }
+}
@@ -0,0 +1,266 @@
+package nl.pim16aap2.animatedarchitecture.core.data.cache;
+
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Represents a cache with a maximum number of entries.
+ * <p>
+ * The cache uses a W-TinyLFU-style policy: New entries are first added to a small admission window. Entries that are
+ * evicted from the window are only admitted to the main part of the cache when they have been used more frequently
+ * than the entry they would replace there. Within each part, the least-recently used entries are evicted first.
+ * <p>
+ * Entries can be pinned to prevent them from being evicted. When looking for an entry to evict, at most
+ * {@link #MAX_EVICTION_CANDIDATES} entries are checked; any pinned entries among them are moved out of the way, so they
+ * are not checked again for every new entry. When all entries in the admission window are pinned, the cache may
+ * temporarily exceed its maximum size.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @param <K>
+ *     The type of the keys.
+ * @param <V>
+ *     The type of the values.
+ * @author Pim
+ */
+public final class BoundedCache<K, V>
+{
+    /**
+     * The fraction of the maximum size that is used for the admission window.
+     */
+    private static final double WINDOW_FRACTION = 0.01;
+
+    /**
+     * The maximum number of entries that are checked when looking for an entry to evict.
+     * <p>
+     * Any pinned entries that were checked are moved to the most-recently used end of their part of the cache, so the
+     * next search starts with entries that have not been checked yet.
+     */
+    static final int MAX_EVICTION_CANDIDATES = 16;
+
+    /**
+     * The maximum number of entries in this cache, excluding pinned entries that could not be evicted.
+     */
+    @Getter
+    private final int maximumSize;
+
+    private final int windowCapacity;
+
+    private final LinkedHashMap<K, V> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> main = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final FrequencySketch sketch;
+
+    private final Predicate<V> pinned;
+
+    private final BiConsumer<K, V> evictionListener;
+
+    /**
+     * Creates a new {@link BoundedCache}.
+     *
+     * @param maximumSize
+     *     The maximum number of entries in the cache. Must be at least 1.
+     * @param pinned
+     *     Checks if a value is pinned. Pinned values are never evicted.
+     * @param evictionListener
+     *     The listener that is called whenever an entry is evicted because the cache is full. This is not called for
+     *     entries that are removed explicitly.
+     */
+    public BoundedCache(int maximumSize, Predicate<V> pinned, BiConsumer<K, V> evictionListener)
+    {
+        if (maximumSize < 1)
+            throw new IllegalArgumentException("The maximum size of a bounded cache must be at least 1!");
+
+        this.maximumSize = maximumSize;
+        this.windowCapacity = Math.max(1, (int) (maximumSize * WINDOW_FRACTION));
+        this.sketch = new FrequencySketch(maximumSize);
+        this.pinned = pinned;
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * Gets the value associated with a key.
+     *
+     * @param key
+     *     The key of the value to look up.
+     * @return The value associated with the key, or null if this cache does not contain the key.
+     */
+    public synchronized @Nullable V get(K key)
+    {
+        sketch.increment(key);
+        final @Nullable V value = window.get(key);
+        return value == null ? main.get(key) : value;
+    }
+
+    /**
+     * Gets the value associated with a key. If no value exists yet, a new one is created and added to the cache.
+     *
+     * @param key
+     *     The key of the value.
+     * @param mappingFunction
+     *     The function that creates a new value for the key. This is called while holding the lock of this cache.
+     * @return The existing value associated with the key, or the newly created value if none existed.
+     */
+    public synchronized V computeIfAbsent(K key, Function<K, V> mappingFunction)
+    {
+        final @Nullable V existing = get(key);
+        if (existing != null)
+            return existing;
+
+        final V value = Objects.requireNonNull(mappingFunction.apply(key), "Computed value for key: " + key);
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * Adds a new key/value pair to this cache.
+     * <p>
+     * Any existing value for the key is replaced.
+     *
+     * @param key
+     *     The key of the pair.
+     * @param value
+     *     The value of the pair.
+     */
+    public synchronized void put(K key, V value)
+    {
+        sketch.increment(key);
+        if (main.containsKey(key))
+        {
+            main.put(key, value);
+            return;
+        }
+
+        window.put(key, value);
+        if (window.size() > windowCapacity)
+            evictFromWindow();
+    }
+
+    /**
+     * Removes an entry from this cache.
+     *
+     * @param key
+     *     The key of the entry to remove.
+     * @return The value that was removed, or null if this cache did not contain the key.
+     */
+    public synchronized @Nullable V remove(K key)
+    {
+        final @Nullable V value = window.remove(key);
+        return value == null ? main.remove(key) : value;
+    }
+
+    /**
+     * @return The number of entries in this cache.
+     */
+    public synchronized int size()
+    {
+        return window.size() + main.size();
+    }
+
+    /**
+     * Removes all entries from this cache.
+     */
+    public synchronized void clear()
+    {
+        window.clear();
+        main.clear();
+    }
+
+    /**
+     * Gets a copy of all the values in this cache.
+     *
+     * @return A new list containing all the values in this cache.
+     */
+    public synchronized List<V> values()
+    {
+        final List<V> ret = new ArrayList<>(size());
+        ret.addAll(window.values());
+        ret.addAll(main.values());
+        return ret;
+    }
+
+    /**
+     * Moves the least-recently used entry of the window to the main part of the cache if it is admitted.
+     */
+    private void evictFromWindow()
+    {
+        final @Nullable Map.Entry<K, V> candidate = findVictim(window, true);
+        if (candidate == null)
+            return;
+
+        final int mainCapacity = Math.max(1, maximumSize - windowCapacity);
+        if (main.size() < mainCapacity)
+        {
+            main.put(candidate.getKey(), candidate.getValue());
+            return;
+        }
+
+        final @Nullable Map.Entry<K, V> victim = findVictim(main, false);
+        if (victim == null)
+        {
+            // None of the checked entries in the main part can be evicted, so there is no room for the candidate.
+            evictionListener.accept(candidate.getKey(), candidate.getValue());
+            return;
+        }
+
+        if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey()))
+        {
+            main.remove(victim.getKey());
+            main.put(candidate.getKey(), candidate.getValue());
+            evictionListener.accept(victim.getKey(), victim.getValue());
+        }
+        else
+            evictionListener.accept(candidate.getKey(), candidate.getValue());
+    }
+
+    /**
+     * Finds the least-recently used entry in a map that is not pinned.
+     * <p>
+     * At most {@link #MAX_EVICTION_CANDIDATES} entries are checked. The pinned entries among them are moved to the
+     * most-recently used end of the map.
+     *
+     * @param map
+     *     The map to search.
+     * @param remove
+     *     True to remove the entry that was found from the map.
+     * @return The entry that was found, or null if all checked entries are pinned.
+     */
+    private @Nullable Map.Entry<K, V> findVictim(LinkedHashMap<K, V> map, boolean remove)
+    {
+        @Nullable Map.Entry<K, V> victim = null;
+        @Nullable List<K> pinnedKeys = null;
+
+        final Iterator<Map.Entry<K, V>> it = map.entrySet().iterator();
+        for (int checked = 0; checked < MAX_EVICTION_CANDIDATES && it.hasNext(); ++checked)
+        {
+            final Map.Entry<K, V> entry = it.next();
+            if (!pinned.test(entry.getValue()))
+            {
+                victim = Map.entry(entry.getKey(), entry.getValue());
+                if (remove)
+                    it.remove();
+                break;
+            }
+
+            if (pinnedKeys == null)
+                pinnedKeys = new ArrayList<>();
+            pinnedKeys.add(entry.getKey());
+        }
+
+        if (pinnedKeys != null)
+            // Accessing an entry moves it to the most-recently used end of the map.
+            for (final K key : pinnedKeys)
+                map.get(key);
+        return victim;
+    }
+}
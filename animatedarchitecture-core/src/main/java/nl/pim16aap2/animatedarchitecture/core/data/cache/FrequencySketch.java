@@ -0,0 +1,114 @@
+package nl.pim16aap2.animatedarchitecture.core.data.cache;
+
+/**
+ * Represents a probabilistic counter of how often elements have been seen recently.
+ * <p>
+ * This is a Count-Min sketch with 4-bit counters, so the frequency of an element is capped at 15. To make sure the
+ * sketch reflects recent activity, all counters are halved periodically.
+ * <p>
+ * Note that access to this class is not thread-safe and that as such, external synchronization is required if used in a
+ * multithreaded environment.
+ *
+ * @author Pim
+ */
+final class FrequencySketch
+{
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private static final int MAX_FREQUENCY = 15;
+
+    /**
+     * The counters. Every long contains 16 counters of 4 bits each.
+     */
+    private final long[] table;
+    private final int tableMask;
+
+    /**
+     * The number of increments after which all counters are halved.
+     */
+    private final int sampleSize;
+
+    private int additions = 0;
+
+    /**
+     * Creates a new {@link FrequencySketch}.
+     *
+     * @param maximumSize
+     *     The maximum number of elements in the cache that uses this sketch. This is used to determine the size of the
+     *     sketch.
+     */
+    FrequencySketch(int maximumSize)
+    {
+        final int tableSize = Integer.highestOneBit(Math.max(16, maximumSize) - 1) << 1;
+        this.table = new long[tableSize];
+        this.tableMask = tableSize - 1;
+        this.sampleSize = Math.max(10, 10 * maximumSize);
+    }
+
+    private static long hash(Object element, int depth)
+    {
+        long hash = (element.hashCode() + SEEDS[depth]) * SEEDS[depth];
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    /**
+     * Records an occurrence of an element.
+     *
+     * @param element
+     *     The element that was seen.
+     */
+    void increment(Object element)
+    {
+        boolean incremented = false;
+        for (int depth = 0; depth < SEEDS.length; ++depth)
+        {
+            final long hash = hash(element, depth);
+            final int index = (int) (hash >>> 4) & tableMask;
+            final int offset = ((int) hash & 15) << 2;
+
+            if (((table[index] >>> offset) & 15) < MAX_FREQUENCY)
+            {
+                table[index] += 1L << offset;
+                incremented = true;
+            }
+        }
+
+        if (incremented && ++additions >= sampleSize)
+            reset();
+    }
+
+    /**
+     * Gets the estimated number of times an element has been seen recently.
+     *
+     * @param element
+     *     The element to look up.
+     * @return The estimated frequency of the element. This value is between 0 and 15 (inclusive).
+     */
+    int frequency(Object element)
+    {
+        int frequency = MAX_FREQUENCY;
+        for (int depth = 0; depth < SEEDS.length; ++depth)
+        {
+            final long hash = hash(element, depth);
+            final int index = (int) (hash >>> 4) & tableMask;
+            final int offset = ((int) hash & 15) << 2;
+            frequency = Math.min(frequency, (int) ((table[index] >>> offset) & 15));
+        }
+        return frequency;
+    }
+
+    /**
+     * Halves all counters, so that elements that have not been seen for a while age out of the sketch.
+     */
+    private void reset()
+    {
+        for (int idx = 0; idx < table.length; ++idx)
+            table[idx] = (table[idx] >>> 1) & RESET_MASK;
+        additions /= 2;
+    }
+}
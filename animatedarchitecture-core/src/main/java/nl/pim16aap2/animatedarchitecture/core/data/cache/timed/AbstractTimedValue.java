@@ -84,6 +84,19 @@ abstract class AbstractTimedValue<T>
         return (clock.millis() - insertTime) > timeOut;
     }
 
+    /**
+     * Gets the time at which this value times out, measured in milliseconds since the epoch according to the clock.
+     * <p>
+     * Refreshing the value moves this time forward. The result is only meaningful when the {@link #timeOut} is
+     * positive.
+     *
+     * @return The time at which this value times out.
+     */
+    public long getExpiryTime()
+    {
+        return insertTime + timeOut;
+    }
+
     /**
      * Checks if this value can be evicted from the cache.
      *
@@ -26,6 +26,7 @@ package nl.pim16aap2.animatedarchitecture.core.data.cache.timed;
 
 import com.google.common.flogger.StackSize;
 import lombok.Builder;
+import lombok.Getter;
 import lombok.extern.flogger.Flogger;
 import nl.pim16aap2.animatedarchitecture.core.util.Util;
 import org.jetbrains.annotations.Nullable;
@@ -33,12 +34,14 @@ import org.jetbrains.annotations.Nullable;
 import java.lang.ref.SoftReference;
 import java.time.Clock;
 import java.time.Duration;
+import java.util.Comparator;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -47,7 +50,7 @@ import java.util.function.Function;
  * of time.
  * <p>
  * Expired entries cannot be retrieved or used in any way, but they will still show up in the size arguments. If
- * configured, a separate thread may perform regular cleanup.
+ * configured, the cache is cleaned up regularly by a {@link TimedCacheCleaner}.
  *
  * @param <K>
  *     Type of the Key of the map.
@@ -74,7 +77,33 @@ public sealed class TimedCache<K, V>
      */
     private final long timeOut;
 
-    private final Timer taskTimer = new Timer(true);
+    /**
+     * The name of this cache as used in debug reports.
+     */
+    @Getter
+    private final String name;
+
+    /**
+     * The cleaner that schedules the cleanup cycles of this cache.
+     */
+    private final TimedCacheCleaner cleaner;
+
+    /**
+     * The entries of this cache ordered by the time they are expected to expire.
+     * <p>
+     * This allows cleanup cycles to only look at the entries that may have expired instead of scanning the entire
+     * cache. Entries are only ever added to this queue, so it may contain entries that have since been replaced or
+     * removed. Those are skipped during cleanup.
+     * <p>
+     * This is null when this cache is not cleaned up regularly or when its values never time out.
+     */
+    private final @Nullable PriorityBlockingQueue<ExpiryEntry<K, V>> expiryQueue;
+
+    private volatile @Nullable ScheduledFuture<?> cleanupTask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
 
     /**
      * Function that creates the specific type of {@link AbstractTimedValue} that is required according to the
@@ -111,29 +140,51 @@ public sealed class TimedCache<K, V>
      */
     private volatile boolean alive = true;
 
-    TimedCache(Clock clock, long timeOut, boolean softReference, boolean refresh, boolean keepAfterTimeOut)
+    private TimedCache(
+        Clock clock, long timeOut, long cleanupPeriod, boolean softReference, boolean refresh,
+        boolean keepAfterTimeOut, @Nullable String name, @Nullable TimedCacheCleaner cleaner)
     {
         this.clock = clock;
         this.refresh = refresh;
         this.keepAfterTimeOut = keepAfterTimeOut;
         this.timeOut = timeOut;
+        this.name = name == null ? ("TimedCache@" + Integer.toHexString(System.identityHashCode(this))) : name;
+        this.cleaner = cleaner == null ? TimedCacheCleaner.shared() : cleaner;
+        // Values that never time out cannot be ordered by their expiry time, so those caches are scanned in full.
+        this.expiryQueue = (cleanupPeriod > 0 && timeOut > 0) ?
+                           new PriorityBlockingQueue<>(16, Comparator.comparingLong(ExpiryEntry::expiryTime)) :
+                           null;
         timedValueCreator = softReference ? this::createTimedSoftValue : this::createTimedValue;
     }
 
+    TimedCache(Clock clock, long timeOut, boolean softReference, boolean refresh, boolean keepAfterTimeOut)
+    {
+        this(clock, timeOut, 0, softReference, refresh, keepAfterTimeOut, null, null);
+    }
+
     TimedCache(
         Clock clock, Duration duration, @Nullable Duration cleanup, boolean softReference,
-        boolean refresh, boolean keepAfterTimeOut)
+        boolean refresh, boolean keepAfterTimeOut, @Nullable String name, @Nullable TimedCacheCleaner cleaner)
     {
-        this(clock, duration.toMillis(), softReference, refresh, keepAfterTimeOut);
+        this(clock, duration.toMillis(), cleanup == null ? 0 : cleanup.toMillis(), softReference, refresh,
+             keepAfterTimeOut, name, cleaner);
 
         final long cleanupMillis = cleanup == null ? 0 : cleanup.toMillis();
 
         if (timeOut == 0 && (!softReference || cleanupMillis == 0))
             throw new IllegalArgumentException("A duration of zero is only allowed in combination with soft " +
                                                    "reference and a non-zero cleanup duration!");
+        this.cleaner.register(this);
         setupCleanupTask(cleanupMillis);
     }
 
+    TimedCache(
+        Clock clock, Duration duration, @Nullable Duration cleanup, boolean softReference,
+        boolean refresh, boolean keepAfterTimeOut)
+    {
+        this(clock, duration, cleanup, softReference, refresh, keepAfterTimeOut, null, null);
+    }
+
     /**
      * Ensures that this cache is still {@link #alive}.
      *
@@ -177,13 +228,18 @@ public sealed class TimedCache<K, V>
      *     they are removed by the garbage collector.
      *     <p>
      *     When this is true, values in the cache
+     * @param name
+     *     The name of the cache as used in debug reports. When null (default), a name is generated.
+     * @param cleaner
+     *     The {@link TimedCacheCleaner} that schedules the cleanup cycles of this cache. When null (default), the
+     *     shared cleaner is used. See {@link TimedCacheCleaner#shared()}.
      */
     @Builder
     protected TimedCache(
         Duration duration, @Nullable Duration cleanup, boolean softReference, boolean refresh,
-        boolean keepAfterTimeOut)
+        boolean keepAfterTimeOut, @Nullable String name, @Nullable TimedCacheCleaner cleaner)
     {
-        this(DEFAULT_CLOCK, duration, cleanup, softReference, refresh, keepAfterTimeOut);
+        this(DEFAULT_CLOCK, duration, cleanup, softReference, refresh, keepAfterTimeOut, name, cleaner);
     }
 
     /**
@@ -214,7 +270,7 @@ public sealed class TimedCache<K, V>
     public V put(K key, V value)
     {
         validateState();
-        cache.put(key, timedValueCreator.apply(value));
+        cache.put(key, newTimedValue(key, value));
         return value;
     }
 
@@ -234,7 +290,7 @@ public sealed class TimedCache<K, V>
         {
             if (tValue == null || tValue.timedOut())
                 return null;
-            return timedValueCreator.apply(value);
+            return newTimedValue(k, value);
         })).map(entry -> entry.getValue(refresh));
     }
 
@@ -252,7 +308,7 @@ public sealed class TimedCache<K, V>
         cache.compute(key, (k, tValue) ->
         {
             if (tValue == null || tValue.timedOut())
-                return timedValueCreator.apply(value);
+                return newTimedValue(k, value);
 
             returnValue.set(tValue.getValue(refresh));
             return null;
@@ -275,10 +331,12 @@ public sealed class TimedCache<K, V>
             {
                 innerValue = Util.requireNonNull(mappingFunction.apply(k),
                                                  "Computed TimedCache value for key: \"" + key + "\"");
+                misses.increment();
                 returnValue.set(innerValue);
-                return timedValueCreator.apply(innerValue);
+                return newTimedValue(k, innerValue);
             }
 
+            hits.increment();
             returnValue.set(innerValue);
             return tValue;
         });
@@ -303,7 +361,7 @@ public sealed class TimedCache<K, V>
     @SuppressWarnings("NullAway") // NullAway doesn't like nullable in the BiFunction
     private AbstractTimedValue<V> createTimedValue(BiFunction<K, @Nullable V, V> function, K key, @Nullable V val)
     {
-        return timedValueCreator.apply(function.apply(key, val));
+        return newTimedValue(key, function.apply(key, val));
     }
 
     /**
@@ -348,14 +406,20 @@ public sealed class TimedCache<K, V>
         validateState();
         final @Nullable AbstractTimedValue<V> entry = cache.get(key);
         if (entry == null)
+        {
+            misses.increment();
             return Optional.empty();
+        }
 
         final @Nullable var value = entry.getValue(refresh);
         if (value == null)
         {
-            cache.remove(key);
+            misses.increment();
+            if (cache.remove(key, entry))
+                evictions.increment();
             return Optional.empty();
         }
+        hits.increment();
         return Optional.of(value);
     }
 
@@ -409,6 +473,18 @@ public sealed class TimedCache<K, V>
     {
         validateState();
         cache.clear();
+        if (expiryQueue != null)
+            expiryQueue.clear();
+    }
+
+    /**
+     * Gets the statistics of this cache.
+     *
+     * @return The current statistics of this cache.
+     */
+    public Statistics getStatistics()
+    {
+        return new Statistics(hits.sum(), misses.sum(), evictions.sum(), cache.size());
     }
 
     /**
@@ -425,6 +501,25 @@ public sealed class TimedCache<K, V>
         return cache.get(key);
     }
 
+    /**
+     * Creates a new {@link AbstractTimedValue} for a key/value pair using the {@link #timedValueCreator}.
+     * <p>
+     * If applicable, the new timed value is added to the {@link #expiryQueue}.
+     *
+     * @param key
+     *     The key the value will be associated with.
+     * @param val
+     *     The value to wrap in an {@link AbstractTimedValue}.
+     * @return The newly created {@link AbstractTimedValue}.
+     */
+    private AbstractTimedValue<V> newTimedValue(K key, V val)
+    {
+        final AbstractTimedValue<V> timedValue = timedValueCreator.apply(val);
+        if (expiryQueue != null)
+            expiryQueue.add(new ExpiryEntry<>(key, timedValue, timedValue.getExpiryTime()));
+        return timedValue;
+    }
+
     /**
      * Creates a new {@link TimedValue}. This method should not be called directly. Instead, use to
      * {@link #timedValueCreator}.
@@ -454,13 +549,47 @@ public sealed class TimedCache<K, V>
     /**
      * Removes any entries that have expired from the map.
      * <p>
-     * An entry counts as expired if {@link AbstractTimedValue#getValue(boolean)} returns null.
+     * An entry counts as expired if {@link AbstractTimedValue#canBeEvicted()} returns true.
+     * <p>
+     * When the {@link #expiryQueue} is available, only the entries that may have expired are checked. Otherwise, all
+     * entries are checked.
      */
     protected void cleanupCache()
     {
-        for (final Map.Entry<K, AbstractTimedValue<V>> entry : cache.entrySet())
-            if (entry.getValue().canBeEvicted())
-                cache.remove(entry.getKey());
+        if (expiryQueue == null)
+        {
+            for (final Map.Entry<K, AbstractTimedValue<V>> entry : cache.entrySet())
+                if (entry.getValue().canBeEvicted() && cache.remove(entry.getKey(), entry.getValue()))
+                    evictions.increment();
+            return;
+        }
+
+        final long now = clock.millis();
+        @Nullable ExpiryEntry<K, V> entry;
+        while ((entry = expiryQueue.poll()) != null)
+        {
+            if (entry.expiryTime() >= now)
+            {
+                expiryQueue.add(entry);
+                return;
+            }
+
+            // The entry was replaced or removed after it was added to the queue.
+            if (cache.get(entry.key()) != entry.timedValue())
+                continue;
+
+            if (entry.timedValue().canBeEvicted())
+            {
+                if (cache.remove(entry.key(), entry.timedValue()))
+                    evictions.increment();
+            }
+            else
+            {
+                // The value was refreshed or cannot be evicted yet, so check it again once it may have expired.
+                final long expiryTime = Math.max(now, entry.timedValue().getExpiryTime());
+                expiryQueue.add(new ExpiryEntry<>(entry.key(), entry.timedValue(), expiryTime));
+            }
+        }
     }
 
     /**
@@ -476,16 +605,7 @@ public sealed class TimedCache<K, V>
     {
         if (period < 1)
             return;
-
-        final var verifyTask = new TimerTask()
-        {
-            @Override
-            public void run()
-            {
-                cleanupCache();
-            }
-        };
-        taskTimer.scheduleAtFixedRate(verifyTask, period, period);
+        cleanupTask = cleaner.scheduleCleanup(this, period);
     }
 
     /**
@@ -501,7 +621,43 @@ public sealed class TimedCache<K, V>
         this.alive = false;
         log.atFinest().withStackTrace(StackSize.FULL).log("Shutting down TimedCache normally!");
         cache.clear();
-        taskTimer.cancel();
+        if (expiryQueue != null)
+            expiryQueue.clear();
+
+        final @Nullable ScheduledFuture<?> cleanupTask0 = cleanupTask;
+        if (cleanupTask0 != null)
+            cleanupTask0.cancel(false);
+        cleaner.unregister(this);
+    }
+
+    /**
+     * Represents the statistics of a {@link TimedCache}.
+     *
+     * @param hits
+     *     The number of lookups that found a valid value.
+     * @param misses
+     *     The number of lookups that did not find a valid value.
+     * @param evictions
+     *     The number of expired entries that were removed from the cache.
+     * @param size
+     *     The number of entries in the cache, including those that have expired but have not been evicted yet.
+     */
+    public record Statistics(long hits, long misses, long evictions, int size)
+    {
+    }
+
+    /**
+     * Represents an entry in the {@link #expiryQueue}.
+     *
+     * @param key
+     *     The key of the entry.
+     * @param timedValue
+     *     The timed value that was associated with the key when the entry was created.
+     * @param expiryTime
+     *     The time at which the value is expected to expire. See {@link AbstractTimedValue#getExpiryTime()}.
+     */
+    private record ExpiryEntry<K, V>(K key, AbstractTimedValue<V> timedValue, long expiryTime)
+    {
     }
 
     /**
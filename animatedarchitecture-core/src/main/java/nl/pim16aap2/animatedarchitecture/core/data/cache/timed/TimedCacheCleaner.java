@@ -0,0 +1,191 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2020 Pim van der Loos
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package nl.pim16aap2.animatedarchitecture.core.data.cache.timed;
+
+import lombok.extern.flogger.Flogger;
+import nl.pim16aap2.animatedarchitecture.core.api.debugging.IDebuggable;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules the cleanup cycles of {@link TimedCache}s.
+ * <p>
+ * All caches share a single scheduler by default (see {@link #shared()}), so the number of threads used for cleaning up
+ * caches does not grow with the number of caches.
+ * <p>
+ * The cleaner also keeps track of all caches that use it, so their statistics can be included in debug reports.
+ *
+ * @author Pim
+ */
+@Flogger
+public final class TimedCacheCleaner implements IDebuggable
+{
+    private static final TimedCacheCleaner SHARED = new TimedCacheCleaner(createDefaultExecutor());
+
+    private final ScheduledExecutorService executor;
+
+    /**
+     * All caches that are registered with this cleaner. Caches that are no longer referenced anywhere else are removed
+     * automatically.
+     */
+    private final Set<TimedCache<?, ?>> caches = Collections.synchronizedSet(
+        Collections.newSetFromMap(new WeakHashMap<>()));
+
+    /**
+     * Creates a new {@link TimedCacheCleaner}.
+     *
+     * @param executor
+     *     The executor used to run the cleanup cycles of the caches.
+     */
+    public TimedCacheCleaner(ScheduledExecutorService executor)
+    {
+        this.executor = executor;
+    }
+
+    /**
+     * Gets the cleaner that is used by all caches that do not specify their own cleaner.
+     *
+     * @return The shared {@link TimedCacheCleaner}.
+     */
+    public static TimedCacheCleaner shared()
+    {
+        return SHARED;
+    }
+
+    private static ScheduledExecutorService createDefaultExecutor()
+    {
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+            1, runnable ->
+        {
+            final Thread thread = new Thread(runnable, "TimedCache-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * Registers a cache with this cleaner.
+     *
+     * @param cache
+     *     The cache to register.
+     */
+    void register(TimedCache<?, ?> cache)
+    {
+        caches.add(cache);
+    }
+
+    /**
+     * Unregisters a cache from this cleaner.
+     *
+     * @param cache
+     *     The cache to unregister.
+     */
+    void unregister(TimedCache<?, ?> cache)
+    {
+        caches.remove(cache);
+    }
+
+    /**
+     * Schedules the cleanup cycle of a cache.
+     * <p>
+     * The cleaner does not keep the cache from being garbage collected. Once the cache has been reclaimed, its cleanup
+     * cycle is cancelled automatically.
+     *
+     * @param cache
+     *     The cache to clean up.
+     * @param period
+     *     The amount of time (in milliseconds) between each cleanup cycle.
+     * @return The scheduled cleanup cycle. This should be cancelled when the cache is shut down.
+     */
+    ScheduledFuture<?> scheduleCleanup(TimedCache<?, ?> cache, long period)
+    {
+        final CleanupTask task = new CleanupTask(cache);
+        final ScheduledFuture<?> future = executor.scheduleAtFixedRate(task, period, period, TimeUnit.MILLISECONDS);
+        task.future = future;
+        return future;
+    }
+
+    @Override
+    public @Nullable String getDebugInformation()
+    {
+        final List<TimedCache<?, ?>> copy;
+        synchronized (caches)
+        {
+            copy = new ArrayList<>(caches);
+        }
+        if (copy.isEmpty())
+            return null;
+
+        final StringBuilder sb = new StringBuilder("Timed caches:\n");
+        for (final TimedCache<?, ?> cache : copy)
+            sb.append("  ").append(cache.getName()).append(": ").append(cache.getStatistics()).append('\n');
+        return sb.toString();
+    }
+
+    private static final class CleanupTask implements Runnable
+    {
+        private final WeakReference<TimedCache<?, ?>> cacheRef;
+        private volatile @Nullable ScheduledFuture<?> future;
+
+        private CleanupTask(TimedCache<?, ?> cache)
+        {
+            this.cacheRef = new WeakReference<>(cache);
+        }
+
+        @Override
+        public void run()
+        {
+            final @Nullable TimedCache<?, ?> cache = cacheRef.get();
+            if (cache == null)
+            {
+                final @Nullable ScheduledFuture<?> future0 = future;
+                if (future0 != null)
+                    future0.cancel(false);
+                return;
+            }
+
+            try
+            {
+                cache.cleanupCache();
+            }
+            catch (Exception e)
+            {
+                log.atSevere().withCause(e).log("Failed to clean up cache '%s'!", cache.getName());
+            }
+        }
+    }
+}
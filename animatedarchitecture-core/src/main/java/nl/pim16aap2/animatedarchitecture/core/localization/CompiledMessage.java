@@ -0,0 +1,163 @@
+package nl.pim16aap2.animatedarchitecture.core.localization;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Represents a localized message whose pattern has been parsed ahead of time.
+ * <p>
+ * Most messages only contain simple placeholders (e.g. "{0}"). These are split into their literal parts and argument
+ * indices once, so formatting them only requires concatenating the parts and the arguments. Any messages that use
+ * features of {@link MessageFormat} beyond simple placeholders (e.g. format types or quotes) as well as arguments that
+ * {@link MessageFormat} would format in a special way (i.e. numbers and dates) are formatted using a
+ * {@link MessageFormat} that is also only parsed once.
+ * <p>
+ * The result of {@link #format(Object...)} is always the same as that of {@link MessageFormat#format(String,
+ * Object...)}, except when no arguments are provided; in that case the message is returned as-is.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Pim
+ */
+final class CompiledMessage
+{
+    private final String pattern;
+
+    /**
+     * The literal parts of the message. There is always one more literal than there are {@link #argumentIndices}; the
+     * argument at index i should be inserted between the literals at index i and i + 1.
+     * <p>
+     * This is null if the message cannot be formatted without using {@link MessageFormat}.
+     */
+    private final String @Nullable [] literals;
+
+    private final int[] argumentIndices;
+
+    /**
+     * The parsed {@link MessageFormat} for this message. This is only created once it is needed.
+     */
+    private volatile @Nullable MessageFormat messageFormat;
+
+    CompiledMessage(String pattern)
+    {
+        this.pattern = pattern;
+
+        final List<String> literalList = new ArrayList<>();
+        final List<Integer> indexList = new ArrayList<>();
+        if (parse(pattern, literalList, indexList))
+        {
+            this.literals = literalList.toArray(String[]::new);
+            this.argumentIndices = indexList.stream().mapToInt(Integer::intValue).toArray();
+        }
+        else
+        {
+            this.literals = null;
+            this.argumentIndices = new int[0];
+        }
+    }
+
+    /**
+     * Splits a pattern into its literal parts and the indices of its simple placeholders.
+     *
+     * @return True if the pattern only contains simple placeholders, false if it requires {@link MessageFormat}.
+     */
+    private static boolean parse(String pattern, List<String> literals, List<Integer> indices)
+    {
+        final StringBuilder literal = new StringBuilder(pattern.length());
+        int idx = 0;
+        while (idx < pattern.length())
+        {
+            final char ch = pattern.charAt(idx);
+            if (ch == '\'')
+                return false;
+            if (ch != '{')
+            {
+                literal.append(ch);
+                ++idx;
+                continue;
+            }
+
+            final int end = pattern.indexOf('}', idx + 1);
+            if (end == -1 || end == idx + 1)
+                return false;
+
+            int argumentIndex = 0;
+            for (int pos = idx + 1; pos < end; ++pos)
+            {
+                final char digit = pattern.charAt(pos);
+                // Anything but a number (e.g. a format type) is handled by MessageFormat.
+                // Really long numbers are not valid either, so we don't have to worry about overflows.
+                if (digit < '0' || digit > '9' || end - idx > 8)
+                    return false;
+                argumentIndex = argumentIndex * 10 + (digit - '0');
+            }
+
+            literals.add(literal.toString());
+            literal.setLength(0);
+            indices.add(argumentIndex);
+            idx = end + 1;
+        }
+        literals.add(literal.toString());
+        return true;
+    }
+
+    /**
+     * Formats this message with the provided arguments.
+     *
+     * @param args
+     *     The arguments to insert into the message.
+     * @return The formatted message. When no arguments are provided, the message is returned as-is.
+     */
+    String format(Object... args)
+    {
+        if (args.length == 0)
+            return pattern;
+
+        final String @Nullable [] literals0 = literals;
+        if (literals0 == null || requiresMessageFormat(args))
+            return formatWithMessageFormat(args);
+
+        final StringBuilder sb = new StringBuilder(pattern.length() + 16 * argumentIndices.length);
+        for (int idx = 0; idx < argumentIndices.length; ++idx)
+        {
+            sb.append(literals0[idx]);
+            final int argumentIndex = argumentIndices[idx];
+            if (argumentIndex >= args.length)
+                // Just like MessageFormat, keep the placeholder when there is no argument for it.
+                sb.append('{').append(argumentIndex).append('}');
+            else
+                sb.append(args[argumentIndex]);
+        }
+        return sb.append(literals0[literals0.length - 1]).toString();
+    }
+
+    /**
+     * Checks if any of the arguments used in this message would be formatted differently by {@link MessageFormat}.
+     */
+    private boolean requiresMessageFormat(Object... args)
+    {
+        for (final int argumentIndex : argumentIndices)
+        {
+            if (argumentIndex >= args.length)
+                continue;
+            final @Nullable Object arg = args[argumentIndex];
+            if (arg instanceof Number || arg instanceof Date)
+                return true;
+        }
+        return false;
+    }
+
+    private String formatWithMessageFormat(Object... args)
+    {
+        @Nullable MessageFormat messageFormat0 = messageFormat;
+        if (messageFormat0 == null)
+            messageFormat = messageFormat0 = new MessageFormat(pattern);
+        // MessageFormat is not thread-safe, so every call uses its own copy. Copying it is much cheaper than
+        // parsing the pattern again.
+        return ((MessageFormat) messageFormat0.clone()).format(args);
+    }
+}
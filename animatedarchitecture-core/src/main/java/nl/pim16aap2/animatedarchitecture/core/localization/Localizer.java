@@ -10,15 +10,20 @@ import java.io.InputStream;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.Path;
-import java.text.MessageFormat;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents a class that can be used to localize Strings.
+ * <p>
+ * The messages are cached per locale as {@link CompiledMessage}s, so the bundle only has to be looked up and the
+ * message only has to be parsed the first time it is requested. The cache is cleared whenever this localizer is
+ * (re-)initialized or shut down.
  *
  * @author Pim
  */
@@ -37,9 +42,17 @@ final class Localizer implements ILocalizer
      */
     @Setter
     private Locale defaultLocale;
-    private @Nullable URLClassLoader classLoader = null;
     private List<Locale> localeList;
 
+    /**
+     * The class loader of the bundle together with the messages that were loaded from it.
+     * <p>
+     * Both are replaced at once whenever this localizer is (re-)initialized or shut down. A lookup only ever uses the
+     * class loader and the cache of a single bundle, so it cannot add messages from an outdated bundle to the cache of
+     * the current one.
+     */
+    private volatile Bundle bundle = Bundle.EMPTY;
+
     /**
      * @param directory
      *     The directory the translation file(s) exist in.
@@ -93,6 +106,8 @@ final class Localizer implements ILocalizer
     @Override
     public String getMessage(String key, Locale locale, Object... args)
     {
+        final Bundle bundle0 = bundle;
+        final @Nullable URLClassLoader classLoader = bundle0.classLoader();
         if (classLoader == null)
         {
             log.atWarning().log("Failed to find localization key '%s'! Reason: ClassLoader is null!", key);
@@ -101,8 +116,7 @@ final class Localizer implements ILocalizer
 
         try
         {
-            final String msg = ResourceBundle.getBundle(baseName, locale, classLoader).getString(key);
-            return args.length == 0 ? msg : MessageFormat.format(msg, args);
+            return getCompiledMessage(classLoader, bundle0.messageCache(), key, locale).format(args);
         }
         catch (MissingResourceException e)
         {
@@ -111,6 +125,28 @@ final class Localizer implements ILocalizer
         }
     }
 
+    /**
+     * Gets the compiled message for a key from the cache, or loads it from the bundle if it has not been cached yet.
+     *
+     * @throws MissingResourceException
+     *     When the key does not exist in the bundle.
+     */
+    private CompiledMessage getCompiledMessage(
+        URLClassLoader classLoader, Map<Locale, Map<String, CompiledMessage>> messageCache, String key, Locale locale)
+    {
+        final Map<String, CompiledMessage> messages =
+            messageCache.computeIfAbsent(locale, ignored -> new ConcurrentHashMap<>());
+
+        final @Nullable CompiledMessage cached = messages.get(key);
+        if (cached != null)
+            return cached;
+
+        final String msg = ResourceBundle.getBundle(baseName, locale, classLoader).getString(key);
+        final CompiledMessage compiled = new CompiledMessage(msg);
+        final @Nullable CompiledMessage existing = messages.putIfAbsent(key, compiled);
+        return existing == null ? compiled : existing;
+    }
+
     @Override
     public String getMessage(String key, Object... args)
     {
@@ -134,7 +170,7 @@ final class Localizer implements ILocalizer
     @Initializer
     synchronized void init()
     {
-        if (classLoader != null)
+        if (bundle.classLoader() != null)
             throw new IllegalStateException("ClassLoader is already initialized!");
 
         LocalizationUtil.ensureDirectoryExists(directory);
@@ -143,13 +179,13 @@ final class Localizer implements ILocalizer
         LocalizationUtil.ensureZipFileExists(bundlePath);
         try
         {
-            classLoader = getNewURLClassLoader(bundlePath, baseName);
             localeList = LocalizationUtil.getLocalesInZip(bundlePath, baseName);
+            bundle = new Bundle(getNewURLClassLoader(bundlePath, baseName), new ConcurrentHashMap<>());
         }
         catch (Exception e)
         {
             log.atSevere().withCause(e).log("Failed to initialize localizer!");
-            classLoader = null;
+            bundle = Bundle.EMPTY;
             localeList = Collections.emptyList();
         }
     }
@@ -172,23 +208,24 @@ final class Localizer implements ILocalizer
     }
 
     /**
-     * Shuts down this localizer by closing the {@link #classLoader}.
+     * Shuts down this localizer by closing the class loader of the {@link #bundle}.
      * <p>
      * After calling this method, all requests for localized messages will fail until {@link #init()} is called.
      */
     synchronized void shutdown()
     {
-        if (classLoader != null)
+        final @Nullable URLClassLoader classLoader = bundle.classLoader();
+        bundle = Bundle.EMPTY;
+        if (classLoader == null)
+            return;
+
+        try
         {
-            try
-            {
-                classLoader.close();
-                classLoader = null;
-            }
-            catch (IOException e)
-            {
-                log.atSevere().withCause(e).log("Failed to close class loader! Localizations cannot be reloaded!");
-            }
+            classLoader.close();
+        }
+        catch (IOException e)
+        {
+            log.atSevere().withCause(e).log("Failed to close class loader!");
         }
     }
 
@@ -202,4 +239,21 @@ final class Localizer implements ILocalizer
         shutdown();
         init();
     }
+
+    /**
+     * The class loader of a localization bundle and the messages that were loaded from it.
+     *
+     * @param classLoader
+     *     The class loader used to load the bundle. This is null when there is no bundle.
+     * @param messageCache
+     *     The cached messages per locale.
+     */
+    private record Bundle(
+        @Nullable URLClassLoader classLoader, Map<Locale, Map<String, CompiledMessage>> messageCache)
+    {
+        /**
+         * The bundle used while this localizer is not initialized.
+         */
+        private static final Bundle EMPTY = new Bundle(null, Map.of());
+    }
 }
@@ -4,11 +4,15 @@ import com.google.common.flogger.StackSize;
 import dagger.Lazy;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.LongCollection;
 import it.unimi.dsi.fastutil.longs.LongList;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import lombok.extern.flogger.Flogger;
+import nl.pim16aap2.animatedarchitecture.core.api.IConfig;
 import nl.pim16aap2.animatedarchitecture.core.api.IPlayer;
 import nl.pim16aap2.animatedarchitecture.core.api.PlayerData;
 import nl.pim16aap2.animatedarchitecture.core.api.debugging.DebuggableRegistry;
@@ -28,21 +32,22 @@ import nl.pim16aap2.animatedarchitecture.core.structures.StructureModifier;
 import nl.pim16aap2.animatedarchitecture.core.structures.StructureOwner;
 import nl.pim16aap2.animatedarchitecture.core.structures.StructureSnapshot;
 import nl.pim16aap2.animatedarchitecture.core.structures.StructureType;
+import nl.pim16aap2.animatedarchitecture.core.util.BoundedExecutor;
 import nl.pim16aap2.animatedarchitecture.core.util.Util;
-import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Di;
 import org.jetbrains.annotations.Nullable;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Manages all database interactions.
@@ -55,14 +60,23 @@ public final class DatabaseManager extends Restartable implements IDebuggable
 {
     /**
      * The thread pool to use for storage access.
+     * <p>
+     * This limits the number of tasks that access the storage at the same time. See
+     * {@link IConfig#maxConcurrentDatabaseTasks()}.
      */
-    private volatile ExecutorService threadPool;
+    private volatile BoundedExecutor threadPool;
 
     /**
-     * The number of threads to use for storage access.
+     * The default number of tasks that can access the storage at the same time.
      */
     private static final int THREAD_COUNT = 16;
 
+    /**
+     * The amount of time to wait after a structure is synchronized before the data is written to the database. Any
+     * other requests received in the meantime are written in the same transaction.
+     */
+    private static final Duration SYNC_FLUSH_DELAY = Duration.ofMillis(100);
+
     private final IStorage db;
 
     private final StructureDeletionManager structureDeletionManager;
@@ -70,6 +84,8 @@ public final class DatabaseManager extends Restartable implements IDebuggable
     private final Lazy<PowerBlockManager> powerBlockManager;
     private final IAnimatedArchitectureEventFactory animatedArchitectureEventFactory;
     private final StructureModifier structureModifier;
+    private final StructureSyncQueue structureSyncQueue;
+    private final IConfig config;
 
     /**
      * Constructs a new {@link DatabaseManager}.
@@ -83,15 +99,18 @@ public final class DatabaseManager extends Restartable implements IDebuggable
     public DatabaseManager(
         RestartableHolder restartableHolder, IStorage storage, StructureDeletionManager structureDeletionManager,
         Lazy<PowerBlockManager> powerBlockManager, IAnimatedArchitectureEventFactory animatedArchitectureEventFactory,
-        IAnimatedArchitectureEventCaller animatedArchitectureEventCaller, DebuggableRegistry debuggableRegistry)
+        IAnimatedArchitectureEventCaller animatedArchitectureEventCaller, DebuggableRegistry debuggableRegistry,
+        IConfig config)
     {
         super(restartableHolder);
         db = storage;
+        this.config = config;
         this.structureDeletionManager = structureDeletionManager;
         this.animatedArchitectureEventCaller = animatedArchitectureEventCaller;
         this.powerBlockManager = powerBlockManager;
         this.animatedArchitectureEventFactory = animatedArchitectureEventFactory;
         this.structureModifier = StructureModifier.get(new FriendKey());
+        this.structureSyncQueue = new StructureSyncQueue(db, () -> threadPool, SYNC_FLUSH_DELAY);
         initThreadPool();
         debuggableRegistry.registerDebuggable(this);
     }
@@ -115,12 +134,16 @@ public final class DatabaseManager extends Restartable implements IDebuggable
     @Override
     public void shutDown()
     {
+        structureSyncQueue.flush();
         threadPool.shutdownNow();
     }
 
     private void initThreadPool()
     {
-        this.threadPool = Executors.newFixedThreadPool(THREAD_COUNT);
+        final int maxConcurrency =
+            config.maxConcurrentDatabaseTasks() < 1 ? THREAD_COUNT : config.maxConcurrentDatabaseTasks();
+        this.threadPool =
+            new BoundedExecutor(config.threadingMode().newExecutorService(maxConcurrency), maxConcurrency);
     }
 
     /**
@@ -160,11 +183,7 @@ public final class DatabaseManager extends Restartable implements IDebuggable
                 result.ifPresentOrElse(
                     newStructure ->
                     {
-                        powerBlockManager.get().onStructureAddOrRemove(
-                            newStructure.getWorld().worldName(),
-                            new Vector3Di(newStructure.getPowerBlock().x(),
-                                          newStructure.getPowerBlock().y(),
-                                          newStructure.getPowerBlock().z()));
+                        powerBlockManager.get().onStructureAddition(newStructure);
                         newStructure.verifyRedstoneState();
                     },
                     () -> log.atSevere().withStackTrace(StackSize.FULL).log("Failed to process event: %s", event));
@@ -261,8 +280,30 @@ public final class DatabaseManager extends Restartable implements IDebuggable
     public CompletableFuture<List<AbstractStructure>> getStructuresInChunk(int chunkX, int chunkZ)
     {
         final long chunkId = Util.getChunkId(chunkX, chunkZ);
-        return CompletableFuture.supplyAsync(() -> db.getStructuresInChunk(chunkId), threadPool)
-                                .exceptionally(ex -> Util.exceptionally(ex, Collections.emptyList()));
+        return CompletableFuture
+            .supplyAsync(() -> queryStructures(
+                snapshot -> Util.getChunkId(snapshot.getRotationPoint()) == chunkId,
+                () -> db.getStructuresInChunk(chunkId)), threadPool)
+            .exceptionally(ex -> Util.exceptionally(ex, Collections.emptyList()));
+    }
+
+    /**
+     * Gets the UIDs of all structures in a world that have their rotation point or their power block in any of the
+     * given chunks.
+     *
+     * @param worldName
+     *     The name of the world the structures are in.
+     * @param chunkIds
+     *     The ids of the chunks to look in. See {@link Util#getChunkId(int, int)}.
+     * @return The UIDs of all structures that have their rotation point or their power block in any of the chunks.
+     */
+    public CompletableFuture<LongList> getStructureUIDsInChunks(String worldName, LongCollection chunkIds)
+    {
+        if (chunkIds.isEmpty())
+            return CompletableFuture.completedFuture(LongList.of());
+
+        return CompletableFuture.supplyAsync(() -> db.getStructureUIDsInChunks(worldName, chunkIds), threadPool)
+                                .exceptionally(ex -> Util.exceptionally(ex, LongList.of()));
     }
 
     /**
@@ -308,14 +349,14 @@ public final class DatabaseManager extends Restartable implements IDebuggable
         // Check if the name is actually the UID of the structure.
         final OptionalLong structureUID = Util.parseLong(structureID);
         if (structureUID.isPresent())
-            return CompletableFuture
-                .supplyAsync(() -> db.getStructure(playerUUID, structureUID.getAsLong())
-                                     .map(Collections::singletonList)
-                                     .orElse(Collections.emptyList()), threadPool)
-                .exceptionally(ex -> Util.exceptionally(ex, Collections.emptyList()));
+            return getStructure(playerUUID, structureUID.getAsLong())
+                .thenApply(structure -> structure.map(Collections::singletonList).orElse(Collections.emptyList()));
 
-        return CompletableFuture.supplyAsync(() -> db.getStructures(playerUUID, structureID), threadPool)
-                                .exceptionally(ex -> Util.exceptionally(ex, Collections.emptyList()));
+        return CompletableFuture
+            .supplyAsync(() -> queryStructures(
+                snapshot -> snapshot.getName().equals(structureID),
+                () -> db.getStructures(playerUUID, structureID)), threadPool)
+            .exceptionally(ex -> Util.exceptionally(ex, Collections.emptyList()));
     }
 
     /**
@@ -361,8 +402,11 @@ public final class DatabaseManager extends Restartable implements IDebuggable
     public CompletableFuture<List<AbstractStructure>> getStructures(
         UUID playerUUID, String name, PermissionLevel maxPermission)
     {
-        return CompletableFuture.supplyAsync(() -> db.getStructures(playerUUID, name, maxPermission), threadPool)
-                                .exceptionally(ex -> Util.exceptionally(ex, Collections.emptyList()));
+        return CompletableFuture
+            .supplyAsync(() -> queryStructures(
+                snapshot -> snapshot.getName().equals(name),
+                () -> db.getStructures(playerUUID, name, maxPermission)), threadPool)
+            .exceptionally(ex -> Util.exceptionally(ex, Collections.emptyList()));
     }
 
     /**
@@ -374,8 +418,11 @@ public final class DatabaseManager extends Restartable implements IDebuggable
      */
     public CompletableFuture<List<AbstractStructure>> getStructures(String name)
     {
-        return CompletableFuture.supplyAsync(() -> db.getStructures(name), threadPool)
-                                .exceptionally(ex -> Util.exceptionally(ex, Collections.emptyList()));
+        return CompletableFuture
+            .supplyAsync(() -> queryStructures(
+                snapshot -> snapshot.getName().equals(name),
+                () -> db.getStructures(name)), threadPool)
+            .exceptionally(ex -> Util.exceptionally(ex, Collections.emptyList()));
     }
 
     /**
@@ -431,8 +478,31 @@ public final class DatabaseManager extends Restartable implements IDebuggable
      */
     public CompletableFuture<Optional<AbstractStructure>> getStructure(long structureUID)
     {
-        return CompletableFuture.supplyAsync(() -> db.getStructure(structureUID), threadPool)
-                                .exceptionally(Util::exceptionallyOptional);
+        return CompletableFuture
+            .supplyAsync(() -> queryStructure(structureUID, () -> db.getStructure(structureUID)), threadPool)
+            .exceptionally(Util::exceptionallyOptional);
+    }
+
+    /**
+     * Gets all {@link AbstractStructure}s with the given UIDs.
+     * <p>
+     * Unlike calling {@link #getStructure(long)} for every UID, this retrieves all structures that are not loaded yet
+     * using a fixed number of queries.
+     *
+     * @param structureUIDs
+     *     The UIDs of the {@link AbstractStructure}s.
+     * @return All {@link AbstractStructure}s with the given UIDs that exist.
+     */
+    public CompletableFuture<List<AbstractStructure>> getStructures(LongCollection structureUIDs)
+    {
+        if (structureUIDs.isEmpty())
+            return CompletableFuture.completedFuture(Collections.emptyList());
+
+        return CompletableFuture
+            .supplyAsync(() -> queryStructures(
+                snapshot -> structureUIDs.contains(snapshot.getUid()),
+                () -> db.getStructures(structureUIDs)), threadPool)
+            .exceptionally(ex -> Util.exceptionally(ex, Collections.emptyList()));
     }
 
     /**
@@ -462,8 +532,9 @@ public final class DatabaseManager extends Restartable implements IDebuggable
      */
     public CompletableFuture<Optional<AbstractStructure>> getStructure(UUID uuid, long structureUID)
     {
-        return CompletableFuture.supplyAsync(() -> db.getStructure(uuid, structureUID), threadPool)
-                                .exceptionally(Util::exceptionallyOptional);
+        return CompletableFuture
+            .supplyAsync(() -> queryStructure(structureUID, () -> db.getStructure(uuid, structureUID)), threadPool)
+            .exceptionally(Util::exceptionallyOptional);
     }
 
     /**
@@ -702,20 +773,22 @@ public final class DatabaseManager extends Restartable implements IDebuggable
     /**
      * Updates the all data of an {@link AbstractStructure}. This includes both the base data and the type-specific
      * data.
+     * <p>
+     * The data is not written right away. Instead, it is written together with any other structures that are
+     * synchronized within a short interval. When the same structure is synchronized multiple times within this
+     * interval, only the latest data is written.
      *
      * @param snapshot
      *     The {@link AbstractStructure} that describes the base data of structure.
      * @param typeData
      *     The type-specific data of this structure represented as a json String.
-     * @return The result of the operation.
+     * @return The result of the operation. This is completed once the data has been committed to the database.
      */
     public CompletableFuture<DatabaseManager.ActionResult> syncStructureData(
         StructureSnapshot snapshot, String typeData)
     {
-        return CompletableFuture
-            .supplyAsync(() -> db.syncStructureData(snapshot, typeData) ? ActionResult.SUCCESS : ActionResult.FAIL,
-                         threadPool)
-            .exceptionally(ex -> Util.exceptionally(ex, ActionResult.FAIL));
+        return structureSyncQueue.enqueue(snapshot, typeData)
+                                 .exceptionally(ex -> Util.exceptionally(ex, ActionResult.FAIL));
     }
 
     /**
@@ -755,6 +828,9 @@ public final class DatabaseManager extends Restartable implements IDebuggable
      * <p>
      * The key is the hashed location in chunk space, the value is the list of UIDs of the structures whose powerblocks
      * occupies that location.
+     * <p>
+     * The result includes all power block positions that were updated before this method was called, even if they
+     * have not been written to the database yet.
      *
      * @param chunkId
      *     The id of the chunk the structures are in.
@@ -762,14 +838,70 @@ public final class DatabaseManager extends Restartable implements IDebuggable
      */
     CompletableFuture<Int2ObjectMap<LongList>> getPowerBlockData(long chunkId)
     {
-        return CompletableFuture.supplyAsync(() -> db.getPowerBlockData(chunkId), threadPool)
-                                .exceptionally(ex -> Util.exceptionally(ex, Int2ObjectMaps.emptyMap()));
+        return CompletableFuture
+            .supplyAsync(() -> structureSyncQueue.query(
+                snapshot -> snapshot.getChunkId() == chunkId,
+                () -> db.getPowerBlockData(chunkId),
+                result -> result.values().stream().flatMapToLong(LongList::longStream)), threadPool)
+            .exceptionally(ex -> Util.exceptionally(ex, Int2ObjectMaps.emptyMap()));
+    }
+
+    /**
+     * Gets a map of positions and their connected powerblocks for all structures in a world.
+     * <p>
+     * The key is the packed position of the powerblock (see {@link Util#getPositionKey(int, int, int)}), the value is
+     * the list of UIDs of the structures whose powerblocks occupy that position.
+     * <p>
+     * The result includes all power block positions that were updated before this method was called, even if they
+     * have not been written to the database yet.
+     *
+     * @param worldName
+     *     The name of the world the structures are in.
+     * @return A map of positions and their connected powerblocks for all structures in a world.
+     */
+    CompletableFuture<Long2ObjectMap<LongList>> getPowerBlockData(String worldName)
+    {
+        return CompletableFuture
+            .supplyAsync(() -> structureSyncQueue.query(
+                snapshot -> snapshot.getWorld().worldName().equals(worldName),
+                () -> db.getPowerBlockData(worldName),
+                result -> result.values().stream().flatMapToLong(LongList::longStream)), threadPool)
+            .exceptionally(ex -> Util.exceptionally(ex, Long2ObjectMaps.emptyMap()));
+    }
+
+    /**
+     * Retrieves structures from the database without returning data that is outdated by structure synchronizations
+     * that have not been written to the database yet. See {@link StructureSyncQueue#query(Predicate, Supplier,
+     * Function)}.
+     *
+     * @param matchesQuery
+     *     Checks if the new data of a structure would be returned by the query.
+     * @param query
+     *     The query to run.
+     * @return The structures returned by the query.
+     */
+    private List<AbstractStructure> queryStructures(
+        Predicate<StructureSnapshot> matchesQuery, Supplier<List<AbstractStructure>> query)
+    {
+        return structureSyncQueue.query(
+            matchesQuery, query, result -> result.stream().mapToLong(AbstractStructure::getUid));
+    }
+
+    /**
+     * Retrieves a structure with a specific UID from the database. See {@link #queryStructures(Predicate, Supplier)}.
+     */
+    private Optional<AbstractStructure> queryStructure(long structureUID, Supplier<Optional<AbstractStructure>> query)
+    {
+        return structureSyncQueue.query(
+            snapshot -> snapshot.getUid() == structureUID, query,
+            result -> result.stream().mapToLong(AbstractStructure::getUid));
     }
 
     @Override
     public String getDebugInformation()
     {
-        return "Database status: " + threadPool;
+        return "Database status: " + threadPool.getDebugInformation() + "\n" +
+            structureSyncQueue.getDebugInformation();
     }
 
     /**
@@ -0,0 +1,284 @@
+package nl.pim16aap2.animatedarchitecture.core.managers;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongList;
+import nl.pim16aap2.animatedarchitecture.core.util.Util;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Spatial index of all power blocks in a single world.
+ * <p>
+ * The index maps the packed position of every power block (see {@link Util#getPositionKey(int, int, int)}) to the UIDs
+ * of the structures whose power block occupies that position. Looking up a position does not allocate any objects.
+ * <p>
+ * The arrays stored in the index are never modified after they have been inserted, so they can be safely shared with
+ * callers.
+ *
+ * @author Pim
+ */
+final class PowerBlockIndex
+{
+    private static final long[] EMPTY = new long[0];
+
+    private final Long2ObjectMap<long[]> powerBlocks = new Long2ObjectOpenHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The number of modifications that were made to this index. This is used to detect modifications made while the
+     * contents of the index were being retrieved from the database.
+     */
+    private long modCount = 0;
+
+    /**
+     * Whether the contents of the index have been loaded. As long as this is false, the index cannot be used to
+     * determine whether a position contains a power block.
+     */
+    private volatile boolean loaded = false;
+
+    /**
+     * @return True if the contents of this index have been loaded.
+     */
+    boolean isLoaded()
+    {
+        return loaded;
+    }
+
+    /**
+     * Gets the UIDs of all structures whose power block is at the given position.
+     *
+     * @param x
+     *     The x-coordinate of the position.
+     * @param y
+     *     The y-coordinate of the position.
+     * @param z
+     *     The z-coordinate of the position.
+     * @return The UIDs of all structures whose power block is at the given position. This array must not be modified.
+     */
+    long[] get(int x, int y, int z)
+    {
+        return get(Util.getPositionKey(x, y, z));
+    }
+
+    /**
+     * Gets the UIDs of all structures whose power block is at the given position.
+     *
+     * @param key
+     *     The packed position. See {@link Util#getPositionKey(int, int, int)}.
+     * @return The UIDs of all structures whose power block is at the given position. This array must not be modified.
+     */
+    long[] get(long key)
+    {
+        lock.readLock().lock();
+        try
+        {
+            final long @Nullable [] uids = powerBlocks.get(key);
+            return uids == null ? EMPTY : uids;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks if there are any power blocks at the given position.
+     *
+     * @param x
+     *     The x-coordinate of the position.
+     * @param y
+     *     The y-coordinate of the position.
+     * @param z
+     *     The z-coordinate of the position.
+     * @return True if there is at least 1 power block at the given position.
+     */
+    boolean contains(int x, int y, int z)
+    {
+        final long key = Util.getPositionKey(x, y, z);
+        lock.readLock().lock();
+        try
+        {
+            return powerBlocks.containsKey(key);
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return True if this index does not contain any power blocks.
+     */
+    boolean isEmpty()
+    {
+        lock.readLock().lock();
+        try
+        {
+            return powerBlocks.isEmpty();
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of positions that contain at least 1 power block.
+     */
+    int size()
+    {
+        lock.readLock().lock();
+        try
+        {
+            return powerBlocks.size();
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of modifications that were made to this index.
+     */
+    long getModCount()
+    {
+        lock.readLock().lock();
+        try
+        {
+            return modCount;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the power block of a structure to the index.
+     *
+     * @param uid
+     *     The UID of the structure.
+     * @param x
+     *     The x-coordinate of the power block.
+     * @param y
+     *     The y-coordinate of the power block.
+     * @param z
+     *     The z-coordinate of the power block.
+     */
+    void add(long uid, int x, int y, int z)
+    {
+        final long key = Util.getPositionKey(x, y, z);
+        lock.writeLock().lock();
+        try
+        {
+            ++modCount;
+            final long @Nullable [] current = powerBlocks.get(key);
+            if (current == null)
+            {
+                powerBlocks.put(key, new long[]{uid});
+                return;
+            }
+            for (final long entry : current)
+                if (entry == uid)
+                    return;
+            final long[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = uid;
+            powerBlocks.put(key, updated);
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the power block of a structure from the index.
+     *
+     * @param uid
+     *     The UID of the structure.
+     * @param x
+     *     The x-coordinate of the power block.
+     * @param y
+     *     The y-coordinate of the power block.
+     * @param z
+     *     The z-coordinate of the power block.
+     */
+    void remove(long uid, int x, int y, int z)
+    {
+        final long key = Util.getPositionKey(x, y, z);
+        lock.writeLock().lock();
+        try
+        {
+            ++modCount;
+            final long @Nullable [] current = powerBlocks.get(key);
+            if (current == null)
+                return;
+
+            final long[] updated = Arrays.stream(current).filter(entry -> entry != uid).toArray();
+            if (updated.length == 0)
+                powerBlocks.remove(key);
+            else if (updated.length != current.length)
+                powerBlocks.put(key, updated);
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the contents of this index.
+     * <p>
+     * The new contents are only applied if the index was not modified since {@link #getModCount()} returned the
+     * expected modification count. This prevents modifications made while the data was being retrieved from being
+     * overwritten by outdated data.
+     *
+     * @param data
+     *     The new contents of the index. See {@link DatabaseManager#getPowerBlockData(String)}.
+     * @param expectedModCount
+     *     The modification count of the index at the time the data was requested.
+     * @return True if the contents were replaced, false if the index was modified in the meantime.
+     */
+    boolean load(Long2ObjectMap<LongList> data, long expectedModCount)
+    {
+        lock.writeLock().lock();
+        try
+        {
+            if (modCount != expectedModCount)
+                return false;
+
+            powerBlocks.clear();
+            for (final Long2ObjectMap.Entry<LongList> entry : data.long2ObjectEntrySet())
+                if (!entry.getValue().isEmpty())
+                    powerBlocks.put(entry.getLongKey(), entry.getValue().toLongArray());
+            loaded = true;
+            return true;
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all power blocks from this index and marks it as not loaded.
+     */
+    void clear()
+    {
+        lock.writeLock().lock();
+        try
+        {
+            ++modCount;
+            powerBlocks.clear();
+            loaded = false;
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+}
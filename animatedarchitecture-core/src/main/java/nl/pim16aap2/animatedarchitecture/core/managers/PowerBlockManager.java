@@ -1,7 +1,10 @@
 package nl.pim16aap2.animatedarchitecture.core.managers;
 
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongCollection;
 import it.unimi.dsi.fastutil.longs.LongImmutableList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
 import it.unimi.dsi.fastutil.longs.LongList;
 import it.unimi.dsi.fastutil.longs.LongLists;
 import lombok.Getter;
@@ -17,14 +20,16 @@ import nl.pim16aap2.animatedarchitecture.core.structures.IStructureConst;
 import nl.pim16aap2.animatedarchitecture.core.util.Util;
 import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector2Di;
 import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Di;
+import org.jetbrains.annotations.Nullable;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -72,7 +77,9 @@ public final class PowerBlockManager extends Restartable implements StructureDel
      */
     public void unloadWorld(String worldName)
     {
-        powerBlockWorlds.remove(worldName);
+        final @Nullable PowerBlockWorld powerBlockWorld = powerBlockWorlds.remove(worldName);
+        if (powerBlockWorld != null)
+            powerBlockWorld.clear();
     }
 
     /**
@@ -83,7 +90,9 @@ public final class PowerBlockManager extends Restartable implements StructureDel
      */
     public void loadWorld(String worldName)
     {
-        powerBlockWorlds.put(worldName, new PowerBlockWorld(worldName));
+        final @Nullable PowerBlockWorld previous = powerBlockWorlds.put(worldName, new PowerBlockWorld(worldName));
+        if (previous != null)
+            previous.clear();
     }
 
     /**
@@ -129,9 +138,85 @@ public final class PowerBlockManager extends Restartable implements StructureDel
             log.atWarning().log("Failed to load power blocks for world: '%s'.", worldName);
             return CompletableFuture.completedFuture(Collections.emptyList());
         }
+
+        if (powerBlockWorld.index.isLoaded())
+        {
+            final long[] uids = powerBlockWorld.index.get(loc.x(), loc.y(), loc.z());
+            if (uids.length == 0)
+                return CompletableFuture.completedFuture(Collections.emptyList());
+            return mapUidsToStructures(CompletableFuture.completedFuture(LongList.of(uids)));
+        }
         return mapUidsToStructures(powerBlockWorld.getPowerBlocksAtLocation(loc));
     }
 
+    /**
+     * Gets all {@link AbstractStructure}s that have a powerblock at any of the provided positions in a world.
+     * <p>
+     * All structures are retrieved from the database in a single request.
+     *
+     * @param worldName
+     *     The name of the world.
+     * @param positionKeys
+     *     The packed positions to check. See {@link Util#getPositionKey(int, int, int)}.
+     * @return All {@link AbstractStructure}s that have a powerblock at any of the provided positions.
+     */
+    public CompletableFuture<List<AbstractStructure>> structuresFromPowerBlockLocs(
+        String worldName, LongCollection positionKeys)
+    {
+        final PowerBlockWorld powerBlockWorld = powerBlockWorlds.get(worldName);
+        if (powerBlockWorld == null)
+        {
+            log.atWarning().log("Failed to load power blocks for world: '%s'.", worldName);
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        if (!powerBlockWorld.index.isLoaded())
+        {
+            final List<CompletableFuture<? extends Collection<AbstractStructure>>> futures =
+                new ArrayList<>(positionKeys.size());
+            for (final LongIterator it = positionKeys.iterator(); it.hasNext(); )
+                futures.add(mapUidsToStructures(
+                    powerBlockWorld.getPowerBlocksAtLocation(Util.getPositionFromKey(it.nextLong()))));
+            return Util.getAllCompletableFutureResultsFlatMap(futures);
+        }
+
+        final LongList uids = new LongArrayList();
+        for (final LongIterator it = positionKeys.iterator(); it.hasNext(); )
+        {
+            final long[] entries = powerBlockWorld.index.get(it.nextLong());
+            uids.addElements(uids.size(), entries);
+        }
+        if (uids.isEmpty())
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        return mapUidsToStructures(CompletableFuture.completedFuture(uids));
+    }
+
+    /**
+     * Checks if there may be a power block at a position in a world.
+     * <p>
+     * Once the power blocks of a world have been loaded, this method does not access the database and does not
+     * allocate any objects. Until then, this method assumes that every position may contain a power block.
+     *
+     * @param worldName
+     *     The name of the world.
+     * @param x
+     *     The x-coordinate of the position.
+     * @param y
+     *     The y-coordinate of the position.
+     * @param z
+     *     The z-coordinate of the position.
+     * @return True if there may be a power block at the given position.
+     */
+    public boolean isPowerBlockLocation(String worldName, int x, int y, int z)
+    {
+        final PowerBlockWorld powerBlockWorld = powerBlockWorlds.get(worldName);
+        if (powerBlockWorld == null)
+            return false;
+        if (!powerBlockWorld.index.isLoaded())
+            return true;
+        return powerBlockWorld.index.contains(x, y, z);
+    }
+
     /**
      * Retrieves all structures whose powerblocks exist in the same chunk as a given location.
      *
@@ -155,9 +240,7 @@ public final class PowerBlockManager extends Restartable implements StructureDel
     private CompletableFuture<List<AbstractStructure>> mapUidsToStructures(CompletableFuture<LongList> uids)
     {
         return uids
-            .thenApplyAsync(lst -> lst.longStream().mapToObj(databaseManager::getStructure).toList())
-            .thenCompose(Util::getAllCompletableFutureResults)
-            .thenApply(lst -> lst.stream().filter(Optional::isPresent).map(Optional::get).toList())
+            .thenCompose(databaseManager::getStructures)
             .exceptionally(ex -> Util.exceptionally(ex, Collections.emptyList()));
     }
 
@@ -190,7 +273,6 @@ public final class PowerBlockManager extends Restartable implements StructureDel
      * @param newPos
      *     The new position.
      */
-    @SuppressWarnings("unused")
     public void updatePowerBlockLoc(AbstractStructure structure, Vector3Di oldPos, Vector3Di newPos)
     {
         structure.setPowerBlock(newPos);
@@ -202,11 +284,31 @@ public final class PowerBlockManager extends Restartable implements StructureDel
             return;
         }
 
+        powerBlockWorld.index.remove(structure.getUid(), oldPos.x(), oldPos.y(), oldPos.z());
+        powerBlockWorld.index.add(structure.getUid(), newPos.x(), newPos.y(), newPos.z());
+
         // Invalidate both the old and the new positions.
         powerBlockWorld.invalidatePosition(oldPos);
         powerBlockWorld.invalidatePosition(newPos);
     }
 
+    /**
+     * Registers the power block of a structure that was just added to the database.
+     *
+     * @param structure
+     *     The structure that was added.
+     */
+    public void onStructureAddition(IStructureConst structure)
+    {
+        final @Nullable PowerBlockWorld powerBlockWorld = powerBlockWorlds.get(structure.getWorld().worldName());
+        if (powerBlockWorld != null)
+        {
+            final Vector3Di pos = structure.getPowerBlock();
+            powerBlockWorld.index.add(structure.getUid(), pos.x(), pos.y(), pos.z());
+        }
+        onStructureAddOrRemove(structure.getWorld().worldName(), structure.getPowerBlock());
+    }
+
     /**
      * Invalidates the cache for when a structure is either added to a world or removed from it.
      *
@@ -247,6 +349,12 @@ public final class PowerBlockManager extends Restartable implements StructureDel
         powerBlockWorld.checkAnimatedArchitectureWorldStatus();
     }
 
+    @Override
+    public void initialize()
+    {
+        powerBlockWorlds.values().forEach(PowerBlockWorld::loadIndex);
+    }
+
     @Override
     public void shutDown()
     {
@@ -256,6 +364,12 @@ public final class PowerBlockManager extends Restartable implements StructureDel
     @Override
     public void onStructureDeletion(IStructureConst structure)
     {
+        final @Nullable PowerBlockWorld powerBlockWorld = powerBlockWorlds.get(structure.getWorld().worldName());
+        if (powerBlockWorld != null)
+        {
+            final Vector3Di pos = structure.getPowerBlock();
+            powerBlockWorld.index.remove(structure.getUid(), pos.x(), pos.y(), pos.z());
+        }
         onStructureAddOrRemove(structure.getWorld().worldName(), structure.getPowerBlock());
     }
 
@@ -269,6 +383,18 @@ public final class PowerBlockManager extends Restartable implements StructureDel
         private final String worldName;
         private volatile boolean isAnimatedArchitectureWorld = false;
 
+        /**
+         * Whether the index should be (re)loaded when its contents were modified while they were being loaded.
+         */
+        private volatile boolean indexEnabled = false;
+
+        /**
+         * The index of all power blocks in this world.
+         * <p>
+         * Until the index has been loaded, the {@link #powerBlockChunks} cache is used instead.
+         */
+        private final PowerBlockIndex index = new PowerBlockIndex();
+
         /**
          * TimedCache of all {@link PowerBlockChunk}s in this world.
          * <p>
@@ -276,17 +402,45 @@ public final class PowerBlockManager extends Restartable implements StructureDel
          * <p>
          * Value: The {@link PowerBlockChunk}s.
          */
-        private final TimedCache<Long, CompletableFuture<PowerBlockChunk>> powerBlockChunks =
-            TimedCache.<Long, CompletableFuture<PowerBlockChunk>>builder()
-                      .duration(Duration.ofMinutes(config.cacheTimeout()))
-                      .cleanup(Duration.ofMinutes(Math.max(1, config.cacheTimeout())))
-                      .softReference(true)
-                      .refresh(true).build();
+        private final TimedCache<Long, CompletableFuture<PowerBlockChunk>> powerBlockChunks;
 
         private PowerBlockWorld(String worldName)
         {
             this.worldName = worldName;
+            powerBlockChunks = TimedCache.<Long, CompletableFuture<PowerBlockChunk>>builder()
+                                         .name("PowerBlockChunks-" + worldName)
+                                         .duration(Duration.ofMinutes(config.cacheTimeout()))
+                                         .cleanup(Duration.ofMinutes(Math.max(1, config.cacheTimeout())))
+                                         .softReference(true)
+                                         .refresh(true).build();
             checkAnimatedArchitectureWorldStatus();
+            loadIndex();
+        }
+
+        /**
+         * Loads the power blocks of this world from the database into the {@link #index}.
+         * <p>
+         * When the index is modified while the power blocks are being retrieved, the data is discarded and retrieved
+         * again. Any changes to the power blocks are queued for synchronization before the index is modified, and the
+         * retrieved power blocks include all queued synchronizations (see
+         * {@link DatabaseManager#getPowerBlockData(String)}). Therefore, the retrieved data is never older than the
+         * modification that caused the retry.
+         */
+        private void loadIndex()
+        {
+            indexEnabled = true;
+            final long modCount = index.getModCount();
+            databaseManager
+                .getPowerBlockData(worldName)
+                .thenAccept(data ->
+                            {
+                                if (index.load(data, modCount))
+                                    log.atFine().log("Loaded %d power block positions in world '%s'.",
+                                                     index.size(), worldName);
+                                else if (indexEnabled)
+                                    loadIndex();
+                            })
+                .exceptionally(Util::exceptionally);
         }
 
         /**
@@ -296,6 +450,8 @@ public final class PowerBlockManager extends Restartable implements StructureDel
          */
         private boolean isAnimatedArchitectureWorld()
         {
+            if (index.isLoaded())
+                return !index.isEmpty();
             return isAnimatedArchitectureWorld;
         }
 
@@ -365,6 +521,8 @@ public final class PowerBlockManager extends Restartable implements StructureDel
 
         void clear()
         {
+            indexEnabled = false;
+            index.clear();
             powerBlockChunks.clear();
         }
     }
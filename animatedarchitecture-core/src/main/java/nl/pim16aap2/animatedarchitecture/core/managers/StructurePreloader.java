@@ -0,0 +1,199 @@
+package nl.pim16aap2.animatedarchitecture.core.managers;
+
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import it.unimi.dsi.fastutil.longs.LongList;
+import lombok.extern.flogger.Flogger;
+import nl.pim16aap2.animatedarchitecture.core.api.debugging.DebuggableRegistry;
+import nl.pim16aap2.animatedarchitecture.core.api.debugging.IDebuggable;
+import nl.pim16aap2.animatedarchitecture.core.api.restartable.Restartable;
+import nl.pim16aap2.animatedarchitecture.core.api.restartable.RestartableHolder;
+import nl.pim16aap2.animatedarchitecture.core.structures.StructureRegistry;
+import nl.pim16aap2.animatedarchitecture.core.util.Util;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the structures in chunks that are already loaded, so they do not have to be retrieved from the database when
+ * they are first used.
+ * <p>
+ * Right after a (re)start, the {@link StructureRegistry} is empty. Without preloading, the first interaction with every
+ * structure (e.g. a redstone pulse or a chunk load) would have to wait for the structure to be retrieved from the
+ * database and deserialized.
+ * <p>
+ * The structures are retrieved in batches. A limited number of batches is processed at the same time, so the preloader
+ * does not claim all database threads.
+ *
+ * @author Pim
+ */
+@Singleton
+@Flogger
+public final class StructurePreloader extends Restartable implements IDebuggable
+{
+    /**
+     * The maximum number of structures to retrieve in a single batch.
+     */
+    private static final int BATCH_SIZE = 64;
+
+    /**
+     * The maximum number of batches to process at the same time.
+     */
+    private static final int MAX_WORKERS = 4;
+
+    /**
+     * The minimum amount of time (in seconds) between two progress updates in the log.
+     */
+    private static final int PROGRESS_LOG_INTERVAL = 5;
+
+    private final DatabaseManager databaseManager;
+
+    private final int workerCount;
+
+    /**
+     * The generation of this preloader. This is incremented on every shutdown so any preloads that are still running
+     * are cancelled.
+     */
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private final AtomicLong preloadedStructures = new AtomicLong();
+    private final AtomicInteger activePreloads = new AtomicInteger();
+
+    @Inject
+    public StructurePreloader(
+        RestartableHolder holder, DatabaseManager databaseManager, DebuggableRegistry debuggableRegistry)
+    {
+        super(holder);
+        this.databaseManager = databaseManager;
+        this.workerCount = Math.max(1, Math.min(MAX_WORKERS, Runtime.getRuntime().availableProcessors() - 1));
+        debuggableRegistry.registerDebuggable(this);
+    }
+
+    /**
+     * Loads all structures in a world that have their rotation point or their power block in any of the provided
+     * chunks.
+     *
+     * @param worldName
+     *     The name of the world the chunks are in.
+     * @param chunkIds
+     *     The ids of the chunks whose structures to load. See {@link Util#getChunkId(int, int)}.
+     * @return The number of structures that were loaded.
+     */
+    public CompletableFuture<Integer> preloadChunks(String worldName, LongCollection chunkIds)
+    {
+        if (chunkIds.isEmpty())
+            return CompletableFuture.completedFuture(0);
+
+        final int currentGeneration = generation.get();
+        return databaseManager
+            .getStructureUIDsInChunks(worldName, chunkIds)
+            .thenCompose(uids -> preloadStructures(worldName, uids, currentGeneration))
+            .exceptionally(ex -> Util.exceptionally(ex, 0));
+    }
+
+    private CompletableFuture<Integer> preloadStructures(String worldName, LongList uids, int currentGeneration)
+    {
+        if (uids.isEmpty())
+            return CompletableFuture.completedFuture(0);
+
+        final Queue<LongList> batches = new ConcurrentLinkedQueue<>();
+        for (int idx = 0; idx < uids.size(); idx += BATCH_SIZE)
+            batches.add(uids.subList(idx, Math.min(uids.size(), idx + BATCH_SIZE)));
+
+        final Progress progress = new Progress(worldName, uids.size(), currentGeneration);
+        log.atInfo().log("Preloading %d structures in world '%s'...", uids.size(), worldName);
+        activePreloads.incrementAndGet();
+
+        final List<CompletableFuture<Void>> workers = new ArrayList<>(workerCount);
+        for (int idx = 0; idx < Math.min(workerCount, batches.size()); ++idx)
+            workers.add(processNextBatch(batches, progress));
+
+        return CompletableFuture
+            .allOf(workers.toArray(CompletableFuture[]::new))
+            .handle((ignored, throwable) ->
+                    {
+                        activePreloads.decrementAndGet();
+                        if (throwable != null)
+                            log.atSevere().withCause(throwable)
+                               .log("Failed to preload structures in world '%s'!", worldName);
+                        progress.logCompletion();
+                        return progress.loaded.get();
+                    });
+    }
+
+    /**
+     * Processes batches from the queue one at a time until the queue is empty or the preload was cancelled.
+     */
+    private CompletableFuture<Void> processNextBatch(Queue<LongList> batches, Progress progress)
+    {
+        final LongList batch = batches.poll();
+        if (batch == null || progress.generation != generation.get())
+            return CompletableFuture.completedFuture(null);
+
+        return databaseManager
+            .getStructures(batch)
+            .thenCompose(structures ->
+                         {
+                             progress.update(structures.size());
+                             return processNextBatch(batches, progress);
+                         });
+    }
+
+    @Override
+    public void shutDown()
+    {
+        generation.incrementAndGet();
+    }
+
+    @Override
+    public String getDebugInformation()
+    {
+        return "Structures preloaded: " + preloadedStructures.get() +
+            ", active preloads: " + activePreloads.get() +
+            ", workers: " + workerCount;
+    }
+
+    /**
+     * Keeps track of the progress of a single preload.
+     */
+    private final class Progress
+    {
+        private final String worldName;
+        private final int total;
+        private final int generation;
+        private final long startTime = System.nanoTime();
+        private final AtomicInteger loaded = new AtomicInteger();
+
+        private Progress(String worldName, int total, int generation)
+        {
+            this.worldName = worldName;
+            this.total = total;
+            this.generation = generation;
+        }
+
+        private void update(int count)
+        {
+            preloadedStructures.addAndGet(count);
+            final int current = loaded.addAndGet(count);
+            log.atInfo().atMostEvery(PROGRESS_LOG_INTERVAL, TimeUnit.SECONDS)
+               .log("Preloading structures in world '%s': %d/%d", worldName, current, total);
+        }
+
+        private void logCompletion()
+        {
+            final long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            if (this.generation != StructurePreloader.this.generation.get())
+                log.atInfo().log("Cancelled preloading structures in world '%s' after loading %d/%d structures.",
+                                 worldName, loaded.get(), total);
+            else
+                log.atInfo().log("Preloaded %d structures in world '%s' in %dms.", loaded.get(), worldName, duration);
+        }
+    }
+}
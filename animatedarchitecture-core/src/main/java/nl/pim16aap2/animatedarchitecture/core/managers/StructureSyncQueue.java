@@ -0,0 +1,305 @@
+package nl.pim16aap2.animatedarchitecture.core.managers;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
+import lombok.extern.flogger.Flogger;
+import nl.pim16aap2.animatedarchitecture.core.storage.IStorage;
+import nl.pim16aap2.animatedarchitecture.core.structures.StructureSnapshot;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * Write-behind queue for the data of structures.
+ * <p>
+ * Requests to synchronize a structure are not written to the database right away. Instead, only the latest request for
+ * every structure is kept until the queue is flushed. All pending requests are then written to the database in a single
+ * transaction.
+ * <p>
+ * The future returned for a request is only completed once the data has been committed to the database. When multiple
+ * requests for the same structure are coalesced, all of them receive the same future, which is completed once the
+ * latest data has been committed.
+ * <p>
+ * Reads that could be affected by requests that have not been committed yet should go through
+ * {@link #query(Predicate, Supplier, Function)}, so they do not return outdated data.
+ *
+ * @author Pim
+ */
+@Flogger
+final class StructureSyncQueue
+{
+    private final IStorage db;
+
+    /**
+     * Supplies the executor to run flushes on. This is a supplier, as the executor may change on restart.
+     */
+    private final Supplier<Executor> executorSupplier;
+
+    /**
+     * Executes tasks after the flush delay has passed.
+     */
+    private final Executor flushDelayer;
+
+    /**
+     * The pending synchronization requests mapped by the UID of their structure.
+     */
+    private final Map<Long, PendingSync> pending = new ConcurrentHashMap<>();
+
+    /**
+     * The requests that are being written by the current flush mapped by the UID of their structure.
+     * <p>
+     * Requests are added to this map before they are removed from {@link #pending} and they are only removed from it
+     * once they have been committed. This way, requests are always visible to {@link #getUncommittedSnapshots()} until
+     * they have been committed.
+     */
+    private final Map<Long, PendingSync> flushing = new ConcurrentHashMap<>();
+
+    /**
+     * Whether a flush has been scheduled that has not started yet.
+     */
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    /**
+     * @param db
+     *     The storage to write the data to.
+     * @param executorSupplier
+     *     Supplies the executor to run flushes on.
+     * @param flushDelay
+     *     The amount of time to wait after receiving a request before flushing the queue. Any requests received in the
+     *     meantime are written in the same transaction.
+     */
+    StructureSyncQueue(IStorage db, Supplier<Executor> executorSupplier, Duration flushDelay)
+    {
+        this.db = db;
+        this.executorSupplier = executorSupplier;
+        this.flushDelayer = CompletableFuture.delayedExecutor(flushDelay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues the data of a structure to be synchronized with the database.
+     * <p>
+     * Any request for the same structure that is still pending is replaced by this one.
+     *
+     * @param snapshot
+     *     The snapshot that describes the base data of the structure.
+     * @param typeData
+     *     The type-specific data of the structure represented as a json String.
+     * @return The future result of the operation. This is completed once the data has been committed.
+     */
+    CompletableFuture<DatabaseManager.ActionResult> enqueue(StructureSnapshot snapshot, String typeData)
+    {
+        requestCount.incrementAndGet();
+        final PendingSync sync = pending.compute(
+            snapshot.getUid(),
+            (uid, existing) ->
+            {
+                if (existing == null)
+                    return new PendingSync(snapshot, typeData, new CompletableFuture<>());
+                coalescedCount.incrementAndGet();
+                return new PendingSync(snapshot, typeData, existing.result());
+            });
+        scheduleFlush();
+        return sync.result();
+    }
+
+    private void scheduleFlush()
+    {
+        if (flushScheduled.compareAndSet(false, true))
+            flushDelayer.execute(this::submitFlush);
+    }
+
+    private void submitFlush()
+    {
+        try
+        {
+            executorSupplier.get().execute(this::runScheduledFlush);
+        }
+        catch (RejectedExecutionException e)
+        {
+            // The executor is shutting down, so make sure the data is not lost.
+            runScheduledFlush();
+        }
+    }
+
+    private void runScheduledFlush()
+    {
+        flushScheduled.set(false);
+        flush();
+    }
+
+    /**
+     * Writes all pending requests to the database in a single transaction and completes their futures.
+     * <p>
+     * Flushes are executed one at a time, so older data cannot overwrite newer data.
+     */
+    synchronized void flush()
+    {
+        if (pending.isEmpty())
+            return;
+
+        final List<PendingSync> batch = new ArrayList<>(pending.size());
+        for (final Long uid : pending.keySet())
+        {
+            final @Nullable PendingSync sync = pending.get(uid);
+            if (sync == null)
+                continue;
+            flushing.put(uid, sync);
+            if (pending.remove(uid, sync))
+                batch.add(sync);
+            else
+                // The request was replaced by a newer one, which will be written by the next flush.
+                flushing.remove(uid, sync);
+        }
+        if (batch.isEmpty())
+            return;
+
+        try
+        {
+            writeBatch(batch);
+        }
+        finally
+        {
+            for (final PendingSync sync : batch)
+                flushing.remove(sync.snapshot().getUid(), sync);
+        }
+    }
+
+    /**
+     * Writes a batch of requests to the database in a single transaction and completes their futures.
+     */
+    private void writeBatch(List<PendingSync> batch)
+    {
+        final List<IStorage.StructureDataUpdate> updates = new ArrayList<>(batch.size());
+        for (final PendingSync sync : batch)
+            updates.add(new IStorage.StructureDataUpdate(sync.snapshot(), sync.typeData()));
+
+        LongSet synced;
+        try
+        {
+            synced = db.syncStructureData(updates);
+        }
+        catch (Exception e)
+        {
+            log.atSevere().withCause(e).log("Failed to synchronize %d structures!", updates.size());
+            synced = LongSets.EMPTY_SET;
+        }
+
+        flushCount.incrementAndGet();
+        for (final PendingSync sync : batch)
+        {
+            if (synced.contains(sync.snapshot().getUid()))
+                sync.result().complete(DatabaseManager.ActionResult.SUCCESS);
+            else
+            {
+                failedCount.incrementAndGet();
+                sync.result().complete(DatabaseManager.ActionResult.FAIL);
+            }
+        }
+    }
+
+    /**
+     * Gets the snapshots of all requests that have not been committed yet. This includes the requests that are being
+     * written by a flush that is still running.
+     *
+     * @return The snapshots of all requests that have not been committed yet.
+     */
+    List<StructureSnapshot> getUncommittedSnapshots()
+    {
+        if (pending.isEmpty() && flushing.isEmpty())
+            return List.of();
+
+        final List<StructureSnapshot> ret = new ArrayList<>(pending.size() + flushing.size());
+        // Requests are added to 'flushing' before they are removed from 'pending', so reading them in this order
+        // ensures that no request is missed.
+        for (final PendingSync sync : pending.values())
+            ret.add(sync.snapshot());
+        for (final PendingSync sync : flushing.values())
+            ret.add(sync.snapshot());
+        return ret;
+    }
+
+    /**
+     * Runs a query for structure data without returning data that is outdated by requests in this queue.
+     * <p>
+     * The queue is only flushed when one of the requests that have not been committed yet can affect the result of the
+     * query. This is the case when its data matches the query or when the query returned its structure. Otherwise, the
+     * query runs without waiting for the queue.
+     *
+     * @param matchesQuery
+     *     Checks if the new data of a structure would be returned by the query.
+     * @param query
+     *     The query to run.
+     * @param getUids
+     *     Gets the UIDs of the structures in the result of the query.
+     * @param <T>
+     *     The type of the result of the query.
+     * @return The result of the query.
+     */
+    <T> T query(Predicate<StructureSnapshot> matchesQuery, Supplier<T> query, Function<T, LongStream> getUids)
+    {
+        final List<StructureSnapshot> uncommitted = getUncommittedSnapshots();
+        if (uncommitted.isEmpty())
+            return query.get();
+
+        final LongSet uncommittedUids = new LongOpenHashSet(uncommitted.size());
+        for (final StructureSnapshot snapshot : uncommitted)
+        {
+            if (matchesQuery.test(snapshot))
+            {
+                flush();
+                return query.get();
+            }
+            uncommittedUids.add(snapshot.getUid());
+        }
+
+        final T result = query.get();
+        if (getUids.apply(result).noneMatch(uncommittedUids::contains))
+            return result;
+
+        // When this flush returns, all requests that were uncommitted before the query have been committed.
+        flush();
+        return query.get();
+    }
+
+    /**
+     * @return The number of structures that are waiting to be written to the database.
+     */
+    int getPendingCount()
+    {
+        return pending.size();
+    }
+
+    String getDebugInformation()
+    {
+        return "Structure sync queue: pending: " + pending.size() +
+            ", requests: " + requestCount.get() +
+            ", coalesced: " + coalescedCount.get() +
+            ", flushes: " + flushCount.get() +
+            ", failed: " + failedCount.get();
+    }
+
+    private record PendingSync(
+        StructureSnapshot snapshot, String typeData, CompletableFuture<DatabaseManager.ActionResult> result)
+    {
+    }
+}
@@ -71,6 +71,22 @@ public class Animation<T extends IAnimatedBlock>
     @Getter
     private volatile int stepsExecuted = 0;
 
+    /**
+     * The level of detail with which the animated blocks are updated for clients.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    @Getter
+    private volatile AnimationLevelOfDetail levelOfDetail = AnimationLevelOfDetail.FULL;
+
+    /**
+     * Whether the clients should be resynchronized with the animated blocks during the current step.
+     * <p>
+     * See {@link AnimationLevelOfDetail#requiresResync(AnimationLevelOfDetail)}.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    @Getter
+    private volatile boolean resyncRequired = false;
+
     /**
      * The type of the animation.
      */
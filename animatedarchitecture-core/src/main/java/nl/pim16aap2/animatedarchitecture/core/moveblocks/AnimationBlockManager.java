@@ -14,10 +14,12 @@ import nl.pim16aap2.animatedarchitecture.core.structures.StructureSnapshot;
 import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Dd;
 import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Di;
 import nl.pim16aap2.animatedarchitecture.core.api.factories.ILocationFactory;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 @Flogger
@@ -41,6 +43,13 @@ public class AnimationBlockManager implements IAnimationBlockManager
     @ToString.Include @EqualsAndHashCode.Include
     private final List<IAnimatedBlock> animatedBlocks;
 
+    /**
+     * The staging of the animated blocks that is currently in progress, if any.
+     * <p>
+     * This is only accessed on the main thread.
+     */
+    private @Nullable Staging staging;
+
     AnimationBlockManager(
         ILocationFactory locationFactory, IAnimatedBlockFactory animatedBlockFactory, IExecutor executor)
     {
@@ -72,28 +81,11 @@ public class AnimationBlockManager implements IAnimationBlockManager
             for (int xAxis = xMin; xAxis <= xMax; ++xAxis)
                 for (int yAxis = yMax; yAxis >= yMin; --yAxis)
                     for (int zAxis = zMin; zAxis <= zMax; ++zAxis)
-                    {
-                        final boolean onEdge =
-                            xAxis == xMin || xAxis == xMax ||
-                                yAxis == yMin || yAxis == yMax ||
-                                zAxis == zMin || zAxis == zMax;
-
-                        final ILocation location =
-                            locationFactory.create(snapshot.getWorld(), xAxis + 0.5, yAxis, zAxis + 0.5);
-                        final boolean bottom = (yAxis == yMin);
-                        final float radius = animationComponent.getRadius(xAxis, yAxis, zAxis);
-                        final float startAngle = animationComponent.getStartAngle(xAxis, yAxis, zAxis);
-                        final Vector3Dd startPosition = new Vector3Dd(xAxis + 0.5, yAxis, zAxis + 0.5);
-                        final Vector3Dd finalPosition = animationComponent.getFinalPosition(startPosition, radius);
-
-                        animatedBlockFactory
-                            .create(location, radius, startAngle, bottom, onEdge, animationContext, finalPosition,
-                                    movementMethod)
-                            .ifPresent(animatedBlocksTmp::add);
-                    }
-
-            tryRemoveOriginalBlocks(animatedBlocksTmp, false);
-            tryRemoveOriginalBlocks(animatedBlocksTmp, true);
+                        createAnimatedBlock(
+                            snapshot, animationComponent, animationContext, movementMethod, xAxis, yAxis, zAxis,
+                            animatedBlocksTmp);
+
+            removeOriginalBlocks(animatedBlocksTmp);
         }
         catch (Exception e)
         {
@@ -106,26 +98,79 @@ public class AnimationBlockManager implements IAnimationBlockManager
         return true;
     }
 
+    @Override
+    public CompletableFuture<Boolean> stageAnimatedBlocks(
+        StructureSnapshot snapshot, IAnimationComponent animationComponent, AnimationContext animationContext,
+        Animator.MovementMethod movementMethod, int blocksPerTick)
+    {
+        executor.assertMainThread("Animated blocks must be staged on the main thread!");
+        if (staging != null)
+            throw new IllegalStateException("Trying to stage animated blocks again!");
+
+        final Staging newStaging =
+            new Staging(snapshot, animationComponent, animationContext, movementMethod, Math.max(1, blocksPerTick));
+        staging = newStaging;
+        newStaging.run();
+        return newStaging.result;
+    }
+
+    @Override
+    public void cancelStaging()
+    {
+        executor.assertMainThread("Staging must be cancelled on the main thread!");
+        final @Nullable Staging staging0 = staging;
+        if (staging0 != null)
+            staging0.complete(false);
+    }
+
+    /**
+     * Creates a new animated block for the block at the given position if possible.
+     *
+     * @param target
+     *     The list to add the new animated block to.
+     */
+    private void createAnimatedBlock(
+        StructureSnapshot snapshot, IAnimationComponent animationComponent, AnimationContext animationContext,
+        Animator.MovementMethod movementMethod, int xAxis, int yAxis, int zAxis, List<IAnimatedBlock> target)
+        throws Exception
+    {
+        final Vector3Di min = snapshot.getCuboid().getMin();
+        final Vector3Di max = snapshot.getCuboid().getMax();
+
+        final boolean onEdge =
+            xAxis == min.x() || xAxis == max.x() ||
+                yAxis == min.y() || yAxis == max.y() ||
+                zAxis == min.z() || zAxis == max.z();
+
+        final ILocation location = locationFactory.create(snapshot.getWorld(), xAxis + 0.5, yAxis, zAxis + 0.5);
+        final boolean bottom = (yAxis == min.y());
+        final float radius = animationComponent.getRadius(xAxis, yAxis, zAxis);
+        final float startAngle = animationComponent.getStartAngle(xAxis, yAxis, zAxis);
+        final Vector3Dd startPosition = new Vector3Dd(xAxis + 0.5, yAxis, zAxis + 0.5);
+        final Vector3Dd finalPosition = animationComponent.getFinalPosition(startPosition, radius);
+
+        animatedBlockFactory
+            .create(location, radius, startAngle, bottom, onEdge, animationContext, finalPosition, movementMethod)
+            .ifPresent(target::add);
+    }
+
     /**
-     * Tries to remove the original blocks of a list of animated blocks.
+     * Removes the original blocks of a list of animated blocks.
+     * <p>
+     * All blocks are first removed without applying physics. Afterwards, the blocks on the edge of the cuboid are
+     * removed again while applying physics, so the blocks around the structure are updated.
      *
      * @param animatedBlocks
      *     The animated blocks to process.
-     * @param edgePass
-     *     True to do a pass over the edges specifically.
-     * @return True if the original blocks could be spawned. If something went wrong and the process had to be aborted,
-     * false is returned instead.
      */
-    private void tryRemoveOriginalBlocks(List<IAnimatedBlock> animatedBlocks, boolean edgePass)
+    private void removeOriginalBlocks(List<IAnimatedBlock> animatedBlocks)
     {
         executor.assertMainThread("Blocks must be removed on the main thread!");
 
+        animatedBlockFactory.deleteOriginalBlocks(animatedBlocks);
         for (final IAnimatedBlock animatedBlock : animatedBlocks)
-        {
-            if (edgePass && !animatedBlock.isOnEdge())
-                continue;
-            animatedBlock.getAnimatedBlockData().deleteOriginalBlock(edgePass);
-        }
+            if (animatedBlock.isOnEdge())
+                animatedBlock.getAnimatedBlockData().deleteOriginalBlock(true);
     }
 
     @Override
@@ -163,10 +208,194 @@ public class AnimationBlockManager implements IAnimationBlockManager
     {
         executor.assertMainThread("Blocks cannot be placed asynchronously!");
         for (final IAnimatedBlock animatedBlock : privateAnimatedBlocks)
-        {
             animatedBlock.kill();
-            animatedBlock.getAnimatedBlockData().putBlock(animatedBlock.getFinalPosition());
-        }
+        animatedBlockFactory.putBlocks(privateAnimatedBlocks);
         privateAnimatedBlocks.clear();
     }
+
+    /**
+     * The stages of the staged creation of animated blocks. See {@link Staging}.
+     */
+    private enum Stage
+    {
+        /**
+         * The blocks in the world are captured and the animated blocks are created. In the same tick, the original
+         * blocks of this slice are removed from the world without applying physics and the animated blocks are
+         * spawned.
+         */
+        CAPTURE,
+
+        /**
+         * The original blocks on the edge of the structure are removed again, this time applying physics.
+         */
+        REMOVE_EDGES,
+    }
+
+    /**
+     * Creates and spawns the animated blocks of a structure over multiple ticks.
+     * <p>
+     * Every tick, up to {@link #blocksPerTick} blocks are processed. Every block is removed from the world in the same
+     * tick it is captured, so players cannot change the blocks between them being captured and removed. Otherwise,
+     * players could break blocks that were already captured, causing them to be duplicated when the animated blocks are
+     * placed again. The animated blocks are spawned right away as well, so the structure does not disappear before it
+     * is shown again.
+     * <p>
+     * Physics are only applied once all blocks have been removed.
+     * <p>
+     * All animated blocks are registered right after they are created, so they can be restored if the staging fails or
+     * is cancelled.
+     */
+    private final class Staging implements Runnable
+    {
+        private final StructureSnapshot snapshot;
+        private final IAnimationComponent animationComponent;
+        private final AnimationContext animationContext;
+        private final Animator.MovementMethod movementMethod;
+        private final int blocksPerTick;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private final List<IAnimatedBlock> created;
+
+        private final Vector3Di min;
+        private final Vector3Di dimensions;
+        private final int volume;
+
+        private Stage stage = Stage.CAPTURE;
+
+        /**
+         * The index of the next block to process in the current stage.
+         */
+        private int index = 0;
+
+        /**
+         * The number of ticks this staging has been running for.
+         */
+        private int ticks = 0;
+
+        private Staging(
+            StructureSnapshot snapshot, IAnimationComponent animationComponent, AnimationContext animationContext,
+            Animator.MovementMethod movementMethod, int blocksPerTick)
+        {
+            this.snapshot = snapshot;
+            this.animationComponent = animationComponent;
+            this.animationContext = animationContext;
+            this.movementMethod = movementMethod;
+            this.blocksPerTick = blocksPerTick;
+            this.created = new ArrayList<>(snapshot.getBlockCount());
+            this.min = snapshot.getCuboid().getMin();
+            this.dimensions = snapshot.getCuboid().getDimensions();
+            this.volume = snapshot.getCuboid().getVolume();
+        }
+
+        @Override
+        public void run()
+        {
+            if (result.isDone())
+                return;
+
+            ++ticks;
+            try
+            {
+                int budget = blocksPerTick;
+                while (budget > 0 && !result.isDone())
+                    budget -= processStage(budget);
+            }
+            catch (Exception e)
+            {
+                log.atSevere().withCause(e).log("Failed to stage animated blocks in stage %s!", stage);
+                complete(false);
+            }
+
+            if (!result.isDone())
+                executor.runSyncLater(this, 1L);
+        }
+
+        /**
+         * Processes the blocks of the current stage.
+         *
+         * @param budget
+         *     The maximum number of blocks to process.
+         * @return The number of blocks that were processed.
+         */
+        private int processStage(int budget)
+            throws Exception
+        {
+            final int processed = switch (stage)
+                {
+                    case CAPTURE -> capture(budget);
+                    case REMOVE_EDGES -> removeEdges(budget);
+                };
+
+            final int stageSize = stage == Stage.CAPTURE ? volume : created.size();
+            if (index >= stageSize)
+                nextStage();
+            // Make sure we always make progress, even when an (empty) stage did not process any blocks.
+            return Math.max(1, processed);
+        }
+
+        private void nextStage()
+        {
+            index = 0;
+            if (stage == Stage.REMOVE_EDGES)
+            {
+                log.atFine().log("Staged %d animated blocks in %d ticks.", created.size(), ticks);
+                complete(true);
+            }
+            else
+                stage = Stage.values()[stage.ordinal() + 1];
+        }
+
+        private int capture(int budget)
+            throws Exception
+        {
+            executor.assertMainThread("Blocks must be captured on the main thread!");
+            final int sliceStart = created.size();
+            final int start = index;
+            final int end = Math.min(volume, index + budget);
+            final int yzArea = dimensions.y() * dimensions.z();
+            try
+            {
+                // Same order as createAnimatedBlocks: x ascending, y descending, z ascending.
+                for (; index < end; ++index)
+                {
+                    final int xAxis = min.x() + index / yzArea;
+                    final int yAxis = min.y() + dimensions.y() - 1 - (index % yzArea) / dimensions.z();
+                    final int zAxis = min.z() + index % dimensions.z();
+                    createAnimatedBlock(
+                        snapshot, animationComponent, animationContext, movementMethod, xAxis, yAxis, zAxis, created);
+                }
+            }
+            finally
+            {
+                privateAnimatedBlocks.addAll(created.subList(sliceStart, created.size()));
+            }
+
+            final List<IAnimatedBlock> slice = created.subList(sliceStart, created.size());
+            animatedBlockFactory.deleteOriginalBlocks(slice);
+            for (final IAnimatedBlock animatedBlock : slice)
+                animatedBlock.spawn();
+            return end - start;
+        }
+
+        private int removeEdges(int budget)
+        {
+            int processed = 0;
+            for (; index < created.size() && processed < budget; ++index)
+            {
+                final IAnimatedBlock animatedBlock = created.get(index);
+                if (!animatedBlock.isOnEdge())
+                    continue;
+                animatedBlock.getAnimatedBlockData().deleteOriginalBlock(true);
+                ++processed;
+            }
+            return processed;
+        }
+
+        private void complete(boolean success)
+        {
+            if (staging == this)
+                staging = null;
+            result.complete(success);
+        }
+    }
 }
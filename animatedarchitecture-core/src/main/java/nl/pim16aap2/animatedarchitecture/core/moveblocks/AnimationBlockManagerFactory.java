@@ -1,6 +1,7 @@
 package nl.pim16aap2.animatedarchitecture.core.moveblocks;
 
 import nl.pim16aap2.animatedarchitecture.core.api.GlowingBlockSpawner;
+import nl.pim16aap2.animatedarchitecture.core.api.IConfig;
 import nl.pim16aap2.animatedarchitecture.core.api.IExecutor;
 import nl.pim16aap2.animatedarchitecture.core.api.IPlayer;
 import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlockFactory;
@@ -18,16 +19,18 @@ public class AnimationBlockManagerFactory
     private final IAnimatedBlockFactory animatedBlockFactory;
     private final IExecutor executor;
     private final GlowingBlockSpawner glowingBlockSpawner;
+    private final IConfig config;
 
     @Inject AnimationBlockManagerFactory(
         ILocationFactory locationFactory,
         IAnimatedBlockFactory animatedBlockFactory,
-        IExecutor executor, GlowingBlockSpawner glowingBlockSpawner)
+        IExecutor executor, GlowingBlockSpawner glowingBlockSpawner, IConfig config)
     {
         this.locationFactory = locationFactory;
         this.animatedBlockFactory = animatedBlockFactory;
         this.executor = executor;
         this.glowingBlockSpawner = glowingBlockSpawner;
+        this.config = config;
     }
 
     public IAnimationBlockManager newManager(AnimationType animationType, @Nullable IPlayer player)
@@ -42,7 +45,8 @@ public class AnimationBlockManagerFactory
     private IAnimationBlockManager newPreviewBlockManager(@Nullable IPlayer player)
     {
         return new AnimationPreviewBlockManager(
-            locationFactory, glowingBlockSpawner, Util.requireNonNull(player, "Player for preview blocks"));
+            locationFactory, glowingBlockSpawner, Util.requireNonNull(player, "Player for preview blocks"),
+            config.previewDetail(), config.previewStride(), config.maxPreviewBlocks());
     }
 
     private IAnimationBlockManager newMoveBlockManager()
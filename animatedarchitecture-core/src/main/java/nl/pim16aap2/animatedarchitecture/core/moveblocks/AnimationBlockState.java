@@ -0,0 +1,157 @@
+package nl.pim16aap2.animatedarchitecture.core.moveblocks;
+
+import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlock;
+
+import java.util.List;
+
+/**
+ * Stores the coordinates of all animated blocks of an animation in primitive arrays.
+ * <p>
+ * Every animated block is identified by its index in the list of animated blocks of the animation. For each block,
+ * this store keeps track of its start position and the goal position of the current step.
+ * <p>
+ * This allows {@link IInPlaceAnimationComponent}s to compute the goal positions of all blocks without allocating any
+ * objects per block.
+ * <p>
+ * Different indices may be written concurrently from different threads, but a single index may only be written by a
+ * single thread during each step.
+ *
+ * @author Pim
+ */
+public final class AnimationBlockState
+{
+    private final int size;
+
+    private final double[] startX;
+    private final double[] startY;
+    private final double[] startZ;
+
+    private final double[] targetX;
+    private final double[] targetY;
+    private final double[] targetZ;
+
+    private AnimationBlockState(int size)
+    {
+        this.size = size;
+
+        startX = new double[size];
+        startY = new double[size];
+        startZ = new double[size];
+
+        targetX = new double[size];
+        targetY = new double[size];
+        targetZ = new double[size];
+    }
+
+    /**
+     * Creates a new {@link AnimationBlockState} for a list of animated blocks.
+     * <p>
+     * The goal position of every block is initialized to its start position.
+     *
+     * @param animatedBlocks
+     *     The animated blocks whose state to store. The index of each block in this list is used as its index in the
+     *     new store.
+     * @return The new {@link AnimationBlockState}.
+     */
+    public static AnimationBlockState of(List<? extends IAnimatedBlock> animatedBlocks)
+    {
+        final AnimationBlockState state = new AnimationBlockState(animatedBlocks.size());
+        for (int idx = 0; idx < state.size; ++idx)
+        {
+            final IAnimatedBlock animatedBlock = animatedBlocks.get(idx);
+            state.startX[idx] = state.targetX[idx] = animatedBlock.getStartX();
+            state.startY[idx] = state.targetY[idx] = animatedBlock.getStartY();
+            state.startZ[idx] = state.targetZ[idx] = animatedBlock.getStartZ();
+        }
+        return state;
+    }
+
+    /**
+     * Creates a new {@link AnimationBlockState} from the start positions of a set of blocks.
+     * <p>
+     * The goal position of every block is initialized to its start position.
+     *
+     * @param startX
+     *     The x coordinates of the start positions of the blocks.
+     * @param startY
+     *     The y coordinates of the start positions of the blocks.
+     * @param startZ
+     *     The z coordinates of the start positions of the blocks.
+     * @return The new {@link AnimationBlockState}.
+     * @throws IllegalArgumentException
+     *     When the arrays do not all have the same length.
+     */
+    public static AnimationBlockState of(double[] startX, double[] startY, double[] startZ)
+    {
+        if (startX.length != startY.length || startX.length != startZ.length)
+            throw new IllegalArgumentException(
+                "Received coordinate arrays of different lengths: " + startX.length + ", " + startY.length + ", " +
+                    startZ.length);
+
+        final AnimationBlockState state = new AnimationBlockState(startX.length);
+        for (int idx = 0; idx < state.size; ++idx)
+        {
+            state.startX[idx] = state.targetX[idx] = startX[idx];
+            state.startY[idx] = state.targetY[idx] = startY[idx];
+            state.startZ[idx] = state.targetZ[idx] = startZ[idx];
+        }
+        return state;
+    }
+
+    /**
+     * @return The number of blocks in this store.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Sets the goal position of a block for the current step.
+     *
+     * @param idx
+     *     The index of the block.
+     * @param x
+     *     The x coordinate of the new goal position.
+     * @param y
+     *     The y coordinate of the new goal position.
+     * @param z
+     *     The z coordinate of the new goal position.
+     */
+    public void setTarget(int idx, double x, double y, double z)
+    {
+        targetX[idx] = x;
+        targetY[idx] = y;
+        targetZ[idx] = z;
+    }
+
+    public double getStartX(int idx)
+    {
+        return startX[idx];
+    }
+
+    public double getStartY(int idx)
+    {
+        return startY[idx];
+    }
+
+    public double getStartZ(int idx)
+    {
+        return startZ[idx];
+    }
+
+    public double getTargetX(int idx)
+    {
+        return targetX[idx];
+    }
+
+    public double getTargetY(int idx)
+    {
+        return targetY[idx];
+    }
+
+    public double getTargetZ(int idx)
+    {
+        return targetZ[idx];
+    }
+}
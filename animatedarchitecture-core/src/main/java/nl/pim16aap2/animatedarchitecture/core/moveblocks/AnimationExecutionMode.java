@@ -0,0 +1,43 @@
+package nl.pim16aap2.animatedarchitecture.core.moveblocks;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+
+/**
+ * Represents the different ways in which the steps of active animations can be executed.
+ */
+public enum AnimationExecutionMode
+{
+    /**
+     * All animation steps are executed one after the other on the thread of the {@link AnimationTicker}.
+     */
+    SERIAL,
+
+    /**
+     * Animation steps of different animators are executed concurrently on a fork-join pool.
+     * <p>
+     * The goal positions of the blocks in large animations are computed in parallel as well, after which they are
+     * applied to the animated blocks in order.
+     */
+    PARALLEL,
+    ;
+
+    /**
+     * Parses an {@link AnimationExecutionMode} from its name.
+     *
+     * @param name
+     *     The name of the mode. This is case-insensitive.
+     * @return The {@link AnimationExecutionMode} with the provided name, or null if no such mode exists.
+     */
+    public static @Nullable AnimationExecutionMode parse(@Nullable String name)
+    {
+        if (name == null)
+            return null;
+        final String preparedName = name.toUpperCase(Locale.ENGLISH).strip();
+        for (final AnimationExecutionMode mode : values())
+            if (mode.name().equals(preparedName))
+                return mode;
+        return null;
+    }
+}
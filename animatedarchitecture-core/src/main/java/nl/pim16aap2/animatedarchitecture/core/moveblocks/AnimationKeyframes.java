@@ -0,0 +1,225 @@
+package nl.pim16aap2.animatedarchitecture.core.moveblocks;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Provides the goal positions of all animated blocks of an animation for every tick.
+ * <p>
+ * For short animations, the goal positions of every block for every tick (the "keyframes") are computed once, when
+ * they are first requested. Every step of the animation then only has to copy the goal positions of the current tick
+ * into the {@link AnimationBlockState}. This is mostly useful for perpetual animations, which replay the same period
+ * over and over again.
+ * <p>
+ * The keyframes are only computed if they do not take up more than a configurable number of values (3 per block per
+ * frame). For larger animations, as well as for any ticks outside the computed frames, the goal positions are computed
+ * directly using the provided {@link Kernel}.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Pim
+ */
+public final class AnimationKeyframes
+{
+    /**
+     * The smallest value of {@link #DEFAULT_MAX_VALUES}, which allows 4 MiB of keyframes per animation.
+     */
+    private static final long MIN_DEFAULT_MAX_VALUES = 1L << 19;
+
+    /**
+     * The largest value of {@link #DEFAULT_MAX_VALUES}, which allows 64 MiB of keyframes per animation.
+     */
+    private static final long MAX_DEFAULT_MAX_VALUES = 1L << 23;
+
+    /**
+     * The largest array that can be allocated on most JVMs.
+     */
+    private static final long MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    /**
+     * The default maximum number of values that can be stored as keyframes for a single animation.
+     * <p>
+     * This is derived from the maximum size of the heap (see {@link #getDefaultMaxValues(long)}).
+     */
+    public static final long DEFAULT_MAX_VALUES = getDefaultMaxValues(Runtime.getRuntime().maxMemory());
+
+    private final int frameCount;
+    private final boolean periodic;
+    private final long maxValues;
+    private final Kernel kernel;
+
+    /**
+     * The most recently computed keyframes.
+     * <p>
+     * This is null if the keyframes have not been computed yet.
+     */
+    private volatile @Nullable Frames frames;
+
+    /**
+     * Creates a new {@link AnimationKeyframes} that stores at most {@link #DEFAULT_MAX_VALUES} values.
+     *
+     * @param frameCount
+     *     The number of frames to compute. Frame f contains the goal positions for the tick f.
+     * @param periodic
+     *     True if the animation repeats itself after {@code frameCount} ticks. In that case, the goal positions for any
+     *     tick t are taken from frame {@code t % frameCount}.
+     * @param kernel
+     *     The kernel that computes the goal positions of a range of blocks directly.
+     */
+    public AnimationKeyframes(int frameCount, boolean periodic, Kernel kernel)
+    {
+        this(frameCount, periodic, DEFAULT_MAX_VALUES, kernel);
+    }
+
+    /**
+     * Creates a new {@link AnimationKeyframes}.
+     *
+     * @param frameCount
+     *     The number of frames to compute. Frame f contains the goal positions for the tick f.
+     * @param periodic
+     *     True if the animation repeats itself after {@code frameCount} ticks. In that case, the goal positions for any
+     *     tick t are taken from frame {@code t % frameCount}.
+     * @param maxValues
+     *     The maximum number of values to store. When the keyframes of an animation would require more values, the
+     *     goal positions are always computed directly.
+     * @param kernel
+     *     The kernel that computes the goal positions of a range of blocks directly.
+     */
+    public AnimationKeyframes(int frameCount, boolean periodic, long maxValues, Kernel kernel)
+    {
+        this.frameCount = Math.max(0, frameCount);
+        this.periodic = periodic;
+        this.maxValues = maxValues;
+        this.kernel = kernel;
+    }
+
+    /**
+     * Gets the default maximum number of values that can be stored as keyframes for a single animation.
+     * <p>
+     * The keyframes of a single animation may take up 1/64th of the maximum heap size, but no less than 4 MiB and no
+     * more than 64 MiB. Every value requires 8 bytes, so this results in 2^19 to 2^23 values. For example, a heap of
+     * 2 GiB allows for 32 MiB (2^22 values) of keyframes.
+     *
+     * @param maxMemory
+     *     The maximum size of the heap in bytes. See {@link Runtime#maxMemory()}.
+     * @return The default maximum number of values.
+     */
+    static long getDefaultMaxValues(long maxMemory)
+    {
+        final long values = maxMemory / 64 / Double.BYTES;
+        return Math.max(MIN_DEFAULT_MAX_VALUES, Math.min(MAX_DEFAULT_MAX_VALUES, values));
+    }
+
+    /**
+     * Computes the goal positions of a range of animated blocks for a single step of the animation.
+     * <p>
+     * See {@link IInPlaceAnimationComponent#computeGoalPositions(AnimationBlockState, int, int, int)}.
+     */
+    public void computeGoalPositions(AnimationBlockState state, int ticks, int from, int to)
+    {
+        final int frame = periodic && frameCount > 0 ? Math.floorMod(ticks, frameCount) : ticks;
+        final double @Nullable [] frames0 = frame < 0 || frame >= frameCount ? null : getFrames(state);
+        if (frames0 == null)
+        {
+            kernel.computeGoalPositions(state, ticks, from, to);
+            return;
+        }
+
+        int offset = 3 * (frame * state.size() + from);
+        for (int idx = from; idx < to; ++idx, offset += 3)
+            state.setTarget(idx, frames0[offset], frames0[offset + 1], frames0[offset + 2]);
+    }
+
+    /**
+     * Gets the keyframes for the provided state, computing them if needed.
+     * <p>
+     * Once the keyframes have been computed, they are read without any locking. While the keyframes are computed, no
+     * other thread can compute the goal positions of the same animation, as computing the keyframes uses the targets
+     * of the state as scratch space.
+     *
+     * @return The keyframes for the provided state, or null if they would take up too much memory.
+     */
+    private double @Nullable [] getFrames(AnimationBlockState state)
+    {
+        final @Nullable Frames frames0 = frames;
+        if (frames0 != null && frames0.state() == state)
+            return frames0.values();
+
+        synchronized (this)
+        {
+            final @Nullable Frames frames1 = frames;
+            if (frames1 != null && frames1.state() == state)
+                return frames1.values();
+
+            final Frames newFrames = new Frames(state, computeFrames(state));
+            frames = newFrames;
+            return newFrames.values();
+        }
+    }
+
+    /**
+     * Computes the keyframes for the provided state.
+     *
+     * @return The keyframes for the provided state, or null if they would take up too much memory.
+     */
+    private double @Nullable [] computeFrames(AnimationBlockState state)
+    {
+        final int size = state.size();
+        final long values = 3L * size * frameCount;
+        if (values > maxValues || values > MAX_ARRAY_LENGTH)
+            return null;
+
+        final double[] newFrames = new double[(int) values];
+        int offset = 0;
+        for (int frame = 0; frame < frameCount; ++frame)
+        {
+            kernel.computeGoalPositions(state, frame, 0, size);
+            for (int idx = 0; idx < size; ++idx)
+            {
+                newFrames[offset++] = state.getTargetX(idx);
+                newFrames[offset++] = state.getTargetY(idx);
+                newFrames[offset++] = state.getTargetZ(idx);
+            }
+        }
+        return newFrames;
+    }
+
+    /**
+     * Checks if the keyframes for the provided state have been computed.
+     *
+     * @param state
+     *     The state to check.
+     * @return True if the goal positions for the state are looked up from the keyframes.
+     */
+    public boolean hasKeyframes(AnimationBlockState state)
+    {
+        final @Nullable Frames frames0 = frames;
+        return frames0 != null && frames0.state() == state && frames0.values() != null;
+    }
+
+    /**
+     * The keyframes computed for a single state.
+     *
+     * @param state
+     *     The state the keyframes were computed for.
+     * @param values
+     *     The goal positions of every block for every frame. The position of block b in frame f starts at index
+     *     3 * (f * size + b), so all positions of a single frame are next to each other in memory.
+     *     <p>
+     *     This is null if the keyframes would take up too much memory.
+     */
+    private record Frames(AnimationBlockState state, double @Nullable [] values)
+    {
+    }
+
+    /**
+     * Computes the goal positions of a range of animated blocks for a single tick directly.
+     */
+    @FunctionalInterface
+    public interface Kernel
+    {
+        /**
+         * See {@link IInPlaceAnimationComponent#computeGoalPositions(AnimationBlockState, int, int, int)}.
+         */
+        void computeGoalPositions(AnimationBlockState state, int ticks, int from, int to);
+    }
+}
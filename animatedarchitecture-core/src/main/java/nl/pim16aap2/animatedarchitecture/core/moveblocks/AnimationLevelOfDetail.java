@@ -0,0 +1,120 @@
+package nl.pim16aap2.animatedarchitecture.core.moveblocks;
+
+/**
+ * Represents the level of detail with which the animated blocks of an animation are updated for clients.
+ * <p>
+ * The level of detail of an animation depends on the distance between the animation and the nearest player that may
+ * see it. Regardless of the level of detail, the logical position of every animated block is always kept up-to-date.
+ *
+ * @author Pim
+ */
+public enum AnimationLevelOfDetail
+{
+    /**
+     * The animated blocks are updated every tick.
+     * <p>
+     * When an animation switches to this level of detail from any other level of detail, clients may have missed
+     * updates, so the animated blocks have to be resynchronized once (see
+     * {@link #requiresResync(AnimationLevelOfDetail)}).
+     */
+    FULL,
+
+    /**
+     * The animated blocks are only updated on keyframes (see {@link #KEYFRAME_INTERVAL}). In between keyframes, clients
+     * interpolate the movement based on the most recent velocity of the animated blocks.
+     */
+    REDUCED,
+
+    /**
+     * There are no players nearby that could see the animation. The animated blocks are moved without informing any
+     * clients until the final step of the animation.
+     * <p>
+     * When an animation becomes hidden, the velocity of its animated blocks should be reset once (see
+     * {@link #requiresVelocityReset(AnimationLevelOfDetail)}), so clients stop interpolating their movement.
+     */
+    HIDDEN,
+    ;
+
+    /**
+     * The number of ticks between two keyframes for {@link #REDUCED} animations.
+     */
+    public static final int KEYFRAME_INTERVAL = 5;
+
+    /**
+     * Gets the level of detail for an animation.
+     *
+     * @param nearestPlayerDistance
+     *     The distance between the animation and the nearest player. This should be {@link Double#POSITIVE_INFINITY}
+     *     when there are no players at all.
+     * @param reducedDistance
+     *     The distance beyond which the level of detail is reduced. Values less than 1 disable the level of detail
+     *     system altogether.
+     * @param hiddenDistance
+     *     The distance beyond which the animation is considered to be hidden. Values less than 1 disable hiding
+     *     animations while there are players. When there are no players at all, the animation is always hidden.
+     * @return The level of detail for the animation.
+     */
+    public static AnimationLevelOfDetail of(double nearestPlayerDistance, int reducedDistance, int hiddenDistance)
+    {
+        if (reducedDistance < 1)
+            return FULL;
+        if (nearestPlayerDistance == Double.POSITIVE_INFINITY)
+            return HIDDEN;
+        if (hiddenDistance > 0 && nearestPlayerDistance > hiddenDistance)
+            return HIDDEN;
+        return nearestPlayerDistance > reducedDistance ? REDUCED : FULL;
+    }
+
+    /**
+     * Checks if clients should be informed of the movement of an animated block.
+     *
+     * @param ticksLived
+     *     The number of ticks the animated block has existed for.
+     * @param ticksRemaining
+     *     The number of ticks remaining in the animation. Values less than 1 indicate that the animation is in its
+     *     final step or in the finishing phase, in which case all updates are sent.
+     * @return True if the movement should be sent to clients.
+     */
+    public boolean shouldUpdateClients(int ticksLived, int ticksRemaining)
+    {
+        if (ticksRemaining < 1)
+            return true;
+        return switch (this)
+            {
+                case FULL -> true;
+                case REDUCED -> ticksLived % KEYFRAME_INTERVAL == 0;
+                case HIDDEN -> false;
+            };
+    }
+
+    /**
+     * Checks if the velocity of the animated blocks should be reset when switching to this level of detail.
+     * <p>
+     * Clients keep moving the animated blocks using the last velocity they received. Hidden animations do not send
+     * any updates, so the velocity has to be reset when an animation becomes hidden.
+     *
+     * @param previous
+     *     The level of detail that was used for the previous step of the animation.
+     * @return True if the velocity of all animated blocks should be set to zero.
+     */
+    public boolean requiresVelocityReset(AnimationLevelOfDetail previous)
+    {
+        return this == HIDDEN && previous != HIDDEN;
+    }
+
+    /**
+     * Checks if clients should be resynchronized with the animated blocks when switching to this level of detail.
+     * <p>
+     * Only {@link #FULL} animations move their animated blocks relative to the positions the clients already know
+     * about. Other levels of detail skip updates, so the clients have to be sent the absolute positions of the
+     * animated blocks once when an animation returns to full detail.
+     *
+     * @param previous
+     *     The level of detail that was used for the previous step of the animation.
+     * @return True if the animated blocks should be teleported to their absolute positions once.
+     */
+    public boolean requiresResync(AnimationLevelOfDetail previous)
+    {
+        return this == FULL && previous != FULL;
+    }
+}
@@ -10,6 +10,7 @@ import nl.pim16aap2.animatedarchitecture.core.api.IPlayer;
 import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.AnimatedPreviewBlock;
 import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.AnimationContext;
 import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlock;
+import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.PreviewFrame;
 import nl.pim16aap2.animatedarchitecture.core.structures.StructureSnapshot;
 import nl.pim16aap2.animatedarchitecture.core.util.Cuboid;
 import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Dd;
@@ -23,6 +24,8 @@ import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * A manager for {@link AnimatedPreviewBlock}s.
+ * <p>
+ * The positions that are previewed are determined by the {@link PreviewDetail}.
  */
 @Flogger
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
@@ -32,6 +35,9 @@ public class AnimationPreviewBlockManager implements IAnimationBlockManager
     private final ILocationFactory locationFactory;
     private final GlowingBlockSpawner glowingBlockSpawner;
     private final IPlayer player;
+    private final PreviewDetail previewDetail;
+    private final int previewStride;
+    private final int maxPreviewBlocks;
 
     /**
      * The modifiable list of animated blocks.
@@ -46,11 +52,15 @@ public class AnimationPreviewBlockManager implements IAnimationBlockManager
     private final List<IAnimatedBlock> animatedBlocks;
 
     AnimationPreviewBlockManager(
-        ILocationFactory locationFactory, GlowingBlockSpawner glowingBlockSpawner, IPlayer player)
+        ILocationFactory locationFactory, GlowingBlockSpawner glowingBlockSpawner, IPlayer player,
+        PreviewDetail previewDetail, int previewStride, int maxPreviewBlocks)
     {
         this.locationFactory = locationFactory;
         this.glowingBlockSpawner = glowingBlockSpawner;
         this.player = player;
+        this.previewDetail = previewDetail;
+        this.previewStride = previewStride;
+        this.maxPreviewBlocks = maxPreviewBlocks;
 
         privateAnimatedBlocks = new CopyOnWriteArrayList<>();
         animatedBlocks = Collections.unmodifiableList(privateAnimatedBlocks);
@@ -61,39 +71,30 @@ public class AnimationPreviewBlockManager implements IAnimationBlockManager
         StructureSnapshot snapshot, IAnimationComponent animationComponent, AnimationContext animationContext,
         Animator.MovementMethod movementMethod)
     {
-        final List<IAnimatedBlock> animatedBlocksTmp = new ArrayList<>(snapshot.getBlockCount());
+        final Cuboid cuboid = snapshot.getCuboid();
+        final List<Vector3Di> positions = previewDetail.getPositions(cuboid, previewStride, maxPreviewBlocks);
+        final List<IAnimatedBlock> animatedBlocksTmp = new ArrayList<>(positions.size());
+        final PreviewFrame previewFrame = new PreviewFrame();
 
         try
         {
-            final Cuboid cuboid = snapshot.getCuboid();
-            final int xMin = cuboid.getMin().x();
-            final int yMin = cuboid.getMin().y();
-            final int zMin = cuboid.getMin().z();
-
-            final int xMax = cuboid.getMax().x();
-            final int yMax = cuboid.getMax().y();
-            final int zMax = cuboid.getMax().z();
-
-            for (int xAxis = xMin; xAxis <= xMax; ++xAxis)
-                for (int yAxis = yMax; yAxis >= yMin; --yAxis)
-                    for (int zAxis = zMin; zAxis <= zMax; ++zAxis)
-                    {
-                        if ((xAxis + yAxis + zAxis) % 2 == 0)
-                            continue;
-
-                        final Vector3Di position = new Vector3Di(xAxis, yAxis, zAxis);
-
-                        final float radius = animationComponent.getRadius(xAxis, yAxis, zAxis);
-                        final float startAngle = animationComponent.getStartAngle(xAxis, yAxis, zAxis);
-                        final Color color = getColor(cuboid, position);
-                        final Vector3Dd startPosition = new Vector3Dd(xAxis + 0.5, yAxis, zAxis + 0.5);
-                        final Vector3Dd finalPosition = animationComponent.getFinalPosition(startPosition, radius);
-
-                        animatedBlocksTmp.add(
-                            new AnimatedPreviewBlock(
-                                locationFactory, glowingBlockSpawner, snapshot.getWorld(), player, startPosition,
-                                finalPosition, startAngle, radius, color));
-                    }
+            for (final Vector3Di position : positions)
+            {
+                final int xAxis = position.x();
+                final int yAxis = position.y();
+                final int zAxis = position.z();
+
+                final float radius = animationComponent.getRadius(xAxis, yAxis, zAxis);
+                final float startAngle = animationComponent.getStartAngle(xAxis, yAxis, zAxis);
+                final Color color = getColor(cuboid, position);
+                final Vector3Dd startPosition = new Vector3Dd(xAxis + 0.5, yAxis, zAxis + 0.5);
+                final Vector3Dd finalPosition = animationComponent.getFinalPosition(startPosition, radius);
+
+                animatedBlocksTmp.add(
+                    new AnimatedPreviewBlock(
+                        locationFactory, glowingBlockSpawner, snapshot.getWorld(), player, startPosition,
+                        finalPosition, startAngle, radius, color, previewFrame));
+            }
         }
         catch (Exception e)
         {
@@ -27,6 +27,8 @@ public final class AnimationRequestData
     private final IAudioPlayer audioPlayer;
     private final IExecutor executor;
     private final AnimationHookManager animationHookManager;
+    private final AnimationTicker animationTicker;
+    private final AnimationStepExecutor animationStepExecutor;
     private final GlowingBlockSpawner glowingBlockSpawner;
     private final IConfig config;
     private final int serverTickTime;
@@ -45,6 +47,8 @@ public final class AnimationRequestData
         IAudioPlayer audioPlayer,
         IExecutor executor,
         AnimationHookManager animationHookManager,
+        AnimationTicker animationTicker,
+        AnimationStepExecutor animationStepExecutor,
         @Named("serverTickTime") int serverTickTime,
         GlowingBlockSpawner glowingBlockSpawner,
         IConfig config,
@@ -62,6 +66,8 @@ public final class AnimationRequestData
         this.audioPlayer = audioPlayer;
         this.executor = executor;
         this.animationHookManager = animationHookManager;
+        this.animationTicker = animationTicker;
+        this.animationStepExecutor = animationStepExecutor;
         this.glowingBlockSpawner = glowingBlockSpawner;
         this.config = config;
         this.serverTickTime = serverTickTime;
@@ -0,0 +1,275 @@
+package nl.pim16aap2.animatedarchitecture.core.moveblocks;
+
+import lombok.extern.flogger.Flogger;
+import nl.pim16aap2.animatedarchitecture.core.api.IConfig;
+import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlock;
+import nl.pim16aap2.animatedarchitecture.core.api.restartable.Restartable;
+import nl.pim16aap2.animatedarchitecture.core.api.restartable.RestartableHolder;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.IVector3D;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Executes the steps of animations according to the configured {@link AnimationExecutionMode}.
+ * <p>
+ * In {@link AnimationExecutionMode#PARALLEL} mode, the steps of different animators are executed concurrently and the
+ * goal positions of large animations are computed on a dedicated fork-join pool. Moving the animated blocks themselves
+ * is always done by a single thread per animator, so the movements of each animated block remain ordered.
+ *
+ * @author Pim
+ */
+@Singleton
+@Flogger
+public final class AnimationStepExecutor extends Restartable
+{
+    /**
+     * The minimum number of animated blocks handled by a single task when computing goal positions in parallel.
+     * <p>
+     * Animations with fewer than twice this number of blocks are always computed on the calling thread.
+     */
+    static final int PARTITION_SIZE = 1024;
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger(0);
+
+    private final IConfig config;
+
+    @GuardedBy("this")
+    private @Nullable ForkJoinPool pool = null;
+
+    @Inject
+    public AnimationStepExecutor(RestartableHolder holder, IConfig config)
+    {
+        super(holder);
+        this.config = config;
+    }
+
+    /**
+     * @return True if steps should be executed in parallel.
+     */
+    private boolean isParallel()
+    {
+        return config.animationExecutionMode() == AnimationExecutionMode.PARALLEL;
+    }
+
+    private synchronized ForkJoinPool getPool()
+    {
+        if (pool == null)
+            pool = new ForkJoinPool(
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+                AnimationStepExecutor::newWorkerThread, null, false);
+        return pool;
+    }
+
+    private static ForkJoinWorkerThread newWorkerThread(ForkJoinPool pool)
+    {
+        final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("AnimatedArchitecture-animation-" + THREAD_COUNTER.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Executes a number of animation steps.
+     * <p>
+     * Depending on the configured {@link AnimationExecutionMode}, these steps are either executed serially on the
+     * current thread or concurrently on the fork-join pool. In both cases, this method only returns once all steps have
+     * been executed.
+     *
+     * @param steps
+     *     The steps to execute.
+     */
+    void executeSteps(List<? extends Runnable> steps)
+    {
+        if (steps.size() < 2 || !isParallel())
+        {
+            steps.forEach(Runnable::run);
+            return;
+        }
+
+        final ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[steps.size()];
+        final ForkJoinPool pool0 = getPool();
+        for (int idx = 0; idx < tasks.length; ++idx)
+            tasks[idx] = pool0.submit(steps.get(idx));
+        for (final ForkJoinTask<?> task : tasks)
+            task.join();
+    }
+
+    /**
+     * Moves all animated blocks of an animator to the goal positions provided by a goal position function.
+     * <p>
+     * When running in parallel mode, the goal positions of large animations are computed in parallel. The movements are
+     * always applied in order on the current thread.
+     *
+     * @param animator
+     *     The animator that owns the animated blocks.
+     * @param animatedBlocks
+     *     The animated blocks to move.
+     * @param goalPositionFunction
+     *     The function that computes the goal position of an animated block. This function may be called concurrently
+     *     from different threads.
+     * @param ticksRemaining
+     *     The number of ticks remaining in the animation.
+     */
+    void applyMovement(
+        IAnimator animator, List<IAnimatedBlock> animatedBlocks,
+        Function<IAnimatedBlock, ? extends IVector3D> goalPositionFunction, int ticksRemaining)
+    {
+        final int size = animatedBlocks.size();
+        if (size < 2 * PARTITION_SIZE || !isParallel())
+        {
+            for (final IAnimatedBlock animatedBlock : animatedBlocks)
+                animator.applyMovement(animatedBlock, goalPositionFunction.apply(animatedBlock), ticksRemaining);
+            return;
+        }
+
+        final IVector3D[] goalPositions = new IVector3D[size];
+        final GoalPositionTask task =
+            new GoalPositionTask(animatedBlocks, goalPositionFunction, goalPositions, 0, size);
+        final ForkJoinPool pool0 = getPool();
+        if (ForkJoinTask.getPool() == pool0)
+            task.invoke();
+        else
+            pool0.invoke(task);
+
+        for (int idx = 0; idx < size; ++idx)
+            animator.applyMovement(animatedBlocks.get(idx), goalPositions[idx], ticksRemaining);
+    }
+
+    /**
+     * Computes the goal positions of all animated blocks of an animation using an {@link IInPlaceAnimationComponent}.
+     * <p>
+     * When running in parallel mode, the goal positions of large animations are computed in parallel. This method only
+     * returns once all goal positions have been written to the provided state.
+     *
+     * @param component
+     *     The component that computes the goal positions.
+     * @param state
+     *     The state to write the goal positions to.
+     * @param ticks
+     *     The number of ticks that have passed since the start of the animation.
+     */
+    void computeGoalPositions(IInPlaceAnimationComponent component, AnimationBlockState state, int ticks)
+    {
+        final int size = state.size();
+        if (size < 2 * PARTITION_SIZE || !isParallel())
+        {
+            component.computeGoalPositions(state, ticks, 0, size);
+            return;
+        }
+
+        final InPlaceGoalPositionTask task = new InPlaceGoalPositionTask(component, state, ticks, 0, size);
+        final ForkJoinPool pool0 = getPool();
+        if (ForkJoinTask.getPool() == pool0)
+            task.invoke();
+        else
+            pool0.invoke(task);
+    }
+
+    @Override
+    public synchronized void shutDown()
+    {
+        final @Nullable ForkJoinPool pool0 = pool;
+        if (pool0 == null)
+            return;
+        pool = null;
+
+        pool0.shutdown();
+        try
+        {
+            if (!pool0.awaitTermination(5, TimeUnit.SECONDS))
+                log.atSevere().log("Timed out waiting for animation step executor to terminate!");
+        }
+        catch (InterruptedException e)
+        {
+            log.atSevere().withCause(e).log("Interrupted while waiting for animation step executor to terminate!");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Computes the goal positions of a range of animated blocks, splitting the range into smaller tasks when it is
+     * larger than {@link #PARTITION_SIZE}.
+     */
+    private static final class GoalPositionTask extends RecursiveAction
+    {
+        private final transient List<IAnimatedBlock> animatedBlocks;
+        private final transient Function<IAnimatedBlock, ? extends IVector3D> goalPositionFunction;
+        private final transient IVector3D[] goalPositions;
+        private final int from;
+        private final int to;
+
+        private GoalPositionTask(
+            List<IAnimatedBlock> animatedBlocks, Function<IAnimatedBlock, ? extends IVector3D> goalPositionFunction,
+            IVector3D[] goalPositions, int from, int to)
+        {
+            this.animatedBlocks = animatedBlocks;
+            this.goalPositionFunction = goalPositionFunction;
+            this.goalPositions = goalPositions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from <= PARTITION_SIZE)
+            {
+                for (int idx = from; idx < to; ++idx)
+                    goalPositions[idx] = goalPositionFunction.apply(animatedBlocks.get(idx));
+                return;
+            }
+
+            final int mid = (from + to) >>> 1;
+            invokeAll(new GoalPositionTask(animatedBlocks, goalPositionFunction, goalPositions, from, mid),
+                      new GoalPositionTask(animatedBlocks, goalPositionFunction, goalPositions, mid, to));
+        }
+    }
+
+    /**
+     * Lets an {@link IInPlaceAnimationComponent} compute the goal positions of a range of animated blocks, splitting
+     * the range into smaller tasks when it is larger than {@link #PARTITION_SIZE}.
+     */
+    private static final class InPlaceGoalPositionTask extends RecursiveAction
+    {
+        private final transient IInPlaceAnimationComponent component;
+        private final transient AnimationBlockState state;
+        private final int ticks;
+        private final int from;
+        private final int to;
+
+        private InPlaceGoalPositionTask(
+            IInPlaceAnimationComponent component, AnimationBlockState state, int ticks, int from, int to)
+        {
+            this.component = component;
+            this.state = state;
+            this.ticks = ticks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from <= PARTITION_SIZE)
+            {
+                component.computeGoalPositions(state, ticks, from, to);
+                return;
+            }
+
+            final int mid = (from + to) >>> 1;
+            invokeAll(new InPlaceGoalPositionTask(component, state, ticks, from, mid),
+                      new InPlaceGoalPositionTask(component, state, ticks, mid, to));
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package nl.pim16aap2.animatedarchitecture.core.moveblocks;
+
+import lombok.extern.flogger.Flogger;
+import nl.pim16aap2.animatedarchitecture.core.api.IExecutor;
+import nl.pim16aap2.animatedarchitecture.core.api.debugging.DebuggableRegistry;
+import nl.pim16aap2.animatedarchitecture.core.api.debugging.IDebuggable;
+import nl.pim16aap2.animatedarchitecture.core.api.restartable.Restartable;
+import nl.pim16aap2.animatedarchitecture.core.api.restartable.RestartableHolder;
+import nl.pim16aap2.util.SafeStringBuilder;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives all active animations from a single repeating task.
+ * <p>
+ * Instead of every {@link Animator} scheduling its own repeating task, animators register a step function with this
+ * ticker. Every tick, all registered step functions are executed in a single pass, in order of registration.
+ * <p>
+ * Each registration has its own start delay, so animations retain their own phase regardless of when the shared task
+ * was started.
+ * <p>
+ * The steps that are due in a tick are executed by the {@link AnimationStepExecutor}, which may run them concurrently
+ * depending on the configured {@link AnimationExecutionMode}.
+ *
+ * @author Pim
+ */
+@Singleton
+@Flogger
+public final class AnimationTicker extends Restartable implements IDebuggable
+{
+    /**
+     * The weight of the newest sample in the exponential moving average of the tick duration.
+     */
+    private static final double AVERAGE_WEIGHT = 0.05D;
+
+    private final IExecutor executor;
+
+    private final AnimationStepExecutor stepExecutor;
+
+    private final Queue<TickRegistration> registrations = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The registrations whose step functions are due in the current tick.
+     * <p>
+     * This list is only accessed from the thread executing {@link #tick()} and is reused between ticks.
+     */
+    private final List<TickRegistration> dueRegistrations = new ArrayList<>();
+
+    /**
+     * The task that runs {@link #tick()}.
+     * <p>
+     * This is null when no animations are registered.
+     */
+    @GuardedBy("this")
+    private @Nullable TimerTask tickTask = null;
+
+    /**
+     * The ID of the {@link #tickTask}.
+     */
+    @GuardedBy("this")
+    private int tickTaskId = -1;
+
+    /**
+     * The number of ticks executed by this ticker since it was last started.
+     */
+    private volatile long tickCount = 0;
+
+    private volatile long lastTickDuration = 0;
+    private volatile long maxTickDuration = 0;
+    private volatile double averageTickDuration = 0;
+
+    @Inject
+    public AnimationTicker(
+        RestartableHolder holder, IExecutor executor, AnimationStepExecutor stepExecutor,
+        DebuggableRegistry debuggableRegistry)
+    {
+        super(holder);
+        this.executor = executor;
+        this.stepExecutor = stepExecutor;
+        debuggableRegistry.registerDebuggable(this);
+    }
+
+    /**
+     * Registers a new step function with this ticker.
+     * <p>
+     * The step function will be called once every tick from the ticker's thread until the returned registration is
+     * cancelled.
+     *
+     * @param step
+     *     The function to execute every tick.
+     * @param delay
+     *     The number of ticks to wait before the first execution of the step function.
+     * @return The registration that can be used to stop the step function from being executed.
+     */
+    public TickRegistration register(Runnable step, long delay)
+    {
+        final TickRegistration registration = new TickRegistration(step, Math.max(0, delay));
+        registrations.add(registration);
+        ensureRunning();
+        return registration;
+    }
+
+    /**
+     * Starts the repeating tick task if it isn't running already.
+     */
+    private synchronized void ensureRunning()
+    {
+        if (tickTask != null)
+            return;
+
+        final TimerTask task = new TimerTask()
+        {
+            @Override
+            public void run()
+            {
+                tick();
+            }
+        };
+        tickCount = 0;
+        tickTask = task;
+        tickTaskId = executor.runAsyncRepeated(task, 0, 1);
+    }
+
+    /**
+     * Stops the repeating tick task if there are no more registrations.
+     */
+    private synchronized void stopIfIdle()
+    {
+        if (tickTask == null || !registrations.isEmpty())
+            return;
+        cancelTask();
+    }
+
+    @GuardedBy("this")
+    private void cancelTask()
+    {
+        final @Nullable TimerTask task = tickTask;
+        if (task == null)
+            return;
+        executor.cancel(task, tickTaskId);
+        tickTask = null;
+        tickTaskId = -1;
+    }
+
+    /**
+     * Executes a single step of every registered animation.
+     */
+    private void tick()
+    {
+        final long start = System.nanoTime();
+        final long currentTick = tickCount++;
+
+        final Iterator<TickRegistration> it = registrations.iterator();
+        while (it.hasNext())
+        {
+            final TickRegistration registration = it.next();
+            if (registration.cancelled)
+            {
+                it.remove();
+                continue;
+            }
+            if (registration.isDue(currentTick))
+                dueRegistrations.add(registration);
+        }
+
+        try
+        {
+            stepExecutor.executeSteps(dueRegistrations);
+        }
+        finally
+        {
+            dueRegistrations.clear();
+        }
+
+        final long duration = System.nanoTime() - start;
+        lastTickDuration = duration;
+        if (duration > maxTickDuration)
+            maxTickDuration = duration;
+        averageTickDuration = averageTickDuration == 0 ?
+                              duration :
+                              (1 - AVERAGE_WEIGHT) * averageTickDuration + AVERAGE_WEIGHT * duration;
+
+        if (registrations.isEmpty())
+            stopIfIdle();
+    }
+
+    /**
+     * @return The number of registrations that are currently active.
+     */
+    public int getActiveCount()
+    {
+        return (int) registrations.stream().filter(registration -> !registration.cancelled).count();
+    }
+
+    /**
+     * @return The duration (in nanoseconds) of the most recent tick.
+     */
+    public long getLastTickDuration()
+    {
+        return lastTickDuration;
+    }
+
+    /**
+     * @return The exponential moving average of the duration (in nanoseconds) of all ticks.
+     */
+    public double getAverageTickDuration()
+    {
+        return averageTickDuration;
+    }
+
+    /**
+     * @return The duration (in nanoseconds) of the slowest tick since this ticker was initialized.
+     */
+    public long getMaxTickDuration()
+    {
+        return maxTickDuration;
+    }
+
+    @Override
+    public synchronized void initialize()
+    {
+        maxTickDuration = 0;
+        averageTickDuration = 0;
+        lastTickDuration = 0;
+    }
+
+    @Override
+    public synchronized void shutDown()
+    {
+        registrations.forEach(TickRegistration::cancel);
+        registrations.clear();
+        cancelTask();
+    }
+
+    @Override
+    public String getDebugInformation()
+    {
+        return new SafeStringBuilder("AnimationTicker:\n")
+            .append("  Running: ").append(this::isRunning).append('\n')
+            .append("  Active animations: ").append(this::getActiveCount).append('\n')
+            .append("  Last tick: ").append(() -> formatMillis(lastTickDuration)).append('\n')
+            .append("  Average tick: ").append(() -> formatMillis((long) averageTickDuration)).append('\n')
+            .append("  Slowest tick: ").append(() -> formatMillis(maxTickDuration)).append('\n')
+            .toString();
+    }
+
+    private synchronized boolean isRunning()
+    {
+        return tickTask != null;
+    }
+
+    private static String formatMillis(long nanos)
+    {
+        return String.format("%.3fms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Represents a step function registered with an {@link AnimationTicker}.
+     */
+    public static final class TickRegistration implements Runnable
+    {
+        private final Runnable step;
+
+        /**
+         * The number of ticks to wait before the first execution of the step function.
+         */
+        private final long delay;
+
+        /**
+         * The tick of the ticker at which this registration was first seen.
+         * <p>
+         * This is used to offset the delay by the tick in which the registration was added.
+         */
+        private long firstTick = -1;
+
+        private volatile boolean cancelled = false;
+
+        private TickRegistration(Runnable step, long delay)
+        {
+            this.step = step;
+            this.delay = delay;
+        }
+
+        /**
+         * Checks if the step function should be executed in the given tick.
+         *
+         * @param currentTick
+         *     The current tick of the ticker.
+         * @return True if the start delay of this registration has passed.
+         */
+        private boolean isDue(long currentTick)
+        {
+            if (firstTick < 0)
+                firstTick = currentTick;
+            return currentTick - firstTick >= delay;
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                step.run();
+            }
+            catch (Exception e)
+            {
+                log.atSevere().atMostEvery(10, TimeUnit.SECONDS).withCause(e)
+                   .log("Failed to execute animation step!");
+            }
+        }
+
+        /**
+         * Cancels this registration. The step function will not be executed again after this method returns, unless
+         * it is currently being executed.
+         */
+        public void cancel()
+        {
+            cancelled = true;
+        }
+
+        /**
+         * @return True if this registration has been cancelled.
+         */
+        public boolean isCancelled()
+        {
+            return cancelled;
+        }
+    }
+}
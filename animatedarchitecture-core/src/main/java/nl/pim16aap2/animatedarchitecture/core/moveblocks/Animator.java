@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.flogger.Flogger;
 import nl.pim16aap2.animatedarchitecture.core.events.StructureActionCause;
+import nl.pim16aap2.animatedarchitecture.core.api.IConfig;
 import nl.pim16aap2.animatedarchitecture.core.api.IExecutor;
 import nl.pim16aap2.animatedarchitecture.core.api.IPlayer;
 import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.AnimationContext;
@@ -22,10 +23,11 @@ import nl.pim16aap2.animatedarchitecture.core.structures.structurearchetypes.IPe
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
-import java.util.Objects;
-import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static nl.pim16aap2.animatedarchitecture.core.moveblocks.Animation.AnimationState;
 
@@ -48,6 +50,11 @@ public final class Animator implements IAnimator
      */
     private static final long VERIFY_REDSTONE_DELAY = 20;
 
+    /**
+     * The number of animation steps between two updates of the {@link AnimationLevelOfDetail} of the animation.
+     */
+    private static final int LEVEL_OF_DETAIL_UPDATE_INTERVAL = 20;
+
     /**
      * The structure whose blocks are going to be moved.
      */
@@ -96,6 +103,15 @@ public final class Animator implements IAnimator
     @ToString.Exclude
     private final AnimationHookManager animationHookManager;
 
+    @ToString.Exclude
+    private final IConfig config;
+
+    @ToString.Exclude
+    private final AnimationTicker animationTicker;
+
+    @ToString.Exclude
+    private final AnimationStepExecutor animationStepExecutor;
+
     @ToString.Exclude
     private final int serverTickTime;
 
@@ -133,22 +149,30 @@ public final class Animator implements IAnimator
      */
     private final AtomicBoolean hasStarted = new AtomicBoolean(false);
 
+    /**
+     * Keeps track of whether the animated blocks are being staged over multiple ticks before the animation starts.
+     * <p>
+     * See {@link IAnimationBlockManager#stageAnimatedBlocks}.
+     */
+    private final AtomicBoolean isStaging = new AtomicBoolean(false);
+
+    /**
+     * Completed once this animator has finished. See {@link #whenFinished()}.
+     */
+    @ToString.Exclude
+    private final CompletableFuture<Void> finished = new CompletableFuture<>();
+
     @Getter
     private final AnimationType animationType;
 
     private volatile @Nullable List<IAnimationHook> hooks;
 
     /**
-     * The task that moves the animated blocks.
+     * The registration of the step function that moves the animated blocks with the {@link AnimationTicker}.
      * <p>
      * This will be null until the animation starts (if it does, see {@link #skipAnimation}).
      */
-    private volatile @Nullable TimerTask moverTask = null;
-
-    /**
-     * The ID of the {@link #moverTask}.
-     */
-    private volatile @Nullable Integer moverTaskID = null;
+    private volatile @Nullable AnimationTicker.TickRegistration moverTask = null;
 
     /**
      * The duration of the animation measured in ticks.
@@ -168,6 +192,14 @@ public final class Animator implements IAnimator
 
     private volatile @Nullable Animation<IAnimatedBlock> animationData;
 
+    /**
+     * The coordinates of the animated blocks used by {@link IInPlaceAnimationComponent}s.
+     * <p>
+     * This is created when it is first needed and reused for every step afterwards.
+     */
+    @ToString.Exclude
+    private volatile @Nullable AnimationBlockState animationBlockState;
+
     /**
      * Constructs a {@link Animator}.
      * <p>
@@ -189,6 +221,9 @@ public final class Animator implements IAnimator
         executor = data.getExecutor();
         structureActivityManager = data.getStructureActivityManager();
         animationHookManager = data.getAnimationHookManager();
+        config = data.getConfig();
+        animationTicker = data.getAnimationTicker();
+        animationStepExecutor = data.getAnimationStepExecutor();
         serverTickTime = data.getServerTickTime();
 
         this.movementMethod = animationComponent.getMovementMethod();
@@ -225,6 +260,12 @@ public final class Animator implements IAnimator
      */
     public void stopAnimation()
     {
+        // Nothing has moved yet while staging, so the best way to stop is to restore the original blocks.
+        if (isStaging.get())
+        {
+            executor.runOnMainThread(this::abortStaging);
+            return;
+        }
         this.stopAnimation(animationData);
     }
 
@@ -233,9 +274,15 @@ public final class Animator implements IAnimator
      */
     public void abort()
     {
-        final @Nullable TimerTask moverTask0 = moverTask;
+        if (isStaging.get())
+        {
+            executor.runOnMainThread(this::abortStaging);
+            return;
+        }
+
+        final @Nullable AnimationTicker.TickRegistration moverTask0 = moverTask;
         if (moverTask0 != null)
-            executor.cancel(moverTask0, Objects.requireNonNull(moverTaskID));
+            moverTask0.cancel();
         putBlocks();
         forEachHook("onAnimationAborted", IAnimationHook::onAnimationAborted);
     }
@@ -314,12 +361,35 @@ public final class Animator implements IAnimator
 
         final AnimationContext animationContext = new AnimationContext(structure.getType(), snapshot, animation);
 
+        final int blocksPerTick = config.animatedBlocksPerTick();
+        if (!skipAnimation && blocksPerTick > 0 && oldCuboid.getVolume() > blocksPerTick)
+        {
+            isStaging.set(true);
+            animationBlockManager
+                .stageAnimatedBlocks(snapshot, animationComponent, animationContext, movementMethod, blocksPerTick)
+                .thenAccept(success -> onAnimatedBlocksStaged(animation, success));
+            return;
+        }
+
         if (!animationBlockManager.createAnimatedBlocks(snapshot, animationComponent, animationContext, movementMethod))
         {
             handleInitFailure();
             return;
         }
 
+        startAnimation1(animation, false);
+    }
+
+    /**
+     * Starts the animation once the animated blocks have been created.
+     *
+     * @param animation
+     *     The animation to start.
+     * @param blocksSpawned
+     *     True if the animated blocks have already been spawned.
+     */
+    private void startAnimation1(Animation<IAnimatedBlock> animation, boolean blocksSpawned)
+    {
         final boolean animationSkipped = skipAnimation || getAnimatedBlocks().isEmpty();
         animation.setState(animationSkipped ? AnimationState.SKIPPED : AnimationState.ACTIVE);
         this.hooks = animationHookManager.instantiateHooks(animation);
@@ -327,14 +397,61 @@ public final class Animator implements IAnimator
         if (animationSkipped)
             putBlocks();
         else
-            animateEntities(animation);
+            animateEntities(animation, blocksSpawned);
+    }
+
+    /**
+     * Handles the completion of the staging of the animated blocks.
+     * <p>
+     * This is called on the main thread.
+     *
+     * @param animation
+     *     The animation whose blocks were staged.
+     * @param success
+     *     True if all animated blocks were created and spawned successfully.
+     */
+    private void onAnimatedBlocksStaged(Animation<IAnimatedBlock> animation, boolean success)
+    {
+        isStaging.set(false);
+        // The animation was aborted while staging, in which case the blocks have already been restored.
+        if (isFinished.get())
+            return;
+
+        if (!success)
+        {
+            handleInitFailure();
+            return;
+        }
+        startAnimation1(animation, true);
+    }
+
+    /**
+     * Aborts the animation while its animated blocks are being staged and restores all blocks that were already
+     * processed.
+     */
+    private void abortStaging()
+    {
+        executor.assertMainThread("Staging must be aborted on the main thread!");
+
+        // The staging may have finished before we got here.
+        if (!isStaging.get())
+        {
+            abort();
+            return;
+        }
+
+        if (isFinished.getAndSet(true))
+            return;
+        animationBlockManager.cancelStaging();
+        handleInitFailure();
     }
 
     /**
      * Handles initialization failure.
      * <p>
      * This means that this block mover will be unregistered, that living animated blocks will be killed, and that we
-     * will attempt to restore blocks to their original positions.
+     * will attempt to restore blocks to their original positions. Any hooks that were already instantiated are
+     * notified that the animation was aborted.
      */
     private void handleInitFailure()
     {
@@ -346,7 +463,37 @@ public final class Animator implements IAnimator
         }
 
         animationBlockManager.restoreBlocksOnFailure();
-        structureActivityManager.processFinishedAnimation(this);
+        // The hooks may already have been instantiated when the animation failed to prepare.
+        forEachHook("onAnimationAborted", IAnimationHook::onAnimationAborted);
+        finish();
+    }
+
+    /**
+     * Unregisters this animator and completes {@link #finished}.
+     */
+    private void finish()
+    {
+        try
+        {
+            structureActivityManager.processFinishedAnimation(this);
+        }
+        finally
+        {
+            finished.complete(null);
+        }
+    }
+
+    /**
+     * Gets a stage that is completed once this animator has finished.
+     * <p>
+     * This is the case once the blocks have been placed in their final positions, or once they have been restored to
+     * their original positions after the animation failed to start.
+     *
+     * @return A stage that is completed once this animator has finished.
+     */
+    public CompletionStage<Void> whenFinished()
+    {
+        return finished.minimalCompletionStage();
     }
 
     /**
@@ -361,6 +508,30 @@ public final class Animator implements IAnimator
         animationComponent.executeAnimationStep(this, ticks, ticksRemaining);
     }
 
+    /**
+     * Updates the {@link AnimationLevelOfDetail} of an animation based on the distance between the animation and the
+     * nearest player.
+     * <p>
+     * This method must be called on the main thread.
+     */
+    private void updateLevelOfDetail(Animation<IAnimatedBlock> animation)
+    {
+        final int reducedDistance = config.animationLevelOfDetailDistance();
+        if (reducedDistance < 1)
+        {
+            animation.setLevelOfDetail(AnimationLevelOfDetail.FULL);
+            return;
+        }
+
+        final Cuboid region = animation.getRegion();
+        final double halfDiagonal = region.getDimensions().magnitude() / 2;
+        final double distance =
+            snapshot.getWorld().getNearestPlayerDistance(region.getCenter()) - halfDiagonal;
+
+        animation.setLevelOfDetail(
+            AnimationLevelOfDetail.of(distance, reducedDistance, config.animationHiddenDistance()));
+    }
+
     private void executeAnimationStep(int counter, Animation<IAnimatedBlock> animation)
     {
         executeAnimationStep(counter, animation.getRemainingSteps());
@@ -372,7 +543,42 @@ public final class Animator implements IAnimator
     @Override
     public void applyMovement(IAnimatedBlock animatedBlock, IVector3D targetPosition, int ticksRemaining)
     {
-        animatedBlock.moveToTarget(new Vector3Dd(targetPosition), ticksRemaining);
+        // Vector3Dd is immutable, so there is no need to copy it.
+        animatedBlock.moveToTarget(Vector3Dd.of(targetPosition), ticksRemaining);
+    }
+
+    @Override
+    public void applyMovement(Function<IAnimatedBlock, ? extends IVector3D> goalPositionFunction, int ticksRemaining)
+    {
+        animationStepExecutor.applyMovement(this, getAnimatedBlocks(), goalPositionFunction, ticksRemaining);
+    }
+
+    @Override
+    public void applyGoalPositions(IInPlaceAnimationComponent component, int ticks, int ticksRemaining)
+    {
+        final List<IAnimatedBlock> animatedBlocks = getAnimatedBlocks();
+
+        @Nullable AnimationBlockState state = animationBlockState;
+        if (state == null || state.size() != animatedBlocks.size())
+        {
+            state = AnimationBlockState.of(animatedBlocks);
+            animationBlockState = state;
+        }
+
+        animationStepExecutor.computeGoalPositions(component, state, ticks);
+
+        for (int idx = 0; idx < state.size(); ++idx)
+            animatedBlocks.get(idx).moveToTarget(
+                state.getTargetX(idx), state.getTargetY(idx), state.getTargetZ(idx), ticksRemaining);
+    }
+
+    /**
+     * Sets the velocity of all animated blocks to zero.
+     */
+    private void resetVelocities()
+    {
+        for (final IAnimatedBlock animatedBlock : getAnimatedBlocks())
+            animatedBlock.setVelocity(new Vector3Dd(0D, 0D, 0D));
     }
 
     private void executeFinishingStep(Animation<IAnimatedBlock> animation)
@@ -396,20 +602,19 @@ public final class Animator implements IAnimator
             animation.setState(AnimationState.STOPPING);
         }
 
-        for (final IAnimatedBlock animatedBlock : getAnimatedBlocks())
-            animatedBlock.setVelocity(new Vector3Dd(0D, 0D, 0D));
+        resetVelocities();
 
         forEachHook("onAnimationEnding", IAnimationHook::onAnimationEnding);
 
         putBlocks();
 
-        final @Nullable TimerTask moverTask0 = moverTask;
+        final @Nullable AnimationTicker.TickRegistration moverTask0 = moverTask;
         if (moverTask0 == null)
         {
             log.atWarning().log("MoverTask unexpectedly null for BlockMover:\n%s", this);
             return;
         }
-        executor.cancel(moverTask0, Objects.requireNonNull(moverTaskID));
+        moverTask0.cancel();
 
         if (animation != null)
         {
@@ -424,11 +629,15 @@ public final class Animator implements IAnimator
      * This method is called right before the animation is started and spawns the animated blocks.
      * <p>
      * Overriding methods should not forget to either call this method or spawn the animated blocks themselves.
+     *
+     * @param blocksSpawned
+     *     True if the animated blocks have already been spawned, in which case they are not spawned again.
      */
-    private void prepareAnimation()
+    private void prepareAnimation(boolean blocksSpawned)
     {
         executor.assertMainThread("Animated blocks must be spawned on the main thread!");
-        getAnimatedBlocks().forEach(IAnimatedBlock::spawn);
+        if (!blocksSpawned)
+            getAnimatedBlocks().forEach(IAnimatedBlock::spawn);
         animationComponent.prepareAnimation(this);
     }
 
@@ -451,14 +660,17 @@ public final class Animator implements IAnimator
 
     /**
      * Runs the animation of the animated blocks.
+     *
+     * @param blocksSpawned
+     *     True if the animated blocks have already been spawned.
      */
-    private void animateEntities(Animation<IAnimatedBlock> animation)
+    private void animateEntities(Animation<IAnimatedBlock> animation, boolean blocksSpawned)
     {
         executor.assertMainThread("Animation must be started on the main thread!");
 
         try
         {
-            prepareAnimation();
+            prepareAnimation(blocksSpawned);
         }
         catch (Exception e)
         {
@@ -468,41 +680,44 @@ public final class Animator implements IAnimator
         }
 
         forEachHook("onPrepare", IAnimationHook::onPrepare);
+        updateLevelOfDetail(animation);
 
         final int stopCount = getStopCount();
         final int initialDelay = Math.round((float) START_DELAY / serverTickTime);
 
-        final TimerTask moverTask0 = new TimerTask()
+        final Runnable step = new Runnable()
         {
             private int counter = 0;
-            private @Nullable Long startTime = null; // Initialize on the first run.
-            private long currentTime = System.nanoTime();
+            private AnimationLevelOfDetail previousLevelOfDetail = AnimationLevelOfDetail.FULL;
 
             @Override
             public void run()
             {
-                if (startTime == null)
-                    startTime = System.nanoTime();
                 forEachHook("onPreAnimationStep", IAnimationHook::onPreAnimationStep);
                 ++counter;
 
-                final long lastTime = currentTime;
-                currentTime = System.nanoTime();
-                startTime += currentTime - lastTime;
-
                 if (perpetualMovement || counter <= animationDuration)
+                {
+                    final AnimationLevelOfDetail levelOfDetail = animation.getLevelOfDetail();
+                    animation.setResyncRequired(levelOfDetail.requiresResync(previousLevelOfDetail));
                     executeAnimationStep(counter, animation);
+                    animation.setResyncRequired(false);
+                    if (levelOfDetail.requiresVelocityReset(previousLevelOfDetail))
+                        resetVelocities();
+                    previousLevelOfDetail = levelOfDetail;
+                }
                 else if (counter > stopCount)
                     stopAnimation(animation);
                 else
                     executeFinishingStep(animation);
 
                 animation.setStepsExecuted(counter);
+                if (counter % LEVEL_OF_DETAIL_UPDATE_INTERVAL == 0)
+                    executor.scheduleOnMainThread(() -> updateLevelOfDetail(animation));
                 forEachHook("onPostAnimationStep", IAnimationHook::onPostAnimationStep);
             }
         };
-        moverTask = moverTask0;
-        moverTaskID = executor.runAsyncRepeated(moverTask0, initialDelay, 1);
+        moverTask = animationTicker.register(step, initialDelay);
     }
 
     private void putBlocks0()
@@ -517,7 +732,7 @@ public final class Animator implements IAnimator
 
         forEachHook("onAnimationCompleted", IAnimationHook::onAnimationCompleted);
 
-        structureActivityManager.processFinishedAnimation(this);
+        finish();
     }
 
     /**
@@ -696,5 +911,52 @@ public final class Animator implements IAnimator
          * Moves an animated block to a given goal position using the specified method.
          */
         public abstract void apply(IAnimatedBlock animatedBlock, Vector3Dd goalPos, int ticksRemaining);
+
+        /**
+         * Moves an animated block to a given goal position while taking the level of detail of its animation into
+         * account.
+         * <p>
+         * When clients should not be informed of the movement, the server-side position of the animated block is
+         * updated silently. Otherwise, the clients are synchronized with the goal position first, as they may have
+         * missed earlier updates. For {@link AnimationLevelOfDetail#FULL} animations, this is only done when requested,
+         * after which the animated block is moved normally.
+         *
+         * @param animatedBlock
+         *     The animated block to move.
+         * @param goalPos
+         *     The position to move the animated block to.
+         * @param ticksRemaining
+         *     The number of ticks remaining in the animation.
+         * @param levelOfDetail
+         *     The level of detail of the animation the animated block is part of.
+         * @param resync
+         *     True to synchronize the clients with the goal position of a {@link AnimationLevelOfDetail#FULL}
+         *     animation. See {@link Animation#isResyncRequired()}.
+         */
+        public final void apply(
+            IAnimatedBlock animatedBlock, Vector3Dd goalPos, int ticksRemaining, AnimationLevelOfDetail levelOfDetail,
+            boolean resync)
+        {
+            if (levelOfDetail == AnimationLevelOfDetail.FULL)
+            {
+                if (resync)
+                    animatedBlock.teleport(goalPos, IAnimatedBlock.TeleportMode.ABSOLUTE);
+                apply(animatedBlock, goalPos, ticksRemaining);
+                return;
+            }
+
+            if (!levelOfDetail.shouldUpdateClients(animatedBlock.getTicksLived(), ticksRemaining))
+            {
+                animatedBlock.teleport(goalPos, IAnimatedBlock.TeleportMode.SILENT);
+                return;
+            }
+
+            animatedBlock.teleport(goalPos, IAnimatedBlock.TeleportMode.ABSOLUTE);
+            if (ticksRemaining < 1)
+                apply(animatedBlock, goalPos, ticksRemaining);
+            else
+                // Let the clients interpolate the movement until the next keyframe.
+                animatedBlock.setVelocity(goalPos.subtract(animatedBlock.getPreviousTarget()));
+        }
     }
 }
@@ -5,6 +5,7 @@ import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlock;
 import nl.pim16aap2.animatedarchitecture.core.structures.StructureSnapshot;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a manager for animated blocks.
@@ -33,6 +34,49 @@ public interface IAnimationBlockManager
         StructureSnapshot snapshot, IAnimationComponent animationComponent, AnimationContext animationContext,
         Animator.MovementMethod movementMethod);
 
+    /**
+     * Creates and spawns the animated blocks for the given input, spreading the work out over multiple ticks.
+     * <p>
+     * This must be called on the main thread. The first part of the work is done right away.
+     * <p>
+     * The default implementation creates and spawns all animated blocks right away.
+     *
+     * @param snapshot
+     *     The snapshot of the structure to create the animated blocks for.
+     * @param animationComponent
+     *     The animation component to use for retrieving additional information for the animated blocks.
+     * @param animationContext
+     *     The animation context for the animated blocks.
+     * @param movementMethod
+     *     The movement method to use for the animation.
+     * @param blocksPerTick
+     *     The maximum number of blocks to process per tick.
+     * @return A future that is completed on the main thread once all animated blocks have been created and spawned.
+     * The result is false if something went wrong. In that case, or if the staging is cancelled using
+     * {@link #cancelStaging()}, the animated blocks that were already created can be restored using
+     * {@link #restoreBlocksOnFailure()}.
+     */
+    default CompletableFuture<Boolean> stageAnimatedBlocks(
+        StructureSnapshot snapshot, IAnimationComponent animationComponent, AnimationContext animationContext,
+        Animator.MovementMethod movementMethod, int blocksPerTick)
+    {
+        if (!createAnimatedBlocks(snapshot, animationComponent, animationContext, movementMethod))
+            return CompletableFuture.completedFuture(false);
+        getAnimatedBlocks().forEach(IAnimatedBlock::spawn);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    /**
+     * Cancels the staging of animated blocks started by {@link #stageAnimatedBlocks} if it is still in progress.
+     * <p>
+     * The future returned by {@link #stageAnimatedBlocks} is completed with false.
+     * <p>
+     * This must be called on the main thread.
+     */
+    default void cancelStaging()
+    {
+    }
+
     /**
      * @return All the animated blocks that are part of the animation. In case an error occurred during the creation,
      * this will contain all the animated blocks that have been created up to the point that the problem occurred.
@@ -5,6 +5,7 @@ import nl.pim16aap2.animatedarchitecture.core.util.MovementDirection;
 import nl.pim16aap2.animatedarchitecture.core.util.vector.IVector3D;
 
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Represents an object that controls an animation.
@@ -28,6 +29,36 @@ public interface IAnimator
      */
     void applyMovement(IAnimatedBlock animatedBlock, IVector3D goalPos, int ticksRemaining);
 
+    /**
+     * Moves all animated blocks to the goal positions computed by the provided function.
+     * <p>
+     * Depending on the configured {@link AnimationExecutionMode}, the goal positions may be computed concurrently. The
+     * provided function must therefore be safe to call from multiple threads at the same time. The movement of each
+     * individual animated block is always applied by a single thread.
+     *
+     * @param goalPositionFunction
+     *     The function that computes the goal position of an animated block.
+     * @param ticksRemaining
+     *     The number of ticks remaining in the animation.
+     */
+    void applyMovement(Function<IAnimatedBlock, ? extends IVector3D> goalPositionFunction, int ticksRemaining);
+
+    /**
+     * Moves all animated blocks to the goal positions computed in-place by the provided component.
+     * <p>
+     * The goal positions are written to an {@link AnimationBlockState} that is reused for every step of the animation.
+     * Depending on the configured {@link AnimationExecutionMode}, different ranges of blocks may be computed
+     * concurrently.
+     *
+     * @param component
+     *     The component that computes the goal positions.
+     * @param ticks
+     *     The number of ticks that have passed since the start of the animation.
+     * @param ticksRemaining
+     *     The number of ticks remaining in the animation.
+     */
+    void applyGoalPositions(IInPlaceAnimationComponent component, int ticks, int ticksRemaining);
+
     /**
      * Rotates in the openDirection and then respawns an {@link IAnimatedBlock}. This is executed on the main thread.
      *
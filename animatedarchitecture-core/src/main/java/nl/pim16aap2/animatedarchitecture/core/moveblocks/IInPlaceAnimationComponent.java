@@ -0,0 +1,30 @@
+package nl.pim16aap2.animatedarchitecture.core.moveblocks;
+
+/**
+ * Represents an {@link IAnimationComponent} that writes the goal positions of its animated blocks directly into an
+ * {@link AnimationBlockState} instead of creating a new vector for every block.
+ * <p>
+ * Implementations should call {@link IAnimator#applyGoalPositions(IInPlaceAnimationComponent, int, int)} from
+ * {@link #executeAnimationStep(IAnimator, int, int)} to move the animated blocks.
+ */
+public interface IInPlaceAnimationComponent extends IAnimationComponent
+{
+    /**
+     * Computes the goal positions of a range of animated blocks for a single step of the animation.
+     * <p>
+     * The goal position of each block in the range should be written using
+     * {@link AnimationBlockState#setTarget(int, double, double, double)}.
+     * <p>
+     * This method may be called concurrently for different, non-overlapping ranges.
+     *
+     * @param state
+     *     The state of the animated blocks.
+     * @param ticks
+     *     The number of ticks that have passed since the start of the animation.
+     * @param from
+     *     The index of the first block in the range (inclusive).
+     * @param to
+     *     The index of the last block in the range (exclusive).
+     */
+    void computeGoalPositions(AnimationBlockState state, int ticks, int from, int to);
+}
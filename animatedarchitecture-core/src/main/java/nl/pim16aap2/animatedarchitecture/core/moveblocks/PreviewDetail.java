@@ -0,0 +1,196 @@
+package nl.pim16aap2.animatedarchitecture.core.moveblocks;
+
+import nl.pim16aap2.animatedarchitecture.core.util.Cuboid;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Di;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Represents the different levels of detail of animation previews.
+ * <p>
+ * Every previewed position requires a glowing entity for the player viewing the preview, so the level of detail
+ * determines which positions in the cuboid of a structure are shown.
+ */
+public enum PreviewDetail
+{
+    /**
+     * Every other block in the cuboid is shown.
+     */
+    CHECKERBOARD,
+
+    /**
+     * Only the blocks on the edges of the cuboid are shown.
+     */
+    EDGES,
+
+    /**
+     * The corners of the cuboid are shown as well as every n-th block on its edges, where n is the preview stride.
+     */
+    SPARSE_EDGES,
+
+    /**
+     * The surface of the cuboid is sampled as densely as possible without exceeding the maximum number of preview
+     * blocks.
+     */
+    ADAPTIVE,
+    ;
+
+    /**
+     * Parses a {@link PreviewDetail} from its name.
+     *
+     * @param name
+     *     The name of the level of detail. This is case-insensitive.
+     * @return The {@link PreviewDetail} with the provided name, or null if no such level of detail exists.
+     */
+    public static @Nullable PreviewDetail parse(@Nullable String name)
+    {
+        if (name == null)
+            return null;
+        final String preparedName = name.toUpperCase(Locale.ENGLISH).strip();
+        for (final PreviewDetail detail : values())
+            if (detail.name().equals(preparedName))
+                return detail;
+        return null;
+    }
+
+    /**
+     * Gets the positions in a cuboid that should be previewed.
+     *
+     * @param cuboid
+     *     The cuboid to sample.
+     * @param stride
+     *     The distance between two sampled blocks on an edge for {@link #SPARSE_EDGES}.
+     * @param maxBlocks
+     *     The maximum number of positions for {@link #ADAPTIVE}. The corners of the cuboid are always included, so the
+     *     result may contain more positions for very small budgets. Values less than 1 mean there is no limit.
+     * @return The positions to preview.
+     */
+    public List<Vector3Di> getPositions(Cuboid cuboid, int stride, int maxBlocks)
+    {
+        return switch (this)
+            {
+                case CHECKERBOARD -> sample(cuboid, 1, 0, true);
+                case EDGES -> sample(cuboid, 1, 2, false);
+                case SPARSE_EDGES -> sample(cuboid, Math.max(1, stride), 2, false);
+                case ADAPTIVE -> sample(cuboid, getAdaptiveStride(cuboid.getDimensions(), maxBlocks), 1, false);
+            };
+    }
+
+    /**
+     * Finds the smallest stride for which the number of sampled positions on the surface of a cuboid does not exceed
+     * the maximum number of blocks.
+     */
+    static int getAdaptiveStride(Vector3Di dimensions, int maxBlocks)
+    {
+        if (maxBlocks < 1)
+            return 1;
+
+        final int maxStride = Math.max(dimensions.x(), Math.max(dimensions.y(), dimensions.z()));
+        for (int stride = 1; stride < maxStride; ++stride)
+            if (countSurfaceSamples(dimensions, stride) <= maxBlocks)
+                return stride;
+        return Math.max(1, maxStride);
+    }
+
+    /**
+     * Counts the number of positions on the surface of a cuboid that are sampled for a given stride.
+     */
+    static long countSurfaceSamples(Vector3Di dimensions, int stride)
+    {
+        final long gridX = countGridCoordinates(dimensions.x(), stride);
+        final long gridY = countGridCoordinates(dimensions.y(), stride);
+        final long gridZ = countGridCoordinates(dimensions.z(), stride);
+
+        final long innerX = gridX - Math.min(2, dimensions.x());
+        final long innerY = gridY - Math.min(2, dimensions.y());
+        final long innerZ = gridZ - Math.min(2, dimensions.z());
+
+        return gridX * gridY * gridZ - innerX * innerY * innerZ;
+    }
+
+    /**
+     * Counts the number of coordinates that are sampled along an axis. See {@link #getGridCoordinates(int, int, int)}.
+     */
+    private static int countGridCoordinates(int length, int stride)
+    {
+        if (length <= 1)
+            return 1;
+        return (length - 1) / stride + 1 + ((length - 1) % stride == 0 ? 0 : 1);
+    }
+
+    /**
+     * Gets the coordinates that are sampled along an axis.
+     * <p>
+     * This includes every n-th coordinate starting at the minimum value, where n is the stride, as well as the maximum
+     * value.
+     */
+    private static int[] getGridCoordinates(int min, int max, int stride)
+    {
+        final int[] ret = new int[countGridCoordinates(max - min + 1, stride)];
+        int idx = 0;
+        for (int coordinate = min; coordinate <= max; coordinate += stride)
+            ret[idx++] = coordinate;
+        if (idx < ret.length)
+            ret[idx] = max;
+        return ret;
+    }
+
+    /**
+     * Samples the positions in a cuboid.
+     *
+     * @param cuboid
+     *     The cuboid to sample.
+     * @param stride
+     *     The distance between two sampled coordinates along each axis. The minimum and maximum coordinates are always
+     *     sampled.
+     * @param minBoundaries
+     *     The minimum number of axes along which a position has to be on the boundary of the cuboid. E.g. 1 for the
+     *     surface and 2 for the edges.
+     * @param checkerboard
+     *     True to skip every other position.
+     * @return The sampled positions.
+     */
+    private static List<Vector3Di> sample(Cuboid cuboid, int stride, int minBoundaries, boolean checkerboard)
+    {
+        final Vector3Di min = cuboid.getMin();
+        final Vector3Di max = cuboid.getMax();
+
+        final int[] xCoordinates = getGridCoordinates(min.x(), max.x(), stride);
+        final int[] yCoordinates = getGridCoordinates(min.y(), max.y(), stride);
+        final int[] zCoordinates = getGridCoordinates(min.z(), max.z(), stride);
+
+        final List<Vector3Di> ret = new ArrayList<>();
+        for (final int x : xCoordinates)
+            for (final int y : yCoordinates)
+            {
+                final int boundaries = isBoundary(x, min.x(), max.x()) + isBoundary(y, min.y(), max.y());
+                if (boundaries + 1 < minBoundaries)
+                    continue;
+
+                // Only the positions on the z-boundaries qualify, so there is no need to check all the others.
+                if (boundaries < minBoundaries)
+                {
+                    ret.add(new Vector3Di(x, y, min.z()));
+                    if (max.z() != min.z())
+                        ret.add(new Vector3Di(x, y, max.z()));
+                    continue;
+                }
+
+                for (final int z : zCoordinates)
+                {
+                    if (checkerboard && (x + y + z) % 2 == 0)
+                        continue;
+                    ret.add(new Vector3Di(x, y, z));
+                }
+            }
+        return ret;
+    }
+
+    private static int isBoundary(int value, int min, int max)
+    {
+        return value == min || value == max ? 1 : 0;
+    }
+}
@@ -263,6 +263,18 @@ public final class StructureActivityManager extends Restartable implements Struc
         });
     }
 
+    /**
+     * Checks if a structure is currently being animated.
+     *
+     * @param uid
+     *     The UID of the structure.
+     * @return True if at least 1 animation has been registered for the structure.
+     */
+    public boolean isAnimating(long uid)
+    {
+        return animators.containsKey(uid);
+    }
+
     /**
      * Gets all the currently active {@link Animator}s.
      *
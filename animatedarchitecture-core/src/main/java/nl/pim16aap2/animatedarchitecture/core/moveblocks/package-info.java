@@ -9,6 +9,9 @@
  * {@link nl.pim16aap2.animatedarchitecture.core.moveblocks.StructureActivityManager} keeps track of structures that are
  * being animated, or queued up to be animated.
  * <p>
+ * {@link nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationTicker} executes the animation steps of all active
+ * animators from a single repeating task.
+ * <p>
  * External plugins can hook into the {@link nl.pim16aap2.animatedarchitecture.core.moveblocks.Animator} class using
  * either {@link nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimationHook}s or
  * {@link nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlockHook}s. More information on that topic
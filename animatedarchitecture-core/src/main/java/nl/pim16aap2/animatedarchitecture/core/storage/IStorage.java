@@ -1,7 +1,10 @@
 package nl.pim16aap2.animatedarchitecture.core.storage;
 
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.LongCollection;
 import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import nl.pim16aap2.animatedarchitecture.core.api.IPlayer;
 import nl.pim16aap2.animatedarchitecture.core.api.PlayerData;
 import nl.pim16aap2.animatedarchitecture.core.managers.DatabaseManager;
@@ -11,6 +14,7 @@ import nl.pim16aap2.animatedarchitecture.core.structures.PermissionLevel;
 import nl.pim16aap2.animatedarchitecture.core.structures.StructureOwner;
 import nl.pim16aap2.animatedarchitecture.core.structures.StructureType;
 import nl.pim16aap2.animatedarchitecture.core.util.IBitFlag;
+import nl.pim16aap2.animatedarchitecture.core.util.Util;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
@@ -157,6 +161,18 @@ public interface IStorage
      */
     Optional<AbstractStructure> getStructure(long structureUID);
 
+    /**
+     * Gets all structures with the given UIDs.
+     * <p>
+     * Structures that are already registered do not need to be retrieved from the storage again. All other structures
+     * are retrieved together, so the number of queries does not depend on the number of UIDs.
+     *
+     * @param structureUIDs
+     *     The UIDs of the structures to retrieve.
+     * @return All structures with the given UIDs that exist. UIDs of structures that do not exist are ignored.
+     */
+    List<AbstractStructure> getStructures(LongCollection structureUIDs);
+
     /**
      * Gets all the structures owned by the given player with the given name.
      *
@@ -242,6 +258,30 @@ public interface IStorage
      */
     Int2ObjectMap<LongList> getPowerBlockData(long chunkId);
 
+    /**
+     * Gets a map of positions and their connected powerblocks for all structures in a world.
+     * <p>
+     * The key is the packed position of the powerblock (see {@link Util#getPositionKey(int, int, int)}), the value is
+     * the list of UIDs of the structures whose powerblocks occupy that position.
+     *
+     * @param worldName
+     *     The name of the world the structures are in.
+     * @return A map of positions and their connected powerblocks for all structures in a world.
+     */
+    Long2ObjectMap<LongList> getPowerBlockData(String worldName);
+
+    /**
+     * Gets the UIDs of all structures in a world that have their rotation point or their power block in any of the
+     * given chunks.
+     *
+     * @param worldName
+     *     The name of the world the structures are in.
+     * @param chunkIds
+     *     The ids of the chunks to look in. See {@link Util#getChunkId(int, int)}.
+     * @return The UIDs of all structures that have their rotation point or their power block in any of the chunks.
+     */
+    LongList getStructureUIDsInChunks(String worldName, LongCollection chunkIds);
+
     /**
      * Gets a list of structure UIDs that have their rotation point in a given chunk.
      *
@@ -274,6 +314,16 @@ public interface IStorage
      */
     boolean syncStructureData(IStructureConst structure, String typeData);
 
+    /**
+     * Synchronizes multiple structures with the database in a single transaction. See
+     * {@link #syncStructureData(IStructureConst, String)}.
+     *
+     * @param updates
+     *     The updates to apply. Each structure should not appear more than once.
+     * @return The UIDs of the structures that were synchronized successfully.
+     */
+    LongSet syncStructureData(List<StructureDataUpdate> updates);
+
     /**
      * Retrieves all {@link DatabaseManager.StructureIdentifier}s that start with the provided input.
      * <p>
@@ -456,4 +506,16 @@ public interface IStorage
             return flag.flagValue;
         }
     }
+
+    /**
+     * Represents the data of a structure that should be synchronized with the database.
+     *
+     * @param structure
+     *     The {@link IStructureConst} that describes the data of the structure.
+     * @param typeData
+     *     The type-specific data of the structure.
+     */
+    record StructureDataUpdate(IStructureConst structure, String typeData)
+    {
+    }
 }
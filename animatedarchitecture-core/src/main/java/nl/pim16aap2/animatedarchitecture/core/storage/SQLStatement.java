@@ -87,6 +87,33 @@ public enum SQLStatement
         """
     ),
 
+    GET_POWER_BLOCK_DATA_IN_WORLD(
+        """
+        SELECT id, powerBlockX, powerBlockY, powerBlockZ
+        FROM Structure
+        WHERE world = ?;
+        """
+    ),
+
+    /**
+     * Gets the UIDs of all structures in a world that have their rotationPoint or their powerBlock in any of the given
+     * chunks.
+     * <p>
+     * The chunk IDs are provided as a single JSON array (e.g. "[1,2,3]"). Both the world name and the array are needed
+     * twice, so each part of the union can use its own chunk index.
+     */
+    GET_STRUCTURE_UIDS_IN_CHUNKS(
+        """
+        SELECT id
+        FROM Structure
+        WHERE world = ? AND rotationPointChunkId IN (SELECT value FROM json_each(?))
+        UNION
+        SELECT id
+        FROM Structure
+        WHERE world = ? AND powerBlockChunkId IN (SELECT value FROM json_each(?));
+        """
+    ),
+
     /**
      * Gets all the structures that have their <b>rotationPoint</b> in the chunk with the given chunk hash.
      */
@@ -196,6 +223,22 @@ public enum SQLStatement
         """
     ),
 
+    /**
+     * Obtains the structures with the given UIDs.
+     * <p>
+     * The UIDs are provided as a single JSON array (e.g. "[1,2,3]"), so the same statement can be used for any number
+     * of UIDs.
+     */
+    GET_STRUCTURE_BASES_FROM_IDS(
+        """
+        SELECT Structure.*, Player.*, StructureOwnerPlayer.permission
+        FROM Structure
+        INNER JOIN StructureOwnerPlayer ON Structure.id = StructureOwnerPlayer.structureUID
+        INNER JOIN Player ON StructureOwnerPlayer.playerID = Player.id
+        WHERE Structure.id IN (SELECT value FROM json_each(?)) AND StructureOwnerPlayer.permission = 0;
+        """
+    ),
+
     /**
      * Obtains the structures whose rotationPoint's chunk hash value has a certain value.
      */
@@ -257,6 +300,33 @@ public enum SQLStatement
         """
     ),
 
+    /**
+     * Obtains the owners of the structures with the given UIDs.
+     * <p>
+     * The UIDs are provided as a single JSON array (e.g. "[1,2,3]"), so the same statement can be used for any number
+     * of UIDs.
+     */
+    GET_STRUCTURE_OWNERS_FROM_IDS(
+        """
+        SELECT O.structureUID, O.permission, P.*
+        FROM StructureOwnerPlayer AS O INNER JOIN Player AS P ON O.playerID = P.id
+        WHERE O.structureUID IN (SELECT value FROM json_each(?));
+        """
+    ),
+
+    /**
+     * Obtains the owners of the structures whose rotationPoint's chunk hash value has a certain value.
+     */
+    GET_STRUCTURE_OWNERS_IN_CHUNK(
+        """
+        SELECT O.structureUID, O.permission, P.*
+        FROM StructureOwnerPlayer AS O
+        INNER JOIN Player AS P ON O.playerID = P.id
+        INNER JOIN Structure AS S ON O.structureUID = S.id
+        WHERE S.rotationPointChunkId = ?;
+        """
+    ),
+
     GET_STRUCTURES_OF_TYPE(
         """
         SELECT Structure.*, Player.*, StructureOwnerPlayer.permission
@@ -397,6 +467,69 @@ public enum SQLStatement
         """
     ),
 
+    /**
+     * Index used to find the structures whose rotation point is in a specific chunk.
+     */
+    CREATE_INDEX_STRUCTURE_ROTATION_POINT_CHUNK(
+        """
+        CREATE INDEX IF NOT EXISTS idx_structure_rotation_point_chunk
+        ON Structure (rotationPointChunkId);
+        """
+    ),
+
+    /**
+     * Covering index used to find the power blocks in a specific chunk without having to access the table itself.
+     */
+    CREATE_INDEX_STRUCTURE_POWER_BLOCK_CHUNK(
+        """
+        CREATE INDEX IF NOT EXISTS idx_structure_power_block_chunk
+        ON Structure (powerBlockChunkId, powerBlockX, powerBlockY, powerBlockZ);
+        """
+    ),
+
+    /**
+     * Index used to find structures by their name.
+     */
+    CREATE_INDEX_STRUCTURE_NAME(
+        """
+        CREATE INDEX IF NOT EXISTS idx_structure_name
+        ON Structure (name);
+        """
+    ),
+
+    /**
+     * Index used to find the structures in a specific world.
+     */
+    CREATE_INDEX_STRUCTURE_WORLD(
+        """
+        CREATE INDEX IF NOT EXISTS idx_structure_world
+        ON Structure (world);
+        """
+    ),
+
+    /**
+     * Index used to find the structures of a specific type and, optionally, a specific version of that type.
+     */
+    CREATE_INDEX_STRUCTURE_TYPE(
+        """
+        CREATE INDEX IF NOT EXISTS idx_structure_type
+        ON Structure (type, typeVersion);
+        """
+    ),
+
+    /**
+     * Index used to find the owners of a structure.
+     * <p>
+     * The unique constraint on (playerID, structureUID) cannot be used for this, as structureUID is not its first
+     * column.
+     */
+    CREATE_INDEX_STRUCTURE_OWNER_PLAYER_STRUCTURE(
+        """
+        CREATE INDEX IF NOT EXISTS idx_structure_owner_player_structure
+        ON StructureOwnerPlayer (structureUID, permission);
+        """
+    ),
+
     ;
 
     private final String statement;
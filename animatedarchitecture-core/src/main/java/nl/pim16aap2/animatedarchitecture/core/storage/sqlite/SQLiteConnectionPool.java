@@ -0,0 +1,596 @@
+package nl.pim16aap2.animatedarchitecture.core.storage.sqlite;
+
+import lombok.extern.flogger.Flogger;
+import nl.pim16aap2.util.SafeStringBuilder;
+import org.jetbrains.annotations.Nullable;
+import org.sqlite.SQLiteConfig;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manages a set of persistent connections to an SQLite database.
+ * <p>
+ * The pool consists of a single writer connection and a number of read-only connections. The database is put in WAL
+ * mode, so readers do not block behind the writer and vice versa.
+ * <p>
+ * The connections handed out by this pool are handles to the pooled connections. Closing a handle returns the
+ * connection to the pool instead of closing it. Every pooled connection keeps a cache of the statements prepared on it,
+ * so statements are only compiled once per connection.
+ * <p>
+ * When a thread already holds a connection, any further connections it requests are handles to that same connection.
+ * This avoids deadlocks when a thread needs a new connection while it is still holding another one. A thread that
+ * holds the writer connection will use it for reading as well.
+ *
+ * @author Pim
+ */
+@Flogger
+final class SQLiteConnectionPool
+{
+    /**
+     * The maximum amount of time to wait for a connection to become available.
+     */
+    private static final long ACQUIRE_TIMEOUT_SECONDS = 30;
+
+    /**
+     * The amount of time SQLite should wait for a lock before failing with SQLITE_BUSY.
+     */
+    private static final int BUSY_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * The size of the page cache of every connection. Negative values are in KiB.
+     */
+    private static final int CACHE_SIZE = -8_192;
+
+    /**
+     * The maximum number of bytes of the database to access using memory-mapped I/O.
+     */
+    private static final long MMAP_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * The maximum number of prepared statements to cache per connection.
+     */
+    private static final int MAX_CACHED_STATEMENTS = 64;
+
+    private final String url;
+
+    private final BlockingQueue<PooledConnection> writers = new ArrayBlockingQueue<>(1);
+
+    private final BlockingQueue<PooledConnection> readers;
+
+    private final List<PooledConnection> allConnections;
+
+    private final ThreadLocal<@Nullable PooledConnection> currentWriter = new ThreadLocal<>();
+
+    private final ThreadLocal<@Nullable PooledConnection> currentReader = new ThreadLocal<>();
+
+    /**
+     * The generation of the pool. This is incremented every time the pool is closed, so that connections that were
+     * still in use at that moment are closed when they are returned to the pool.
+     */
+    private volatile int generation = 0;
+
+    private final AtomicLong acquireCount = new AtomicLong();
+    private final AtomicLong waitCount = new AtomicLong();
+    private final AtomicLong openCount = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    /**
+     * @param dbFile
+     *     The database file.
+     * @param readerCount
+     *     The number of read-only connections to use.
+     */
+    SQLiteConnectionPool(Path dbFile, int readerCount)
+    {
+        this.url = "jdbc:sqlite:" + dbFile;
+        this.readers = new ArrayBlockingQueue<>(Math.max(1, readerCount));
+        this.allConnections = new ArrayList<>(readerCount + 1);
+
+        final PooledConnection writer = new PooledConnection(false);
+        writers.add(writer);
+        allConnections.add(writer);
+
+        for (int idx = 0; idx < readerCount; ++idx)
+        {
+            final PooledConnection reader = new PooledConnection(true);
+            readers.add(reader);
+            allConnections.add(reader);
+        }
+    }
+
+    /**
+     * Obtains the writer connection.
+     * <p>
+     * The returned connection must be closed to return it to the pool.
+     *
+     * @return A handle to the writer connection.
+     *
+     * @throws SQLException
+     *     When no connection could be opened or when no connection became available in time.
+     */
+    Connection getWriteConnection()
+        throws SQLException
+    {
+        return acquire(false);
+    }
+
+    /**
+     * Obtains a read-only connection.
+     * <p>
+     * If the current thread already holds the writer connection, that connection is returned instead.
+     * <p>
+     * The returned connection must be closed to return it to the pool.
+     *
+     * @return A handle to a read-only connection.
+     *
+     * @throws SQLException
+     *     When no connection could be opened or when no connection became available in time.
+     */
+    Connection getReadConnection()
+        throws SQLException
+    {
+        return acquire(true);
+    }
+
+    private Connection acquire(boolean readOnly)
+        throws SQLException
+    {
+        acquireCount.incrementAndGet();
+
+        final @Nullable PooledConnection heldWriter = currentWriter.get();
+        if (heldWriter != null)
+            return heldWriter.newHandle();
+
+        final ThreadLocal<@Nullable PooledConnection> current = readOnly ? currentReader : currentWriter;
+        final @Nullable PooledConnection held = current.get();
+        if (held != null)
+            return held.newHandle();
+
+        final BlockingQueue<PooledConnection> queue = readOnly ? readers : writers;
+        @Nullable PooledConnection pooled = queue.poll();
+        if (pooled == null)
+        {
+            waitCount.incrementAndGet();
+            try
+            {
+                pooled = queue.poll(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection!", e);
+            }
+            if (pooled == null)
+                throw new SQLException("Timed out waiting for a " + (readOnly ? "read" : "write") +
+                                           " connection to the database!");
+        }
+
+        try
+        {
+            pooled.ensureOpen();
+        }
+        catch (SQLException | RuntimeException e)
+        {
+            queue.add(pooled);
+            throw e;
+        }
+        current.set(pooled);
+        return pooled.newHandle();
+    }
+
+    private void release(PooledConnection pooled)
+    {
+        if (--pooled.leaseCount > 0)
+            return;
+
+        (pooled.readOnly ? currentReader : currentWriter).remove();
+        pooled.reset();
+        (pooled.readOnly ? readers : writers).add(pooled);
+    }
+
+    /**
+     * Closes all connections that are not currently in use.
+     * <p>
+     * Connections that are in use are closed when they are returned to the pool. The pool can still be used after it
+     * has been closed; new connections will be opened when needed.
+     */
+    void close()
+    {
+        ++generation;
+        for (final PooledConnection pooled : pollAll())
+        {
+            pooled.closeConnection();
+            (pooled.readOnly ? readers : writers).add(pooled);
+        }
+    }
+
+    private List<PooledConnection> pollAll()
+    {
+        final List<PooledConnection> ret = new ArrayList<>(allConnections.size());
+        writers.drainTo(ret);
+        readers.drainTo(ret);
+        return ret;
+    }
+
+    /**
+     * @return Information about the state of this pool for debugging purposes.
+     */
+    String getDebugInformation()
+    {
+        return new SafeStringBuilder()
+            .append("Connection pool:\n")
+            .append("  Idle readers: ").append(readers::size).append('/')
+            .append(() -> allConnections.size() - 1).append('\n')
+            .append("  Writer idle: ").append(() -> !writers.isEmpty()).append('\n')
+            .append("  Connections opened: ").append(openCount::get).append('\n')
+            .append("  Connections acquired: ").append(acquireCount::get).append('\n')
+            .append("  Waited for connection: ").append(waitCount::get).append('\n')
+            .append("  Statement cache hits: ").append(statementCacheHits::get).append('\n')
+            .append("  Statement cache misses: ").append(statementCacheMisses::get).append('\n')
+            .toString();
+    }
+
+    private Connection openConnection(boolean readOnly)
+        throws SQLException
+    {
+        final SQLiteConfig config = new SQLiteConfig();
+        config.enforceForeignKeys(true);
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        config.setCacheSize(CACHE_SIZE);
+        config.setBusyTimeout(BUSY_TIMEOUT_MILLIS);
+        // The journal mode is stored in the database file itself, so it only has to be set by the writer.
+        if (!readOnly)
+            config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+
+        final Connection conn = config.createConnection(url);
+        try (Statement statement = conn.createStatement())
+        {
+            statement.execute("PRAGMA mmap_size = " + MMAP_SIZE + ";");
+            if (readOnly)
+                statement.execute("PRAGMA query_only = true;");
+        }
+        catch (SQLException e)
+        {
+            conn.close();
+            throw e;
+        }
+        openCount.incrementAndGet();
+        return conn;
+    }
+
+    /**
+     * Represents a connection managed by the pool.
+     * <p>
+     * A pooled connection is only ever used by the thread that acquired it, so it does not need to be thread-safe.
+     */
+    private final class PooledConnection
+    {
+        private final boolean readOnly;
+
+        private final Map<String, CachedStatement> statements = new HashMap<>();
+
+        private @Nullable Connection connection;
+
+        private int connectionGeneration = -1;
+
+        private int leaseCount = 0;
+
+        private PooledConnection(boolean readOnly)
+        {
+            this.readOnly = readOnly;
+        }
+
+        private void ensureOpen()
+            throws SQLException
+        {
+            if (connection != null && connectionGeneration == generation && !connection.isClosed())
+                return;
+            closeConnection();
+            connection = openConnection(readOnly);
+            connectionGeneration = generation;
+        }
+
+        private Connection getConnection()
+            throws SQLException
+        {
+            final @Nullable Connection conn = connection;
+            if (conn == null)
+                throw new SQLException("Connection has already been closed!");
+            return conn;
+        }
+
+        private Connection newHandle()
+        {
+            ++leaseCount;
+            return new ConnectionHandle(this);
+        }
+
+        /**
+         * Prepares the connection to be used again by another thread.
+         * <p>
+         * Any transaction that was left open is rolled back. If the pool was closed while this connection was in use,
+         * the connection is closed.
+         */
+        private void reset()
+        {
+            final @Nullable Connection conn = connection;
+            if (conn == null)
+                return;
+
+            if (connectionGeneration != generation)
+            {
+                closeConnection();
+                return;
+            }
+
+            try
+            {
+                // Transactions are not always reset to auto-commit mode after they are committed or rolled back.
+                // Rolling back here is a no-op for those and discards any transaction that was left unfinished.
+                if (!conn.getAutoCommit())
+                {
+                    conn.rollback();
+                    conn.setAutoCommit(true);
+                }
+            }
+            catch (SQLException e)
+            {
+                log.atSevere().withCause(e).log("Failed to reset database connection! It will be reopened.");
+                closeConnection();
+            }
+        }
+
+        private void closeConnection()
+        {
+            for (final CachedStatement cachedStatement : statements.values())
+            {
+                try
+                {
+                    cachedStatement.statement.close();
+                }
+                catch (SQLException e)
+                {
+                    log.atFine().withCause(e).log("Failed to close cached statement!");
+                }
+            }
+            statements.clear();
+
+            final @Nullable Connection conn = connection;
+            connection = null;
+            if (conn == null)
+                return;
+            try
+            {
+                conn.close();
+            }
+            catch (SQLException e)
+            {
+                log.atSevere().withCause(e).log("Failed to close database connection!");
+            }
+        }
+
+        /**
+         * Obtains a prepared statement for the given SQL.
+         * <p>
+         * When a cached statement exists that is not in use, that statement is returned. If the cached statement is
+         * already in use, a new, uncached statement is prepared instead.
+         */
+        private PreparedStatement prepareStatement(String sql)
+            throws SQLException
+        {
+            final Connection conn = getConnection();
+
+            @Nullable CachedStatement cached = statements.get(sql);
+            if (cached != null && cached.statement.isClosed())
+            {
+                statements.remove(sql);
+                cached = null;
+            }
+
+            if (cached == null)
+            {
+                statementCacheMisses.incrementAndGet();
+                final PreparedStatement statement = conn.prepareStatement(sql);
+                if (statements.size() >= MAX_CACHED_STATEMENTS)
+                    return statement;
+                cached = new CachedStatement(statement);
+                statements.put(sql, cached);
+            }
+            else if (cached.inUse)
+            {
+                return conn.prepareStatement(sql);
+            }
+            else
+            {
+                statementCacheHits.incrementAndGet();
+            }
+
+            cached.inUse = true;
+            return new StatementHandle(cached);
+        }
+    }
+
+    /**
+     * Represents a handle to a {@link PooledConnection}.
+     * <p>
+     * Closing the handle returns the connection to the pool. Any other calls on a closed handle fail.
+     */
+    private final class ConnectionHandle extends DelegatingConnection
+    {
+        private final PooledConnection pooled;
+
+        private boolean closed = false;
+
+        private ConnectionHandle(PooledConnection pooled)
+        {
+            this.pooled = pooled;
+        }
+
+        private void checkOpen()
+            throws SQLException
+        {
+            if (closed)
+                throw new SQLException("Connection handle has already been closed!");
+        }
+
+        @Override
+        protected Connection delegate()
+            throws SQLException
+        {
+            checkOpen();
+            return pooled.getConnection();
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(String sql)
+            throws SQLException
+        {
+            checkOpen();
+            return pooled.prepareStatement(sql);
+        }
+
+        @Override
+        public void close()
+        {
+            if (closed)
+                return;
+            closed = true;
+            release(pooled);
+        }
+
+        @Override
+        public boolean isClosed()
+            throws SQLException
+        {
+            return closed || pooled.connection == null || pooled.getConnection().isClosed();
+        }
+
+        @Override
+        public String toString()
+        {
+            return "PooledConnection[readOnly=" + pooled.readOnly + ", closed=" + closed + "]";
+        }
+    }
+
+    /**
+     * Represents a prepared statement cached by a {@link PooledConnection}.
+     */
+    private static final class CachedStatement
+    {
+        private final PreparedStatement statement;
+
+        private boolean inUse = false;
+
+        private CachedStatement(PreparedStatement statement)
+        {
+            this.statement = statement;
+        }
+    }
+
+    /**
+     * Represents a handle to a {@link CachedStatement}.
+     * <p>
+     * Closing the handle resets the statement and marks it as available again, so the statement itself stays open. Any
+     * other calls on a closed handle fail, as the statement may already have been handed out again.
+     */
+    private static final class StatementHandle extends DelegatingPreparedStatement
+    {
+        private final CachedStatement cached;
+
+        private boolean closed = false;
+
+        /**
+         * The last result set obtained through this handle.
+         * <p>
+         * SQLite keeps a statement with an unfinished result set active, which holds a read transaction and prevents
+         * WAL checkpoints from completing. So this result set is closed when the handle is closed.
+         */
+        private @Nullable ResultSet resultSet;
+
+        private StatementHandle(CachedStatement cached)
+        {
+            this.cached = cached;
+        }
+
+        @Override
+        protected PreparedStatement delegate()
+            throws SQLException
+        {
+            if (closed)
+                throw new SQLException("Statement handle has already been closed!");
+            return cached.statement;
+        }
+
+        @Override
+        public ResultSet executeQuery()
+            throws SQLException
+        {
+            final ResultSet ret = delegate().executeQuery();
+            resultSet = ret;
+            return ret;
+        }
+
+        @Override
+        public ResultSet getResultSet()
+            throws SQLException
+        {
+            final ResultSet ret = delegate().getResultSet();
+            resultSet = ret;
+            return ret;
+        }
+
+        @Override
+        public void close()
+            throws SQLException
+        {
+            if (closed)
+                return;
+            closed = true;
+
+            final PreparedStatement statement = cached.statement;
+            try
+            {
+                final @Nullable ResultSet resultSet0 = resultSet;
+                resultSet = null;
+                if (resultSet0 != null)
+                    resultSet0.close();
+                if (!statement.isClosed())
+                {
+                    statement.clearBatch();
+                    statement.clearParameters();
+                }
+            }
+            finally
+            {
+                cached.inUse = false;
+            }
+        }
+
+        @Override
+        public boolean isClosed()
+            throws SQLException
+        {
+            return closed || cached.statement.isClosed();
+        }
+
+        @Override
+        public String toString()
+        {
+            return "CachedStatement[closed=" + closed + "]";
+        }
+    }
+}
@@ -4,8 +4,17 @@ import com.google.common.flogger.StackSize;
 import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
 import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
 import lombok.Getter;
 import lombok.extern.flogger.Flogger;
 import nl.pim16aap2.animatedarchitecture.core.api.IPlayer;
@@ -14,6 +23,8 @@ import nl.pim16aap2.animatedarchitecture.core.api.PlayerData;
 import nl.pim16aap2.animatedarchitecture.core.api.debugging.DebuggableRegistry;
 import nl.pim16aap2.animatedarchitecture.core.api.debugging.IDebuggable;
 import nl.pim16aap2.animatedarchitecture.core.api.factories.IWorldFactory;
+import nl.pim16aap2.animatedarchitecture.core.api.restartable.IRestartable;
+import nl.pim16aap2.animatedarchitecture.core.api.restartable.RestartableHolder;
 import nl.pim16aap2.animatedarchitecture.core.managers.DatabaseManager;
 import nl.pim16aap2.animatedarchitecture.core.managers.StructureTypeManager;
 import nl.pim16aap2.animatedarchitecture.core.storage.DelayedPreparedStatement;
@@ -35,7 +46,6 @@ import nl.pim16aap2.animatedarchitecture.core.util.functional.CheckedFunction;
 import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Di;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.Nullable;
-import org.sqlite.SQLiteConfig;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -59,6 +69,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
+import java.util.function.LongFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -68,12 +79,17 @@ import java.util.stream.Collectors;
  */
 @Singleton
 @Flogger
-public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
+public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable, IRestartable
 {
     private static final String DRIVER = "org.sqlite.JDBC";
-    private static final int DATABASE_VERSION = 100;
+    private static final int DATABASE_VERSION = 101;
     private static final int MIN_DATABASE_VERSION = 100;
 
+    /**
+     * The number of read-only connections to keep open.
+     */
+    private static final int READER_COUNT = 4;
+
     /**
      * A fake UUID that cannot exist normally. To be used for storing transient data across server restarts.
      */
@@ -85,6 +101,11 @@ public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
      */
     private final Path dbFile;
 
+    /**
+     * The pool of connections to the database.
+     */
+    private final SQLiteConnectionPool connectionPool;
+
     /**
      * The {@link DatabaseState} the database is in.
      */
@@ -113,9 +134,11 @@ public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
     public SQLiteJDBCDriverConnection(
         @Named("databaseFile") Path dbFile, StructureBaseBuilder structureBaseBuilder,
         StructureRegistry structureRegistry,
-        StructureTypeManager structureTypeManager, IWorldFactory worldFactory, DebuggableRegistry debuggableRegistry)
+        StructureTypeManager structureTypeManager, IWorldFactory worldFactory, RestartableHolder restartableHolder,
+        DebuggableRegistry debuggableRegistry)
     {
         this.dbFile = dbFile;
+        this.connectionPool = new SQLiteConnectionPool(dbFile, READER_COUNT);
         this.structureBaseBuilder = structureBaseBuilder;
         this.structureRegistry = structureRegistry;
         this.structureTypeManager = structureTypeManager;
@@ -139,6 +162,7 @@ public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
             log.atSevere().withCause(e).log("Failed to initialize database!");
             databaseState = DatabaseState.ERROR;
         }
+        restartableHolder.registerRestartable(this);
         debuggableRegistry.registerDebuggable(this);
     }
 
@@ -162,13 +186,29 @@ public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
     }
 
     /**
-     * Establishes a connection with the database.
+     * Obtains a connection to the database that can be used for writing.
      *
      * @param state
      *     The state from which the connection was requested.
      * @return A database connection.
      */
     private @Nullable Connection getConnection(DatabaseState state)
+    {
+        return getConnection(state, false);
+    }
+
+    /**
+     * Obtains a connection to the database from the connection pool.
+     * <p>
+     * The connection must be closed to return it to the pool.
+     *
+     * @param state
+     *     The state from which the connection was requested.
+     * @param readOnly
+     *     True to obtain a read-only connection. Read-only connections do not have to wait for the writer connection.
+     * @return A database connection.
+     */
+    private @Nullable Connection getConnection(DatabaseState state, boolean readOnly)
     {
         if (!databaseState.equals(state))
         {
@@ -181,7 +221,7 @@ public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
 
         try
         {
-            return openConnection();
+            return readOnly ? connectionPool.getReadConnection() : connectionPool.getWriteConnection();
         }
         catch (SQLException e)
         {
@@ -199,6 +239,16 @@ public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
         return getConnection(DatabaseState.OK);
     }
 
+    /**
+     * Obtains a read-only connection with the database, assuming a database state of {@link DatabaseState#OK}.
+     *
+     * @return A read-only database connection.
+     */
+    private @Nullable Connection getReadOnlyConnection()
+    {
+        return getConnection(DatabaseState.OK, true);
+    }
+
     /**
      * Because SQLite is a PoS and decided to remove the admittedly odd behavior that just disabling foreign keys
      * suddenly ignored all the triggers etc. attached to it without actually providing a proper alternative (perhaps
@@ -230,16 +280,6 @@ public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
         SQLStatement.LEGACY_ALTER_TABLE_OFF.constructDelayedPreparedStatement().construct(conn).execute();
     }
 
-    private @Nullable Connection openConnection()
-        throws SQLException
-    {
-        final SQLiteConfig configRW = new SQLiteConfig();
-        configRW.enforceForeignKeys(true);
-
-        final String url = "jdbc:sqlite:" + dbFile;
-        return configRW.createConnection(url);
-    }
-
     /**
      * Initializes the database. I.e. create all the required files/tables.
      */
@@ -292,6 +332,8 @@ public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
                 executeUpdate(conn,
                               SQLStatement.RESERVE_IDS_STRUCTURE_OWNER_PLAYER.constructDelayedPreparedStatement());
 
+                createIndices(conn);
+
                 updateDBVersion(conn);
                 databaseState = DatabaseState.OK;
             }
@@ -305,6 +347,23 @@ public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
 
     private Optional<AbstractStructure> constructStructure(ResultSet structureBaseRS)
         throws Exception
+    {
+        return constructStructure(structureBaseRS, this::getOwnersOfStructure);
+    }
+
+    /**
+     * Attempts to construct a subclass of {@link AbstractStructure} from the current row of a ResultSet.
+     *
+     * @param structureBaseRS
+     *     The {@link ResultSet} containing a row from the "structureBase" table as well as a row from the
+     *     "StructureOwnerPlayer" table.
+     * @param ownersRetriever
+     *     The function used to retrieve the owners of a structure from its UID.
+     * @return An instance of a subclass of {@link AbstractStructure} if it could be created.
+     */
+    private Optional<AbstractStructure> constructStructure(
+        ResultSet structureBaseRS, LongFunction<Map<UUID, StructureOwner>> ownersRetriever)
+        throws Exception
     {
         final @Nullable String structureTypeResult = structureBaseRS.getString("type");
         final Optional<StructureType> structureType = structureTypeManager.getStructureTypeFromFullName(
@@ -366,7 +425,7 @@ public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
             structureUID, Objects.requireNonNull(PermissionLevel.fromValue(structureBaseRS.getInt("permission"))),
             playerData);
 
-        final Map<UUID, StructureOwner> ownersOfStructure = getOwnersOfStructure(structureUID);
+        final Map<UUID, StructureOwner> ownersOfStructure = ownersRetriever.apply(structureUID);
         final AbstractStructure.BaseHolder structureData =
             structureBaseBuilder.builder()
                                 .uid(structureUID)
@@ -498,35 +557,66 @@ public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
     @Override
     public boolean syncStructureData(IStructureConst structure, String typeData)
     {
-        return executeUpdate(SQLStatement.UPDATE_STRUCTURE_BASE
-                                 .constructDelayedPreparedStatement()
-                                 .setNextString(structure.getName())
-                                 .setNextString(structure.getWorld().worldName())
+        return executeUpdate(createSyncStatement(structure, typeData)) > 0;
+    }
 
-                                 .setNextInt(structure.getCuboid().getMin().x())
-                                 .setNextInt(structure.getCuboid().getMin().y())
-                                 .setNextInt(structure.getCuboid().getMin().z())
+    @Override
+    public LongSet syncStructureData(List<StructureDataUpdate> updates)
+    {
+        if (updates.isEmpty())
+            return LongSets.EMPTY_SET;
 
-                                 .setNextInt(structure.getCuboid().getMax().x())
-                                 .setNextInt(structure.getCuboid().getMax().y())
-                                 .setNextInt(structure.getCuboid().getMax().z())
+        return executeTransaction(
+            conn ->
+            {
+                final LongSet synced = new LongOpenHashSet(updates.size());
+                for (final StructureDataUpdate update : updates)
+                    if (executeUpdate(conn, createSyncStatement(update.structure(), update.typeData())) > 0)
+                        synced.add(update.structure().getUid());
+                return synced;
+            }, LongSets.EMPTY_SET);
+    }
 
-                                 .setNextInt(structure.getRotationPoint().x())
-                                 .setNextInt(structure.getRotationPoint().y())
-                                 .setNextInt(structure.getRotationPoint().z())
-                                 .setNextLong(Util.getChunkId(structure.getRotationPoint()))
+    /**
+     * Creates the statement that updates the base and the type-specific data of a structure.
+     *
+     * @param structure
+     *     The {@link IStructureConst} that describes the data of structure.
+     * @param typeData
+     *     The type-specific data of this structure.
+     * @return The statement that updates the structure.
+     */
+    private DelayedPreparedStatement createSyncStatement(IStructureConst structure, String typeData)
+    {
+        return SQLStatement.UPDATE_STRUCTURE_BASE
+            .constructDelayedPreparedStatement()
+            .setNextString(structure.getName())
+            .setNextString(structure.getWorld().worldName())
+
+            .setNextInt(structure.getCuboid().getMin().x())
+            .setNextInt(structure.getCuboid().getMin().y())
+            .setNextInt(structure.getCuboid().getMin().z())
+
+            .setNextInt(structure.getCuboid().getMax().x())
+            .setNextInt(structure.getCuboid().getMax().y())
+            .setNextInt(structure.getCuboid().getMax().z())
 
-                                 .setNextInt(structure.getPowerBlock().x())
-                                 .setNextInt(structure.getPowerBlock().y())
-                                 .setNextInt(structure.getPowerBlock().z())
-                                 .setNextLong(Util.getChunkId(structure.getPowerBlock()))
+            .setNextInt(structure.getRotationPoint().x())
+            .setNextInt(structure.getRotationPoint().y())
+            .setNextInt(structure.getRotationPoint().z())
+            .setNextLong(Util.getChunkId(structure.getRotationPoint()))
+
+            .setNextInt(structure.getPowerBlock().x())
+            .setNextInt(structure.getPowerBlock().y())
+            .setNextInt(structure.getPowerBlock().z())
+            .setNextLong(Util.getChunkId(structure.getPowerBlock()))
 
-                                 .setNextInt(MovementDirection.getValue(structure.getOpenDir()))
-                                 .setNextLong(getFlag(structure.isOpen(), structure.isLocked()))
-                                 .setNextInt(structure.getType().getVersion())
-                                 .setNextString(typeData)
+            .setNextInt(MovementDirection.getValue(structure.getOpenDir()))
+            .setNextLong(getFlag(structure.isOpen(), structure.isLocked()))
+            .setNextInt(structure.getType().getVersion())
+            .setNextString(typeData)
 
-                                 .setNextLong(structure.getUid())) > 0;
+            .setNextLong(structure.getUid());
     }
 
     @Override
@@ -650,6 +740,68 @@ public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
                             this::getStructure, Optional.empty());
     }
 
+    @Override
+    public List<AbstractStructure> getStructures(LongCollection structureUIDs)
+    {
+        final List<AbstractStructure> ret = new ArrayList<>(structureUIDs.size());
+        final LongList unregisteredUIDs = new LongArrayList(structureUIDs.size());
+
+        final LongIterator it = new LongLinkedOpenHashSet(structureUIDs).iterator();
+        while (it.hasNext())
+        {
+            final long structureUID = it.nextLong();
+            structureRegistry.getRegisteredStructure(structureUID)
+                             .ifPresentOrElse(ret::add, () -> unregisteredUIDs.add(structureUID));
+        }
+
+        if (unregisteredUIDs.isEmpty())
+            return ret;
+
+        final String uidArray = unregisteredUIDs.longStream()
+                                                .mapToObj(Long::toString)
+                                                .collect(Collectors.joining(",", "[", "]"));
+
+        ret.addAll(getStructuresWithOwners(
+            SQLStatement.GET_STRUCTURE_BASES_FROM_IDS.constructDelayedPreparedStatement().setNextString(uidArray),
+            SQLStatement.GET_STRUCTURE_OWNERS_FROM_IDS.constructDelayedPreparedStatement().setNextString(uidArray)));
+        return ret;
+    }
+
+    /**
+     * Retrieves structures along with all their owners using a single connection.
+     * <p>
+     * Instead of retrieving the owners of every structure using a separate query, the owners of all structures are
+     * retrieved using a single query.
+     *
+     * @param structuresQuery
+     *     The query that retrieves the structures. See {@link #getStructures(ResultSet)}.
+     * @param ownersQuery
+     *     The query that retrieves the owners of all structures retrieved by the structures query. The result should
+     *     have the same layout as {@link SQLStatement#GET_STRUCTURE_OWNERS}.
+     * @return The structures that could be constructed.
+     */
+    private List<AbstractStructure> getStructuresWithOwners(
+        DelayedPreparedStatement structuresQuery, DelayedPreparedStatement ownersQuery)
+    {
+        return executeReadOnly(
+            conn ->
+            {
+                final Long2ObjectMap<Map<UUID, StructureOwner>> owners =
+                    executeQuery(conn, ownersQuery, this::collectOwners, new Long2ObjectOpenHashMap<>(0));
+
+                return executeQuery(
+                    conn, structuresQuery,
+                    resultSet ->
+                    {
+                        final List<AbstractStructure> structures = new ArrayList<>();
+                        while (resultSet.next())
+                            constructStructure(resultSet, uid -> owners.getOrDefault(uid, new HashMap<>(0)))
+                                .ifPresent(structures::add);
+                        return structures;
+                    }, Collections.<AbstractStructure>emptyList());
+            }, Collections.emptyList());
+    }
+
     @Override
     public boolean removeStructure(long structureUID)
     {
@@ -834,12 +986,57 @@ public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
                             }, Int2ObjectMaps.emptyMap());
     }
 
+    @Override
+    public Long2ObjectMap<LongList> getPowerBlockData(String worldName)
+    {
+        return executeQuery(SQLStatement.GET_POWER_BLOCK_DATA_IN_WORLD.constructDelayedPreparedStatement()
+                                                                      .setString(1, worldName),
+                            resultSet ->
+                            {
+                                final Long2ObjectMap<LongList> structures = new Long2ObjectOpenHashMap<>();
+                                while (resultSet.next())
+                                {
+                                    final long positionKey =
+                                        Util.getPositionKey(resultSet.getInt("powerBlockX"),
+                                                            resultSet.getInt("powerBlockY"),
+                                                            resultSet.getInt("powerBlockZ"));
+                                    structures.computeIfAbsent(positionKey, key -> new LongArrayList(1))
+                                              .add(resultSet.getLong("id"));
+                                }
+                                return Long2ObjectMaps.unmodifiable(structures);
+                            }, Long2ObjectMaps.emptyMap());
+    }
+
+    @Override
+    public LongList getStructureUIDsInChunks(String worldName, LongCollection chunkIds)
+    {
+        if (chunkIds.isEmpty())
+            return new LongArrayList(0);
+
+        final String chunkArray = chunkIds.longStream()
+                                          .mapToObj(Long::toString)
+                                          .collect(Collectors.joining(",", "[", "]"));
+
+        return executeQuery(SQLStatement.GET_STRUCTURE_UIDS_IN_CHUNKS.constructDelayedPreparedStatement()
+                                                                     .setNextString(worldName)
+                                                                     .setNextString(chunkArray)
+                                                                     .setNextString(worldName)
+                                                                     .setNextString(chunkArray),
+                            resultSet ->
+                            {
+                                final LongList uids = new LongArrayList();
+                                while (resultSet.next())
+                                    uids.add(resultSet.getLong("id"));
+                                return uids;
+                            }, new LongArrayList(0));
+    }
+
     @Override
     public List<AbstractStructure> getStructuresInChunk(long chunkId)
     {
-        return executeQuery(SQLStatement.GET_STRUCTURES_IN_CHUNK.constructDelayedPreparedStatement()
-                                                                .setLong(1, chunkId),
-                            this::getStructures, new ArrayList<>(0));
+        return getStructuresWithOwners(
+            SQLStatement.GET_STRUCTURES_IN_CHUNK.constructDelayedPreparedStatement().setLong(1, chunkId),
+            SQLStatement.GET_STRUCTURE_OWNERS_IN_CHUNK.constructDelayedPreparedStatement().setLong(1, chunkId));
     }
 
     @Override
@@ -859,24 +1056,51 @@ public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
                                 final Map<UUID, StructureOwner> ret = new HashMap<>();
                                 while (resultSet.next())
                                 {
-                                    final UUID uuid = UUID.fromString(resultSet.getString("playerUUID"));
-                                    final PlayerData playerData =
-                                        new PlayerData(uuid,
-                                                       resultSet.getString("playerName"),
-                                                       resultSet.getInt("sizeLimit"),
-                                                       resultSet.getInt("countLimit"),
-                                                       resultSet.getLong("permissions"));
-
-                                    ret.put(uuid, new StructureOwner(
-                                        resultSet.getLong("structureUID"),
-                                        Objects.requireNonNull(
-                                            PermissionLevel.fromValue(resultSet.getInt("permission"))),
-                                        playerData));
+                                    final StructureOwner structureOwner = readStructureOwner(resultSet);
+                                    ret.put(structureOwner.playerData().getUUID(), structureOwner);
                                 }
                                 return ret;
                             }, new HashMap<>(0));
     }
 
+    /**
+     * Collects the owners of one or more structures from a ResultSet with the layout of
+     * {@link SQLStatement#GET_STRUCTURE_OWNERS}.
+     *
+     * @param resultSet
+     *     The {@link ResultSet} containing the owners.
+     * @return A map of the owners of every structure, mapped by the UID of the structure.
+     */
+    private Long2ObjectMap<Map<UUID, StructureOwner>> collectOwners(ResultSet resultSet)
+        throws Exception
+    {
+        final Long2ObjectMap<Map<UUID, StructureOwner>> ret = new Long2ObjectOpenHashMap<>();
+        while (resultSet.next())
+        {
+            final StructureOwner structureOwner = readStructureOwner(resultSet);
+            ret.computeIfAbsent(structureOwner.structureUID(), ignored -> new HashMap<>())
+               .put(structureOwner.playerData().getUUID(), structureOwner);
+        }
+        return ret;
+    }
+
+    private StructureOwner readStructureOwner(ResultSet resultSet)
+        throws SQLException
+    {
+        final UUID uuid = UUID.fromString(resultSet.getString("playerUUID"));
+        final PlayerData playerData =
+            new PlayerData(uuid,
+                           resultSet.getString("playerName"),
+                           resultSet.getInt("sizeLimit"),
+                           resultSet.getInt("countLimit"),
+                           resultSet.getLong("permissions"));
+
+        return new StructureOwner(
+            resultSet.getLong("structureUID"),
+            Objects.requireNonNull(PermissionLevel.fromValue(resultSet.getInt("permission"))),
+            playerData);
+    }
+
     @Override
     public boolean addOwner(long structureUID, PlayerData player, PermissionLevel permission)
     {
@@ -985,12 +1209,16 @@ public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
             final int dbVersion = verifyDatabaseVersion(conn);
             log.atFine().log("Upgrading database from version %d to version %d.", dbVersion, DATABASE_VERSION);
 
+            checkpoint(conn);
             if (!makeBackup())
                 return;
 
             if (dbVersion < 11)
                 throw new IllegalStateException("Database version " + dbVersion + " is not supported!");
 
+            if (dbVersion < 101)
+                upgradeToV101(conn);
+
             updateDBVersion(conn);
             databaseState = DatabaseState.OK;
         }
@@ -1001,6 +1229,59 @@ public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
         }
     }
 
+    /**
+     * Creates the indices used to speed up the most common lookups.
+     *
+     * @param conn
+     *     An active connection to the database.
+     */
+    private void createIndices(Connection conn)
+    {
+        executeUpdate(conn,
+                      SQLStatement.CREATE_INDEX_STRUCTURE_ROTATION_POINT_CHUNK.constructDelayedPreparedStatement());
+        executeUpdate(conn, SQLStatement.CREATE_INDEX_STRUCTURE_POWER_BLOCK_CHUNK.constructDelayedPreparedStatement());
+        executeUpdate(conn, SQLStatement.CREATE_INDEX_STRUCTURE_NAME.constructDelayedPreparedStatement());
+        executeUpdate(conn, SQLStatement.CREATE_INDEX_STRUCTURE_WORLD.constructDelayedPreparedStatement());
+        executeUpdate(conn, SQLStatement.CREATE_INDEX_STRUCTURE_TYPE.constructDelayedPreparedStatement());
+        executeUpdate(conn,
+                      SQLStatement.CREATE_INDEX_STRUCTURE_OWNER_PLAYER_STRUCTURE.constructDelayedPreparedStatement());
+    }
+
+    /**
+     * Upgrades the database to version 101. This adds indices for the columns used for the most common lookups.
+     *
+     * @param conn
+     *     An active connection to the database.
+     */
+    private void upgradeToV101(Connection conn)
+        throws SQLException
+    {
+        log.atInfo().log("Upgrading database to version 101: Creating indices...");
+        conn.setAutoCommit(false);
+        createIndices(conn);
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+
+    /**
+     * Moves all changes in the write-ahead log into the database file, so a copy of the database file contains all
+     * data.
+     *
+     * @param conn
+     *     An active connection to the database.
+     */
+    private void checkpoint(Connection conn)
+    {
+        try (Statement statement = conn.createStatement())
+        {
+            statement.execute("PRAGMA wal_checkpoint(TRUNCATE);");
+        }
+        catch (SQLException e)
+        {
+            log.atSevere().withCause(e).log("Failed to checkpoint the write-ahead log!");
+        }
+    }
+
     /**
      * Makes a backup of the database file. Stored in a database with the same name, but with ".BACKUP" appended to it.
      *
@@ -1168,7 +1449,7 @@ public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
     private @Nullable <T> T executeQuery(
         DelayedPreparedStatement query, CheckedFunction<ResultSet, T, Exception> fun, @Nullable T fallback)
     {
-        try (@Nullable Connection conn = getConnection())
+        try (@Nullable Connection conn = getReadOnlyConnection())
         {
             if (conn == null)
             {
@@ -1293,7 +1574,47 @@ public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
         CheckedFunction<Connection, T, Exception> fun, @Nullable T fallback,
         FailureAction failureAction)
     {
-        try (@Nullable Connection conn = getConnection())
+        return execute(fun, fallback, failureAction, false);
+    }
+
+    /**
+     * Executes a {@link CheckedFunction} given an active read-only Connection.
+     *
+     * @param fun
+     *     The function to execute.
+     * @param fallback
+     *     The fallback value to return in case of failure.
+     * @param <T>
+     *     The type of the result to return.
+     * @return The result of the Function.
+     */
+    @Contract(" _, !null -> !null")
+    private @Nullable <T> T executeReadOnly(CheckedFunction<Connection, T, Exception> fun, @Nullable T fallback)
+    {
+        return execute(fun, fallback, FailureAction.IGNORE, true);
+    }
+
+    /**
+     * Executes a {@link CheckedFunction} given an active Connection.
+     *
+     * @param fun
+     *     The function to execute.
+     * @param fallback
+     *     The fallback value to return in case of failure.
+     * @param failureAction
+     *     The action to take when an exception is caught.
+     * @param readOnly
+     *     True to use a read-only connection.
+     * @param <T>
+     *     The type of the result to return.
+     * @return The result of the Function.
+     */
+    @Contract(" _, !null, _, _ -> !null")
+    private @Nullable <T> T execute(
+        CheckedFunction<Connection, T, Exception> fun, @Nullable T fallback,
+        FailureAction failureAction, boolean readOnly)
+    {
+        try (@Nullable Connection conn = getConnection(DatabaseState.OK, readOnly))
         {
             try
             {
@@ -1355,12 +1676,19 @@ public final class SQLiteJDBCDriverConnection implements IStorage, IDebuggable
         log.atFinest().log("Executed statement: %s", delayedPreparedStatement);
     }
 
+    @Override
+    public void shutDown()
+    {
+        connectionPool.close();
+    }
+
     @Override
     public String getDebugInformation()
     {
         return "Database state: " + databaseState.name() +
             "\nDatabase version: " + DATABASE_VERSION +
-            "\nDatabase file: " + dbFile;
+            "\nDatabase file: " + dbFile +
+            "\n" + connectionPool.getDebugInformation();
     }
 
     /**
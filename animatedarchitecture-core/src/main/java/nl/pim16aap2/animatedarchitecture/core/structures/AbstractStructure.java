@@ -325,7 +325,7 @@ public abstract class AbstractStructure implements IStructure
      *     or the prime owner when this data is not available.
      * @return The result of the attempt.
      */
-    final StructureToggleResult toggle(StructureAnimationRequest request, IPlayer responsible)
+    final CompletableFuture<StructureToggleResult> toggle(StructureAnimationRequest request, IPlayer responsible)
     {
         return base.getStructureOpeningHelper().toggle(this, request, responsible);
     }
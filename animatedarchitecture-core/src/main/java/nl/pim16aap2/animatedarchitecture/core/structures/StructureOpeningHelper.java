@@ -2,6 +2,7 @@ package nl.pim16aap2.animatedarchitecture.core.structures;
 
 import com.google.common.flogger.StackSize;
 import lombok.extern.flogger.Flogger;
+import nl.pim16aap2.animatedarchitecture.core.api.ChunkTickets;
 import nl.pim16aap2.animatedarchitecture.core.api.Color;
 import nl.pim16aap2.animatedarchitecture.core.api.GlowingBlockSpawner;
 import nl.pim16aap2.animatedarchitecture.core.api.IBlockAnalyzer;
@@ -13,7 +14,6 @@ import nl.pim16aap2.animatedarchitecture.core.api.IPlayer;
 import nl.pim16aap2.animatedarchitecture.core.api.IProtectionCompatManager;
 import nl.pim16aap2.animatedarchitecture.core.api.IWorld;
 import nl.pim16aap2.animatedarchitecture.core.api.factories.IAnimatedArchitectureEventFactory;
-import nl.pim16aap2.animatedarchitecture.core.api.factories.ILocationFactory;
 import nl.pim16aap2.animatedarchitecture.core.api.factories.ITextFactory;
 import nl.pim16aap2.animatedarchitecture.core.events.IAnimatedArchitectureEventCaller;
 import nl.pim16aap2.animatedarchitecture.core.events.IStructureEventTogglePrepare;
@@ -35,7 +35,7 @@ import nl.pim16aap2.animatedarchitecture.core.structures.structurearchetypes.IDi
 import nl.pim16aap2.animatedarchitecture.core.util.Cuboid;
 import nl.pim16aap2.animatedarchitecture.core.util.Limit;
 import nl.pim16aap2.animatedarchitecture.core.util.MovementDirection;
-import nl.pim16aap2.animatedarchitecture.core.util.Util;
+import nl.pim16aap2.animatedarchitecture.core.util.ObstructionMap;
 import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Di;
 import org.jetbrains.annotations.Nullable;
 
@@ -43,6 +43,7 @@ import javax.inject.Inject;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
@@ -61,7 +62,6 @@ public final class StructureOpeningHelper
     private final IConfig config;
     private final IExecutor executor;
     private final IBlockAnalyzer blockAnalyzer;
-    private final ILocationFactory locationFactory;
     private final IProtectionCompatManager protectionCompatManager;
     private final GlowingBlockSpawner glowingBlockSpawner;
     private final IAnimatedArchitectureEventFactory animatedArchitectureEventFactory;
@@ -81,7 +81,6 @@ public final class StructureOpeningHelper
         IConfig config,
         IExecutor executor,
         IBlockAnalyzer blockAnalyzer,
-        ILocationFactory locationFactory,
         IProtectionCompatManager protectionCompatManager,
         GlowingBlockSpawner glowingBlockSpawner,
         IAnimatedArchitectureEventFactory animatedArchitectureEventFactory,
@@ -99,7 +98,6 @@ public final class StructureOpeningHelper
         this.config = config;
         this.executor = executor;
         this.blockAnalyzer = blockAnalyzer;
-        this.locationFactory = locationFactory;
         this.protectionCompatManager = protectionCompatManager;
         this.glowingBlockSpawner = glowingBlockSpawner;
         this.animatedArchitectureEventFactory = animatedArchitectureEventFactory;
@@ -241,7 +239,7 @@ public final class StructureOpeningHelper
     private boolean registerBlockMover(
         AbstractStructure structure, AnimationRequestData data, IAnimationComponent component,
         @Nullable IPlayer player,
-        AnimationType animationType, long stamp)
+        AnimationType animationType, long stamp, ChunkTickets chunkTickets)
     {
         try
         {
@@ -251,6 +249,8 @@ public final class StructureOpeningHelper
             final Animator blockMover =
                 new Animator(structure, data, component, animationBlockManager);
 
+            // The animation places blocks in the chunks when it finishes, so they are kept loaded until then.
+            blockMover.whenFinished().thenRun(chunkTickets::release);
             structureActivityManager.addAnimator(stamp, blockMover);
             executor.runOnMainThread(blockMover::startAnimation);
         }
@@ -262,7 +262,7 @@ public final class StructureOpeningHelper
         return true;
     }
 
-    private StructureToggleResult toggle(
+    private CompletableFuture<StructureToggleResult> toggle(
         StructureSnapshot snapshot, AbstractStructure targetStructure, AnimationRequestData data,
         IAnimationComponent component, IMessageable messageReceiver, @Nullable IPlayer player,
         AnimationType animationType)
@@ -270,25 +270,83 @@ public final class StructureOpeningHelper
         if (snapshot.getOpenDir() == MovementDirection.NONE)
         {
             log.atSevere().withStackTrace(StackSize.FULL).log("OpenDir cannot be 'NONE'!");
-            return StructureToggleResult.ERROR;
+            return CompletableFuture.completedFuture(StructureToggleResult.ERROR);
         }
 
         if (!structureRegistry.isRegistered(targetStructure))
-            return abort(targetStructure, StructureToggleResult.INSTANCE_UNREGISTERED, data.getCause(),
-                         data.getResponsible(), messageReceiver, null);
+            return CompletableFuture.completedFuture(
+                abort(targetStructure, StructureToggleResult.INSTANCE_UNREGISTERED, data.getCause(),
+                      data.getResponsible(), messageReceiver, null));
 
         final OptionalLong registrationResult =
             structureActivityManager.registerAnimation(targetStructure, animationType.requiresWriteAccess());
         if (registrationResult.isEmpty())
-            return StructureToggleResult.BUSY;
+            return CompletableFuture.completedFuture(StructureToggleResult.BUSY);
 
         final long stamp = registrationResult.getAsLong();
 
         final StructureToggleResult isOpenable =
-            canBeToggled(snapshot, targetStructure.getType(), data.getNewCuboid(), data.getActionType());
+            canBeToggled(snapshot, targetStructure.getType(), data.getActionType());
 
         if (isOpenable != StructureToggleResult.SUCCESS)
-            return abort(targetStructure, isOpenable, data.getCause(), data.getResponsible(), messageReceiver, stamp);
+            return CompletableFuture.completedFuture(
+                abort(targetStructure, isOpenable, data.getCause(), data.getResponsible(), messageReceiver, stamp));
+
+        final ChunkTickets chunkTickets = new ChunkTickets();
+        final CompletableFuture<Boolean> chunksLoaded = chunksLoaded(snapshot, data.getNewCuboid(), chunkTickets);
+
+        // When the chunks were already loaded, continue on the current thread. Otherwise, move away from
+        // the thread that completed the chunk loads, as that may well be the main thread.
+        final CompletableFuture<StructureToggleResult> result = chunksLoaded.isDone() ?
+            chunksLoaded.thenApply(
+                loaded -> toggle(
+                    loaded, snapshot, targetStructure, data, component, messageReceiver, player, animationType,
+                    stamp, chunkTickets)) :
+            chunksLoaded.thenApplyAsync(
+                loaded -> toggle(
+                    loaded, snapshot, targetStructure, data, component, messageReceiver, player, animationType,
+                    stamp, chunkTickets),
+                executor::runAsync);
+
+        return result
+            .exceptionally(
+                throwable ->
+                {
+                    log.atSevere().withCause(throwable)
+                       .log("Failed to toggle structure %d!", targetStructure.getUid());
+                    return abort(targetStructure, StructureToggleResult.ERROR, data.getCause(), data.getResponsible(),
+                                 messageReceiver, stamp);
+                })
+            .thenApply(
+                toggleResult ->
+                {
+                    // When the toggle succeeded, the animator releases the chunks once it has finished.
+                    if (toggleResult != StructureToggleResult.SUCCESS)
+                        chunkTickets.release();
+                    return toggleResult;
+                });
+    }
+
+    /**
+     * Finishes toggling a structure once all chunks it might interact with have been checked.
+     *
+     * @param chunksLoaded
+     *     Whether all chunks the structure might interact with are loaded.
+     * @param chunkTickets
+     *     The tickets that keep the chunks the structure might interact with loaded.
+     * @return The result of the toggle.
+     */
+    private StructureToggleResult toggle(
+        boolean chunksLoaded, StructureSnapshot snapshot, AbstractStructure targetStructure, AnimationRequestData data,
+        IAnimationComponent component, IMessageable messageReceiver, @Nullable IPlayer player,
+        AnimationType animationType, long stamp, ChunkTickets chunkTickets)
+    {
+        if (!chunksLoaded)
+        {
+            log.atWarning().log("Chunks for structure '%s' could not be not loaded!", snapshot.getName());
+            return abort(targetStructure, StructureToggleResult.ERROR, data.getCause(), data.getResponsible(),
+                         messageReceiver, stamp);
+        }
 
         final IStructureEventTogglePrepare prepareEvent = callTogglePrepareEvent(data);
         if (prepareEvent.isCancelled())
@@ -305,7 +363,8 @@ public final class StructureOpeningHelper
             return abort(targetStructure, StructureToggleResult.NO_PERMISSION, data.getCause(), data.getResponsible(),
                          messageReceiver, stamp);
 
-        final boolean scheduled = registerBlockMover(targetStructure, data, component, player, animationType, stamp);
+        final boolean scheduled =
+            registerBlockMover(targetStructure, data, component, player, animationType, stamp, chunkTickets);
         if (!scheduled)
             return StructureToggleResult.ERROR;
 
@@ -314,7 +373,8 @@ public final class StructureOpeningHelper
         return StructureToggleResult.SUCCESS;
     }
 
-    StructureToggleResult toggle(AbstractStructure structure, StructureAnimationRequest request, IPlayer responsible)
+    CompletableFuture<StructureToggleResult> toggle(
+        AbstractStructure structure, StructureAnimationRequest request, IPlayer responsible)
     {
         final StructureSnapshot snapshot;
         final AnimationRequestData data;
@@ -324,22 +384,20 @@ public final class StructureOpeningHelper
         try
         {
             if (request.isSkipAnimation() && !structure.canSkipAnimation())
-                return abort(
+                return CompletableFuture.completedFuture(abort(
                     structure, StructureToggleResult.ERROR, request.getCause(), responsible,
-                    request.getMessageReceiver(),
-                    null);
+                    request.getMessageReceiver(), null));
 
             if (exceedSizeLimit(structure, responsible))
-                return abort(
+                return CompletableFuture.completedFuture(abort(
                     structure, StructureToggleResult.TOO_BIG, request.getCause(), responsible,
-                    request.getMessageReceiver(), null);
+                    request.getMessageReceiver(), null));
 
             final Optional<Cuboid> newCuboid = structure.getPotentialNewCoordinates();
             if (newCuboid.isEmpty())
-                return abort(
+                return CompletableFuture.completedFuture(abort(
                     structure, StructureToggleResult.ERROR, request.getCause(), responsible,
-                    request.getMessageReceiver(),
-                    null);
+                    request.getMessageReceiver(), null));
 
             final double animationTime = structure.getAnimationTime(request.getTime());
             snapshot = structure.getSnapshot();
@@ -434,39 +492,33 @@ public final class StructureOpeningHelper
      */
     public boolean isLocationEmpty(Cuboid newCuboid, Cuboid currentCuboid, @Nullable IPlayer player, IWorld world)
     {
-        final Vector3Di newMin = newCuboid.getMin();
-        final Vector3Di newMax = newCuboid.getMax();
-        final Vector3Di curMin = currentCuboid.getMin();
-        final Vector3Di curMax = currentCuboid.getMax();
+        // Ignore blocks that are currently part of the structure.
+        // It's expected and accepted for them to be in the way.
+        final ObstructionMap obstructions =
+            blockAnalyzer.getObstructions(world, newCuboid, currentCuboid, player == null);
+        highlightObstructions(obstructions, player, world);
+        return obstructions.isEmpty();
+    }
 
-        boolean isEmpty = true;
-        for (int xAxis = newMin.x(); xAxis <= newMax.x(); ++xAxis)
-        {
-            for (int yAxis = newMin.y(); yAxis <= newMax.y(); ++yAxis)
-            {
-                for (int zAxis = newMin.z(); zAxis <= newMax.z(); ++zAxis)
-                {
-                    // Ignore blocks that are currently part of the structure.
-                    // It's expected and accepted for them to be in the way.
-                    if (Util.between(xAxis, curMin.x(), curMax.x()) &&
-                        Util.between(yAxis, curMin.y(), curMax.y()) &&
-                        Util.between(zAxis, curMin.z(), curMax.z()))
-                        continue;
-
-                    if (!blockAnalyzer.isAirOrLiquid(locationFactory.create(world, xAxis, yAxis, zAxis)))
-                    {
-                        if (player == null)
-                            return false;
-
-                        glowingBlockSpawner
-                            .builder().forPlayer(player).withColor(Color.RED).forDuration(Duration.ofSeconds(4))
-                            .atPosition(xAxis + 0.5, yAxis, zAxis + 0.5).inWorld(world).build();
-                        isEmpty = false;
-                    }
-                }
-            }
-        }
-        return isEmpty;
+    /**
+     * Highlights all obstructed positions for a player.
+     *
+     * @param obstructions
+     *     The obstructions to highlight.
+     * @param player
+     *     The {@link IPlayer} to highlight the obstructions for. When this is null, nothing is highlighted.
+     * @param world
+     *     The world the obstructions are in.
+     */
+    private void highlightObstructions(ObstructionMap obstructions, @Nullable IPlayer player, IWorld world)
+    {
+        if (player == null || obstructions.isEmpty())
+            return;
+
+        obstructions.forEachObstruction(
+            position -> glowingBlockSpawner
+                .builder().forPlayer(player).withColor(Color.RED).forDuration(Duration.ofSeconds(4))
+                .atPosition(position.x() + 0.5, position.y(), position.z() + 0.5).inWorld(world).build());
     }
 
     /**
@@ -528,20 +580,23 @@ public final class StructureOpeningHelper
         final int maxDist = blocksToMove > 0 ? blocksToMove :
                             Math.abs(vec.x() * xLen + vec.y() * yLen + vec.z() * zLen);
 
+        if (maxDist < 1)
+            return 0;
+
+        // Analyze the entire region the structure would move through at once and check it step by step afterwards.
+        final Vector3Di offset = vec.multiply(maxDist - 1, maxDist - 1, maxDist - 1);
+        final Cuboid region = Cuboid.of(new Cuboid(locA, locB), new Cuboid(locA.add(offset), locB.add(offset)));
+        final ObstructionMap obstructions = blockAnalyzer.getObstructions(world, region, cuboid, false);
+        highlightObstructions(obstructions, player, world);
+
         int ret = 0;
         int steps = 0;
-        boolean obstructed = false;
         while (steps < maxDist)
         {
-            final boolean isEmpty = isLocationEmpty(new Cuboid(locA, locB), cuboid, player, world);
-            if (!isEmpty)
-            {
-                obstructed = true;
-                if (player == null)
-                    break;
-            }
-            if (!obstructed) // There is no point in checking how many blocks are available behind an obstruction.
-                ++ret;
+            // There is no point in checking how many blocks are available behind an obstruction.
+            if (obstructions.hasObstructionIn(new Cuboid(locA, locB)))
+                break;
+            ++ret;
             locA = locA.add(vec.x(), vec.y(), vec.z());
             locB = locB.add(vec.x(), vec.y(), vec.z());
             ++steps;
@@ -561,21 +616,17 @@ public final class StructureOpeningHelper
      * - The {@link AbstractStructure} is enabled.
      * <p>
      * - The {@link AbstractStructure} is not locked.
-     * <p>
-     * - All chunks this {@link AbstractStructure} might interact with are loaded.
      *
      * @param structure
      *     The {@link AbstractStructure}.
      * @param type
      *     The type of structure being toggled.
-     * @param newCuboid
-     *     The target cuboid of the structure.
      * @param actionType
      *     The type of action.
      * @return {@link StructureToggleResult#SUCCESS} if it can be toggled
      */
     private StructureToggleResult canBeToggled(
-        IStructureConst structure, StructureType type, Cuboid newCuboid, StructureActionType actionType)
+        IStructureConst structure, StructureType type, StructureActionType actionType)
     {
         if (actionType == StructureActionType.OPEN && !structure.isOpenable())
             return StructureToggleResult.ALREADY_OPEN;
@@ -588,24 +639,35 @@ public final class StructureOpeningHelper
         if (!structureTypeManager.isStructureTypeEnabled(type))
             return StructureToggleResult.TYPE_DISABLED;
 
-        if (!chunksLoaded(structure, newCuboid))
-        {
-            log.atWarning().log("Chunks for structure '%s' could not be not loaded!", structure.getName());
-            return StructureToggleResult.ERROR;
-        }
-
         return StructureToggleResult.SUCCESS;
     }
 
-    private boolean chunksLoaded(IStructureConst structure, Cuboid newCuboid)
+    /**
+     * Checks if all chunks a structure might interact with are loaded.
+     * <p>
+     * When chunks are allowed to be loaded for toggles (see {@link IConfig#loadChunksForToggle()}), any chunks that are
+     * not loaded yet are loaded asynchronously.
+     *
+     * @param structure
+     *     The structure whose current cuboid to check.
+     * @param newCuboid
+     *     The target cuboid of the structure.
+     * @param chunkTickets
+     *     The tickets to keep the chunks that are loaded for the toggle loaded with.
+     * @return True if all chunks are loaded.
+     */
+    private CompletableFuture<Boolean> chunksLoaded(
+        IStructureConst structure, Cuboid newCuboid, ChunkTickets chunkTickets)
     {
         final var mode = config.loadChunksForToggle() ?
                          IChunkLoader.ChunkLoadMode.ATTEMPT_LOAD : IChunkLoader.ChunkLoadMode.VERIFY_LOADED;
 
-        final var result = chunkLoader.checkChunks(structure.getWorld(), structure.getCuboid(), mode);
-        if (result == IChunkLoader.ChunkLoadResult.FAIL)
-            return false;
-
-        return chunkLoader.checkChunks(structure.getWorld(), newCuboid, mode) != IChunkLoader.ChunkLoadResult.FAIL;
+        final IWorld world = structure.getWorld();
+        return chunkLoader
+            .checkChunksAsync(world, structure.getCuboid(), mode, chunkTickets)
+            .thenCompose(result -> result == IChunkLoader.ChunkLoadResult.FAIL ?
+                                   CompletableFuture.completedFuture(IChunkLoader.ChunkLoadResult.FAIL) :
+                                   chunkLoader.checkChunksAsync(world, newCuboid, mode, chunkTickets))
+            .thenApply(result -> result != IChunkLoader.ChunkLoadResult.FAIL);
     }
 }
@@ -2,32 +2,82 @@ package nl.pim16aap2.animatedarchitecture.core.structures;
 
 import com.google.common.flogger.StackSize;
 import lombok.extern.flogger.Flogger;
+import nl.pim16aap2.animatedarchitecture.core.api.IChunkLoader;
+import nl.pim16aap2.animatedarchitecture.core.api.IConfig;
+import nl.pim16aap2.animatedarchitecture.core.api.IWorld;
 import nl.pim16aap2.animatedarchitecture.core.api.debugging.DebuggableRegistry;
 import nl.pim16aap2.animatedarchitecture.core.api.debugging.IDebuggable;
+import nl.pim16aap2.animatedarchitecture.core.api.restartable.IRestartable;
+import nl.pim16aap2.animatedarchitecture.core.api.restartable.RestartableHolder;
+import nl.pim16aap2.animatedarchitecture.core.data.cache.BoundedCache;
 import nl.pim16aap2.animatedarchitecture.core.data.cache.timed.TimedCache;
 import nl.pim16aap2.animatedarchitecture.core.managers.StructureDeletionManager;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.StructureActivityManager;
 import nl.pim16aap2.animatedarchitecture.core.util.Util;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Di;
+import org.jetbrains.annotations.Nullable;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 import javax.inject.Singleton;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 
 /**
  * Represents a registry of structures.
+ * <p>
+ * By default, structures are kept in a {@link TimedCache} with soft references, so they are removed when the garbage
+ * collector needs the space. When a maximum number of structures is configured (see
+ * {@link IConfig#maxCachedStructures()}), a {@link BoundedCache} is used instead. Structures that are evicted from the
+ * bounded cache are only weakly referenced by the registry, so that a structure that is still in use elsewhere is never
+ * loaded twice.
  *
  * @author Pim
  * @see <a href="https://en.wikipedia.org/wiki/Multiton_pattern">Wikipedia: Multiton</a>
  */
 @Singleton
 @Flogger
-public final class StructureRegistry implements IDebuggable, StructureDeletionManager.IDeletionListener
+public final class StructureRegistry
+    implements IDebuggable, IRestartable, StructureDeletionManager.IDeletionListener
 {
     public static final Duration CACHE_EXPIRY = Duration.ofMinutes(15);
 
     private final TimedCache<Long, AbstractStructure> structureCache;
 
+    /**
+     * The cache used when a maximum number of structures has been configured.
+     * <p>
+     * When this is not null, it is used instead of the {@link #structureCache}.
+     */
+    private volatile @Nullable BoundedCache<Long, CachedStructure> boundedCache;
+
+    /**
+     * The structures that were evicted from the {@link #boundedCache}.
+     * <p>
+     * These structures are only weakly referenced, so they are kept only for as long as they are still in use
+     * elsewhere.
+     */
+    private final Map<Long, ReleasedStructure> releasedStructures = new ConcurrentHashMap<>();
+
+    private final ReferenceQueue<AbstractStructure> releasedStructuresQueue = new ReferenceQueue<>();
+
+    private final @Nullable IConfig config;
+    private final @Nullable Provider<StructureActivityManager> structureActivityManagerProvider;
+    private final @Nullable IChunkLoader chunkLoader;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadTimeNanos = new LongAdder();
+
     /**
      * Keeps track of whether to allow new entries to be added to the cache.
      */
@@ -36,14 +86,20 @@ public final class StructureRegistry implements IDebuggable, StructureDeletionMa
     private final Duration cacheExpiry;
 
     private StructureRegistry(
-        DebuggableRegistry debuggableRegistry, Duration cacheExpiry, StructureDeletionManager structureDeletionManager)
+        DebuggableRegistry debuggableRegistry, Duration cacheExpiry, StructureDeletionManager structureDeletionManager,
+        @Nullable IConfig config, @Nullable Provider<StructureActivityManager> structureActivityManagerProvider,
+        @Nullable IChunkLoader chunkLoader)
     {
         this.cacheExpiry = cacheExpiry;
+        this.config = config;
+        this.structureActivityManagerProvider = structureActivityManagerProvider;
+        this.chunkLoader = chunkLoader;
 
         if (cacheExpiry.isNegative())
             structureCache = TimedCache.emptyCache();
         else
             structureCache = TimedCache.<Long, AbstractStructure>builder()
+                                       .name("StructureRegistry")
                                        .cleanup(Duration.ofMinutes(15))
                                        .softReference(true)
                                        .keepAfterTimeOut(true)
@@ -58,9 +114,13 @@ public final class StructureRegistry implements IDebuggable, StructureDeletionMa
      * Constructs a new {@link #StructureRegistry} using the default cache expiry value: {@link #CACHE_EXPIRY}.
      */
     @Inject StructureRegistry(
-        DebuggableRegistry debuggableRegistry, StructureDeletionManager structureDeletionManager)
+        DebuggableRegistry debuggableRegistry, StructureDeletionManager structureDeletionManager,
+        RestartableHolder restartableHolder, IConfig config,
+        Provider<StructureActivityManager> structureActivityManagerProvider, IChunkLoader chunkLoader)
     {
-        this(debuggableRegistry, CACHE_EXPIRY, structureDeletionManager);
+        this(debuggableRegistry, CACHE_EXPIRY, structureDeletionManager, config, structureActivityManagerProvider,
+             chunkLoader);
+        restartableHolder.registerRestartable(this);
     }
 
     /**
@@ -72,15 +132,139 @@ public final class StructureRegistry implements IDebuggable, StructureDeletionMa
         DebuggableRegistry debuggableRegistry, StructureDeletionManager structureDeletionManager)
     {
         final StructureRegistry structureRegistry = new StructureRegistry(
-            debuggableRegistry, Duration.ofMillis(-1), structureDeletionManager);
+            debuggableRegistry, Duration.ofMillis(-1), structureDeletionManager, null, null, null);
 
         structureRegistry.acceptNewEntries = false;
         return structureRegistry;
     }
 
+    @Override
+    public synchronized void initialize()
+    {
+        if (config == null || !acceptNewEntries)
+            return;
+
+        final int maxSize = config.maxCachedStructures();
+        final @Nullable BoundedCache<Long, CachedStructure> current = boundedCache;
+        if (current == null)
+        {
+            if (maxSize < 1)
+                return;
+            if (structureCache.getSize() > 0)
+            {
+                log.atWarning().log("Limiting the number of cached structures requires a restart!");
+                return;
+            }
+            boundedCache = newBoundedCache(maxSize);
+            return;
+        }
+
+        if (maxSize < 1)
+        {
+            log.atWarning().log("Removing the limit on the number of cached structures requires a restart!");
+            return;
+        }
+
+        if (maxSize != current.getMaximumSize())
+        {
+            final BoundedCache<Long, CachedStructure> newCache = newBoundedCache(maxSize);
+            for (final CachedStructure entry : current.values())
+                newCache.put(entry.structure().getUid(), entry);
+            boundedCache = newCache;
+        }
+    }
+
+    private BoundedCache<Long, CachedStructure> newBoundedCache(int maxSize)
+    {
+        return new BoundedCache<>(maxSize, this::isPinned, (uid, entry) -> release(entry.structure()));
+    }
+
+    /**
+     * Checks if a structure should never be evicted from the {@link #boundedCache}.
+     * <p>
+     * Structures are pinned while they are being animated or while their power block is in a loaded chunk.
+     */
+    private boolean isPinned(CachedStructure entry)
+    {
+        if (structureActivityManagerProvider != null &&
+            structureActivityManagerProvider.get().isAnimating(entry.structure().getUid()))
+            return true;
+
+        if (chunkLoader == null)
+            return false;
+        try
+        {
+            final IChunkLoader.ChunkLoadResult result =
+                chunkLoader.checkChunk(entry.world(), entry.powerBlock(), IChunkLoader.ChunkLoadMode.VERIFY_LOADED);
+            return result == IChunkLoader.ChunkLoadResult.PASS;
+        }
+        catch (Exception e)
+        {
+            log.atFine().withCause(e)
+               .log("Failed to check if the chunk of structure %d is loaded!", entry.structure().getUid());
+            return false;
+        }
+    }
+
+    /**
+     * Moves a structure that was evicted from the {@link #boundedCache} to the {@link #releasedStructures}.
+     */
+    private void release(AbstractStructure structure)
+    {
+        releasedStructures.put(
+            structure.getUid(), new ReleasedStructure(structure.getUid(), structure, releasedStructuresQueue));
+    }
+
+    /**
+     * Removes all entries from {@link #releasedStructures} whose structures have been garbage collected.
+     */
+    private void purgeReleasedStructures()
+    {
+        @Nullable Reference<? extends AbstractStructure> ref;
+        while ((ref = releasedStructuresQueue.poll()) != null)
+        {
+            final ReleasedStructure released = (ReleasedStructure) ref;
+            releasedStructures.remove(released.uid, released);
+        }
+    }
+
+    /**
+     * Gets a structure from the {@link #boundedCache} or, if it was evicted but is still in use, from the
+     * {@link #releasedStructures}. Structures that are found in the latter are put back in the bounded cache.
+     */
+    private Optional<AbstractStructure> getBounded(BoundedCache<Long, CachedStructure> cache, long uid)
+    {
+        final @Nullable CachedStructure cached = cache.get(uid);
+        if (cached != null)
+            return Optional.of(cached.structure());
+
+        final @Nullable ReleasedStructure released = releasedStructures.get(uid);
+        final @Nullable AbstractStructure structure = released == null ? null : released.get();
+        if (structure == null)
+            return Optional.empty();
+
+        // Create the entry before acquiring the lock of the cache, as it requires the lock of the structure.
+        final CachedStructure entry = CachedStructure.of(structure);
+        synchronized (cache)
+        {
+            if (releasedStructures.remove(uid, released))
+                cache.put(uid, entry);
+        }
+        return Optional.of(structure);
+    }
+
     @Override
     public void onStructureDeletion(IStructureConst structure)
     {
+        final @Nullable BoundedCache<Long, CachedStructure> cache = boundedCache;
+        if (cache != null)
+        {
+            synchronized (cache)
+            {
+                cache.remove(structure.getUid());
+                releasedStructures.remove(structure.getUid());
+            }
+        }
         structureCache.remove(structure.getUid());
     }
 
@@ -94,7 +278,15 @@ public final class StructureRegistry implements IDebuggable, StructureDeletionMa
      */
     public Optional<AbstractStructure> getRegisteredStructure(long structureUID)
     {
-        return structureCache.get(structureUID);
+        final @Nullable BoundedCache<Long, CachedStructure> cache = boundedCache;
+        final Optional<AbstractStructure> ret =
+            cache == null ? structureCache.get(structureUID) : getBounded(cache, structureUID);
+
+        if (ret.isPresent())
+            hits.increment();
+        else
+            misses.increment();
+        return ret;
     }
 
     /**
@@ -107,7 +299,8 @@ public final class StructureRegistry implements IDebuggable, StructureDeletionMa
     @SuppressWarnings("unused")
     public boolean isRegistered(long structureUID)
     {
-        return structureCache.containsKey(structureUID);
+        final @Nullable BoundedCache<Long, CachedStructure> cache = boundedCache;
+        return cache == null ? structureCache.containsKey(structureUID) : getBounded(cache, structureUID).isPresent();
     }
 
     /**
@@ -120,7 +313,10 @@ public final class StructureRegistry implements IDebuggable, StructureDeletionMa
      */
     public boolean isRegistered(AbstractStructure structure)
     {
-        return structureCache.get(structure.getUid()).map(found -> found == structure).orElse(false);
+        final @Nullable BoundedCache<Long, CachedStructure> cache = boundedCache;
+        final Optional<AbstractStructure> found =
+            cache == null ? structureCache.get(structure.getUid()) : getBounded(cache, structure.getUid());
+        return found.map(entry -> entry == structure).orElse(false);
     }
 
     /**
@@ -138,20 +334,98 @@ public final class StructureRegistry implements IDebuggable, StructureDeletionMa
         if (uid <= 0)
             throw new IllegalArgumentException("Trying to register structure with UID " + uid);
 
-        return structureCache.compute(uid, (key, value) ->
+        final @Nullable BoundedCache<Long, CachedStructure> cache = boundedCache;
+        if (cache == null)
+            return structureCache.compute(uid, (key, value) ->
+            {
+                if (value == null)
+                    return load(supplier);
+                logDoubleRegistration(uid);
+                return value;
+            });
+
+        purgeReleasedStructures();
+        synchronized (cache)
         {
-            if (value == null)
-                return Util.requireNonNull(supplier.get(), "Supplied Structure");
-            log.atFine().withStackTrace(StackSize.FULL).log("Caught attempted double registering of structure %d", uid);
-            return value;
-        });
+            final Optional<AbstractStructure> existing = getBounded(cache, uid);
+            if (existing.isPresent())
+            {
+                logDoubleRegistration(uid);
+                return existing.get();
+            }
+            // The newly loaded structure is not shared yet, so acquiring its lock here cannot cause any contention.
+            return cache.computeIfAbsent(uid, key -> CachedStructure.of(load(supplier))).structure();
+        }
+    }
+
+    private AbstractStructure load(Supplier<AbstractStructure> supplier)
+    {
+        final long start = System.nanoTime();
+        final AbstractStructure structure = Util.requireNonNull(supplier.get(), "Supplied Structure");
+        loadTimeNanos.add(System.nanoTime() - start);
+        loads.increment();
+        return structure;
+    }
+
+    private static void logDoubleRegistration(long uid)
+    {
+        log.atFine().withStackTrace(StackSize.FULL).log("Caught attempted double registering of structure %d", uid);
     }
 
     @Override
     public String getDebugInformation()
     {
+        final @Nullable BoundedCache<Long, CachedStructure> cache = boundedCache;
+        final long loadCount = loads.sum();
+        final double averageLoadTime =
+            loadCount == 0 ? 0 : (double) loadTimeNanos.sum() / loadCount / TimeUnit.MILLISECONDS.toNanos(1);
+
+        final String cacheInformation = cache == null ?
+            ("\ncacheExpiry: " + cacheExpiry + "\ncacheSize: " + structureCache.getSize()) :
+            ("\nmaxCacheSize: " + cache.getMaximumSize() + "\ncacheSize: " + cache.size() +
+                "\nreleasedStructures: " + releasedStructures.size());
+
         return "Accepting new entries: " + acceptNewEntries +
-            "\ncacheExpiry: " + cacheExpiry +
-            "\ncacheSize: " + structureCache.getSize();
+            cacheInformation +
+            "\nhits: " + hits.sum() +
+            "\nmisses: " + misses.sum() +
+            "\nloads: " + loadCount +
+            String.format("\naverage load time: %.3fms", averageLoadTime);
+    }
+
+    /**
+     * An entry in the {@link #boundedCache}.
+     * <p>
+     * The location of the power block is stored separately, so it can be used to check if the structure is pinned
+     * without acquiring the lock of the structure. If the power block is moved while the structure is cached, the old
+     * location is used until the structure is cached again.
+     *
+     * @param structure
+     *     The cached structure.
+     * @param world
+     *     The world the structure is in.
+     * @param powerBlock
+     *     The location of the power block of the structure.
+     */
+    private record CachedStructure(AbstractStructure structure, IWorld world, Vector3Di powerBlock)
+    {
+        static CachedStructure of(AbstractStructure structure)
+        {
+            return new CachedStructure(structure, structure.getWorld(), structure.getPowerBlock());
+        }
+    }
+
+    /**
+     * A weak reference to a structure that was evicted from the {@link #boundedCache}.
+     */
+    private static final class ReleasedStructure extends WeakReference<AbstractStructure>
+    {
+        private final long uid;
+
+        private ReleasedStructure(long uid, AbstractStructure structure, ReferenceQueue<AbstractStructure> queue)
+        {
+            super(structure, queue);
+            this.uid = uid;
+        }
     }
 }
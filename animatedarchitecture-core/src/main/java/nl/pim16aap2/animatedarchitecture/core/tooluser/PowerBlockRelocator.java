@@ -8,6 +8,7 @@ import lombok.ToString;
 import lombok.extern.flogger.Flogger;
 import nl.pim16aap2.animatedarchitecture.core.api.ILocation;
 import nl.pim16aap2.animatedarchitecture.core.api.IPlayer;
+import nl.pim16aap2.animatedarchitecture.core.managers.PowerBlockManager;
 import nl.pim16aap2.animatedarchitecture.core.structures.AbstractStructure;
 import nl.pim16aap2.animatedarchitecture.core.tooluser.stepexecutor.StepExecutorLocation;
 import nl.pim16aap2.animatedarchitecture.core.tooluser.stepexecutor.StepExecutorVoid;
@@ -25,14 +26,17 @@ import java.util.List;
 @Flogger
 public class PowerBlockRelocator extends ToolUser
 {
+    private final PowerBlockManager powerBlockManager;
     private final AbstractStructure structure;
     private @Nullable ILocation newLoc;
 
     @AssistedInject
     public PowerBlockRelocator(
-        ToolUser.Context context, @Assisted IPlayer player, @Assisted AbstractStructure structure)
+        ToolUser.Context context, PowerBlockManager powerBlockManager, @Assisted IPlayer player,
+        @Assisted AbstractStructure structure)
     {
         super(context, player);
+        this.powerBlockManager = powerBlockManager;
         this.structure = structure;
     }
 
@@ -79,8 +83,7 @@ public class PowerBlockRelocator extends ToolUser
                                   localizer.getMessage("tool_user.powerblock_relocator.error.location_unchanged"));
         else
         {
-            structure.setPowerBlock(newLoc.getPosition());
-            structure.syncData();
+            powerBlockManager.updatePowerBlockLoc(structure, structure.getPowerBlock(), newLoc.getPosition());
             getPlayer().sendSuccess(textFactory, localizer.getMessage("tool_user.powerblock_relocator.success"));
         }
         return true;
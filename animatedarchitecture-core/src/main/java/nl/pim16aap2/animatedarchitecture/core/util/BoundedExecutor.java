@@ -0,0 +1,167 @@
+package nl.pim16aap2.animatedarchitecture.core.util;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link Executor} that runs tasks on a delegate {@link ExecutorService} while limiting the number of tasks that run
+ * at the same time.
+ * <p>
+ * Every task waits for a permit on the thread it was dispatched to before it runs. This is cheap when the delegate uses
+ * virtual threads, which makes it possible to submit many blocking tasks at once without overwhelming the resource
+ * they are waiting for (e.g. the database).
+ * <p>
+ * The number of waiting tasks and the time they spend waiting are tracked, so they can be inspected using
+ * {@link #getDebugInformation()}.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Pim
+ */
+public final class BoundedExecutor implements Executor
+{
+    private final ExecutorService delegate;
+
+    /**
+     * The maximum number of tasks that can run at the same time.
+     */
+    @Getter
+    private final int maxConcurrency;
+
+    private final Semaphore permits;
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger activeTasks = new AtomicInteger();
+    private final LongAdder startedTasks = new LongAdder();
+    private final LongAdder totalWaitTime = new LongAdder();
+    private final AtomicLong maxWaitTime = new AtomicLong();
+
+    /**
+     * Creates a new {@link BoundedExecutor}.
+     *
+     * @param delegate
+     *     The executor service that runs the tasks.
+     * @param maxConcurrency
+     *     The maximum number of tasks that can run at the same time. Must be at least 1.
+     */
+    public BoundedExecutor(ExecutorService delegate, int maxConcurrency)
+    {
+        if (maxConcurrency < 1)
+            throw new IllegalArgumentException("Max concurrency must be at least 1, but got: " + maxConcurrency);
+        this.delegate = delegate;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    @Override
+    public void execute(Runnable command)
+    {
+        final long submitTime = System.nanoTime();
+        queueDepth.incrementAndGet();
+        try
+        {
+            delegate.execute(() -> run(command, submitTime));
+        }
+        catch (RejectedExecutionException e)
+        {
+            queueDepth.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void run(Runnable command, long submitTime)
+    {
+        boolean acquired = false;
+        try
+        {
+            permits.acquire();
+            acquired = true;
+        }
+        catch (InterruptedException e)
+        {
+            // Still run the task, so anything waiting for it (e.g. a CompletableFuture) is completed.
+            Thread.currentThread().interrupt();
+        }
+
+        final long waitTime = System.nanoTime() - submitTime;
+        queueDepth.decrementAndGet();
+        startedTasks.increment();
+        totalWaitTime.add(waitTime);
+        maxWaitTime.accumulateAndGet(waitTime, Math::max);
+
+        activeTasks.incrementAndGet();
+        try
+        {
+            command.run();
+        }
+        finally
+        {
+            activeTasks.decrementAndGet();
+            if (acquired)
+                permits.release();
+        }
+    }
+
+    /**
+     * Attempts to stop all running tasks and stops accepting new tasks. See {@link ExecutorService#shutdownNow()}.
+     */
+    public void shutdownNow()
+    {
+        delegate.shutdownNow();
+    }
+
+    /**
+     * @return The number of tasks that have been submitted, but that have not started running yet.
+     */
+    public int getQueueDepth()
+    {
+        return queueDepth.get();
+    }
+
+    /**
+     * @return The number of tasks that are currently running.
+     */
+    public int getActiveTasks()
+    {
+        return activeTasks.get();
+    }
+
+    /**
+     * @return The average amount of time tasks had to wait before they started running.
+     */
+    public Duration getAverageWaitTime()
+    {
+        final long started = startedTasks.sum();
+        return started == 0 ? Duration.ZERO : Duration.ofNanos(totalWaitTime.sum() / started);
+    }
+
+    /**
+     * @return The longest amount of time any task had to wait before it started running.
+     */
+    public Duration getMaxWaitTime()
+    {
+        return Duration.ofNanos(maxWaitTime.get());
+    }
+
+    /**
+     * @return A description of the current state of this executor.
+     */
+    public String getDebugInformation()
+    {
+        return "Executor: " + delegate +
+            "\nMax concurrency: " + maxConcurrency +
+            ", active tasks: " + getActiveTasks() +
+            ", queue depth: " + getQueueDepth() +
+            ", tasks started: " + startedTasks.sum() +
+            ", average wait: " + getAverageWaitTime().toMillis() + "ms" +
+            ", max wait: " + getMaxWaitTime().toMillis() + "ms";
+    }
+}
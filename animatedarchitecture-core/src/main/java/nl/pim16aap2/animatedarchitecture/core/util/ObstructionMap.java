@@ -0,0 +1,163 @@
+package nl.pim16aap2.animatedarchitecture.core.util;
+
+import lombok.Getter;
+import lombok.ToString;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Di;
+
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+/**
+ * Represents the obstructed positions inside a {@link Cuboid}.
+ * <p>
+ * Every position in the cuboid is represented by a single bit, so even large cuboids can be stored compactly.
+ *
+ * @author Pim
+ */
+@ToString
+public final class ObstructionMap
+{
+    /**
+     * Gets the cuboid described by this map.
+     */
+    @Getter
+    private final Cuboid cuboid;
+
+    @ToString.Exclude
+    private final BitSet obstructions;
+
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int sizeY;
+    private final int sizeZ;
+
+    /**
+     * Creates a new map without any obstructions.
+     *
+     * @param cuboid
+     *     The cuboid described by this map.
+     */
+    public ObstructionMap(Cuboid cuboid)
+    {
+        this.cuboid = cuboid;
+        this.obstructions = new BitSet(cuboid.getVolume());
+        this.minX = cuboid.getMin().x();
+        this.minY = cuboid.getMin().y();
+        this.minZ = cuboid.getMin().z();
+        this.sizeY = cuboid.getDimensions().y();
+        this.sizeZ = cuboid.getDimensions().z();
+    }
+
+    private boolean isInside(int x, int y, int z)
+    {
+        return Util.between(x, minX, cuboid.getMax().x()) &&
+            Util.between(y, minY, cuboid.getMax().y()) &&
+            Util.between(z, minZ, cuboid.getMax().z());
+    }
+
+    private int getIndex(int x, int y, int z)
+    {
+        return ((x - minX) * sizeY + (y - minY)) * sizeZ + (z - minZ);
+    }
+
+    /**
+     * Marks a position as obstructed.
+     *
+     * @param x
+     *     The x-coordinate of the position.
+     * @param y
+     *     The y-coordinate of the position.
+     * @param z
+     *     The z-coordinate of the position.
+     * @throws IllegalArgumentException
+     *     When the position lies outside the cuboid of this map.
+     */
+    public void setObstructed(int x, int y, int z)
+    {
+        if (!isInside(x, y, z))
+            throw new IllegalArgumentException(
+                "Position [" + x + ", " + y + ", " + z + "] is outside of cuboid " + cuboid + "!");
+        obstructions.set(getIndex(x, y, z));
+    }
+
+    /**
+     * Checks if a position is obstructed.
+     *
+     * @param x
+     *     The x-coordinate of the position.
+     * @param y
+     *     The y-coordinate of the position.
+     * @param z
+     *     The z-coordinate of the position.
+     * @return True if the position is obstructed. Positions outside the cuboid of this map are never obstructed.
+     */
+    public boolean isObstructed(int x, int y, int z)
+    {
+        return isInside(x, y, z) && obstructions.get(getIndex(x, y, z));
+    }
+
+    /**
+     * @return True if none of the positions in this map are obstructed.
+     */
+    public boolean isEmpty()
+    {
+        return obstructions.isEmpty();
+    }
+
+    /**
+     * @return The number of obstructed positions in this map.
+     */
+    public int getObstructionCount()
+    {
+        return obstructions.cardinality();
+    }
+
+    /**
+     * Checks if any of the positions in a region are obstructed.
+     *
+     * @param region
+     *     The region to check. Any parts of the region outside the cuboid of this map are ignored.
+     * @return True if at least 1 position in the region is obstructed.
+     */
+    public boolean hasObstructionIn(Cuboid region)
+    {
+        final int startX = Math.max(minX, region.getMin().x());
+        final int startY = Math.max(minY, region.getMin().y());
+        final int startZ = Math.max(minZ, region.getMin().z());
+        final int endX = Math.min(cuboid.getMax().x(), region.getMax().x());
+        final int endY = Math.min(cuboid.getMax().y(), region.getMax().y());
+        final int endZ = Math.min(cuboid.getMax().z(), region.getMax().z());
+
+        if (startZ > endZ)
+            return false;
+
+        // Positions along the z-axis are stored consecutively, so each row can be checked in one go.
+        for (int x = startX; x <= endX; ++x)
+            for (int y = startY; y <= endY; ++y)
+            {
+                final int rowStart = getIndex(x, y, startZ);
+                final int next = obstructions.nextSetBit(rowStart);
+                if (next != -1 && next <= rowStart + (endZ - startZ))
+                    return true;
+            }
+        return false;
+    }
+
+    /**
+     * Applies an action to every obstructed position in this map.
+     *
+     * @param action
+     *     The action to apply to the obstructed positions.
+     */
+    public void forEachObstruction(Consumer<Vector3Di> action)
+    {
+        for (int idx = obstructions.nextSetBit(0); idx >= 0; idx = obstructions.nextSetBit(idx + 1))
+        {
+            final int z = idx % sizeZ;
+            final int y = (idx / sizeZ) % sizeY;
+            final int x = idx / (sizeZ * sizeY);
+            action.accept(new Vector3Di(minX + x, minY + y, minZ + z));
+        }
+    }
+}
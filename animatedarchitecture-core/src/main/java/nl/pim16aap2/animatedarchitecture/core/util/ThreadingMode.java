@@ -0,0 +1,93 @@
+package nl.pim16aap2.animatedarchitecture.core.util;
+
+import lombok.extern.flogger.Flogger;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the different kinds of threads that can be used to execute blocking work, such as database access.
+ *
+ * @author Pim
+ */
+@Flogger
+public enum ThreadingMode
+{
+    /**
+     * Blocking work is executed on regular platform threads.
+     */
+    PLATFORM,
+
+    /**
+     * Every task is executed on its own virtual thread.
+     * <p>
+     * Virtual threads are cheap to create and to block, so bursts of blocking work do not starve each other of
+     * threads.
+     * <p>
+     * Virtual threads are only available on Java 21 or later, or when preview features have been enabled on Java 19
+     * and 20. When they are not available, {@link #PLATFORM} threads are used instead.
+     */
+    VIRTUAL,
+    ;
+
+    /**
+     * Parses a {@link ThreadingMode} from its name.
+     *
+     * @param name
+     *     The name of the mode. This is case-insensitive.
+     * @return The {@link ThreadingMode} with the provided name, or null if no such mode exists.
+     */
+    public static @Nullable ThreadingMode parse(@Nullable String name)
+    {
+        if (name == null)
+            return null;
+        final String preparedName = name.toUpperCase(Locale.ENGLISH).strip();
+        for (final ThreadingMode mode : values())
+            if (mode.name().equals(preparedName))
+                return mode;
+        return null;
+    }
+
+    /**
+     * Creates a new {@link ExecutorService} for this mode.
+     *
+     * @param platformThreads
+     *     The number of threads to use for {@link #PLATFORM} threads.
+     * @return The new {@link ExecutorService}.
+     */
+    public ExecutorService newExecutorService(int platformThreads)
+    {
+        if (this == VIRTUAL)
+        {
+            final @Nullable ExecutorService virtualExecutor = newVirtualThreadPerTaskExecutor();
+            if (virtualExecutor != null)
+                return virtualExecutor;
+        }
+        return Executors.newFixedThreadPool(platformThreads);
+    }
+
+    /**
+     * Creates a new virtual-thread-per-task executor if virtual threads are available on the current JVM.
+     * <p>
+     * The executor is created reflectively, so this class can be compiled without preview features.
+     *
+     * @return The new executor, or null if virtual threads are not available.
+     */
+    public static @Nullable ExecutorService newVirtualThreadPerTaskExecutor()
+    {
+        try
+        {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (InvocationTargetException | NoSuchMethodException | IllegalAccessException e)
+        {
+            log.atWarning().atMostEvery(1, TimeUnit.HOURS)
+               .log("Virtual threads are not available on this JVM! Falling back to platform threads.");
+            return null;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package nl.pim16aap2.animatedarchitecture.core.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A hashed timing wheel that keeps track of items that expire after a number of ticks.
+ * <p>
+ * The wheel consists of a fixed number of buckets. Every item is stored in the bucket of the tick it expires in, so
+ * scheduling an item is a constant-time operation and advancing the wheel only has to look at a single bucket. Items
+ * that expire more than one rotation in the future share their bucket with items that expire earlier; they are kept
+ * there until their tick has been reached.
+ * <p>
+ * All items that expire in the same tick are returned together by {@link #advance()}, so they can be processed in a
+ * single batch.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <T>
+ *     The type of the items.
+ * @author Pim
+ */
+public final class TimingWheel<T>
+{
+    private final List<Entry<T>>[] buckets;
+
+    private final int mask;
+
+    /**
+     * The number of times this wheel has been advanced.
+     */
+    private long currentTick = 0;
+
+    private int size = 0;
+
+    /**
+     * Creates a new {@link TimingWheel}.
+     *
+     * @param wheelSize
+     *     The number of buckets in the wheel. This is rounded up to the next power of two. Items that expire within
+     *     this number of ticks never have to be looked at before they expire.
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(int wheelSize)
+    {
+        if (wheelSize < 1)
+            throw new IllegalArgumentException("The size of a timing wheel must be at least 1, but got: " + wheelSize);
+
+        final int bucketCount = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.buckets = new List[bucketCount];
+        for (int idx = 0; idx < bucketCount; ++idx)
+            buckets[idx] = new ArrayList<>();
+        this.mask = bucketCount - 1;
+    }
+
+    /**
+     * Schedules an item to expire after a number of ticks.
+     *
+     * @param item
+     *     The item to schedule.
+     * @param delay
+     *     The number of ticks after which the item expires. Values less than 1 are treated as 1, so the item expires on
+     *     the next call to {@link #advance()}.
+     */
+    public void schedule(T item, long delay)
+    {
+        final long expiry = currentTick + Math.max(1, delay);
+        buckets[(int) (expiry & mask)].add(new Entry<>(item, expiry));
+        ++size;
+    }
+
+    /**
+     * Advances this wheel by a single tick.
+     *
+     * @return All items that expired in the new tick. This list is empty if no items expired.
+     */
+    public List<T> advance()
+    {
+        final long tick = ++currentTick;
+        final List<Entry<T>> bucket = buckets[(int) (tick & mask)];
+        if (bucket.isEmpty())
+            return Collections.emptyList();
+
+        final List<T> expired = new ArrayList<>(bucket.size());
+        final Iterator<Entry<T>> it = bucket.iterator();
+        while (it.hasNext())
+        {
+            final Entry<T> entry = it.next();
+            if (entry.expiry() > tick)
+                continue;
+            expired.add(entry.item());
+            it.remove();
+        }
+        size -= expired.size();
+        return expired;
+    }
+
+    /**
+     * Removes all items from this wheel.
+     *
+     * @return All items that were removed.
+     */
+    public List<T> clear()
+    {
+        final List<T> removed = new ArrayList<>(size);
+        for (final List<Entry<T>> bucket : buckets)
+        {
+            for (final Entry<T> entry : bucket)
+                removed.add(entry.item());
+            bucket.clear();
+        }
+        size = 0;
+        return removed;
+    }
+
+    /**
+     * @return The number of items in this wheel that have not expired yet.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return True if this wheel does not contain any items.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    private record Entry<T>(T item, long expiry)
+    {
+    }
+}
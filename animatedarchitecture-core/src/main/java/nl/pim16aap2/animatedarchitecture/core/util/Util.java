@@ -617,6 +617,52 @@ public final class Util
         return hash;
     }
 
+    /**
+     * Packs the coordinates of a block into a single long.
+     * <p>
+     * The x and z coordinates are stored in 26 bits each and the y coordinate is stored in 12 bits. This covers the
+     * entire range of valid block coordinates, so two different blocks never share the same key.
+     *
+     * @param x
+     *     The x-coordinate of the block.
+     * @param y
+     *     The y-coordinate of the block.
+     * @param z
+     *     The z-coordinate of the block.
+     * @return The packed coordinates of the block.
+     */
+    public static long getPositionKey(int x, int y, int z)
+    {
+        return ((x & 0x3FFFFFFL) << 38) | ((z & 0x3FFFFFFL) << 12) | (y & 0xFFFL);
+    }
+
+    /**
+     * Packs the coordinates of a block into a single long. See {@link #getPositionKey(int, int, int)}.
+     *
+     * @param position
+     *     The position of the block.
+     * @return The packed coordinates of the block.
+     */
+    public static long getPositionKey(Vector3Di position)
+    {
+        return getPositionKey(position.x(), position.y(), position.z());
+    }
+
+    /**
+     * Retrieves the coordinates of a block from its packed coordinates. See {@link #getPositionKey(int, int, int)}.
+     *
+     * @param positionKey
+     *     The packed coordinates of the block.
+     * @return The coordinates of the block.
+     */
+    public static Vector3Di getPositionFromKey(long positionKey)
+    {
+        final int x = (int) (positionKey >> 38);
+        final int y = (int) (positionKey << 52 >> 52);
+        final int z = (int) (positionKey << 26 >> 38);
+        return new Vector3Di(x, y, z);
+    }
+
     /**
      * Converts world-space coordinates to chunk-space coordinates.
      *
@@ -0,0 +1,130 @@
+package nl.pim16aap2.animatedarchitecture.core.util.formula;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents a compiled mathematical formula.
+ * <p>
+ * A formula is parsed once using {@link #compile(String, String...)}, after which it can be evaluated any number of
+ * times without parsing it again. Variables are referenced by their slot, which is the index of the variable in the
+ * list of variables provided when the formula was compiled.
+ * <p>
+ * Formulas support the operators {@code +}, {@code -}, {@code *}, {@code /}, {@code %} and {@code ^}, parentheses, the
+ * constants {@code pi} and {@code e}, the single-argument functions {@code sqrt}, {@code abs}, {@code sin},
+ * {@code cos}, {@code tan}, {@code asin}, {@code acos}, {@code atan}, {@code exp}, {@code log}, {@code log10},
+ * {@code floor}, {@code ceil}, {@code round}, and the two-argument functions {@code min}, {@code max}, {@code pow} and
+ * {@code atan2}.
+ * <p>
+ * Instances of this class are immutable and can be evaluated concurrently from different threads.
+ *
+ * @author Pim
+ */
+@ToString(onlyExplicitlyIncluded = true)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public final class Formula
+{
+    /**
+     * The source of the formula.
+     */
+    @Getter
+    @ToString.Include
+    @EqualsAndHashCode.Include
+    private final String source;
+
+    /**
+     * The names of the variables of this formula. The index of each name is the slot of that variable.
+     */
+    @Getter
+    @ToString.Include
+    @EqualsAndHashCode.Include
+    private final List<String> variables;
+
+    private final FormulaNode root;
+
+    Formula(String source, List<String> variables, FormulaNode root)
+    {
+        this.source = source;
+        this.variables = variables;
+        this.root = root;
+    }
+
+    /**
+     * Compiles a formula.
+     *
+     * @param formula
+     *     The formula to compile. For example: {@code "min(0.07 * radius, 3) * sin(counter / 12)"}.
+     * @param variables
+     *     The names of the variables that can be used in the formula. The index of each variable is the slot used to
+     *     provide its value when evaluating the formula.
+     * @return The compiled formula.
+     * @throws IllegalArgumentException
+     *     When the formula could not be parsed.
+     */
+    public static Formula compile(String formula, String... variables)
+    {
+        final List<String> variableList = List.of(variables);
+        return new Formula(formula, variableList, new FormulaParser(formula, variableList).parse());
+    }
+
+    /**
+     * Gets the slot of a variable.
+     *
+     * @param name
+     *     The name of the variable.
+     * @return The slot of the variable, or -1 if this formula does not have a variable with that name.
+     */
+    public int getSlot(String name)
+    {
+        return variables.indexOf(name);
+    }
+
+    /**
+     * Evaluates this formula.
+     *
+     * @param values
+     *     The values of the variables, indexed by their slot. Must contain at least as many values as this formula has
+     *     variables.
+     * @return The result of the formula.
+     */
+    public double evaluate(double... values)
+    {
+        return root.evaluate(values);
+    }
+
+    /**
+     * Creates a new formula where all variables except the provided free variables are replaced by their values.
+     * <p>
+     * Any parts of the formula that do not depend on the free variables are evaluated once here, so they do not need
+     * to be evaluated again every time the new formula is evaluated.
+     * <p>
+     * The new formula uses the same slots as this formula. The values of the variables that were bound are ignored when
+     * evaluating the new formula.
+     *
+     * @param values
+     *     The values of the variables, indexed by their slot. The values of the free variables are ignored.
+     * @param freeSlots
+     *     The slots of the variables that should not be bound.
+     * @return The new formula.
+     */
+    public Formula bind(double[] values, int... freeSlots)
+    {
+        final boolean[] bound = new boolean[variables.size()];
+        Arrays.fill(bound, true);
+        for (final int slot : freeSlots)
+            bound[slot] = false;
+        return new Formula(source, variables, root.bind(values, bound));
+    }
+
+    /**
+     * @return True if this formula does not depend on any variables.
+     */
+    public boolean isConstant()
+    {
+        return root instanceof FormulaNode.Constant;
+    }
+}
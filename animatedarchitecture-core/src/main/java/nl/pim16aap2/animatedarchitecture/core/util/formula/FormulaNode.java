@@ -0,0 +1,111 @@
+package nl.pim16aap2.animatedarchitecture.core.util.formula;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Represents a node in the expression tree of a {@link Formula}.
+ *
+ * @author Pim
+ */
+sealed interface FormulaNode
+{
+    /**
+     * Evaluates this node.
+     *
+     * @param values
+     *     The values of the variables, indexed by their slot.
+     * @return The result of this node.
+     */
+    double evaluate(double[] values);
+
+    /**
+     * Creates a new node where the bound variables are replaced by their values and constant sub-trees are folded.
+     *
+     * @param values
+     *     The values of the variables, indexed by their slot.
+     * @param bound
+     *     For each slot, whether the variable in that slot should be replaced by its value.
+     * @return The new node.
+     */
+    FormulaNode bind(double[] values, boolean[] bound);
+
+    /**
+     * A node with a constant value.
+     */
+    record Constant(double value) implements FormulaNode
+    {
+        @Override
+        public double evaluate(double[] values)
+        {
+            return value;
+        }
+
+        @Override
+        public FormulaNode bind(double[] values, boolean[] bound)
+        {
+            return this;
+        }
+    }
+
+    /**
+     * A node that reads the value of a variable.
+     */
+    record Variable(int slot) implements FormulaNode
+    {
+        @Override
+        public double evaluate(double[] values)
+        {
+            return values[slot];
+        }
+
+        @Override
+        public FormulaNode bind(double[] values, boolean[] bound)
+        {
+            return bound[slot] ? new Constant(values[slot]) : this;
+        }
+    }
+
+    /**
+     * A node that applies a function to a single operand.
+     */
+    record Unary(DoubleUnaryOperator operator, FormulaNode operand) implements FormulaNode
+    {
+        @Override
+        public double evaluate(double[] values)
+        {
+            return operator.applyAsDouble(operand.evaluate(values));
+        }
+
+        @Override
+        public FormulaNode bind(double[] values, boolean[] bound)
+        {
+            final FormulaNode newOperand = operand.bind(values, bound);
+            if (newOperand instanceof Constant constant)
+                return new Constant(operator.applyAsDouble(constant.value()));
+            return new Unary(operator, newOperand);
+        }
+    }
+
+    /**
+     * A node that applies a function to two operands.
+     */
+    record Binary(DoubleBinaryOperator operator, FormulaNode left, FormulaNode right) implements FormulaNode
+    {
+        @Override
+        public double evaluate(double[] values)
+        {
+            return operator.applyAsDouble(left.evaluate(values), right.evaluate(values));
+        }
+
+        @Override
+        public FormulaNode bind(double[] values, boolean[] bound)
+        {
+            final FormulaNode newLeft = left.bind(values, bound);
+            final FormulaNode newRight = right.bind(values, bound);
+            if (newLeft instanceof Constant constantLeft && newRight instanceof Constant constantRight)
+                return new Constant(operator.applyAsDouble(constantLeft.value(), constantRight.value()));
+            return new Binary(operator, newLeft, newRight);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package nl.pim16aap2.animatedarchitecture.core.util.formula;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Recursive-descent parser that turns the source of a {@link Formula} into a tree of {@link FormulaNode}s.
+ * <p>
+ * The grammar of the formulas is as follows:
+ * <pre>
+ * expression := term (('+' | '-') term)*
+ * term       := unary (('*' | '/' | '%') unary)*
+ * unary      := ('+' | '-') unary | power
+ * power      := primary ('^' unary)?
+ * primary    := number | constant | variable | function '(' expression (',' expression)* ')' | '(' expression ')'
+ * </pre>
+ *
+ * @author Pim
+ */
+final class FormulaParser
+{
+    private static final Map<String, Double> CONSTANTS = Map.of(
+        "pi", Math.PI,
+        "e", Math.E
+    );
+
+    private static final Map<String, DoubleUnaryOperator> UNARY_FUNCTIONS = Map.ofEntries(
+        Map.entry("sqrt", Math::sqrt),
+        Map.entry("abs", Math::abs),
+        Map.entry("sin", Math::sin),
+        Map.entry("cos", Math::cos),
+        Map.entry("tan", Math::tan),
+        Map.entry("asin", Math::asin),
+        Map.entry("acos", Math::acos),
+        Map.entry("atan", Math::atan),
+        Map.entry("exp", Math::exp),
+        Map.entry("log", Math::log),
+        Map.entry("log10", Math::log10),
+        Map.entry("floor", Math::floor),
+        Map.entry("ceil", Math::ceil),
+        Map.entry("round", val -> (double) Math.round(val))
+    );
+
+    private static final Map<String, DoubleBinaryOperator> BINARY_FUNCTIONS = Map.of(
+        "min", Math::min,
+        "max", Math::max,
+        "pow", Math::pow,
+        "atan2", Math::atan2
+    );
+
+    private static final DoubleBinaryOperator ADD = Double::sum;
+    private static final DoubleBinaryOperator SUBTRACT = (a, b) -> a - b;
+    private static final DoubleBinaryOperator MULTIPLY = (a, b) -> a * b;
+    private static final DoubleBinaryOperator DIVIDE = (a, b) -> a / b;
+    private static final DoubleBinaryOperator MODULO = (a, b) -> a % b;
+    private static final DoubleUnaryOperator NEGATE = a -> -a;
+
+    private final String source;
+    private final List<String> variables;
+    private int pos = 0;
+
+    FormulaParser(String source, List<String> variables)
+    {
+        this.source = source;
+        this.variables = variables;
+    }
+
+    /**
+     * Parses the formula.
+     *
+     * @return The root node of the parsed formula.
+     * @throws IllegalArgumentException
+     *     When the formula could not be parsed.
+     */
+    FormulaNode parse()
+    {
+        final FormulaNode root = parseExpression();
+        skipWhitespace();
+        if (pos < source.length())
+            throw error("Unexpected character '" + source.charAt(pos) + "'");
+        return root;
+    }
+
+    private FormulaNode parseExpression()
+    {
+        FormulaNode node = parseTerm();
+        while (true)
+        {
+            if (consume('+'))
+                node = new FormulaNode.Binary(ADD, node, parseTerm());
+            else if (consume('-'))
+                node = new FormulaNode.Binary(SUBTRACT, node, parseTerm());
+            else
+                return node;
+        }
+    }
+
+    private FormulaNode parseTerm()
+    {
+        FormulaNode node = parseUnary();
+        while (true)
+        {
+            if (consume('*'))
+                node = new FormulaNode.Binary(MULTIPLY, node, parseUnary());
+            else if (consume('/'))
+                node = new FormulaNode.Binary(DIVIDE, node, parseUnary());
+            else if (consume('%'))
+                node = new FormulaNode.Binary(MODULO, node, parseUnary());
+            else
+                return node;
+        }
+    }
+
+    private FormulaNode parseUnary()
+    {
+        if (consume('+'))
+            return parseUnary();
+        if (consume('-'))
+            return new FormulaNode.Unary(NEGATE, parseUnary());
+        return parsePower();
+    }
+
+    private FormulaNode parsePower()
+    {
+        final FormulaNode base = parsePrimary();
+        if (consume('^'))
+            return new FormulaNode.Binary(Math::pow, base, parseUnary());
+        return base;
+    }
+
+    private FormulaNode parsePrimary()
+    {
+        skipWhitespace();
+        if (pos >= source.length())
+            throw error("Unexpected end of formula");
+
+        if (consume('('))
+        {
+            final FormulaNode node = parseExpression();
+            expect(')');
+            return node;
+        }
+
+        final char current = source.charAt(pos);
+        if (Character.isDigit(current) || current == '.')
+            return parseNumber();
+        if (Character.isLetter(current) || current == '_')
+            return parseIdentifier();
+        throw error("Unexpected character '" + current + "'");
+    }
+
+    private FormulaNode parseNumber()
+    {
+        final int start = pos;
+        while (pos < source.length() && (Character.isDigit(source.charAt(pos)) || source.charAt(pos) == '.'))
+            ++pos;
+        final String number = source.substring(start, pos);
+        try
+        {
+            return new FormulaNode.Constant(Double.parseDouble(number));
+        }
+        catch (NumberFormatException e)
+        {
+            throw error("Invalid number '" + number + "'", e);
+        }
+    }
+
+    private FormulaNode parseIdentifier()
+    {
+        final int start = pos;
+        while (pos < source.length() &&
+            (Character.isLetterOrDigit(source.charAt(pos)) || source.charAt(pos) == '_'))
+            ++pos;
+        final String name = source.substring(start, pos);
+
+        final int slot = variables.indexOf(name);
+        if (slot >= 0)
+            return new FormulaNode.Variable(slot);
+
+        final String lowerCaseName = name.toLowerCase(Locale.ROOT);
+        final @Nullable Double constant = CONSTANTS.get(lowerCaseName);
+        if (constant != null)
+            return new FormulaNode.Constant(constant);
+
+        final @Nullable DoubleUnaryOperator unaryFunction = UNARY_FUNCTIONS.get(lowerCaseName);
+        if (unaryFunction != null)
+        {
+            expect('(');
+            final FormulaNode operand = parseExpression();
+            expect(')');
+            return new FormulaNode.Unary(unaryFunction, operand);
+        }
+
+        final @Nullable DoubleBinaryOperator binaryFunction = BINARY_FUNCTIONS.get(lowerCaseName);
+        if (binaryFunction != null)
+        {
+            expect('(');
+            final FormulaNode left = parseExpression();
+            expect(',');
+            final FormulaNode right = parseExpression();
+            expect(')');
+            return new FormulaNode.Binary(binaryFunction, left, right);
+        }
+
+        throw error("Unknown identifier '" + name + "'");
+    }
+
+    private void skipWhitespace()
+    {
+        while (pos < source.length() && Character.isWhitespace(source.charAt(pos)))
+            ++pos;
+    }
+
+    /**
+     * Consumes the next non-whitespace character if it is the expected character.
+     *
+     * @param expected
+     *     The expected character.
+     * @return True if the character was consumed.
+     */
+    private boolean consume(char expected)
+    {
+        skipWhitespace();
+        if (pos < source.length() && source.charAt(pos) == expected)
+        {
+            ++pos;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char expected)
+    {
+        if (!consume(expected))
+            throw error("Expected '" + expected + "'");
+    }
+
+    private IllegalArgumentException error(String message)
+    {
+        return new IllegalArgumentException(message + " at position " + pos + " in formula: '" + source + "'");
+    }
+
+    private IllegalArgumentException error(String message, Throwable cause)
+    {
+        return new IllegalArgumentException(
+            message + " at position " + pos + " in formula: '" + source + "'", cause);
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * This package contains a small expression compiler for the mathematical formulas that can be configured by users,
+ * such as the movement formula of flags.
+ * <p>
+ * Formulas are parsed once into a {@link nl.pim16aap2.animatedarchitecture.core.util.formula.Formula}, which can then
+ * be evaluated many times using primitive variable slots.
+ */
+@NonNullByDefault
+package nl.pim16aap2.animatedarchitecture.core.util.formula;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
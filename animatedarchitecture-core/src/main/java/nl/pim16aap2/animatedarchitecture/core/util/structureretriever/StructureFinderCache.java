@@ -60,6 +60,7 @@ import java.time.Duration;
     public synchronized void initialize()
     {
         cache = TimedCache.<ICommandSender, StructureFinder>builder()
+                          .name("StructureFinderCache")
                           .duration(Duration.ofMinutes(2))
                           .cleanup(Duration.ofMinutes(5))
                           .softReference(false)
@@ -0,0 +1,136 @@
+package nl.pim16aap2.animatedarchitecture.core.data.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+class BoundedCacheTest
+{
+    @Test
+    void ensureMaximumSize()
+    {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(0, v -> false, (k, v) -> {}));
+
+        final List<Integer> evicted = new ArrayList<>();
+        final BoundedCache<Integer, String> cache = new BoundedCache<>(10, v -> false, (k, v) -> evicted.add(k));
+
+        for (int idx = 0; idx < 100; ++idx)
+            cache.put(idx, "value" + idx);
+
+        Assertions.assertEquals(10, cache.size());
+        Assertions.assertEquals(90, evicted.size());
+    }
+
+    @Test
+    void frequentlyUsedEntriesAreKept()
+    {
+        final BoundedCache<String, String> cache = new BoundedCache<>(10, v -> false, (k, v) -> {});
+
+        cache.put("hot", "hotValue");
+        for (int idx = 0; idx < 5; ++idx)
+            Assertions.assertEquals("hotValue", cache.get("hot"));
+
+        for (int idx = 0; idx < 100; ++idx)
+            cache.put("cold" + idx, "coldValue");
+
+        Assertions.assertEquals("hotValue", cache.get("hot"));
+    }
+
+    @Test
+    void pinnedEntriesAreNotEvicted()
+    {
+        final List<String> evicted = new ArrayList<>();
+        final BoundedCache<String, String> cache =
+            new BoundedCache<>(2, v -> v.startsWith("pinned"), (k, v) -> evicted.add(k));
+
+        for (int idx = 0; idx < 5; ++idx)
+            cache.put("key" + idx, "pinned" + idx);
+        Assertions.assertEquals(5, cache.size());
+
+        cache.put("unpinned", "value");
+        cache.put("unpinned2", "value");
+        Assertions.assertEquals(1, evicted.size());
+        Assertions.assertTrue(evicted.get(0).startsWith("unpinned"));
+        Assertions.assertEquals(6, cache.size());
+        for (int idx = 0; idx < 5; ++idx)
+            Assertions.assertEquals("pinned" + idx, cache.get("key" + idx));
+    }
+
+    @Test
+    void evictionScanIsBounded()
+    {
+        final Set<String> pinnedValues = new HashSet<>();
+        final AtomicInteger checks = new AtomicInteger();
+        final Predicate<String> isPinned = value ->
+        {
+            checks.incrementAndGet();
+            return pinnedValues.contains(value);
+        };
+        final BoundedCache<String, String> cache = new BoundedCache<>(200, isPinned, (k, v) -> {});
+
+        for (int idx = 0; idx < 200; ++idx)
+            cache.put("key" + idx, "pinned" + idx);
+        // Pin most entries, starting with the least-recently used ones.
+        for (int idx = 0; idx < 190; ++idx)
+            pinnedValues.add("pinned" + idx);
+
+        for (int idx = 0; idx < 100; ++idx)
+        {
+            checks.set(0);
+            cache.put("new" + idx, "value");
+            // At most one scan of the window and one scan of the main part.
+            Assertions.assertTrue(checks.get() <= 2 * BoundedCache.MAX_EVICTION_CANDIDATES, "Put " + idx);
+            Assertions.assertEquals(200, cache.size());
+        }
+
+        for (int idx = 0; idx < 190; ++idx)
+            Assertions.assertEquals("pinned" + idx, cache.get("key" + idx));
+    }
+
+    @Test
+    void fullyPinnedMainPartDoesNotGrow()
+    {
+        final Set<String> pinnedValues = new HashSet<>();
+        final List<String> evicted = new ArrayList<>();
+        final BoundedCache<String, String> cache =
+            new BoundedCache<>(10, pinnedValues::contains, (k, v) -> evicted.add(k));
+
+        for (int idx = 0; idx < 10; ++idx)
+        {
+            cache.put("key" + idx, "pinned" + idx);
+            pinnedValues.add("pinned" + idx);
+        }
+
+        for (int idx = 0; idx < 20; ++idx)
+            cache.put("new" + idx, "value");
+
+        // There is no room for the new entries, so they are evicted instead of growing the cache.
+        Assertions.assertEquals(10, cache.size());
+        Assertions.assertEquals(20, evicted.size());
+        Assertions.assertTrue(evicted.stream().allMatch(key -> key.startsWith("new")));
+        for (int idx = 0; idx < 10; ++idx)
+            Assertions.assertEquals("pinned" + idx, cache.get("key" + idx));
+    }
+
+    @Test
+    void computeIfAbsent()
+    {
+        final List<String> evicted = new ArrayList<>();
+        final BoundedCache<String, String> cache = new BoundedCache<>(5, v -> false, (k, v) -> evicted.add(k));
+
+        Assertions.assertEquals("value", cache.computeIfAbsent("key", k -> "value"));
+        Assertions.assertEquals("value", cache.computeIfAbsent("key", k -> "newValue"));
+        Assertions.assertEquals(1, cache.size());
+
+        Assertions.assertEquals("value", cache.remove("key"));
+        Assertions.assertNull(cache.get("key"));
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertTrue(evicted.isEmpty());
+    }
+}
@@ -367,6 +367,53 @@ class TimedCacheTest
         Assertions.assertEquals(0, timedCache.getSize());
     }
 
+    /**
+     * Make sure that cleanup cycles only evict the entries that have actually expired, taking refreshed and replaced
+     * entries into account.
+     */
+    @Test
+    void cleanupExpiryOrdered()
+    {
+        final MockClock clock = new MockClock(0);
+        final TimedCache<String, String> timedCache = new TimedCache<>(clock, Duration.ofMillis(100),
+                                                                       Duration.ofHours(1), false, true, false);
+
+        timedCache.put("refreshed", "value");
+        timedCache.put("replaced", "value");
+        timedCache.put("expired", "value");
+
+        clock.addMillis(60);
+        Assertions.assertTrue(timedCache.get("refreshed").isPresent());
+        timedCache.put("replaced", "newValue");
+
+        clock.addMillis(60);
+        timedCache.cleanupCache();
+        Assertions.assertEquals(2, timedCache.getSize());
+        Assertions.assertNull(timedCache.getRaw("expired"));
+
+        clock.addMillis(60);
+        timedCache.cleanupCache();
+        Assertions.assertEquals(0, timedCache.getSize());
+        timedCache.shutDown();
+    }
+
+    @Test
+    void testStatistics()
+    {
+        final MockClock clock = new MockClock(0);
+        final TimedCache<String, String> timedCache = new TimedCache<>(clock, Duration.ofMillis(100),
+                                                                       null, false, false, false);
+        timedCache.put("key", "value");
+        Assertions.assertTrue(timedCache.get("key").isPresent());
+        Assertions.assertFalse(timedCache.get("key2").isPresent());
+        Assertions.assertEquals("value", timedCache.computeIfAbsent("key", k -> "newValue"));
+
+        clock.addMillis(110);
+        Assertions.assertFalse(timedCache.get("key").isPresent());
+
+        Assertions.assertEquals(new TimedCache.Statistics(2, 2, 1, 0), timedCache.getStatistics());
+    }
+
     @Test
     void testEmptyCache()
     {
@@ -0,0 +1,69 @@
+package nl.pim16aap2.animatedarchitecture.core.localization;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.text.MessageFormat;
+import java.util.Date;
+
+class CompiledMessageTest
+{
+    @Test
+    void testNoArguments()
+    {
+        // Without arguments, the message is not formatted at all.
+        final String pattern = "It's {0}!";
+        Assertions.assertEquals(pattern, new CompiledMessage(pattern).format());
+    }
+
+    @Test
+    void testSimplePlaceholders()
+    {
+        verify("Hello, {0}!", "World");
+        verify("{1} and {0}", "a", "b");
+        verify("{0}{0}{0}", "x");
+        verify("No placeholders", "unused");
+        verify("Closing brace } is a literal, {0}", "ok");
+        verify("Missing argument: {0}, {2}", "a", "b");
+        verify("{01} with a leading zero", "a", "b");
+    }
+
+    @Test
+    void testNullArgument()
+    {
+        verify("Value: {0}", (Object) null);
+    }
+
+    @Test
+    void testSpecialArguments()
+    {
+        verify("Count: {0}", 1_234_567);
+        verify("Ratio: {0} of {1}", 0.25D, "total");
+        verify("Date: {0}", new Date(0));
+    }
+
+    @Test
+    void testComplexPatterns()
+    {
+        verify("It''s {0}", "quoted");
+        verify("'{0}' is not a placeholder, but {0} is", "this");
+        verify("{0,number,#.##}", 3.14159D);
+        verify("There {0,choice,0#are no files|1#is one file|1<are {0,number,integer} files}.", 2);
+    }
+
+    @Test
+    void testInvalidPattern()
+    {
+        final CompiledMessage message = new CompiledMessage("Unmatched {0");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> message.format("a"));
+    }
+
+    private static void verify(String pattern, Object... args)
+    {
+        final CompiledMessage message = new CompiledMessage(pattern);
+        final String expected = MessageFormat.format(pattern, args);
+        Assertions.assertEquals(expected, message.format(args));
+        // Make sure formatting the same message again gives the same result.
+        Assertions.assertEquals(expected, message.format(args));
+    }
+}
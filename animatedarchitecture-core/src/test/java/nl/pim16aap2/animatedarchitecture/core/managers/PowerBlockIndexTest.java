@@ -0,0 +1,70 @@
+package nl.pim16aap2.animatedarchitecture.core.managers;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongList;
+import nl.pim16aap2.animatedarchitecture.core.util.Util;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PowerBlockIndexTest
+{
+    @Test
+    void testLoad()
+    {
+        final PowerBlockIndex index = new PowerBlockIndex();
+        Assertions.assertFalse(index.isLoaded());
+
+        final Long2ObjectMap<LongList> data = new Long2ObjectOpenHashMap<>();
+        data.put(Util.getPositionKey(1, 2, 3), LongList.of(10L, 11L));
+        data.put(Util.getPositionKey(-4, -5, -6), LongList.of(12L));
+
+        Assertions.assertTrue(index.load(data, index.getModCount()));
+        Assertions.assertTrue(index.isLoaded());
+        Assertions.assertEquals(2, index.size());
+        Assertions.assertArrayEquals(new long[]{10L, 11L}, index.get(1, 2, 3));
+        Assertions.assertArrayEquals(new long[]{12L}, index.get(-4, -5, -6));
+        Assertions.assertTrue(index.contains(-4, -5, -6));
+        Assertions.assertFalse(index.contains(4, 5, 6));
+        Assertions.assertEquals(0, index.get(4, 5, 6).length);
+    }
+
+    @Test
+    void testLoadAfterModification()
+    {
+        final PowerBlockIndex index = new PowerBlockIndex();
+        final long modCount = index.getModCount();
+
+        index.add(10L, 1, 2, 3);
+
+        final Long2ObjectMap<LongList> data = new Long2ObjectOpenHashMap<>();
+        Assertions.assertFalse(index.load(data, modCount));
+        Assertions.assertFalse(index.isLoaded());
+        Assertions.assertTrue(index.contains(1, 2, 3));
+    }
+
+    @Test
+    void testAddRemove()
+    {
+        final PowerBlockIndex index = new PowerBlockIndex();
+
+        index.add(10L, 1, 2, 3);
+        index.add(11L, 1, 2, 3);
+        index.add(11L, 1, 2, 3);
+        Assertions.assertArrayEquals(new long[]{10L, 11L}, index.get(1, 2, 3));
+
+        final long[] previous = index.get(1, 2, 3);
+        index.remove(10L, 1, 2, 3);
+        Assertions.assertArrayEquals(new long[]{11L}, index.get(1, 2, 3));
+        Assertions.assertArrayEquals(new long[]{10L, 11L}, previous);
+
+        index.remove(11L, 1, 2, 3);
+        Assertions.assertFalse(index.contains(1, 2, 3));
+        Assertions.assertTrue(index.isEmpty());
+
+        index.add(12L, 1, 2, 3);
+        index.clear();
+        Assertions.assertTrue(index.isEmpty());
+        Assertions.assertFalse(index.isLoaded());
+    }
+}
@@ -0,0 +1,183 @@
+package nl.pim16aap2.animatedarchitecture.core.managers;
+
+import it.unimi.dsi.fastutil.longs.LongSet;
+import nl.pim16aap2.animatedarchitecture.core.storage.IStorage;
+import nl.pim16aap2.animatedarchitecture.core.structures.StructureSnapshot;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.LongStream;
+
+class StructureSyncQueueTest
+{
+    @Test
+    void testCoalesce()
+        throws Exception
+    {
+        final IStorage storage = Mockito.mock(IStorage.class);
+        Mockito.when(storage.syncStructureData(Mockito.anyList())).thenReturn(LongSet.of(1L, 2L));
+
+        final StructureSyncQueue queue = new StructureSyncQueue(storage, () -> Runnable::run, Duration.ofHours(1));
+
+        final StructureSnapshot first = snapshot(1L);
+        final StructureSnapshot second = snapshot(1L);
+        final StructureSnapshot other = snapshot(2L);
+
+        final CompletableFuture<DatabaseManager.ActionResult> result0 = queue.enqueue(first, "first");
+        final CompletableFuture<DatabaseManager.ActionResult> result1 = queue.enqueue(second, "second");
+        final CompletableFuture<DatabaseManager.ActionResult> result2 = queue.enqueue(other, "other");
+        Assertions.assertEquals(2, queue.getPendingCount());
+        Assertions.assertFalse(result0.isDone());
+
+        queue.flush();
+
+        @SuppressWarnings("unchecked") final ArgumentCaptor<List<IStorage.StructureDataUpdate>> captor =
+            ArgumentCaptor.forClass(List.class);
+        Mockito.verify(storage, Mockito.times(1)).syncStructureData(captor.capture());
+        final List<IStorage.StructureDataUpdate> updates = captor.getValue();
+        Assertions.assertEquals(2, updates.size());
+        Assertions.assertTrue(updates.contains(new IStorage.StructureDataUpdate(second, "second")));
+        Assertions.assertTrue(updates.contains(new IStorage.StructureDataUpdate(other, "other")));
+
+        Assertions.assertEquals(0, queue.getPendingCount());
+        Assertions.assertEquals(DatabaseManager.ActionResult.SUCCESS, result0.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(DatabaseManager.ActionResult.SUCCESS, result1.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(DatabaseManager.ActionResult.SUCCESS, result2.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFailure()
+        throws Exception
+    {
+        final IStorage storage = Mockito.mock(IStorage.class);
+        Mockito.when(storage.syncStructureData(Mockito.anyList())).thenReturn(LongSet.of(2L));
+
+        final StructureSyncQueue queue = new StructureSyncQueue(storage, () -> Runnable::run, Duration.ofMillis(1));
+
+        final CompletableFuture<DatabaseManager.ActionResult> result0 = queue.enqueue(snapshot(1L), "");
+        final CompletableFuture<DatabaseManager.ActionResult> result1 = queue.enqueue(snapshot(2L), "");
+
+        Assertions.assertEquals(DatabaseManager.ActionResult.FAIL, result0.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(DatabaseManager.ActionResult.SUCCESS, result1.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFlushAwaitsRunningFlush()
+        throws Exception
+    {
+        final CountDownLatch flushStarted = new CountDownLatch(1);
+        final CountDownLatch releaseFlush = new CountDownLatch(1);
+        final IStorage storage = Mockito.mock(IStorage.class);
+        Mockito.when(storage.syncStructureData(Mockito.anyList())).thenAnswer(
+            invocation ->
+            {
+                flushStarted.countDown();
+                Assertions.assertTrue(releaseFlush.await(10, TimeUnit.SECONDS));
+                return LongSet.of(1L);
+            });
+
+        final StructureSyncQueue queue = new StructureSyncQueue(storage, () -> Runnable::run, Duration.ofHours(1));
+        final StructureSnapshot snapshot = snapshot(1L);
+        final CompletableFuture<DatabaseManager.ActionResult> result = queue.enqueue(snapshot, "");
+
+        final CompletableFuture<Void> runningFlush = CompletableFuture.runAsync(queue::flush);
+        Assertions.assertTrue(flushStarted.await(10, TimeUnit.SECONDS));
+        // The data is no longer pending, but it has not been committed yet either.
+        Assertions.assertEquals(0, queue.getPendingCount());
+        Assertions.assertEquals(List.of(snapshot), queue.getUncommittedSnapshots());
+
+        final CompletableFuture<Void> secondFlush = CompletableFuture.runAsync(queue::flush);
+        Thread.sleep(50);
+        Assertions.assertFalse(secondFlush.isDone());
+
+        releaseFlush.countDown();
+        secondFlush.get(10, TimeUnit.SECONDS);
+        // Once the second flush returns, the data of the first flush has been committed.
+        Assertions.assertTrue(result.isDone());
+        runningFlush.get(10, TimeUnit.SECONDS);
+        Mockito.verify(storage, Mockito.times(1)).syncStructureData(Mockito.anyList());
+        Assertions.assertEquals(List.of(), queue.getUncommittedSnapshots());
+    }
+
+    @Test
+    void testQueryUnrelatedRequests()
+    {
+        final IStorage storage = Mockito.mock(IStorage.class);
+        final StructureSyncQueue queue = new StructureSyncQueue(storage, () -> Runnable::run, Duration.ofHours(1));
+        final AtomicInteger queryCount = new AtomicInteger();
+
+        // Without any requests, the query runs right away.
+        Assertions.assertEquals(List.of(2L), query(queue, snapshot -> true, queryCount, 2L));
+        Assertions.assertEquals(1, queryCount.get());
+
+        // Requests that do not match the query and whose structures are not returned by it are not flushed.
+        queue.enqueue(snapshot(1L), "");
+        Assertions.assertEquals(List.of(2L), query(queue, snapshot -> false, queryCount, 2L));
+        Assertions.assertEquals(2, queryCount.get());
+        Assertions.assertEquals(1, queue.getPendingCount());
+        Mockito.verify(storage, Mockito.never()).syncStructureData(Mockito.anyList());
+    }
+
+    @Test
+    void testQueryMatchingRequest()
+    {
+        final IStorage storage = Mockito.mock(IStorage.class);
+        Mockito.when(storage.syncStructureData(Mockito.anyList())).thenReturn(LongSet.of(1L));
+        final StructureSyncQueue queue = new StructureSyncQueue(storage, () -> Runnable::run, Duration.ofHours(1));
+        final AtomicInteger queryCount = new AtomicInteger();
+
+        queue.enqueue(snapshot(1L), "");
+        // The request would be returned by the query, so it has to be written before the query runs.
+        Assertions.assertEquals(List.of(1L), query(queue, snapshot -> snapshot.getUid() == 1L, queryCount, 1L));
+        Assertions.assertEquals(1, queryCount.get());
+        Assertions.assertEquals(0, queue.getPendingCount());
+        Mockito.verify(storage, Mockito.times(1)).syncStructureData(Mockito.anyList());
+    }
+
+    @Test
+    void testQueryReturnedRequest()
+    {
+        final IStorage storage = Mockito.mock(IStorage.class);
+        Mockito.when(storage.syncStructureData(Mockito.anyList())).thenReturn(LongSet.of(1L));
+        final StructureSyncQueue queue = new StructureSyncQueue(storage, () -> Runnable::run, Duration.ofHours(1));
+        final AtomicInteger queryCount = new AtomicInteger();
+
+        // E.g. a structure that was renamed, so its new data no longer matches a query for its old name.
+        queue.enqueue(snapshot(1L), "");
+        Assertions.assertEquals(List.of(1L), query(queue, snapshot -> false, queryCount, 1L));
+        // The first result contained outdated data, so the query is repeated after flushing the queue.
+        Assertions.assertEquals(2, queryCount.get());
+        Assertions.assertEquals(0, queue.getPendingCount());
+        Mockito.verify(storage, Mockito.times(1)).syncStructureData(Mockito.anyList());
+    }
+
+    private static List<Long> query(
+        StructureSyncQueue queue, Predicate<StructureSnapshot> matchesQuery,
+        AtomicInteger queryCount, long... result)
+    {
+        return queue.query(
+            matchesQuery,
+            () ->
+            {
+                queryCount.incrementAndGet();
+                return LongStream.of(result).boxed().toList();
+            },
+            uids -> uids.stream().mapToLong(Long::longValue));
+    }
+
+    private static StructureSnapshot snapshot(long uid)
+    {
+        final StructureSnapshot snapshot = Mockito.mock(StructureSnapshot.class);
+        Mockito.when(snapshot.getUid()).thenReturn(uid);
+        return snapshot;
+    }
+}
@@ -0,0 +1,234 @@
+package nl.pim16aap2.animatedarchitecture.core.moveblocks;
+
+import nl.pim16aap2.animatedarchitecture.core.api.IExecutor;
+import nl.pim16aap2.animatedarchitecture.core.api.ILocation;
+import nl.pim16aap2.animatedarchitecture.core.api.IWorld;
+import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.AnimationContext;
+import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlock;
+import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlockData;
+import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlockFactory;
+import nl.pim16aap2.animatedarchitecture.core.api.factories.ILocationFactory;
+import nl.pim16aap2.animatedarchitecture.core.structures.StructureSnapshot;
+import nl.pim16aap2.animatedarchitecture.core.util.Cuboid;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.IVector3D;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Dd;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Di;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class AnimationBlockManagerTest
+{
+    private static final int BLOCKS_PER_TICK = 10;
+
+    /**
+     * A 4x4x4 cuboid; 56 blocks on the edge and 8 on the inside.
+     */
+    private static final Cuboid CUBOID = new Cuboid(new Vector3Di(0, 0, 0), new Vector3Di(3, 3, 3));
+
+    /**
+     * The tasks scheduled for the next tick.
+     */
+    private final Queue<Runnable> scheduled = new ArrayDeque<>();
+
+    /**
+     * All blocks that were created by the factory, in order of creation.
+     */
+    private final List<IAnimatedBlock> createdBlocks = new ArrayList<>();
+
+    /**
+     * All blocks whose originals were removed without physics, in order of removal.
+     */
+    private final List<IAnimatedBlock> deletedBlocks = new ArrayList<>();
+
+    private IAnimatedBlockFactory animatedBlockFactory;
+    private AnimationBlockManager animationBlockManager;
+    private StructureSnapshot snapshot;
+    private IAnimationComponent animationComponent;
+
+    @BeforeEach
+    void init()
+        throws Exception
+    {
+        final IExecutor executor = Mockito.mock(IExecutor.class);
+        Mockito.doAnswer(invocation -> scheduled.add(invocation.getArgument(0)))
+               .when(executor).runSyncLater(Mockito.any(Runnable.class), Mockito.anyLong());
+
+        final ILocationFactory locationFactory = Mockito.mock(ILocationFactory.class);
+        Mockito.when(locationFactory.create(Mockito.any(IWorld.class), Mockito.anyDouble(), Mockito.anyDouble(),
+                                            Mockito.anyDouble()))
+               .thenAnswer(invocation -> location(invocation.<Double>getArgument(1),
+                                                  invocation.<Double>getArgument(2),
+                                                  invocation.<Double>getArgument(3)));
+
+        animatedBlockFactory = Mockito.mock(IAnimatedBlockFactory.class);
+        Mockito.when(animatedBlockFactory.create(
+                   Mockito.any(), Mockito.anyFloat(), Mockito.anyFloat(), Mockito.anyBoolean(), Mockito.anyBoolean(),
+                   Mockito.any(), Mockito.any(), Mockito.any()))
+               .thenAnswer(invocation -> Optional.of(animatedBlock(invocation.getArgument(0),
+                                                                   invocation.<Boolean>getArgument(4))));
+        Mockito.doAnswer(invocation -> deletedBlocks.addAll(invocation.getArgument(0)))
+               .when(animatedBlockFactory).deleteOriginalBlocks(Mockito.anyList());
+
+        snapshot = Mockito.mock(StructureSnapshot.class);
+        Mockito.when(snapshot.getCuboid()).thenReturn(CUBOID);
+        Mockito.when(snapshot.getBlockCount()).thenReturn(CUBOID.getVolume());
+        Mockito.when(snapshot.getWorld()).thenReturn(Mockito.mock(IWorld.class));
+
+        animationComponent = Mockito.mock(IAnimationComponent.class);
+        Mockito.when(animationComponent.getFinalPosition(Mockito.any(), Mockito.anyFloat()))
+               .thenAnswer(invocation -> Vector3Dd.of(invocation.<IVector3D>getArgument(0)));
+
+        animationBlockManager = new AnimationBlockManager(locationFactory, animatedBlockFactory, executor);
+    }
+
+    @Test
+    void testMultiTickStaging()
+    {
+        final CompletableFuture<Boolean> result = stage();
+
+        // The first slice is captured, removed, and spawned in the very first tick.
+        Assertions.assertFalse(result.isDone());
+        Assertions.assertEquals(BLOCKS_PER_TICK, createdBlocks.size());
+        Assertions.assertEquals(createdBlocks, deletedBlocks);
+        Assertions.assertEquals(createdBlocks, animationBlockManager.getAnimatedBlocks());
+        for (final IAnimatedBlock animatedBlock : createdBlocks)
+            Mockito.verify(animatedBlock).spawn();
+        // Physics are only applied once all blocks have been removed.
+        for (final IAnimatedBlock animatedBlock : createdBlocks)
+            Mockito.verify(animatedBlock.getAnimatedBlockData(), Mockito.never()).deleteOriginalBlock(true);
+
+        // Every tick, the number of blocks that were removed should match the number of blocks that were captured.
+        int ticks = 1;
+        while (!scheduled.isEmpty())
+        {
+            Assertions.assertEquals(createdBlocks, deletedBlocks);
+            Assertions.assertTrue(createdBlocks.size() <= (long) ticks * BLOCKS_PER_TICK);
+            scheduled.poll().run();
+            ++ticks;
+        }
+
+        Assertions.assertTrue(result.isDone());
+        Assertions.assertTrue(result.join());
+        Assertions.assertTrue(ticks > CUBOID.getVolume() / BLOCKS_PER_TICK);
+
+        Assertions.assertEquals(CUBOID.getVolume(), createdBlocks.size());
+        Assertions.assertEquals(createdBlocks, deletedBlocks);
+        Assertions.assertEquals(createdBlocks, animationBlockManager.getAnimatedBlocks());
+
+        int edges = 0;
+        for (final IAnimatedBlock animatedBlock : createdBlocks)
+        {
+            Mockito.verify(animatedBlock).spawn();
+            final boolean onEdge = animatedBlock.isOnEdge();
+            Mockito.verify(animatedBlock.getAnimatedBlockData(), Mockito.times(onEdge ? 1 : 0))
+                   .deleteOriginalBlock(true);
+            edges += onEdge ? 1 : 0;
+        }
+        Assertions.assertEquals(56, edges);
+    }
+
+    @Test
+    void testCancelStaging()
+    {
+        final CompletableFuture<Boolean> result = stage();
+        scheduled.poll().run();
+        Assertions.assertEquals(2 * BLOCKS_PER_TICK, deletedBlocks.size());
+
+        animationBlockManager.cancelStaging();
+        Assertions.assertTrue(result.isDone());
+        Assertions.assertFalse(result.join());
+
+        // Any scheduled tick should not process any more blocks.
+        while (!scheduled.isEmpty())
+            scheduled.poll().run();
+        Assertions.assertEquals(2 * BLOCKS_PER_TICK, createdBlocks.size());
+        Assertions.assertEquals(2 * BLOCKS_PER_TICK, deletedBlocks.size());
+
+        animationBlockManager.restoreBlocksOnFailure();
+        for (final IAnimatedBlock animatedBlock : createdBlocks)
+        {
+            Mockito.verify(animatedBlock).kill();
+            final Vector3Dd startPosition = animatedBlock.getStartPosition();
+            final Vector3Di expected =
+                new Vector3Di((int) startPosition.x(), (int) startPosition.y(), (int) startPosition.z());
+            Mockito.verify(animatedBlock.getAnimatedBlockData()).putBlock(expected);
+        }
+        Assertions.assertTrue(animationBlockManager.getAnimatedBlocks().isEmpty());
+    }
+
+    @Test
+    void testExceptionDuringCreate()
+        throws Exception
+    {
+        final int failAt = BLOCKS_PER_TICK + 5;
+        final AtomicInteger count = new AtomicInteger();
+        Mockito.doAnswer(invocation ->
+                         {
+                             if (count.incrementAndGet() == failAt)
+                                 throw new IllegalStateException("Expected exception!");
+                             return Optional.of(animatedBlock(invocation.getArgument(0),
+                                                              invocation.<Boolean>getArgument(4)));
+                         })
+               .when(animatedBlockFactory).create(
+                   Mockito.any(), Mockito.anyFloat(), Mockito.anyFloat(), Mockito.anyBoolean(), Mockito.anyBoolean(),
+                   Mockito.any(), Mockito.any(), Mockito.any());
+
+        final CompletableFuture<Boolean> result = stage();
+        Assertions.assertFalse(result.isDone());
+        scheduled.poll().run();
+
+        Assertions.assertTrue(result.isDone());
+        Assertions.assertFalse(result.join());
+        Assertions.assertTrue(scheduled.isEmpty());
+
+        // The blocks of the failed slice were captured, but never removed or spawned.
+        Assertions.assertEquals(failAt - 1, createdBlocks.size());
+        Assertions.assertEquals(createdBlocks, animationBlockManager.getAnimatedBlocks());
+        Assertions.assertEquals(createdBlocks.subList(0, BLOCKS_PER_TICK), deletedBlocks);
+        for (final IAnimatedBlock animatedBlock : createdBlocks.subList(BLOCKS_PER_TICK, createdBlocks.size()))
+            Mockito.verify(animatedBlock, Mockito.never()).spawn();
+
+        animationBlockManager.restoreBlocksOnFailure();
+        for (final IAnimatedBlock animatedBlock : createdBlocks)
+            Mockito.verify(animatedBlock.getAnimatedBlockData()).putBlock(Mockito.any());
+        Assertions.assertTrue(animationBlockManager.getAnimatedBlocks().isEmpty());
+    }
+
+    private CompletableFuture<Boolean> stage()
+    {
+        return animationBlockManager.stageAnimatedBlocks(
+            snapshot, animationComponent, Mockito.mock(AnimationContext.class), Animator.MovementMethod.TELEPORT,
+            BLOCKS_PER_TICK);
+    }
+
+    private static ILocation location(double x, double y, double z)
+    {
+        final ILocation location = Mockito.mock(ILocation.class);
+        Mockito.when(location.getX()).thenReturn(x);
+        Mockito.when(location.getY()).thenReturn(y);
+        Mockito.when(location.getZ()).thenReturn(z);
+        return location;
+    }
+
+    private IAnimatedBlock animatedBlock(ILocation location, boolean onEdge)
+    {
+        final IAnimatedBlock animatedBlock = Mockito.mock(IAnimatedBlock.class);
+        final IAnimatedBlockData animatedBlockData = Mockito.mock(IAnimatedBlockData.class);
+        Mockito.when(animatedBlock.getAnimatedBlockData()).thenReturn(animatedBlockData);
+        Mockito.when(animatedBlock.isOnEdge()).thenReturn(onEdge);
+        Mockito.when(animatedBlock.getStartPosition())
+               .thenReturn(new Vector3Dd(location.getX(), location.getY(), location.getZ()));
+        createdBlocks.add(animatedBlock);
+        return animatedBlock;
+    }
+}
@@ -0,0 +1,144 @@
+package nl.pim16aap2.animatedarchitecture.core.moveblocks;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+class AnimationKeyframesTest
+{
+    private static final int DURATION = 20;
+    private static final double STEP = 2 * Math.PI / DURATION;
+    private static final int BLOCKS = 7;
+
+    @Test
+    void testKeyframesMatchKernel()
+    {
+        final AnimationKeyframes keyframes =
+            new AnimationKeyframes(DURATION + 1, false, AnimationKeyframesTest::rotate);
+        final AnimationBlockState state = state();
+        final AnimationBlockState expected = state();
+
+        // Include some ticks outside the computed frames, which should fall back to the kernel.
+        for (int ticks = -3; ticks <= DURATION + 3; ++ticks)
+        {
+            keyframes.computeGoalPositions(state, ticks, 0, 3);
+            keyframes.computeGoalPositions(state, ticks, 3, BLOCKS);
+            rotate(expected, ticks, 0, BLOCKS);
+            assertTargetsEqual(expected, state);
+        }
+        Assertions.assertTrue(keyframes.hasKeyframes(state));
+    }
+
+    @Test
+    void testPeriodic()
+    {
+        final AtomicInteger kernelCalls = new AtomicInteger();
+        final AnimationKeyframes.Kernel kernel = (state, ticks, from, to) ->
+        {
+            kernelCalls.incrementAndGet();
+            rotate(state, ticks, from, to);
+        };
+        final AnimationKeyframes keyframes = new AnimationKeyframes(DURATION, true, kernel);
+        final AnimationBlockState state = state();
+        final AnimationBlockState expected = state();
+
+        for (int ticks = 0; ticks < 5 * DURATION; ++ticks)
+        {
+            keyframes.computeGoalPositions(state, ticks, 0, BLOCKS);
+            rotate(expected, ticks, 0, BLOCKS);
+            assertTargetsEqual(expected, state);
+        }
+        // The kernel is only used to compute the keyframes of the first period.
+        Assertions.assertEquals(DURATION, kernelCalls.get());
+    }
+
+    @Test
+    void testMaxValues()
+    {
+        final AnimationBlockState state = state();
+        final long values = 3L * BLOCKS * (DURATION + 1);
+
+        final AnimationKeyframes fits =
+            new AnimationKeyframes(DURATION + 1, false, values, AnimationKeyframesTest::rotate);
+        fits.computeGoalPositions(state, 0, 0, BLOCKS);
+        Assertions.assertTrue(fits.hasKeyframes(state));
+
+        final AnimationKeyframes tooLarge =
+            new AnimationKeyframes(DURATION + 1, false, values - 1, AnimationKeyframesTest::rotate);
+        final AnimationBlockState expected = state();
+        for (int ticks = 0; ticks <= DURATION; ++ticks)
+        {
+            tooLarge.computeGoalPositions(state, ticks, 0, BLOCKS);
+            rotate(expected, ticks, 0, BLOCKS);
+            assertTargetsEqual(expected, state);
+        }
+        Assertions.assertFalse(tooLarge.hasKeyframes(state));
+    }
+
+    @Test
+    void testDefaultMaxValues()
+    {
+        final long mib = 1L << 20;
+        // Every value takes up 8 bytes.
+        Assertions.assertEquals(4 * mib / 8, AnimationKeyframes.getDefaultMaxValues(64 * mib));
+        Assertions.assertEquals(32 * mib / 8, AnimationKeyframes.getDefaultMaxValues(2048 * mib));
+        Assertions.assertEquals(64 * mib / 8, AnimationKeyframes.getDefaultMaxValues(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testNewState()
+    {
+        final AnimationKeyframes keyframes =
+            new AnimationKeyframes(DURATION + 1, false, AnimationKeyframesTest::rotate);
+        final AnimationBlockState first = state();
+        keyframes.computeGoalPositions(first, 1, 0, BLOCKS);
+        Assertions.assertTrue(keyframes.hasKeyframes(first));
+
+        final AnimationBlockState second = AnimationBlockState.of(new double[]{5}, new double[]{6}, new double[]{7});
+        final AnimationBlockState expected = AnimationBlockState.of(new double[]{5}, new double[]{6}, new double[]{7});
+        keyframes.computeGoalPositions(second, 3, 0, 1);
+        rotate(expected, 3, 0, 1);
+        assertTargetsEqual(expected, second);
+        Assertions.assertTrue(keyframes.hasKeyframes(second));
+        Assertions.assertFalse(keyframes.hasKeyframes(first));
+    }
+
+    private static AnimationBlockState state()
+    {
+        final double[] startX = new double[BLOCKS];
+        final double[] startY = new double[BLOCKS];
+        final double[] startZ = new double[BLOCKS];
+        for (int idx = 0; idx < BLOCKS; ++idx)
+        {
+            startX[idx] = idx;
+            startY[idx] = 2 * idx;
+            startZ[idx] = -idx;
+        }
+        return AnimationBlockState.of(startX, startY, startZ);
+    }
+
+    /**
+     * Rotates the blocks around the y-axis.
+     */
+    private static void rotate(AnimationBlockState state, int ticks, int from, int to)
+    {
+        final double cos = Math.cos(STEP * ticks);
+        final double sin = Math.sin(STEP * ticks);
+        for (int idx = from; idx < to; ++idx)
+            state.setTarget(idx,
+                            state.getStartX(idx) * cos - state.getStartZ(idx) * sin,
+                            state.getStartY(idx),
+                            state.getStartX(idx) * sin + state.getStartZ(idx) * cos);
+    }
+
+    private static void assertTargetsEqual(AnimationBlockState expected, AnimationBlockState actual)
+    {
+        for (int idx = 0; idx < expected.size(); ++idx)
+        {
+            Assertions.assertEquals(expected.getTargetX(idx), actual.getTargetX(idx), 1E-9);
+            Assertions.assertEquals(expected.getTargetY(idx), actual.getTargetY(idx), 1E-9);
+            Assertions.assertEquals(expected.getTargetZ(idx), actual.getTargetZ(idx), 1E-9);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package nl.pim16aap2.animatedarchitecture.core.moveblocks;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationLevelOfDetail.FULL;
+import static nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationLevelOfDetail.HIDDEN;
+import static nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationLevelOfDetail.KEYFRAME_INTERVAL;
+import static nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationLevelOfDetail.REDUCED;
+
+class AnimationLevelOfDetailTest
+{
+    private static final double NO_PLAYERS = Double.POSITIVE_INFINITY;
+
+    @Test
+    void testOfThresholds()
+    {
+        Assertions.assertEquals(FULL, AnimationLevelOfDetail.of(0, 32, 128));
+        Assertions.assertEquals(FULL, AnimationLevelOfDetail.of(32, 32, 128));
+        Assertions.assertEquals(REDUCED, AnimationLevelOfDetail.of(32.5, 32, 128));
+        Assertions.assertEquals(REDUCED, AnimationLevelOfDetail.of(128, 32, 128));
+        Assertions.assertEquals(HIDDEN, AnimationLevelOfDetail.of(128.5, 32, 128));
+        Assertions.assertEquals(HIDDEN, AnimationLevelOfDetail.of(NO_PLAYERS, 32, 128));
+    }
+
+    @Test
+    void testOfDisabled()
+    {
+        // A reduced distance less than 1 disables the level of detail system altogether.
+        Assertions.assertEquals(FULL, AnimationLevelOfDetail.of(1000, 0, 128));
+        Assertions.assertEquals(FULL, AnimationLevelOfDetail.of(NO_PLAYERS, -1, 128));
+    }
+
+    @Test
+    void testOfHiddenDisabled()
+    {
+        Assertions.assertEquals(REDUCED, AnimationLevelOfDetail.of(1000, 32, 0));
+        Assertions.assertEquals(REDUCED, AnimationLevelOfDetail.of(Double.MAX_VALUE, 32, -1));
+        // Without any players, nobody can see the animation, so it is hidden regardless of the hidden distance.
+        Assertions.assertEquals(HIDDEN, AnimationLevelOfDetail.of(NO_PLAYERS, 32, 0));
+        Assertions.assertEquals(HIDDEN, AnimationLevelOfDetail.of(NO_PLAYERS, 32, -1));
+    }
+
+    @Test
+    void testShouldUpdateClients()
+    {
+        for (int ticksLived = 0; ticksLived < 3 * KEYFRAME_INTERVAL; ++ticksLived)
+        {
+            Assertions.assertTrue(FULL.shouldUpdateClients(ticksLived, 10));
+            Assertions.assertEquals(ticksLived % KEYFRAME_INTERVAL == 0, REDUCED.shouldUpdateClients(ticksLived, 10));
+            Assertions.assertFalse(HIDDEN.shouldUpdateClients(ticksLived, 10));
+        }
+    }
+
+    @Test
+    void testShouldUpdateClientsFinalStep()
+    {
+        // The final step and the finishing phase are always sent, regardless of the level of detail.
+        for (final AnimationLevelOfDetail levelOfDetail : AnimationLevelOfDetail.values())
+        {
+            Assertions.assertTrue(levelOfDetail.shouldUpdateClients(KEYFRAME_INTERVAL + 1, 0));
+            Assertions.assertTrue(levelOfDetail.shouldUpdateClients(KEYFRAME_INTERVAL + 1, -1));
+        }
+        Assertions.assertFalse(REDUCED.shouldUpdateClients(KEYFRAME_INTERVAL + 1, 1));
+        Assertions.assertFalse(HIDDEN.shouldUpdateClients(KEYFRAME_INTERVAL, 1));
+    }
+
+    @Test
+    void testRequiresVelocityReset()
+    {
+        Assertions.assertTrue(HIDDEN.requiresVelocityReset(FULL));
+        Assertions.assertTrue(HIDDEN.requiresVelocityReset(REDUCED));
+        Assertions.assertFalse(HIDDEN.requiresVelocityReset(HIDDEN));
+        for (final AnimationLevelOfDetail previous : AnimationLevelOfDetail.values())
+        {
+            Assertions.assertFalse(FULL.requiresVelocityReset(previous));
+            Assertions.assertFalse(REDUCED.requiresVelocityReset(previous));
+        }
+    }
+
+    @Test
+    void testRequiresResync()
+    {
+        Assertions.assertTrue(FULL.requiresResync(REDUCED));
+        Assertions.assertTrue(FULL.requiresResync(HIDDEN));
+        Assertions.assertFalse(FULL.requiresResync(FULL));
+        for (final AnimationLevelOfDetail previous : AnimationLevelOfDetail.values())
+        {
+            Assertions.assertFalse(REDUCED.requiresResync(previous));
+            Assertions.assertFalse(HIDDEN.requiresResync(previous));
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package nl.pim16aap2.animatedarchitecture.core.moveblocks;
+
+import nl.pim16aap2.animatedarchitecture.core.api.IConfig;
+import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlock;
+import nl.pim16aap2.animatedarchitecture.core.api.restartable.RestartableHolder;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.IVector3D;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Dd;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+class AnimationStepExecutorTest
+{
+    /**
+     * The number of blocks used for the tests. This is large enough to be split several times, and not a multiple of
+     * the partition size, so the ranges are split unevenly.
+     */
+    private static final int SIZE = 4 * AnimationStepExecutor.PARTITION_SIZE + 17;
+
+    private static final int TICKS = 7;
+
+    private AnimationStepExecutor serialExecutor;
+    private AnimationStepExecutor parallelExecutor;
+
+    /**
+     * The names of the threads that computed goal positions.
+     */
+    private final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void init()
+    {
+        serialExecutor = newExecutor(AnimationExecutionMode.SERIAL);
+        parallelExecutor = newExecutor(AnimationExecutionMode.PARALLEL);
+    }
+
+    @AfterEach
+    void cleanup()
+    {
+        serialExecutor.shutDown();
+        parallelExecutor.shutDown();
+    }
+
+    @Test
+    void testApplyMovement()
+    {
+        final List<IAnimatedBlock> animatedBlocks = new ArrayList<>(SIZE);
+        for (int idx = 0; idx < SIZE; ++idx)
+        {
+            final IAnimatedBlock animatedBlock = Mockito.mock(IAnimatedBlock.class);
+            Mockito.when(animatedBlock.getStartX()).thenReturn((double) idx);
+            Mockito.when(animatedBlock.getStartY()).thenReturn(idx * 0.5D);
+            Mockito.when(animatedBlock.getStartZ()).thenReturn(-idx * 2D);
+            animatedBlocks.add(animatedBlock);
+        }
+
+        final Function<IAnimatedBlock, IVector3D> goalPositionFunction = animatedBlock ->
+        {
+            threadNames.add(Thread.currentThread().getName());
+            return rotate(animatedBlock.getStartX(), animatedBlock.getStartY(), animatedBlock.getStartZ(), TICKS);
+        };
+
+        final List<Movement> serial = applyMovement(serialExecutor, animatedBlocks, goalPositionFunction);
+        Assertions.assertFalse(hasPoolThread());
+
+        final List<Movement> parallel = applyMovement(parallelExecutor, animatedBlocks, goalPositionFunction);
+        Assertions.assertTrue(hasPoolThread());
+
+        // The movements are applied in the same order with the same goal positions.
+        Assertions.assertEquals(SIZE, serial.size());
+        Assertions.assertEquals(serial, parallel);
+    }
+
+    @Test
+    void testComputeGoalPositions()
+    {
+        final AnimationBlockState serial = createState();
+        final List<int[]> serialRanges = computeGoalPositions(serialExecutor, serial);
+        Assertions.assertEquals(1, serialRanges.size());
+        Assertions.assertFalse(hasPoolThread());
+
+        final AnimationBlockState parallel = createState();
+        final List<int[]> parallelRanges = computeGoalPositions(parallelExecutor, parallel);
+        Assertions.assertTrue(parallelRanges.size() > 1);
+        Assertions.assertTrue(hasPoolThread());
+        verifyRanges(parallelRanges);
+
+        assertTargetsEqual(serial, parallel);
+    }
+
+    @Test
+    void testComputeGoalPositionsOnPool()
+    {
+        final AnimationBlockState serial = createState();
+        computeGoalPositions(serialExecutor, serial);
+
+        // When a step is already running on the pool (e.g. when multiple animators are executed in parallel), the
+        // goal positions are computed inline on that pool instead of submitting a new task to it.
+        final AnimationBlockState parallel0 = createState();
+        final AnimationBlockState parallel1 = createState();
+        final List<List<int[]>> ranges = List.of(new ArrayList<>(), new ArrayList<>());
+        final List<String> stepThreads = new ArrayList<>(List.of("", ""));
+        parallelExecutor.executeSteps(List.of(
+            () ->
+            {
+                stepThreads.set(0, Thread.currentThread().getName());
+                ranges.get(0).addAll(computeGoalPositions(parallelExecutor, parallel0));
+            },
+            () ->
+            {
+                stepThreads.set(1, Thread.currentThread().getName());
+                ranges.get(1).addAll(computeGoalPositions(parallelExecutor, parallel1));
+            }));
+
+        for (final String stepThread : stepThreads)
+            Assertions.assertTrue(isPoolThread(stepThread), stepThread);
+        verifyRanges(ranges.get(0));
+        verifyRanges(ranges.get(1));
+        assertTargetsEqual(serial, parallel0);
+        assertTargetsEqual(serial, parallel1);
+    }
+
+    private List<Movement> applyMovement(
+        AnimationStepExecutor executor, List<IAnimatedBlock> animatedBlocks,
+        Function<IAnimatedBlock, IVector3D> goalPositionFunction)
+    {
+        threadNames.clear();
+        final List<Movement> movements = new ArrayList<>(animatedBlocks.size());
+        final IAnimator animator = Mockito.mock(IAnimator.class);
+        Mockito.doAnswer(invocation -> movements.add(
+                   new Movement(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2))))
+               .when(animator).applyMovement(Mockito.any(IAnimatedBlock.class), Mockito.any(), Mockito.anyInt());
+
+        executor.applyMovement(animator, animatedBlocks, goalPositionFunction, 3);
+        return movements;
+    }
+
+    /**
+     * Computes the goal positions of all blocks in a state.
+     *
+     * @return The ranges the goal positions were computed for.
+     */
+    private List<int[]> computeGoalPositions(AnimationStepExecutor executor, AnimationBlockState state)
+    {
+        threadNames.clear();
+        final List<int[]> ranges = new ArrayList<>();
+        final IInPlaceAnimationComponent component = Mockito.mock(IInPlaceAnimationComponent.class);
+        Mockito.doAnswer(
+                   invocation ->
+                   {
+                       final int from = invocation.getArgument(2);
+                       final int to = invocation.getArgument(3);
+                       synchronized (ranges)
+                       {
+                           ranges.add(new int[]{from, to});
+                       }
+                       threadNames.add(Thread.currentThread().getName());
+                       for (int idx = from; idx < to; ++idx)
+                       {
+                           final Vector3Dd goal =
+                               rotate(state.getStartX(idx), state.getStartY(idx), state.getStartZ(idx), TICKS);
+                           state.setTarget(idx, goal.x(), goal.y(), goal.z());
+                       }
+                       return null;
+                   })
+               .when(component).computeGoalPositions(Mockito.same(state), Mockito.eq(TICKS), Mockito.anyInt(),
+                                                     Mockito.anyInt());
+
+        executor.computeGoalPositions(component, state, TICKS);
+        return ranges;
+    }
+
+    /**
+     * Verifies that the ranges cover every block exactly once and that no range is larger than the partition size.
+     */
+    private static void verifyRanges(List<int[]> ranges)
+    {
+        final BitSet covered = new BitSet(SIZE);
+        for (final int[] range : ranges)
+        {
+            Assertions.assertTrue(range[1] - range[0] <= AnimationStepExecutor.PARTITION_SIZE);
+            for (int idx = range[0]; idx < range[1]; ++idx)
+            {
+                Assertions.assertFalse(covered.get(idx), "Block " + idx + " was computed more than once!");
+                covered.set(idx);
+            }
+        }
+        Assertions.assertEquals(SIZE, covered.cardinality());
+    }
+
+    private boolean hasPoolThread()
+    {
+        return threadNames.stream().anyMatch(AnimationStepExecutorTest::isPoolThread);
+    }
+
+    private static boolean isPoolThread(String threadName)
+    {
+        return threadName.startsWith("AnimatedArchitecture-animation-");
+    }
+
+    private static AnimationBlockState createState()
+    {
+        final double[] startX = new double[SIZE];
+        final double[] startY = new double[SIZE];
+        final double[] startZ = new double[SIZE];
+        for (int idx = 0; idx < SIZE; ++idx)
+        {
+            startX[idx] = idx;
+            startY[idx] = idx * 0.5D;
+            startZ[idx] = -idx * 2D;
+        }
+        return AnimationBlockState.of(startX, startY, startZ);
+    }
+
+    private static Vector3Dd rotate(double x, double y, double z, int ticks)
+    {
+        final double angle = ticks * Math.PI / 40;
+        final double cos = Math.cos(angle);
+        final double sin = Math.sin(angle);
+        return new Vector3Dd(x * cos - z * sin, y, x * sin + z * cos);
+    }
+
+    private static void assertTargetsEqual(AnimationBlockState expected, AnimationBlockState actual)
+    {
+        for (int idx = 0; idx < expected.size(); ++idx)
+        {
+            Assertions.assertEquals(expected.getTargetX(idx), actual.getTargetX(idx));
+            Assertions.assertEquals(expected.getTargetY(idx), actual.getTargetY(idx));
+            Assertions.assertEquals(expected.getTargetZ(idx), actual.getTargetZ(idx));
+        }
+    }
+
+    private static AnimationStepExecutor newExecutor(AnimationExecutionMode mode)
+    {
+        final IConfig config = Mockito.mock(IConfig.class);
+        Mockito.when(config.animationExecutionMode()).thenReturn(mode);
+        return new AnimationStepExecutor(Mockito.mock(RestartableHolder.class), config);
+    }
+
+    private record Movement(IAnimatedBlock animatedBlock, IVector3D goalPos, int ticksRemaining)
+    {
+    }
+}
@@ -0,0 +1,208 @@
+package nl.pim16aap2.animatedarchitecture.core.moveblocks;
+
+import nl.pim16aap2.animatedarchitecture.core.api.IConfig;
+import nl.pim16aap2.animatedarchitecture.core.api.IExecutor;
+import nl.pim16aap2.animatedarchitecture.core.api.debugging.DebuggableRegistry;
+import nl.pim16aap2.animatedarchitecture.core.api.restartable.RestartableHolder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
+
+class AnimationTickerTest
+{
+    /**
+     * The tasks that were scheduled using {@link IExecutor#runAsyncRepeated(TimerTask, long, long)}, in order.
+     */
+    private final List<TimerTask> scheduledTasks = new ArrayList<>();
+
+    /**
+     * The order in which the step functions were executed.
+     */
+    private final List<String> executed = new ArrayList<>();
+
+    private IExecutor executor;
+    private AnimationTicker ticker;
+
+    @BeforeEach
+    void init()
+    {
+        executor = Mockito.mock(IExecutor.class);
+        Mockito.when(executor.runAsyncRepeated(Mockito.any(TimerTask.class), Mockito.anyLong(), Mockito.anyLong()))
+               .thenAnswer(invocation ->
+                           {
+                               scheduledTasks.add(invocation.getArgument(0));
+                               return scheduledTasks.size();
+                           });
+
+        final IConfig config = Mockito.mock(IConfig.class);
+        Mockito.when(config.animationExecutionMode()).thenReturn(AnimationExecutionMode.SERIAL);
+        final RestartableHolder holder = Mockito.mock(RestartableHolder.class);
+
+        ticker = new AnimationTicker(
+            holder, executor, new AnimationStepExecutor(holder, config), Mockito.mock(DebuggableRegistry.class));
+    }
+
+    @Test
+    void testRegister()
+    {
+        Mockito.verifyNoInteractions(executor);
+
+        ticker.register(step("a"), 0);
+        ticker.register(step("b"), 0);
+
+        // Only a single task should be started for all registrations.
+        Assertions.assertEquals(1, scheduledTasks.size());
+        Mockito.verify(executor).runAsyncRepeated(scheduledTasks.get(0), 0, 1);
+        Assertions.assertEquals(2, ticker.getActiveCount());
+
+        tick();
+        tick();
+        Assertions.assertEquals(List.of("a", "b", "a", "b"), executed);
+    }
+
+    @Test
+    void testStartDelay()
+    {
+        ticker.register(step("a"), 0);
+        tick();
+        tick();
+        Assertions.assertEquals(List.of("a", "a"), executed);
+
+        // The delay is counted from the first tick after the registration, not from the start of the ticker.
+        ticker.register(step("b"), 2);
+        tick();
+        tick();
+        Assertions.assertEquals(List.of("a", "a", "a", "a"), executed);
+        tick();
+        Assertions.assertEquals(List.of("a", "a", "a", "a", "a", "b"), executed);
+    }
+
+    @Test
+    void testNegativeDelay()
+    {
+        ticker.register(step("a"), -5);
+        tick();
+        Assertions.assertEquals(List.of("a"), executed);
+    }
+
+    @Test
+    void testStopWhenIdle()
+    {
+        final AnimationTicker.TickRegistration first = ticker.register(step("a"), 0);
+        final AnimationTicker.TickRegistration second = ticker.register(step("b"), 0);
+        final TimerTask firstTask = scheduledTasks.get(0);
+
+        first.cancel();
+        Assertions.assertTrue(first.isCancelled());
+        tick();
+        Assertions.assertEquals(List.of("b"), executed);
+        Assertions.assertEquals(1, ticker.getActiveCount());
+        Mockito.verify(executor, Mockito.never()).cancel(Mockito.any(TimerTask.class), Mockito.anyInt());
+
+        // Once the last registration has been removed, the task should be stopped.
+        second.cancel();
+        tick();
+        Assertions.assertEquals(List.of("b"), executed);
+        Assertions.assertEquals(0, ticker.getActiveCount());
+        Mockito.verify(executor).cancel(firstTask, 1);
+
+        // A new registration should start a new task, which starts counting ticks from 0 again.
+        ticker.register(step("c"), 1);
+        Assertions.assertEquals(2, scheduledTasks.size());
+        tick();
+        Assertions.assertEquals(List.of("b"), executed);
+        tick();
+        Assertions.assertEquals(List.of("b", "c"), executed);
+    }
+
+    @Test
+    void testShutDown()
+    {
+        final AnimationTicker.TickRegistration registration = ticker.register(step("a"), 0);
+        ticker.shutDown();
+
+        Assertions.assertTrue(registration.isCancelled());
+        Assertions.assertEquals(0, ticker.getActiveCount());
+        Mockito.verify(executor).cancel(scheduledTasks.get(0), 1);
+    }
+
+    @Test
+    void testFailingStep()
+    {
+        ticker.register(() ->
+                        {
+                            throw new IllegalStateException("Expected exception!");
+                        }, 0);
+        ticker.register(step("b"), 0);
+
+        // A failing step should not prevent the other steps from being executed.
+        tick();
+        tick();
+        Assertions.assertEquals(List.of("b", "b"), executed);
+        Assertions.assertEquals(2, ticker.getActiveCount());
+    }
+
+    @Test
+    void testTickDurationStatistics()
+    {
+        final long slowStepNanos = TimeUnit.MILLISECONDS.toNanos(20);
+        final AnimationTicker.TickRegistration slow = ticker.register(() -> sleep(slowStepNanos), 0);
+        ticker.register(step("a"), 0);
+
+        tick();
+        final long slowTick = ticker.getLastTickDuration();
+        Assertions.assertTrue(slowTick >= slowStepNanos, "Last tick: " + slowTick);
+        Assertions.assertEquals(slowTick, ticker.getMaxTickDuration());
+        // The first sample is used as the average as-is.
+        Assertions.assertEquals(slowTick, ticker.getAverageTickDuration());
+
+        slow.cancel();
+        tick();
+        final long fastTick = ticker.getLastTickDuration();
+        Assertions.assertTrue(fastTick < slowTick, "Fast: " + fastTick + ", slow: " + slowTick);
+        Assertions.assertEquals(slowTick, ticker.getMaxTickDuration());
+        Assertions.assertEquals(0.95D * slowTick + 0.05D * fastTick, ticker.getAverageTickDuration(), 1E-6);
+
+        ticker.initialize();
+        Assertions.assertEquals(0, ticker.getLastTickDuration());
+        Assertions.assertEquals(0, ticker.getMaxTickDuration());
+        Assertions.assertEquals(0, ticker.getAverageTickDuration());
+    }
+
+    /**
+     * Runs the most recently scheduled tick task once.
+     */
+    private void tick()
+    {
+        scheduledTasks.get(scheduledTasks.size() - 1).run();
+    }
+
+    private Runnable step(String name)
+    {
+        return () -> executed.add(name);
+    }
+
+    private static void sleep(long nanos)
+    {
+        final long end = System.nanoTime() + nanos;
+        long remaining;
+        while ((remaining = end - System.nanoTime()) > 0)
+        {
+            try
+            {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
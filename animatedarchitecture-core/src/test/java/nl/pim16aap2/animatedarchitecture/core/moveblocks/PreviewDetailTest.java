@@ -0,0 +1,67 @@
+package nl.pim16aap2.animatedarchitecture.core.moveblocks;
+
+import nl.pim16aap2.animatedarchitecture.core.util.Cuboid;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Di;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+class PreviewDetailTest
+{
+    private static final Cuboid CUBOID = new Cuboid(new Vector3Di(0, 0, 0), new Vector3Di(29, 29, 29));
+
+    @Test
+    void testParse()
+    {
+        Assertions.assertEquals(PreviewDetail.SPARSE_EDGES, PreviewDetail.parse(" sparse_edges"));
+        Assertions.assertNull(PreviewDetail.parse("invalid"));
+        Assertions.assertNull(PreviewDetail.parse(null));
+    }
+
+    @Test
+    void testCheckerboard()
+    {
+        final List<Vector3Di> positions = PreviewDetail.CHECKERBOARD.getPositions(CUBOID, 1, 0);
+        Assertions.assertEquals(CUBOID.getVolume() / 2, positions.size());
+        Assertions.assertTrue(positions.stream().allMatch(pos -> (pos.x() + pos.y() + pos.z()) % 2 != 0));
+    }
+
+    @Test
+    void testEdges()
+    {
+        final List<Vector3Di> positions = PreviewDetail.EDGES.getPositions(CUBOID, 1, 0);
+        // 12 edges of 30 blocks each, minus the 8 corners that are shared by 3 edges each.
+        Assertions.assertEquals(12 * 30 - 2 * 8, positions.size());
+        Assertions.assertEquals(positions.size(), new HashSet<>(positions).size());
+    }
+
+    @Test
+    void testSparseEdges()
+    {
+        final Set<Vector3Di> positions = new HashSet<>(PreviewDetail.SPARSE_EDGES.getPositions(CUBOID, 10, 0));
+        Assertions.assertTrue(positions.containsAll(List.of(CUBOID.getCorners())));
+        Assertions.assertTrue(positions.contains(new Vector3Di(10, 0, 0)));
+        Assertions.assertFalse(positions.contains(new Vector3Di(5, 0, 0)));
+        // Every edge has 2 points in addition to its corners: 10 and 20.
+        Assertions.assertEquals(12 * 2 + 8, positions.size());
+    }
+
+    @Test
+    void testAdaptive()
+    {
+        final List<Vector3Di> positions = PreviewDetail.ADAPTIVE.getPositions(CUBOID, 0, 500);
+        Assertions.assertTrue(positions.size() <= 500);
+        Assertions.assertTrue(positions.size() > 100);
+        Assertions.assertTrue(new HashSet<>(positions).containsAll(List.of(CUBOID.getCorners())));
+
+        final int stride = PreviewDetail.getAdaptiveStride(CUBOID.getDimensions(), 500);
+        Assertions.assertEquals(positions.size(), PreviewDetail.countSurfaceSamples(CUBOID.getDimensions(), stride));
+
+        Assertions.assertEquals(8, PreviewDetail.ADAPTIVE.getPositions(CUBOID, 0, 1).size());
+        Assertions.assertEquals(
+            CUBOID.getVolume() - 28 * 28 * 28, PreviewDetail.ADAPTIVE.getPositions(CUBOID, 0, 0).size());
+    }
+}
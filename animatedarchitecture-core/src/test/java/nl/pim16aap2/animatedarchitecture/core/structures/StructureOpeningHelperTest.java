@@ -0,0 +1,152 @@
+package nl.pim16aap2.animatedarchitecture.core.structures;
+
+import nl.pim16aap2.animatedarchitecture.core.api.GlowingBlockSpawner;
+import nl.pim16aap2.animatedarchitecture.core.api.IBlockAnalyzer;
+import nl.pim16aap2.animatedarchitecture.core.api.IChunkLoader;
+import nl.pim16aap2.animatedarchitecture.core.api.IConfig;
+import nl.pim16aap2.animatedarchitecture.core.api.IExecutor;
+import nl.pim16aap2.animatedarchitecture.core.api.ILocation;
+import nl.pim16aap2.animatedarchitecture.core.api.IPlayer;
+import nl.pim16aap2.animatedarchitecture.core.api.IProtectionCompatManager;
+import nl.pim16aap2.animatedarchitecture.core.api.IWorld;
+import nl.pim16aap2.animatedarchitecture.core.api.factories.IAnimatedArchitectureEventFactory;
+import nl.pim16aap2.animatedarchitecture.core.api.factories.ITextFactory;
+import nl.pim16aap2.animatedarchitecture.core.events.IAnimatedArchitectureEventCaller;
+import nl.pim16aap2.animatedarchitecture.core.localization.ILocalizer;
+import nl.pim16aap2.animatedarchitecture.core.managers.LimitsManager;
+import nl.pim16aap2.animatedarchitecture.core.managers.StructureTypeManager;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationBlockManagerFactory;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationRequestData;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.StructureActivityManager;
+import nl.pim16aap2.animatedarchitecture.core.util.Cuboid;
+import nl.pim16aap2.animatedarchitecture.core.util.ObstructionMap;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Di;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.Mockito;
+
+import java.util.HashSet;
+import java.util.Set;
+
+class StructureOpeningHelperTest
+{
+    private static final Cuboid CUBOID = new Cuboid(new Vector3Di(0, 10, 0), new Vector3Di(2, 12, 2));
+
+    private final Set<Vector3Di> solidBlocks = new HashSet<>();
+
+    private IWorld world;
+    private GlowingBlockSpawner.Builder glowingBlockBuilder;
+    private StructureOpeningHelper structureOpeningHelper;
+
+    @BeforeEach
+    void init()
+    {
+        solidBlocks.clear();
+        world = Mockito.mock(IWorld.class);
+
+        glowingBlockBuilder = Mockito.mock(GlowingBlockSpawner.Builder.class, Answers.RETURNS_SELF);
+        final GlowingBlockSpawner glowingBlockSpawner = Mockito.mock(GlowingBlockSpawner.class);
+        Mockito.when(glowingBlockSpawner.builder()).thenReturn(glowingBlockBuilder);
+
+        structureOpeningHelper = new StructureOpeningHelper(
+            Mockito.mock(ILocalizer.class),
+            ITextFactory.getSimpleTextFactory(),
+            Mockito.mock(StructureActivityManager.class),
+            Mockito.mock(StructureTypeManager.class),
+            Mockito.mock(IConfig.class),
+            Mockito.mock(IExecutor.class),
+            new FakeBlockAnalyzer(solidBlocks),
+            Mockito.mock(IProtectionCompatManager.class),
+            glowingBlockSpawner,
+            Mockito.mock(IAnimatedArchitectureEventFactory.class),
+            Mockito.mock(StructureRegistry.class),
+            Mockito.mock(IChunkLoader.class),
+            Mockito.mock(LimitsManager.class),
+            Mockito.mock(IAnimatedArchitectureEventCaller.class),
+            Mockito.mock(AnimationBlockManagerFactory.class),
+            Mockito.mock(AnimationRequestData.IFactory.class));
+    }
+
+    @Test
+    void testIsLocationEmpty()
+    {
+        final Cuboid newCuboid = CUBOID.move(0, 1, 0);
+        Assertions.assertTrue(structureOpeningHelper.isLocationEmpty(newCuboid, CUBOID, null, world));
+
+        // Blocks that are part of the structure itself are expected to be in the way.
+        solidBlocks.add(new Vector3Di(1, 12, 1));
+        Assertions.assertTrue(structureOpeningHelper.isLocationEmpty(newCuboid, CUBOID, null, world));
+
+        solidBlocks.add(new Vector3Di(1, 13, 1));
+        Assertions.assertFalse(structureOpeningHelper.isLocationEmpty(newCuboid, CUBOID, null, world));
+    }
+
+    @Test
+    void testIsLocationEmptyHighlightsObstructions()
+    {
+        solidBlocks.add(new Vector3Di(1, 13, 1));
+        solidBlocks.add(new Vector3Di(2, 13, 2));
+
+        final IPlayer player = Mockito.mock(IPlayer.class);
+        Assertions.assertFalse(structureOpeningHelper.isLocationEmpty(CUBOID.move(0, 1, 0), CUBOID, player, world));
+        Mockito.verify(glowingBlockBuilder, Mockito.times(2)).build();
+    }
+
+    @Test
+    void testGetBlocksInDir()
+    {
+        final Vector3Di east = new Vector3Di(1, 0, 0);
+        final Vector3Di west = new Vector3Di(-1, 0, 0);
+
+        Assertions.assertEquals(5, structureOpeningHelper.getBlocksInDir(east, null, world, CUBOID, 5));
+        Assertions.assertEquals(-5, structureOpeningHelper.getBlocksInDir(west, null, world, CUBOID, 5));
+
+        // Blocks inside the structure should not prevent it from moving.
+        solidBlocks.add(new Vector3Di(1, 11, 1));
+        Assertions.assertEquals(5, structureOpeningHelper.getBlocksInDir(east, null, world, CUBOID, 5));
+
+        solidBlocks.add(new Vector3Di(5, 11, 1));
+        Assertions.assertEquals(2, structureOpeningHelper.getBlocksInDir(east, null, world, CUBOID, 5));
+        Assertions.assertEquals(-5, structureOpeningHelper.getBlocksInDir(west, null, world, CUBOID, 5));
+
+        solidBlocks.add(new Vector3Di(3, 10, 0));
+        Assertions.assertEquals(0, structureOpeningHelper.getBlocksInDir(east, null, world, CUBOID, 5));
+    }
+
+    /**
+     * A block analyzer that considers only the provided positions to be obstructed.
+     */
+    private record FakeBlockAnalyzer(Set<Vector3Di> solidBlocks) implements IBlockAnalyzer
+    {
+        @Override
+        public boolean isAirOrLiquid(ILocation location)
+        {
+            return !solidBlocks.contains(location.getPosition());
+        }
+
+        @Override
+        public boolean isAllowedBlock(ILocation location)
+        {
+            return true;
+        }
+
+        @Override
+        public ObstructionMap getObstructions(
+            IWorld world, Cuboid cuboid, @Nullable Cuboid exclusion, boolean stopAtFirst)
+        {
+            final ObstructionMap obstructions = new ObstructionMap(cuboid);
+            for (final Vector3Di position : solidBlocks)
+            {
+                if (!cuboid.isPosInsideCuboid(position))
+                    continue;
+                if (exclusion != null && exclusion.isPosInsideCuboid(position))
+                    continue;
+                obstructions.setObstructed(position.x(), position.y(), position.z());
+            }
+            return obstructions;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import nl.pim16aap2.animatedarchitecture.core.api.ILocation;
 import nl.pim16aap2.animatedarchitecture.core.api.IPlayer;
 import nl.pim16aap2.animatedarchitecture.core.api.IProtectionCompatManager;
 import nl.pim16aap2.animatedarchitecture.core.api.IWorld;
+import nl.pim16aap2.animatedarchitecture.core.managers.PowerBlockManager;
 import nl.pim16aap2.animatedarchitecture.core.structures.AbstractStructure;
 import nl.pim16aap2.animatedarchitecture.core.structures.StructureType;
 import nl.pim16aap2.animatedarchitecture.core.UnitTestUtil;
@@ -38,6 +39,9 @@ class PowerBlockRelocatorTest
     @Mock
     private ILocation location;
 
+    @Mock
+    private PowerBlockManager powerBlockManager;
+
     @Mock
     private PowerBlockRelocator.IFactory factory;
 
@@ -73,7 +77,8 @@ class PowerBlockRelocatorTest
         Mockito.when(context.getStepFactory()).thenReturn(assistedStepFactory);
 
         Mockito.when(factory.create(Mockito.any(IPlayer.class), Mockito.any(AbstractStructure.class)))
-               .thenAnswer(invoc -> new PowerBlockRelocator(context, invoc.getArgument(0, IPlayer.class),
+               .thenAnswer(invoc -> new PowerBlockRelocator(context, powerBlockManager,
+                                                            invoc.getArgument(0, IPlayer.class),
                                                             invoc.getArgument(1, AbstractStructure.class)));
     }
 
@@ -129,7 +134,7 @@ class PowerBlockRelocatorTest
 
         Assertions.assertTrue(relocator.handleInput(location));
 
-        Mockito.verify(structure).syncData();
+        Mockito.verify(powerBlockManager).updatePowerBlockLoc(structure, currentPowerBlockLoc, new Vector3Di(0, 0, 0));
     }
 
     @Test
@@ -143,5 +148,7 @@ class PowerBlockRelocatorTest
         Assertions.assertTrue(relocator.handleInput(location));
 
         Mockito.verify(structure, Mockito.never()).syncData();
+        Mockito.verify(powerBlockManager, Mockito.never())
+               .updatePowerBlockLoc(Mockito.any(), Mockito.any(), Mockito.any());
     }
 }
@@ -0,0 +1,80 @@
+package nl.pim16aap2.animatedarchitecture.core.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class BoundedExecutorTest
+{
+    @Test
+    void testInvalidConcurrency()
+    {
+        final ExecutorService delegate = Executors.newSingleThreadExecutor();
+        try
+        {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new BoundedExecutor(delegate, 0));
+        }
+        finally
+        {
+            delegate.shutdownNow();
+        }
+    }
+
+    @Test
+    void testMaxConcurrency()
+        throws InterruptedException
+    {
+        final int maxConcurrency = 2;
+        final int taskCount = 6;
+        final BoundedExecutor executor = new BoundedExecutor(Executors.newFixedThreadPool(taskCount), maxConcurrency);
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(taskCount);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        try
+        {
+            for (int idx = 0; idx < taskCount; ++idx)
+                executor.execute(() ->
+                                 {
+                                     maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                                     try
+                                     {
+                                         release.await(10, TimeUnit.SECONDS);
+                                     }
+                                     catch (InterruptedException e)
+                                     {
+                                         Thread.currentThread().interrupt();
+                                     }
+                                     running.decrementAndGet();
+                                     finished.countDown();
+                                 });
+
+            // Wait until the maximum number of tasks is running, while the rest is waiting for a permit.
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (executor.getActiveTasks() < maxConcurrency && System.nanoTime() < deadline)
+                Thread.sleep(1);
+
+            Assertions.assertEquals(maxConcurrency, executor.getActiveTasks());
+            Assertions.assertEquals(taskCount - maxConcurrency, executor.getQueueDepth());
+
+            release.countDown();
+            Assertions.assertTrue(finished.await(10, TimeUnit.SECONDS));
+        }
+        finally
+        {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(maxConcurrency, maxRunning.get());
+        Assertions.assertEquals(0, executor.getQueueDepth());
+        Assertions.assertTrue(executor.getMaxWaitTime().compareTo(executor.getAverageWaitTime()) >= 0);
+    }
+}
@@ -0,0 +1,63 @@
+package nl.pim16aap2.animatedarchitecture.core.util;
+
+import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Di;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+class ObstructionMapTest
+{
+    private static final Cuboid CUBOID = new Cuboid(new Vector3Di(-2, 10, 5), new Vector3Di(3, 14, 9));
+
+    @Test
+    void testSetObstructed()
+    {
+        final ObstructionMap map = new ObstructionMap(CUBOID);
+        Assertions.assertTrue(map.isEmpty());
+
+        map.setObstructed(-2, 10, 5);
+        map.setObstructed(3, 14, 9);
+        map.setObstructed(0, 12, 7);
+        map.setObstructed(0, 12, 7);
+
+        Assertions.assertFalse(map.isEmpty());
+        Assertions.assertEquals(3, map.getObstructionCount());
+        Assertions.assertTrue(map.isObstructed(-2, 10, 5));
+        Assertions.assertTrue(map.isObstructed(3, 14, 9));
+        Assertions.assertTrue(map.isObstructed(0, 12, 7));
+        Assertions.assertFalse(map.isObstructed(0, 12, 8));
+        Assertions.assertFalse(map.isObstructed(100, 12, 7));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> map.setObstructed(4, 12, 7));
+    }
+
+    @Test
+    void testForEachObstruction()
+    {
+        final ObstructionMap map = new ObstructionMap(CUBOID);
+        final Set<Vector3Di> expected = Set.of(
+            new Vector3Di(-2, 10, 5), new Vector3Di(3, 14, 9), new Vector3Di(1, 11, 6), new Vector3Di(-1, 13, 8));
+        expected.forEach(pos -> map.setObstructed(pos.x(), pos.y(), pos.z()));
+
+        final Set<Vector3Di> found = new HashSet<>();
+        map.forEachObstruction(found::add);
+        Assertions.assertEquals(expected, found);
+    }
+
+    @Test
+    void testHasObstructionIn()
+    {
+        final ObstructionMap map = new ObstructionMap(CUBOID);
+        map.setObstructed(1, 12, 8);
+
+        Assertions.assertTrue(map.hasObstructionIn(CUBOID));
+        Assertions.assertTrue(map.hasObstructionIn(new Cuboid(new Vector3Di(1, 12, 8), new Vector3Di(1, 12, 8))));
+        Assertions.assertTrue(map.hasObstructionIn(new Cuboid(new Vector3Di(0, 0, 8), new Vector3Di(50, 50, 50))));
+        Assertions.assertFalse(map.hasObstructionIn(new Cuboid(new Vector3Di(1, 12, 5), new Vector3Di(1, 12, 7))));
+        Assertions.assertFalse(map.hasObstructionIn(new Cuboid(new Vector3Di(1, 12, 9), new Vector3Di(3, 14, 9))));
+        Assertions.assertFalse(map.hasObstructionIn(new Cuboid(new Vector3Di(2, 10, 5), new Vector3Di(3, 14, 9))));
+        Assertions.assertFalse(map.hasObstructionIn(new Cuboid(new Vector3Di(20, 20, 20), new Vector3Di(30, 30, 30))));
+    }
+}
@@ -0,0 +1,80 @@
+package nl.pim16aap2.animatedarchitecture.core.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class TimingWheelTest
+{
+    @Test
+    void testAdvance()
+    {
+        final TimingWheel<String> wheel = new TimingWheel<>(8);
+        wheel.schedule("a", 2);
+        wheel.schedule("b", 2);
+        wheel.schedule("c", 3);
+        Assertions.assertEquals(3, wheel.size());
+
+        Assertions.assertEquals(List.of(), wheel.advance());
+        Assertions.assertEquals(List.of("a", "b"), wheel.advance());
+        Assertions.assertEquals(List.of("c"), wheel.advance());
+        Assertions.assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    void testMinimumDelay()
+    {
+        final TimingWheel<String> wheel = new TimingWheel<>(4);
+        wheel.schedule("a", 0);
+        wheel.schedule("b", -5);
+        Assertions.assertEquals(List.of("a", "b"), wheel.advance());
+    }
+
+    @Test
+    void testMultipleRotations()
+    {
+        final TimingWheel<String> wheel = new TimingWheel<>(4);
+        wheel.schedule("late", 9);
+        wheel.schedule("early", 1);
+
+        Assertions.assertEquals(List.of("early"), wheel.advance());
+        for (int idx = 2; idx < 9; ++idx)
+            Assertions.assertEquals(List.of(), wheel.advance(), "Tick " + idx);
+        Assertions.assertEquals(List.of("late"), wheel.advance());
+        Assertions.assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    void testScheduleAfterAdvance()
+    {
+        final TimingWheel<String> wheel = new TimingWheel<>(4);
+        wheel.advance();
+        wheel.advance();
+        wheel.schedule("a", 3);
+
+        Assertions.assertEquals(List.of(), wheel.advance());
+        Assertions.assertEquals(List.of(), wheel.advance());
+        Assertions.assertEquals(List.of("a"), wheel.advance());
+    }
+
+    @Test
+    void testClear()
+    {
+        final TimingWheel<String> wheel = new TimingWheel<>(4);
+        wheel.schedule("a", 1);
+        wheel.schedule("b", 10);
+
+        final List<String> removed = wheel.clear();
+        Assertions.assertEquals(2, removed.size());
+        Assertions.assertTrue(removed.containsAll(List.of("a", "b")));
+        Assertions.assertTrue(wheel.isEmpty());
+        Assertions.assertEquals(List.of(), wheel.advance());
+    }
+
+    @Test
+    void testInvalidSize()
+    {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TimingWheel<>(0));
+    }
+}
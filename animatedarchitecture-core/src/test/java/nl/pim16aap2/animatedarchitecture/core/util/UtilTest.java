@@ -46,6 +46,32 @@ class UtilTest
         Assertions.assertEquals(new Vector2Di(7, 13), Util.getChunkCoords(new Vector3Di(126, 9999, 223)));
     }
 
+    @Test
+    void testPositionKey()
+    {
+        final long key = Util.getPositionKey(-30_000_000, -64, 29_999_999);
+        Assertions.assertEquals(key, Util.getPositionKey(new Vector3Di(-30_000_000, -64, 29_999_999)));
+        Assertions.assertNotEquals(key, Util.getPositionKey(-30_000_000, -63, 29_999_999));
+        Assertions.assertNotEquals(Util.getPositionKey(1, 2, 3), Util.getPositionKey(3, 2, 1));
+        Assertions.assertNotEquals(Util.getPositionKey(-1, 0, 0), Util.getPositionKey(0, 0, -1));
+        Assertions.assertNotEquals(Util.getPositionKey(0, -1, 0), Util.getPositionKey(0, 319, 0));
+    }
+
+    @Test
+    void testPositionFromKey()
+    {
+        testPositionKey(new Vector3Di(0, 0, 0));
+        testPositionKey(new Vector3Di(-30_000_000, -64, 29_999_999));
+        testPositionKey(new Vector3Di(29_999_999, 319, -30_000_000));
+        testPositionKey(new Vector3Di(-1, -1, -1));
+        testPositionKey(new Vector3Di(144, 75, -153));
+    }
+
+    private static void testPositionKey(Vector3Di position)
+    {
+        Assertions.assertEquals(position, Util.getPositionFromKey(Util.getPositionKey(position)));
+    }
+
     @Test
     void isValidStructureName()
     {
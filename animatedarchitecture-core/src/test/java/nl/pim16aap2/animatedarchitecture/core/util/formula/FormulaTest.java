@@ -0,0 +1,60 @@
+package nl.pim16aap2.animatedarchitecture.core.util.formula;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class FormulaTest
+{
+    private static final String FLAG_FORMULA =
+        "min(0.07 * radius, 3) * sin(radius / 1.7 + height / 12 + counter / 12)";
+
+    private static final double EPSILON = 1E-12;
+
+    @Test
+    void testEvaluate()
+    {
+        final Formula formula = Formula.compile(FLAG_FORMULA, "radius", "counter", "length", "height");
+
+        for (int counter = 0; counter < 100; ++counter)
+        {
+            final double radius = 7;
+            final double height = 3;
+            final double expected = Math.min(0.07 * radius, 3) * Math.sin(radius / 1.7 + height / 12 + counter / 12D);
+            Assertions.assertEquals(expected, formula.evaluate(radius, counter, 10, height), EPSILON);
+        }
+    }
+
+    @Test
+    void testOperatorPrecedence()
+    {
+        Assertions.assertEquals(0, Formula.compile("-2^2 + 10 % 4 * (1 + 1)").evaluate(), EPSILON);
+        Assertions.assertEquals(14, Formula.compile("2 + 3 * 4").evaluate(), EPSILON);
+        Assertions.assertEquals(20, Formula.compile("(2 + 3) * 4").evaluate(), EPSILON);
+        Assertions.assertEquals(Math.PI, Formula.compile("max(pi, e)").evaluate(), EPSILON);
+    }
+
+    @Test
+    void testBind()
+    {
+        final Formula formula = Formula.compile(FLAG_FORMULA, "radius", "counter", "length", "height");
+        final int counterSlot = formula.getSlot("counter");
+        final Formula bound = formula.bind(new double[]{7, 0, 10, 3}, counterSlot);
+
+        Assertions.assertFalse(bound.isConstant());
+        for (int counter = 0; counter < 100; ++counter)
+            Assertions.assertEquals(formula.evaluate(7, counter, 10, 3), bound.evaluate(0, counter, 0, 0), EPSILON);
+
+        final Formula constant = formula.bind(new double[]{7, 5, 10, 3});
+        Assertions.assertTrue(constant.isConstant());
+        Assertions.assertEquals(formula.evaluate(7, 5, 10, 3), constant.evaluate(0, 0, 0, 0), EPSILON);
+    }
+
+    @Test
+    void testInvalidFormula()
+    {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Formula.compile("radius * 2"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Formula.compile("(1 + 2", "radius"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Formula.compile("1 +", "radius"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Formula.compile("min(1)", "radius"));
+    }
+}
@@ -16,6 +16,7 @@ import nl.pim16aap2.animatedarchitecture.core.api.IPermissionsManager;
 import nl.pim16aap2.animatedarchitecture.core.api.IProtectionCompatManager;
 import nl.pim16aap2.animatedarchitecture.core.api.IRedstoneManager;
 import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlockFactory;
+import nl.pim16aap2.animatedarchitecture.core.api.debugging.DebuggableRegistry;
 import nl.pim16aap2.animatedarchitecture.core.api.factories.IAnimatedArchitectureEventFactory;
 import nl.pim16aap2.animatedarchitecture.core.api.factories.ILocationFactory;
 import nl.pim16aap2.animatedarchitecture.core.api.factories.IPlayerFactory;
@@ -24,6 +25,7 @@ import nl.pim16aap2.animatedarchitecture.core.api.restartable.RestartableHolder;
 import nl.pim16aap2.animatedarchitecture.core.audio.IAudioPlayer;
 import nl.pim16aap2.animatedarchitecture.core.commands.CommandFactory;
 import nl.pim16aap2.animatedarchitecture.core.commands.IServer;
+import nl.pim16aap2.animatedarchitecture.core.data.cache.timed.TimedCacheCleaner;
 import nl.pim16aap2.animatedarchitecture.core.extensions.StructureTypeLoader;
 import nl.pim16aap2.animatedarchitecture.core.localization.ILocalizer;
 import nl.pim16aap2.animatedarchitecture.core.localization.LocalizationManager;
@@ -294,7 +296,10 @@ public final class IAnimatedArchitectureSpigotPlatform implements IAnimatedArchi
     private void initPlatform()
         throws InitializationException
     {
-        safeGetter(AnimatedArchitectureSpigotComponent::getDebuggableRegistry).registerDebuggable(restartableHolder);
+        final DebuggableRegistry debuggableRegistry =
+            safeGetter(AnimatedArchitectureSpigotComponent::getDebuggableRegistry);
+        debuggableRegistry.registerDebuggable(restartableHolder);
+        debuggableRegistry.registerDebuggable(TimedCacheCleaner.shared());
         getAnimationHookManager().registerFactory(
             safeGetter(AnimatedArchitectureSpigotComponent::getAudioAnimationHookFactory));
     }
@@ -11,11 +11,14 @@ import nl.pim16aap2.animatedarchitecture.core.api.debugging.IDebuggable;
 import nl.pim16aap2.animatedarchitecture.core.api.restartable.RestartableHolder;
 import nl.pim16aap2.animatedarchitecture.core.localization.LocalizationUtil;
 import nl.pim16aap2.animatedarchitecture.core.managers.StructureTypeManager;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationExecutionMode;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.PreviewDetail;
 import nl.pim16aap2.animatedarchitecture.core.structures.StructureType;
 import nl.pim16aap2.animatedarchitecture.core.util.ConfigEntry;
 import nl.pim16aap2.animatedarchitecture.core.util.Constants;
 import nl.pim16aap2.animatedarchitecture.core.util.Limit;
 import nl.pim16aap2.animatedarchitecture.core.util.MathUtil;
+import nl.pim16aap2.animatedarchitecture.core.util.ThreadingMode;
 import nl.pim16aap2.animatedarchitecture.core.util.Util;
 import nl.pim16aap2.animatedarchitecture.spigot.util.SpigotUtil;
 import nl.pim16aap2.animatedarchitecture.spigot.util.implementations.ConfigReaderSpigot;
@@ -83,7 +86,17 @@ public final class ConfigSpigot implements IConfig, IDebuggable
     private OptionalInt maxStructureCount = OptionalInt.empty();
     private OptionalInt maxBlocksToMove = OptionalInt.empty();
     private double maxBlockSpeed;
+    private AnimationExecutionMode animationExecutionMode = AnimationExecutionMode.SERIAL;
+    private int animationLevelOfDetailDistance;
+    private int animationHiddenDistance;
+    private PreviewDetail previewDetail = PreviewDetail.ADAPTIVE;
+    private int previewStride;
+    private int maxPreviewBlocks;
+    private int animatedBlocksPerTick;
     private int cacheTimeout;
+    private int maxCachedStructures;
+    private ThreadingMode threadingMode = ThreadingMode.PLATFORM;
+    private int maxConcurrentDatabaseTasks = 16;
     private boolean autoDLUpdate;
     private boolean enableRedstone;
     private long downloadDelay;
@@ -263,6 +276,69 @@ public final class ConfigSpigot implements IConfig, IDebuggable
             # Higher values may result in choppier and/or glitchier animations."
             """;
 
+        final String animationExecutionModeComment =
+            """
+            # Determines how the steps of active animations are executed.
+            #
+            # Supported modes are:
+            #   SERIAL:   All animations are processed one after the other on a single thread.
+            #   PARALLEL: Animations are processed concurrently on all available cores. The positions of the blocks
+            #             of very large animations are computed in parallel as well.
+            #
+            # This will default to SERIAL in case an invalid option is provided.
+            """;
+
+        final String animationLevelOfDetailDistanceComment =
+            """
+            # Animations that are further away from the nearest player than this distance (in blocks) are updated less
+            # frequently. Clients will interpolate the movement of the animated blocks in between updates.
+            # Use 0 to always update all animations every tick.
+            """;
+
+        final String animationHiddenDistanceComment =
+            """
+            # Animations that are further away from the nearest player than this distance (in blocks) are not sent to
+            # any clients until they have finished moving.
+            # This only applies when the level of detail distance is enabled.
+            # Use 0 to disable this.
+            """;
+
+        final String previewDetailComment =
+            """
+            # Determines which blocks are shown when previewing an animation.
+            # Every previewed block is a glowing entity, so previewing large structures in detail can be expensive.
+            #
+            # Supported options are:
+            #   CHECKERBOARD: Every other block of the structure is shown.
+            #   EDGES:        Only the edges of the structure are shown.
+            #   SPARSE_EDGES: The corners of the structure are shown as well as every n-th block on its edges.
+            #                 The distance between these blocks is determined by 'previewStride'.
+            #   ADAPTIVE:     The outside of the structure is shown as densely as possible without showing more than
+            #                 'maxPreviewBlocks' blocks.
+            #
+            # This will default to ADAPTIVE in case an invalid option is provided.
+            """;
+
+        final String previewStrideComment =
+            """
+            # The distance (in blocks) between two previewed blocks on an edge when using SPARSE_EDGES previews.
+            """;
+
+        final String maxPreviewBlocksComment =
+            """
+            # The maximum number of blocks to show in a single preview when using ADAPTIVE previews.
+            # The corners of a structure are always shown.
+            # Use 0 to show the entire outside of a structure.
+            """;
+
+        final String animatedBlocksPerTickComment =
+            """
+            # The maximum number of blocks to turn into animated blocks per tick when starting an animation.
+            # The blocks of structures larger than this are prepared over multiple ticks before the animation starts.
+            # Lower values reduce the lag spike when large structures start moving, but delay the animation.
+            # Use 0 to prepare all blocks in a single tick.
+            """;
+
         final String animationTimeMultiplierComment =
             """
             # Change the animation time of each structure type.
@@ -289,6 +365,34 @@ public final class ConfigSpigot implements IConfig, IDebuggable
             # It'll get updated automatically when needed anyway.
             """;
 
+        final String maxCachedStructuresComment =
+            """
+            # The maximum number of structures to keep in memory.
+            # Structures that are currently being animated or whose power block is in a loaded chunk are always kept.
+            # Structures that are used more frequently are less likely to be removed from memory.
+            # Use 0 to keep structures in memory until the garbage collector needs the space instead.
+            # Changing this from or to 0 requires a server restart.
+            """;
+
+        final String threadingModeComment =
+            """
+            # Determines the kind of threads that are used for blocking work, such as database access.
+            #
+            # Supported modes are:
+            #   PLATFORM: A fixed number of regular threads is used.
+            #   VIRTUAL:  Every task runs on its own virtual thread. This scales better when many tasks are waiting
+            #             at the same time, e.g. when many chunks are loaded at once.
+            #             Virtual threads require Java 21+. When they are not available, PLATFORM is used instead.
+            #
+            # This will default to PLATFORM in case an invalid option is provided.
+            """;
+
+        final String maxConcurrentDatabaseTasksComment =
+            """
+            # The maximum number of database tasks that can run at the same time.
+            # Additional tasks wait until a running task has finished.
+            """;
+
         final String flagMovementFormulaComment =
             """
             # The movement formula of the blocks for flags. THe formula is evaluated for each block
@@ -397,6 +501,14 @@ public final class ConfigSpigot implements IConfig, IDebuggable
         headCacheTimeout = addNewConfigEntry(config, "headCacheTimeout", 120, headCacheTimeoutComment);
         coolDown = addNewConfigEntry(config, "coolDown", 0, coolDownComment);
         cacheTimeout = addNewConfigEntry(config, "cacheTimeout", 120, cacheTimeoutComment);
+        maxCachedStructures = addNewConfigEntry(config, "maxCachedStructures", 0, maxCachedStructuresComment);
+
+        final String threadingModeName = addNewConfigEntry(
+            config, "threadingMode", ThreadingMode.PLATFORM.name(), threadingModeComment);
+        final @Nullable ThreadingMode threadingModeTmp = ThreadingMode.parse(threadingModeName);
+        threadingMode = threadingModeTmp == null ? ThreadingMode.PLATFORM : threadingModeTmp;
+        maxConcurrentDatabaseTasks = Math.max(
+            1, addNewConfigEntry(config, "maxConcurrentDatabaseTasks", 16, maxConcurrentDatabaseTasksComment));
 
         flagMovementFormula = addNewConfigEntry(
             config, "flagMovementFormula",
@@ -405,6 +517,27 @@ public final class ConfigSpigot implements IConfig, IDebuggable
 
         maxBlockSpeed = addNewConfigEntry(config, "maxBlockSpeed", 5.0D, maxBlockSpeedComment);
 
+        final String animationExecutionModeName = addNewConfigEntry(
+            config, "animationExecutionMode", AnimationExecutionMode.SERIAL.name(), animationExecutionModeComment);
+        final @Nullable AnimationExecutionMode animationExecutionModeTmp =
+            AnimationExecutionMode.parse(animationExecutionModeName);
+        animationExecutionMode =
+            animationExecutionModeTmp == null ? AnimationExecutionMode.SERIAL : animationExecutionModeTmp;
+
+        animationLevelOfDetailDistance = addNewConfigEntry(
+            config, "animationLevelOfDetailDistance", 64, animationLevelOfDetailDistanceComment);
+        animationHiddenDistance = addNewConfigEntry(
+            config, "animationHiddenDistance", 160, animationHiddenDistanceComment);
+
+        final String previewDetailName = addNewConfigEntry(
+            config, "previewDetail", PreviewDetail.ADAPTIVE.name(), previewDetailComment);
+        final @Nullable PreviewDetail previewDetailTmp = PreviewDetail.parse(previewDetailName);
+        previewDetail = previewDetailTmp == null ? PreviewDetail.ADAPTIVE : previewDetailTmp;
+        previewStride = addNewConfigEntry(config, "previewStride", 4, previewStrideComment);
+        maxPreviewBlocks = addNewConfigEntry(config, "maxPreviewBlocks", 1000, maxPreviewBlocksComment);
+        animatedBlocksPerTick =
+            addNewConfigEntry(config, "animatedBlocksPerTick", 2500, animatedBlocksPerTickComment);
+
         final List<StructureType> enabledStructureTypes = structureTypeManager.get().getEnabledStructureTypes();
         parseForEachStructureType(
             structureAnimationTimeMultipliers, config, enabledStructureTypes, animationTimeMultiplierComment,
@@ -773,6 +906,66 @@ public final class ConfigSpigot implements IConfig, IDebuggable
         return maxBlockSpeed;
     }
 
+    @Override
+    public AnimationExecutionMode animationExecutionMode()
+    {
+        return animationExecutionMode;
+    }
+
+    @Override
+    public int maxCachedStructures()
+    {
+        return maxCachedStructures;
+    }
+
+    @Override
+    public ThreadingMode threadingMode()
+    {
+        return threadingMode;
+    }
+
+    @Override
+    public int maxConcurrentDatabaseTasks()
+    {
+        return maxConcurrentDatabaseTasks;
+    }
+
+    @Override
+    public int animationLevelOfDetailDistance()
+    {
+        return animationLevelOfDetailDistance;
+    }
+
+    @Override
+    public int animationHiddenDistance()
+    {
+        return animationHiddenDistance;
+    }
+
+    @Override
+    public PreviewDetail previewDetail()
+    {
+        return previewDetail;
+    }
+
+    @Override
+    public int previewStride()
+    {
+        return previewStride;
+    }
+
+    @Override
+    public int maxPreviewBlocks()
+    {
+        return maxPreviewBlocks;
+    }
+
+    @Override
+    public int animatedBlocksPerTick()
+    {
+        return animatedBlocksPerTick;
+    }
+
     @Override
     public Level logLevel()
     {
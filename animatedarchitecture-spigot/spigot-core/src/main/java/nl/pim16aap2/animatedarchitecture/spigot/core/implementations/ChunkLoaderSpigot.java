@@ -1,6 +1,9 @@
 package nl.pim16aap2.animatedarchitecture.spigot.core.implementations;
 
+import lombok.extern.flogger.Flogger;
+import nl.pim16aap2.animatedarchitecture.core.api.ChunkTickets;
 import nl.pim16aap2.animatedarchitecture.core.api.IChunkLoader;
+import nl.pim16aap2.animatedarchitecture.core.api.IExecutor;
 import nl.pim16aap2.animatedarchitecture.core.api.IWorld;
 import nl.pim16aap2.animatedarchitecture.core.util.Cuboid;
 import nl.pim16aap2.animatedarchitecture.core.util.MathUtil;
@@ -8,25 +11,78 @@ import nl.pim16aap2.animatedarchitecture.core.util.Util;
 import nl.pim16aap2.animatedarchitecture.core.util.vector.IVector3D;
 import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Di;
 import nl.pim16aap2.animatedarchitecture.spigot.util.SpigotAdapter;
+import nl.pim16aap2.util.reflection.ReflectionBuilder;
 import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.Nullable;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Implementation of {@link IChunkLoader} for the Spigot platform.
  */
 @Singleton
+@Flogger
 public class ChunkLoaderSpigot implements IChunkLoader
 {
     private final IChunkLoadFunction[] chunkLoadFunctions;
+    private final IExecutor executor;
+    private final JavaPlugin plugin;
+
+    /**
+     * The function used to load chunks asynchronously on platforms that support it (e.g. Paper).
+     * <p>
+     * When this is null, chunks are loaded on the main thread instead.
+     */
+    private final @Nullable IAsyncChunkLoadFunction asyncChunkLoadFunction;
+
+    /**
+     * The number of tickets that are held for every chunk.
+     * <p>
+     * The server keeps at most one ticket per plugin for a chunk, so this is used to make sure the ticket is only
+     * removed once none of the tasks need the chunk anymore.
+     * <p>
+     * This is only accessed on the main thread.
+     */
+    private final Map<ChunkKey, Integer> ticketCounts = new HashMap<>();
 
     @Inject
-    public ChunkLoaderSpigot()
+    public ChunkLoaderSpigot(IExecutor executor, JavaPlugin plugin)
+    {
+        this(executor, plugin, findAsyncChunkLoadFunction());
+    }
+
+    ChunkLoaderSpigot(
+        IExecutor executor, JavaPlugin plugin, @Nullable IAsyncChunkLoadFunction asyncChunkLoadFunction)
     {
+        this.executor = executor;
+        this.plugin = plugin;
+        this.asyncChunkLoadFunction = asyncChunkLoadFunction;
         chunkLoadFunctions = new IChunkLoadFunction[]{this::verifyLoaded, this::attemptLoad};
     }
 
+    /**
+     * Finds the method used to load chunks asynchronously on platforms that support it (e.g. Paper).
+     *
+     * @return The function that loads chunks asynchronously, or null if the platform does not support it.
+     */
+    private static @Nullable IAsyncChunkLoadFunction findAsyncChunkLoadFunction()
+    {
+        final @Nullable Method getChunkAtAsync =
+            ReflectionBuilder.findMethod().inClass(World.class).withName("getChunkAtAsync")
+                             .withParameters(int.class, int.class).getNullable();
+        if (getChunkAtAsync == null)
+            return null;
+        return (world, chunkX, chunkZ) -> (CompletableFuture<?>) getChunkAtAsync.invoke(world, chunkX, chunkZ);
+    }
+
     public Cuboid getChunkCuboid(Cuboid cuboid)
     {
         final Vector3Di min = cuboid.getMin();
@@ -56,6 +112,123 @@ public class ChunkLoaderSpigot implements IChunkLoader
         return requiredLoad ? ChunkLoadResult.REQUIRED_LOAD : ChunkLoadResult.PASS;
     }
 
+    @Override
+    public CompletableFuture<ChunkLoadResult> checkChunksAsync(
+        IWorld iWorld, Cuboid cuboid, ChunkLoadMode chunkLoadMode, ChunkTickets tickets)
+    {
+        if (chunkLoadMode == ChunkLoadMode.VERIFY_LOADED)
+            return CompletableFuture.completedFuture(checkChunks(iWorld, cuboid, chunkLoadMode));
+
+        final World world = Util.requireNonNull(SpigotAdapter.getBukkitWorld(iWorld), "Bukkit World");
+        final Cuboid chunkCuboid = getChunkCuboid(cuboid);
+
+        final List<CompletableFuture<?>> loads = new ArrayList<>();
+        boolean requiredLoad = false;
+        for (int x = chunkCuboid.getMin().x(); x <= chunkCuboid.getMax().x(); ++x)
+            for (int z = chunkCuboid.getMin().z(); z <= chunkCuboid.getMax().z(); ++z)
+            {
+                if (world.isChunkLoaded(x, z))
+                {
+                    // Chunks that are already loaded still need a ticket to make sure they stay loaded.
+                    final int chunkX = x;
+                    final int chunkZ = z;
+                    loads.add(CompletableFuture.runAsync(
+                        () -> addTicket(world, chunkX, chunkZ, tickets), executor::runOnMainThread));
+                    continue;
+                }
+                if (!world.isChunkGenerated(x, z))
+                    return CompletableFuture.completedFuture(ChunkLoadResult.FAIL);
+                loads.add(loadChunkAsync(world, x, z, tickets));
+                requiredLoad = true;
+            }
+
+        final ChunkLoadResult result = requiredLoad ? ChunkLoadResult.REQUIRED_LOAD : ChunkLoadResult.PASS;
+        return CompletableFuture
+            .allOf(loads.toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> result)
+            .exceptionally(ex -> Util.exceptionally(ex, ChunkLoadResult.FAIL));
+    }
+
+    /**
+     * Loads a chunk without blocking the calling thread and keeps it loaded until the tickets are released.
+     * <p>
+     * When the platform does not support loading chunks asynchronously, the chunk is loaded on the main thread.
+     *
+     * @param world
+     *     The world to load the chunk in.
+     * @param chunkX
+     *     The x-coordinate of the chunk in chunk-space.
+     * @param chunkZ
+     *     The z-coordinate of the chunk in chunk-space.
+     * @param tickets
+     *     The tickets to add the ticket for the chunk to.
+     * @return A future that is completed once the chunk has been loaded.
+     */
+    private CompletableFuture<?> loadChunkAsync(World world, int chunkX, int chunkZ, ChunkTickets tickets)
+    {
+        if (asyncChunkLoadFunction != null)
+        {
+            try
+            {
+                // The server may unload the chunk again before the caller gets to use it, so add a ticket once it has
+                // been loaded.
+                return asyncChunkLoadFunction
+                    .load(world, chunkX, chunkZ)
+                    .thenCompose(chunk -> CompletableFuture.runAsync(
+                        () -> addTicket(world, chunkX, chunkZ, tickets), executor::runOnMainThread));
+            }
+            catch (Exception e)
+            {
+                log.atSevere().withCause(e).log("Failed to load chunk [%d, %d] asynchronously!", chunkX, chunkZ);
+            }
+        }
+        // Adding the ticket loads the chunk if it is not loaded yet.
+        return CompletableFuture.runAsync(() -> addTicket(world, chunkX, chunkZ, tickets), executor::runOnMainThread);
+    }
+
+    /**
+     * Adds a ticket that keeps a chunk loaded until the tickets of the task are released.
+     * <p>
+     * This must be called on the main thread. When the chunk is not loaded, it is loaded on the current thread.
+     *
+     * @param world
+     *     The world the chunk is in.
+     * @param chunkX
+     *     The x-coordinate of the chunk in chunk-space.
+     * @param chunkZ
+     *     The z-coordinate of the chunk in chunk-space.
+     * @param tickets
+     *     The tickets of the task that needs the chunk.
+     */
+    private void addTicket(World world, int chunkX, int chunkZ, ChunkTickets tickets)
+    {
+        final ChunkKey key = new ChunkKey(world, chunkX, chunkZ);
+        if (ticketCounts.merge(key, 1, Integer::sum) == 1)
+            world.addPluginChunkTicket(chunkX, chunkZ, plugin);
+        tickets.add(() -> executor.runOnMainThread(() -> removeTicket(key)));
+    }
+
+    /**
+     * Removes a ticket added by {@link #addTicket(World, int, int, ChunkTickets)}.
+     * <p>
+     * This must be called on the main thread. The chunk can only be unloaded once all its tickets have been removed.
+     */
+    private void removeTicket(ChunkKey key)
+    {
+        final @Nullable Integer remaining =
+            ticketCounts.computeIfPresent(key, (ignored, count) -> count == 1 ? null : count - 1);
+        if (remaining == null)
+            key.world().removePluginChunkTicket(key.chunkX(), key.chunkZ(), plugin);
+    }
+
+    /**
+     * @return The number of chunks this chunk loader is keeping loaded.
+     */
+    int getTicketCount()
+    {
+        return ticketCounts.size();
+    }
+
     @Override
     public ChunkLoadResult checkChunk(IWorld iWorld, IVector3D position, ChunkLoadMode chunkLoadMode)
     {
@@ -90,4 +263,21 @@ public class ChunkLoaderSpigot implements IChunkLoader
     {
         ChunkLoadResult apply(World world, int chunkX, int chunkZ);
     }
+
+    /**
+     * Loads a chunk asynchronously.
+     */
+    @FunctionalInterface
+    interface IAsyncChunkLoadFunction
+    {
+        /**
+         * @return A future that is completed on the main thread once the chunk has been loaded.
+         */
+        CompletableFuture<?> load(World world, int chunkX, int chunkZ)
+            throws Exception;
+    }
+
+    private record ChunkKey(World world, int chunkX, int chunkZ)
+    {
+    }
 }
@@ -1,12 +1,16 @@
 package nl.pim16aap2.animatedarchitecture.spigot.core.listeners;
 
+import it.unimi.dsi.fastutil.longs.Long2BooleanLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2BooleanMap;
 import lombok.extern.flogger.Flogger;
+import nl.pim16aap2.animatedarchitecture.core.api.IExecutor;
+import nl.pim16aap2.animatedarchitecture.core.api.debugging.DebuggableRegistry;
+import nl.pim16aap2.animatedarchitecture.core.api.debugging.IDebuggable;
 import nl.pim16aap2.animatedarchitecture.core.api.restartable.RestartableHolder;
 import nl.pim16aap2.animatedarchitecture.core.managers.PowerBlockManager;
+import nl.pim16aap2.animatedarchitecture.core.structures.AbstractStructure;
 import nl.pim16aap2.animatedarchitecture.core.util.Util;
 import nl.pim16aap2.animatedarchitecture.spigot.core.config.ConfigSpigot;
-import nl.pim16aap2.animatedarchitecture.spigot.util.implementations.LocationSpigot;
-import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
@@ -16,30 +20,65 @@ import org.bukkit.plugin.java.JavaPlugin;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Objects;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represents a listener that keeps track redstone changes.
+ * <p>
+ * Redstone changes are not processed right away. Instead, all changes to power blocks that happen during a tick are
+ * collected and processed together on the next tick. When the same power block changes more than once during a tick,
+ * only the final state is used.
  *
  * @author Pim
  */
 @Singleton
 @Flogger
-public class RedstoneListener extends AbstractListener
+public class RedstoneListener extends AbstractListener implements IDebuggable
 {
     private final ConfigSpigot config;
     private final Set<Material> powerBlockTypes = new HashSet<>();
     private final PowerBlockManager powerBlockManager;
+    private final IExecutor executor;
+
+    /**
+     * The power blocks that changed during the current tick.
+     * <p>
+     * Key: The name of the world.
+     * <p>
+     * Value: The packed positions of the power blocks (see {@link Util#getPositionKey(int, int, int)}) mapped to
+     * whether they are powered.
+     * <p>
+     * This map is only accessed from the main thread.
+     */
+    private Map<String, Long2BooleanMap> pendingChanges = new HashMap<>();
+
+    /**
+     * Whether a task has been scheduled to process the {@link #pendingChanges}.
+     * <p>
+     * This is only accessed from the main thread.
+     */
+    private boolean flushScheduled = false;
+
+    private final AtomicLong receivedEvents = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong mergedChanges = new AtomicLong();
+    private final AtomicLong processedChanges = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
 
     @Inject RedstoneListener(
-        RestartableHolder holder, JavaPlugin plugin, ConfigSpigot config, PowerBlockManager powerBlockManager)
+        RestartableHolder holder, JavaPlugin plugin, ConfigSpigot config, PowerBlockManager powerBlockManager,
+        IExecutor executor, DebuggableRegistry debuggableRegistry)
     {
         super(holder, plugin, config::isRedstoneEnabled);
         this.config = config;
         this.powerBlockManager = powerBlockManager;
+        this.executor = executor;
+        debuggableRegistry.registerDebuggable(this);
     }
 
     @Override
@@ -55,52 +94,137 @@ public class RedstoneListener extends AbstractListener
     {
         super.shutDown();
         powerBlockTypes.clear();
+        pendingChanges.clear();
+        flushScheduled = false;
+    }
+
+    /**
+     * Processes all power block changes collected during the previous tick.
+     * <p>
+     * The structures of all changed power blocks in a world are retrieved in a single request.
+     */
+    private void flush()
+    {
+        flushScheduled = false;
+        if (pendingChanges.isEmpty())
+            return;
+
+        final Map<String, Long2BooleanMap> changes = pendingChanges;
+        pendingChanges = new HashMap<>();
+
+        for (final Map.Entry<String, Long2BooleanMap> entry : changes.entrySet())
+        {
+            final Long2BooleanMap states = entry.getValue();
+            batchCount.incrementAndGet();
+            processedChanges.addAndGet(states.size());
+
+            powerBlockManager
+                .structuresFromPowerBlockLocs(entry.getKey(), states.keySet())
+                .thenAccept(structures -> applyChanges(structures, states))
+                .exceptionally(Util::exceptionally);
+        }
     }
 
-    private void checkStructures(LocationSpigot loc, boolean isPowered)
+    private static void applyChanges(List<AbstractStructure> structures, Long2BooleanMap states)
     {
-        powerBlockManager
-            .structuresFromPowerBlockLoc(loc)
-            .thenAccept(structures -> structures.forEach(structure -> structure.onRedstoneChange(isPowered)))
-            .exceptionally(Util::exceptionally);
+        for (final AbstractStructure structure : structures)
+        {
+            final long positionKey = Util.getPositionKey(structure.getPowerBlock());
+            if (states.containsKey(positionKey))
+                structure.onRedstoneChange(states.get(positionKey));
+        }
     }
 
     /**
-     * Processes a redstone event. This means that it looks for any power blocks around the block that was changed.
+     * Queues the change of a power block to be processed on the next tick.
      *
-     * @param event
-     *     The event to process.
+     * @return True if the change was merged with an earlier change of the same power block during this tick.
      */
-    private void processRedstoneEvent(BlockRedstoneEvent event)
+    private boolean queueChange(String worldName, int x, int y, int z, boolean isPowered)
     {
-        final boolean isPowered = event.getNewCurrent() > 0;
-        try
-        {
-            final Block block = event.getBlock();
-            final Location location = block.getLocation();
-            final World world = Objects.requireNonNull(location.getWorld(), "World cannot be null!");
+        final Long2BooleanMap states =
+            pendingChanges.computeIfAbsent(worldName, ignored -> new Long2BooleanLinkedOpenHashMap());
+        final long positionKey = Util.getPositionKey(x, y, z);
+        final boolean merged = states.containsKey(positionKey);
+        states.put(positionKey, isPowered);
 
-            final int x = location.getBlockX();
-            final int y = location.getBlockY();
-            final int z = location.getBlockZ();
+        if (!flushScheduled)
+        {
+            flushScheduled = true;
+            executor.runSync(this::flush);
+        }
+        return merged;
+    }
 
-            if (powerBlockTypes.contains(world.getBlockAt(x, y, z - 1).getType())) // North
-                checkStructures(new LocationSpigot(world, x, y, z - 1.0), isPowered);
+    /**
+     * Checks if a block is a power block.
+     * <p>
+     * The power block index is checked first, so the world is only accessed for positions that actually contain a
+     * power block.
+     *
+     * @return True if the block at the given position is a power block.
+     */
+    private boolean isPowerBlock(World world, int x, int y, int z)
+    {
+        return powerBlockManager.isPowerBlockLocation(world.getName(), x, y, z) &&
+            powerBlockTypes.contains(world.getBlockAt(x, y, z).getType());
+    }
 
-            if (powerBlockTypes.contains(world.getBlockAt(x + 1, y, z).getType())) // East
-                checkStructures(new LocationSpigot(world, x + 1.0, y, z), isPowered);
+    /**
+     * Checks if a block is a power block and queues its change if it is.
+     *
+     * @return The number of changes that were merged with an earlier change of the same power block.
+     */
+    private int checkPowerBlock(World world, int x, int y, int z, boolean isPowered)
+    {
+        if (!isPowerBlock(world, x, y, z))
+            return 0;
+        return queueChange(world.getName(), x, y, z, isPowered) ? 1 : 0;
+    }
 
-            if (powerBlockTypes.contains(world.getBlockAt(x, y, z + 1).getType())) // South
-                checkStructures(new LocationSpigot(world, x, y, z + 1.0), isPowered);
+    /**
+     * Checks if any of the blocks directly adjacent to a position may be a power block.
+     *
+     * @return True if at least 1 of the adjacent blocks may be a power block.
+     */
+    private boolean hasAdjacentPowerBlock(String worldName, int x, int y, int z)
+    {
+        return powerBlockManager.isPowerBlockLocation(worldName, x, y, z - 1) ||
+            powerBlockManager.isPowerBlockLocation(worldName, x + 1, y, z) ||
+            powerBlockManager.isPowerBlockLocation(worldName, x, y, z + 1) ||
+            powerBlockManager.isPowerBlockLocation(worldName, x - 1, y, z) ||
+            powerBlockManager.isPowerBlockLocation(worldName, x, y + 1, z) ||
+            powerBlockManager.isPowerBlockLocation(worldName, x, y - 1, z);
+    }
 
-            if (powerBlockTypes.contains(world.getBlockAt(x - 1, y, z).getType())) // West
-                checkStructures(new LocationSpigot(world, x - 1.0, y, z), isPowered);
+    /**
+     * Processes a redstone event. This means that it looks for any power blocks around the block that was changed and
+     * queues their changes.
+     *
+     * @param block
+     *     The block whose redstone current changed.
+     * @param isPowered
+     *     Whether the block is now powered.
+     */
+    private void processRedstoneEvent(Block block, boolean isPowered)
+    {
+        try
+        {
+            final World world = block.getWorld();
+            final int x = block.getX();
+            final int y = block.getY();
+            final int z = block.getZ();
 
-            if (powerBlockTypes.contains(world.getBlockAt(x, y + 1, z).getType())) // Above
-                checkStructures(new LocationSpigot(world, x, y + 1.0, z), isPowered);
+            int merged = 0;
+            merged += checkPowerBlock(world, x, y, z - 1, isPowered); // North
+            merged += checkPowerBlock(world, x + 1, y, z, isPowered); // East
+            merged += checkPowerBlock(world, x, y, z + 1, isPowered); // South
+            merged += checkPowerBlock(world, x - 1, y, z, isPowered); // West
+            merged += checkPowerBlock(world, x, y + 1, z, isPowered); // Above
+            merged += checkPowerBlock(world, x, y - 1, z, isPowered); // Under
 
-            if (powerBlockTypes.contains(world.getBlockAt(x, y - 1, z).getType())) // Under
-                checkStructures(new LocationSpigot(world, x, y - 1.0, z), isPowered);
+            if (merged > 0)
+                mergedChanges.addAndGet(merged);
         }
         catch (Exception e)
         {
@@ -118,13 +242,40 @@ public class RedstoneListener extends AbstractListener
     @EventHandler
     public void onBlockRedstoneChange(BlockRedstoneEvent event)
     {
+        receivedEvents.incrementAndGet();
+
         // Only boolean status is allowed, so a varying degree of "on" has no effect.
         if (event.getOldCurrent() != 0 && event.getNewCurrent() != 0)
+        {
+            droppedEvents.incrementAndGet();
             return;
+        }
 
-        if (!powerBlockManager.isAnimatedArchitectureWorld(event.getBlock().getWorld().getName()))
+        final Block block = event.getBlock();
+        final String worldName = block.getWorld().getName();
+        if (!powerBlockManager.isAnimatedArchitectureWorld(worldName))
+        {
+            droppedEvents.incrementAndGet();
             return;
+        }
 
-        CompletableFuture.runAsync(() -> processRedstoneEvent(event)).exceptionally(Util::exceptionally);
+        // Most redstone changes do not happen next to a power block, so skip those right away.
+        if (!hasAdjacentPowerBlock(worldName, block.getX(), block.getY(), block.getZ()))
+        {
+            droppedEvents.incrementAndGet();
+            return;
+        }
+
+        processRedstoneEvent(block, event.getNewCurrent() > 0);
+    }
+
+    @Override
+    public String getDebugInformation()
+    {
+        return "Redstone events received: " + receivedEvents.get() +
+            ", dropped: " + droppedEvents.get() +
+            ", merged changes: " + mergedChanges.get() +
+            ", processed changes: " + processedChanges.get() +
+            ", batches: " + batchCount.get();
     }
 }
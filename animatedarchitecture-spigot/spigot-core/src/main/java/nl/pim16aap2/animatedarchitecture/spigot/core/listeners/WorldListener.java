@@ -1,8 +1,14 @@
 package nl.pim16aap2.animatedarchitecture.spigot.core.listeners;
 
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import nl.pim16aap2.animatedarchitecture.core.api.IExecutor;
 import nl.pim16aap2.animatedarchitecture.core.api.restartable.RestartableHolder;
 import nl.pim16aap2.animatedarchitecture.core.managers.PowerBlockManager;
+import nl.pim16aap2.animatedarchitecture.core.managers.StructurePreloader;
+import nl.pim16aap2.animatedarchitecture.core.util.Util;
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.World;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.world.WorldLoadEvent;
@@ -20,13 +26,24 @@ import javax.inject.Singleton;
 @Singleton
 public final class WorldListener extends AbstractListener
 {
+    /**
+     * The delay (in ticks) before preloading the structures in the loaded worlds on startup. This gives any structure
+     * types a chance to be registered first.
+     */
+    private static final long PRELOAD_DELAY = 1L;
+
     private final PowerBlockManager powerBlockManager;
+    private final StructurePreloader structurePreloader;
+    private final IExecutor executor;
 
     @Inject WorldListener(
-        JavaPlugin javaPlugin, PowerBlockManager powerBlockManager, RestartableHolder restartableHolder)
+        JavaPlugin javaPlugin, PowerBlockManager powerBlockManager, StructurePreloader structurePreloader,
+        IExecutor executor, RestartableHolder restartableHolder)
     {
         super(restartableHolder, javaPlugin);
         this.powerBlockManager = powerBlockManager;
+        this.structurePreloader = structurePreloader;
+        this.executor = executor;
     }
 
     @Override
@@ -35,12 +52,29 @@ public final class WorldListener extends AbstractListener
         super.initialize();
         for (final World world : Bukkit.getWorlds())
             powerBlockManager.loadWorld(world.getName());
+        executor.runSyncLater(() -> Bukkit.getWorlds().forEach(this::preloadStructures), PRELOAD_DELAY);
+    }
+
+    /**
+     * Preloads the structures in all chunks of a world that are currently loaded.
+     *
+     * @param world
+     *     The world whose structures to preload.
+     */
+    private void preloadStructures(World world)
+    {
+        final Chunk[] chunks = world.getLoadedChunks();
+        final LongList chunkIds = new LongArrayList(chunks.length);
+        for (final Chunk chunk : chunks)
+            chunkIds.add(Util.getChunkId(chunk.getX(), chunk.getZ()));
+        structurePreloader.preloadChunks(world.getName(), chunkIds);
     }
 
     @EventHandler(ignoreCancelled = true)
     public void onWorldLoad(WorldLoadEvent event)
     {
         powerBlockManager.loadWorld(event.getWorld().getName());
+        preloadStructures(event.getWorld());
     }
 
     @EventHandler(ignoreCancelled = true)
@@ -97,6 +97,7 @@ public final class HeadManager extends Restartable
     public void initialize()
     {
         headMap = TimedCache.<UUID, Optional<ItemStack>>builder()
+                            .name("HeadManager")
                             .duration(Duration.ofMinutes(config.headCacheTimeout()))
                             .cleanup(Duration.ofMinutes(Math.max(1, config.headCacheTimeout())))
                             .softReference(true).build();
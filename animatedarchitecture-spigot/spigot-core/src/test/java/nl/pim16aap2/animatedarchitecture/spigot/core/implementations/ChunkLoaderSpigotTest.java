@@ -0,0 +1,165 @@
+package nl.pim16aap2.animatedarchitecture.spigot.core.implementations;
+
+import nl.pim16aap2.animatedarchitecture.core.api.ChunkTickets;
+import nl.pim16aap2.animatedarchitecture.core.api.IChunkLoader;
+import nl.pim16aap2.animatedarchitecture.core.api.IExecutor;
+import nl.pim16aap2.animatedarchitecture.core.util.Cuboid;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Di;
+import nl.pim16aap2.animatedarchitecture.spigot.util.implementations.WorldSpigot;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CompletableFuture;
+
+class ChunkLoaderSpigotTest
+{
+    /**
+     * A cuboid that fits inside chunk [0, 0].
+     */
+    private static final Cuboid CUBOID = new Cuboid(new Vector3Di(1, 60, 1), new Vector3Di(4, 64, 4));
+
+    private static final IChunkLoader.ChunkLoadMode ATTEMPT_LOAD = IChunkLoader.ChunkLoadMode.ATTEMPT_LOAD;
+
+    private IExecutor executor;
+    private JavaPlugin plugin;
+    private World world;
+    private WorldSpigot worldSpigot;
+
+    @BeforeEach
+    void init()
+    {
+        executor = Mockito.mock(IExecutor.class, Answers.CALLS_REAL_METHODS);
+        Mockito.doReturn(true).when(executor).isMainThread(Mockito.anyLong());
+
+        plugin = Mockito.mock(JavaPlugin.class);
+
+        world = Mockito.mock(World.class);
+        Mockito.when(world.getName()).thenReturn("world");
+        Mockito.when(world.isChunkGenerated(0, 0)).thenReturn(true);
+        worldSpigot = new WorldSpigot(world);
+    }
+
+    @Test
+    void testUngeneratedChunk()
+    {
+        final ChunkLoaderSpigot chunkLoader = new ChunkLoaderSpigot(executor, plugin, null);
+        final ChunkTickets tickets = new ChunkTickets();
+        Mockito.when(world.isChunkGenerated(0, 0)).thenReturn(false);
+
+        Assertions.assertEquals(
+            IChunkLoader.ChunkLoadResult.FAIL,
+            chunkLoader.checkChunksAsync(worldSpigot, CUBOID, ATTEMPT_LOAD, tickets).join());
+
+        Mockito.verify(world, Mockito.never()).addPluginChunkTicket(Mockito.anyInt(), Mockito.anyInt(), Mockito.any());
+        Assertions.assertEquals(0, tickets.size());
+    }
+
+    @Test
+    void testLoadWithoutAsyncLoader()
+    {
+        final ChunkLoaderSpigot chunkLoader = new ChunkLoaderSpigot(executor, plugin, null);
+        final ChunkTickets tickets = new ChunkTickets();
+
+        Assertions.assertEquals(
+            IChunkLoader.ChunkLoadResult.REQUIRED_LOAD,
+            chunkLoader.checkChunksAsync(worldSpigot, CUBOID, ATTEMPT_LOAD, tickets).join());
+
+        // Without an async loader, the ticket is used to load the chunk on the main thread.
+        Mockito.verify(world).addPluginChunkTicket(0, 0, plugin);
+        Assertions.assertEquals(1, tickets.size());
+
+        tickets.release();
+        Mockito.verify(world).removePluginChunkTicket(0, 0, plugin);
+        Assertions.assertEquals(0, chunkLoader.getTicketCount());
+    }
+
+    @Test
+    void testLoadWithAsyncLoader()
+        throws Exception
+    {
+        final CompletableFuture<Chunk> load = new CompletableFuture<>();
+        final ChunkLoaderSpigot.IAsyncChunkLoadFunction asyncChunkLoadFunction =
+            Mockito.mock(ChunkLoaderSpigot.IAsyncChunkLoadFunction.class);
+        Mockito.doReturn(load).when(asyncChunkLoadFunction).load(world, 0, 0);
+
+        final ChunkLoaderSpigot chunkLoader = new ChunkLoaderSpigot(executor, plugin, asyncChunkLoadFunction);
+        final ChunkTickets tickets = new ChunkTickets();
+
+        final CompletableFuture<IChunkLoader.ChunkLoadResult> result =
+            chunkLoader.checkChunksAsync(worldSpigot, CUBOID, ATTEMPT_LOAD, tickets);
+
+        Assertions.assertFalse(result.isDone());
+        Mockito.verify(world, Mockito.never()).addPluginChunkTicket(Mockito.anyInt(), Mockito.anyInt(), Mockito.any());
+
+        load.complete(Mockito.mock(Chunk.class));
+        Assertions.assertEquals(IChunkLoader.ChunkLoadResult.REQUIRED_LOAD, result.join());
+        Mockito.verify(world).addPluginChunkTicket(0, 0, plugin);
+        Assertions.assertEquals(1, tickets.size());
+    }
+
+    @Test
+    void testAsyncLoaderFailure()
+        throws Exception
+    {
+        final ChunkLoaderSpigot.IAsyncChunkLoadFunction asyncChunkLoadFunction =
+            Mockito.mock(ChunkLoaderSpigot.IAsyncChunkLoadFunction.class);
+        Mockito.doThrow(new IllegalStateException()).when(asyncChunkLoadFunction).load(world, 0, 0);
+
+        final ChunkLoaderSpigot chunkLoader = new ChunkLoaderSpigot(executor, plugin, asyncChunkLoadFunction);
+        final ChunkTickets tickets = new ChunkTickets();
+
+        // When the async loader fails, the chunk should be loaded on the main thread instead.
+        Assertions.assertEquals(
+            IChunkLoader.ChunkLoadResult.REQUIRED_LOAD,
+            chunkLoader.checkChunksAsync(worldSpigot, CUBOID, ATTEMPT_LOAD, tickets).join());
+        Mockito.verify(world).addPluginChunkTicket(0, 0, plugin);
+    }
+
+    @Test
+    void testSharedTickets()
+    {
+        final ChunkLoaderSpigot chunkLoader = new ChunkLoaderSpigot(executor, plugin, null);
+        final ChunkTickets ticketsA = new ChunkTickets();
+        final ChunkTickets ticketsB = new ChunkTickets();
+        Mockito.when(world.isChunkLoaded(0, 0)).thenReturn(true);
+
+        Assertions.assertEquals(
+            IChunkLoader.ChunkLoadResult.PASS,
+            chunkLoader.checkChunksAsync(worldSpigot, CUBOID, ATTEMPT_LOAD, ticketsA).join());
+        Assertions.assertEquals(
+            IChunkLoader.ChunkLoadResult.PASS,
+            chunkLoader.checkChunksAsync(worldSpigot, CUBOID, ATTEMPT_LOAD, ticketsB).join());
+
+        // The plugin holds only a single ticket per chunk, so it should not be added twice.
+        Mockito.verify(world, Mockito.times(1)).addPluginChunkTicket(0, 0, plugin);
+        Assertions.assertEquals(1, chunkLoader.getTicketCount());
+
+        // The chunk is still needed by the other task.
+        ticketsA.release();
+        Mockito.verify(world, Mockito.never()).removePluginChunkTicket(0, 0, plugin);
+
+        ticketsB.release();
+        Mockito.verify(world).removePluginChunkTicket(0, 0, plugin);
+        Assertions.assertEquals(0, chunkLoader.getTicketCount());
+    }
+
+    @Test
+    void testReleasedTickets()
+    {
+        final ChunkLoaderSpigot chunkLoader = new ChunkLoaderSpigot(executor, plugin, null);
+        final ChunkTickets tickets = new ChunkTickets();
+        tickets.release();
+
+        // Tickets that are added after the task has already released its tickets are removed right away.
+        chunkLoader.checkChunksAsync(worldSpigot, CUBOID, ATTEMPT_LOAD, tickets).join();
+        Mockito.verify(world).addPluginChunkTicket(0, 0, plugin);
+        Mockito.verify(world).removePluginChunkTicket(0, 0, plugin);
+        Assertions.assertEquals(0, chunkLoader.getTicketCount());
+    }
+}
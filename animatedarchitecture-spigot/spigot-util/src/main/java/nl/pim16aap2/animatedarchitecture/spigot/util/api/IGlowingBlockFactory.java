@@ -6,6 +6,7 @@ import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.scoreboard.Team;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 
@@ -24,4 +25,17 @@ public interface IGlowingBlockFactory
      */
     Optional<IGlowingBlock> createGlowingBlock(
         Player player, World world, Color pColor, double x, double y, double z, Map<Color, Team> teams);
+
+    /**
+     * Kills multiple glowing blocks at once.
+     * <p>
+     * Implementations may combine the glowing blocks of each player, so they can be removed with a single packet.
+     *
+     * @param glowingBlocks
+     *     The glowing blocks to kill.
+     */
+    default void killGlowingBlocks(Collection<? extends IGlowingBlock> glowingBlocks)
+    {
+        glowingBlocks.forEach(IGlowingBlock::kill);
+    }
 }
@@ -1,33 +1,94 @@
 package nl.pim16aap2.animatedarchitecture.spigot.util.implementations;
 
+import lombok.extern.flogger.Flogger;
+import nl.pim16aap2.animatedarchitecture.core.api.IConfig;
 import nl.pim16aap2.animatedarchitecture.core.api.IExecutor;
+import nl.pim16aap2.animatedarchitecture.core.api.restartable.IRestartable;
+import nl.pim16aap2.animatedarchitecture.core.api.restartable.RestartableHolder;
+import nl.pim16aap2.animatedarchitecture.core.util.LazyValue;
+import nl.pim16aap2.animatedarchitecture.core.util.ThreadingMode;
 import nl.pim16aap2.animatedarchitecture.core.util.Util;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.Nullable;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import java.util.Optional;
 import java.util.TimerTask;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 /**
  * Implementation of {@link IExecutor} for the Spigot platform.
+ * <p>
+ * When {@link IConfig#threadingMode()} is set to {@link ThreadingMode#VIRTUAL}, asynchronous tasks that should be
+ * executed right away run on virtual threads instead of on the threads of the Bukkit scheduler. The virtual thread
+ * executor is shut down when this executor is shut down, and it is created again when it is needed afterwards.
  *
  * @author Pim
  */
 @Singleton
-public final class ExecutorSpigot implements IExecutor
+@Flogger
+public final class ExecutorSpigot implements IExecutor, IRestartable
 {
     private final JavaPlugin plugin;
     private final long mainThreadId;
+    private final IConfig config;
+
+    /**
+     * The executor used for asynchronous tasks in {@link ThreadingMode#VIRTUAL} mode.
+     * <p>
+     * This is only created once it is needed. If virtual threads are not available, it is never created.
+     */
+    private final LazyValue<Optional<ExecutorService>> virtualExecutor =
+        new LazyValue<>(() -> Optional.ofNullable(ThreadingMode.newVirtualThreadPerTaskExecutor()));
 
     @Inject
-    public ExecutorSpigot(JavaPlugin plugin, @Named("mainThreadId") long mainThreadId)
+    public ExecutorSpigot(
+        RestartableHolder holder, JavaPlugin plugin, @Named("mainThreadId") long mainThreadId, IConfig config)
     {
         this.plugin = plugin;
         this.mainThreadId = mainThreadId;
+        this.config = config;
+        holder.registerRestartable(this);
+    }
+
+    @Override
+    public void shutDown()
+    {
+        final @Nullable Optional<ExecutorService> executor = virtualExecutor.invalidate();
+        if (executor == null || executor.isEmpty())
+            return;
+
+        final ExecutorService executor0 = executor.get();
+        executor0.shutdown();
+        try
+        {
+            if (!executor0.awaitTermination(5, TimeUnit.SECONDS))
+                log.atSevere().log("Timed out waiting for virtual thread executor to terminate!");
+        }
+        catch (InterruptedException e)
+        {
+            log.atSevere().withCause(e).log("Interrupted while waiting for virtual thread executor to terminate!");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the executor to use for asynchronous tasks that should be executed right away.
+     *
+     * @return The virtual thread executor if {@link ThreadingMode#VIRTUAL} is enabled and available, otherwise an
+     * empty optional to indicate the Bukkit scheduler should be used.
+     */
+    private Optional<ExecutorService> getAsyncExecutor()
+    {
+        if (config.threadingMode() != ThreadingMode.VIRTUAL)
+            return Optional.empty();
+        return virtualExecutor.get();
     }
 
     @Override
@@ -47,6 +108,10 @@ public final class ExecutorSpigot implements IExecutor
     @Override
     public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier)
     {
+        final Optional<ExecutorService> asyncExecutor = getAsyncExecutor();
+        if (asyncExecutor.isPresent())
+            return CompletableFuture.supplyAsync(supplier, asyncExecutor.get());
+
         final CompletableFuture<T> result = new CompletableFuture<>();
         //noinspection deprecation
         Bukkit.getScheduler().scheduleAsyncDelayedTask(plugin, () -> result.complete(supplier.get()));
@@ -56,6 +121,14 @@ public final class ExecutorSpigot implements IExecutor
     @Override
     public int runAsync(Runnable runnable)
     {
+        final Optional<ExecutorService> asyncExecutor = getAsyncExecutor();
+        if (asyncExecutor.isPresent())
+        {
+            asyncExecutor.get().execute(runnable);
+            // The task is not managed by the Bukkit scheduler, so it does not have an ID.
+            return -1;
+        }
+
         //noinspection deprecation
         return Bukkit.getScheduler().scheduleAsyncDelayedTask(plugin, runnable, 0);
     }
@@ -11,6 +11,7 @@ import nl.pim16aap2.animatedarchitecture.core.api.IWorld;
 import nl.pim16aap2.animatedarchitecture.core.api.restartable.IRestartable;
 import nl.pim16aap2.animatedarchitecture.core.api.restartable.RestartableHolder;
 import nl.pim16aap2.animatedarchitecture.core.util.IGlowingBlock;
+import nl.pim16aap2.animatedarchitecture.core.util.TimingWheel;
 import nl.pim16aap2.animatedarchitecture.core.util.Util;
 import nl.pim16aap2.animatedarchitecture.spigot.util.SpigotAdapter;
 import nl.pim16aap2.animatedarchitecture.spigot.util.SpigotUtil;
@@ -19,20 +20,30 @@ import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scoreboard.Scoreboard;
 import org.bukkit.scoreboard.ScoreboardManager;
 import org.bukkit.scoreboard.Team;
 import org.jetbrains.annotations.Nullable;
 
+import javax.annotation.concurrent.GuardedBy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.time.Duration;
 import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-
+import java.util.TimerTask;
+
+/**
+ * Spigot implementation of {@link GlowingBlockSpawner}.
+ * <p>
+ * The glowing blocks are removed again by a single repeating task that advances a {@link TimingWheel} every tick. All
+ * glowing blocks that expire in the same tick are killed together, so large groups of glowing blocks (e.g. previews)
+ * can be removed in bulk. The task only runs while there are glowing blocks that still have to expire.
+ *
+ * @author Pim
+ */
 @Singleton
 @Flogger
 public class GlowingBlockSpawnerSpigot extends GlowingBlockSpawner implements IRestartable
@@ -40,7 +51,31 @@ public class GlowingBlockSpawnerSpigot extends GlowingBlockSpawner implements IR
     @Getter
     private final Map<Color, Team> teams = new EnumMap<>(Color.class);
 
-    private final Map<IGlowingBlock, BukkitRunnable> spawnedBlocks = new ConcurrentHashMap<>(128);
+    /**
+     * The number of buckets in the {@link #expiryWheel}. Glowing blocks are usually short-lived, so almost all of them
+     * expire within a single rotation of the wheel.
+     */
+    private static final int EXPIRY_WHEEL_SIZE = 256;
+
+    /**
+     * Keeps track of when the spawned glowing blocks should be killed.
+     */
+    @GuardedBy("this")
+    private final TimingWheel<IGlowingBlock> expiryWheel = new TimingWheel<>(EXPIRY_WHEEL_SIZE);
+
+    /**
+     * The task that advances the {@link #expiryWheel}.
+     * <p>
+     * This is null when there are no glowing blocks that have to expire.
+     */
+    @GuardedBy("this")
+    private @Nullable TimerTask expiryTask = null;
+
+    /**
+     * The ID of the {@link #expiryTask}.
+     */
+    @GuardedBy("this")
+    private int expiryTaskId = -1;
 
     private final IGlowingBlockFactory glowingBlockFactory;
 
@@ -103,19 +138,61 @@ public class GlowingBlockSpawnerSpigot extends GlowingBlockSpawner implements IR
         return blockOpt;
     }
 
-    private void onBlockSpawn(IGlowingBlock block, long ticks)
+    private synchronized void onBlockSpawn(IGlowingBlock block, long ticks)
     {
-        final BukkitRunnable killTask = new BukkitRunnable()
+        expiryWheel.schedule(block, ticks);
+        ensureExpiryTaskRunning();
+    }
+
+    /**
+     * Starts the repeating task that advances the {@link #expiryWheel} if it isn't running already.
+     */
+    @GuardedBy("this")
+    private void ensureExpiryTaskRunning()
+    {
+        if (expiryTask != null)
+            return;
+
+        final TimerTask task = new TimerTask()
         {
             @Override
             public void run()
             {
-                block.kill();
-                spawnedBlocks.remove(block);
+                expireBlocks();
             }
         };
-        spawnedBlocks.put(block, killTask);
-        executor.runAsyncLater(killTask, ticks);
+        expiryTask = task;
+        expiryTaskId = executor.runAsyncRepeated(task, 1, 1);
+    }
+
+    @GuardedBy("this")
+    private void cancelExpiryTask()
+    {
+        final @Nullable TimerTask task = expiryTask;
+        if (task == null)
+            return;
+        executor.cancel(task, expiryTaskId);
+        expiryTask = null;
+        expiryTaskId = -1;
+    }
+
+    /**
+     * Advances the {@link #expiryWheel} by a single tick and kills all glowing blocks that expired.
+     * <p>
+     * The task is stopped once there are no more glowing blocks that have to expire.
+     */
+    private void expireBlocks()
+    {
+        final List<IGlowingBlock> expired;
+        synchronized (this)
+        {
+            expired = expiryWheel.advance();
+            if (expiryWheel.isEmpty())
+                cancelExpiryTask();
+        }
+
+        if (!expired.isEmpty())
+            glowingBlockFactory.killGlowingBlocks(expired);
     }
 
     /**
@@ -166,13 +243,10 @@ public class GlowingBlockSpawnerSpigot extends GlowingBlockSpawner implements IR
         scoreboard = null;
     }
 
+    @GuardedBy("this")
     private void killAllSpawnedBlocks()
     {
-        for (final var entry : spawnedBlocks.entrySet())
-        {
-            entry.getValue().cancel();
-            entry.getKey().kill();
-        }
-        spawnedBlocks.clear();
+        cancelExpiryTask();
+        glowingBlockFactory.killGlowingBlocks(expiryWheel.clear());
     }
 }
@@ -3,8 +3,11 @@ package nl.pim16aap2.animatedarchitecture.spigot.util.implementations;
 import nl.pim16aap2.animatedarchitecture.core.api.IWorld;
 import nl.pim16aap2.animatedarchitecture.core.util.Util;
 import nl.pim16aap2.animatedarchitecture.core.util.WorldTime;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.IVector3D;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.World;
+import org.bukkit.entity.Player;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -50,4 +53,27 @@ public record WorldSpigot(String worldName, @Nullable World world) implements IW
     {
         return new WorldTime(world == null ? 0 : world.getTime());
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method must be called on the main thread.
+     */
+    @Override
+    public double getNearestPlayerDistance(IVector3D position)
+    {
+        if (world == null)
+            return Double.POSITIVE_INFINITY;
+
+        double minDistanceSquared = Double.POSITIVE_INFINITY;
+        for (final Player player : world.getPlayers())
+        {
+            final Location location = player.getLocation();
+            final double dx = location.getX() - position.xD();
+            final double dy = location.getY() - position.yD();
+            final double dz = location.getZ() - position.zD();
+            minDistanceSquared = Math.min(minDistanceSquared, dx * dx + dy * dy + dz * dz);
+        }
+        return Math.sqrt(minDistanceSquared);
+    }
 }
@@ -6,6 +6,7 @@ import nl.pim16aap2.animatedarchitecture.core.api.IBlockAnalyzer;
 import nl.pim16aap2.animatedarchitecture.core.api.IExecutor;
 import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlockFactory;
 import nl.pim16aap2.animatedarchitecture.core.managers.AnimatedBlockHookManager;
+import nl.pim16aap2.animatedarchitecture.core.managers.AnimationHookManager;
 import nl.pim16aap2.animatedarchitecture.spigot.util.api.IAnimatedArchitectureSpigotSubPlatform;
 import nl.pim16aap2.animatedarchitecture.spigot.util.api.IGlowingBlockFactory;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -28,12 +29,16 @@ public final class AnimatedArchitectureSpigotSubPlatform implements IAnimatedArc
     private IGlowingBlockFactory glowingBlockFactory;
 
     private final AnimatedBlockHookManager animatedBlockHookManager;
+    private final AnimationHookManager animationHookManager;
     private final IExecutor executor;
 
     @Inject
-    public AnimatedArchitectureSpigotSubPlatform(AnimatedBlockHookManager animatedBlockHookManager, IExecutor executor)
+    public AnimatedArchitectureSpigotSubPlatform(
+        AnimatedBlockHookManager animatedBlockHookManager, AnimationHookManager animationHookManager,
+        IExecutor executor)
     {
         this.animatedBlockHookManager = animatedBlockHookManager;
+        this.animationHookManager = animationHookManager;
         this.executor = executor;
     }
 
@@ -47,7 +52,9 @@ public final class AnimatedArchitectureSpigotSubPlatform implements IAnimatedArc
     @Initializer
     public void init(JavaPlugin plugin)
     {
-        animatedBlockFactory = new AnimatedBlockFactory(animatedBlockHookManager, executor);
+        final AnimationPacketDispatcher packetDispatcher = new AnimationPacketDispatcher();
+        animationHookManager.registerFactory(packetDispatcher);
+        animatedBlockFactory = new AnimatedBlockFactory(animatedBlockHookManager, executor, packetDispatcher);
         blockAnalyzer = new BlockAnalyzer();
         glowingBlockFactory = new GlowingBlock.Factory();
     }
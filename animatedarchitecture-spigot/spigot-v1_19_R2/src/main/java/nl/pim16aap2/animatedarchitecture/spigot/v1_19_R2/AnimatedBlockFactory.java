@@ -17,6 +17,7 @@ import org.bukkit.World;
 import org.bukkit.craftbukkit.v1_19_R2.util.CraftChatMessage;
 
 import javax.inject.Singleton;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -30,11 +31,15 @@ public final class AnimatedBlockFactory implements IAnimatedBlockFactory
 {
     private final AnimatedBlockHookManager animatedBlockHookManager;
     private final IExecutor executor;
+    private final AnimationPacketDispatcher packetDispatcher;
 
-    AnimatedBlockFactory(AnimatedBlockHookManager animatedBlockHookManager, IExecutor executor)
+    AnimatedBlockFactory(
+        AnimatedBlockHookManager animatedBlockHookManager, IExecutor executor,
+        AnimationPacketDispatcher packetDispatcher)
     {
         this.animatedBlockHookManager = animatedBlockHookManager;
         this.executor = executor;
+        this.packetDispatcher = packetDispatcher;
     }
 
     @Override
@@ -54,11 +59,23 @@ public final class AnimatedBlockFactory implements IAnimatedBlockFactory
         final ILocation spawnLoc = loc.add(0, offset, 0);
 
         final var animatedBlock = new CustomEntityFallingBlock(
-            executor, loc.getWorld(), bukkitWorld, spawnLoc.getX(), spawnLoc.getY(), spawnLoc.getZ(), radius,
-            startAngle, movementMethod, onEdge, context, animatedBlockHookManager, finalPosition);
+            executor, packetDispatcher, loc.getWorld(), bukkitWorld, spawnLoc.getX(), spawnLoc.getY(), spawnLoc.getZ(),
+            radius, startAngle, movementMethod, onEdge, context, animatedBlockHookManager, finalPosition);
 
         animatedBlock.b(CraftChatMessage.fromStringOrNull(Constants.ANIMATED_ARCHITECTURE_ENTITY_NAME));
         animatedBlock.n(false);
         return Optional.of(animatedBlock);
     }
+
+    @Override
+    public void putBlocks(List<? extends IAnimatedBlock> animatedBlocks)
+    {
+        BulkBlockPlacer.putBlocks(animatedBlocks);
+    }
+
+    @Override
+    public void deleteOriginalBlocks(List<? extends IAnimatedBlock> animatedBlocks)
+    {
+        BulkBlockPlacer.deleteOriginalBlocks(animatedBlocks);
+    }
 }
@@ -0,0 +1,237 @@
+package nl.pim16aap2.animatedarchitecture.spigot.v1_19_R2;
+
+import io.netty.channel.Channel;
+import lombok.extern.flogger.Flogger;
+import net.minecraft.network.NetworkManager;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.server.level.PlayerChunkMap;
+import net.minecraft.server.network.PlayerConnection;
+import net.minecraft.server.network.ServerPlayerConnection;
+import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlock;
+import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimationHook;
+import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimationHookFactory;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.Animation;
+import nl.pim16aap2.util.reflection.ReflectionBuilder;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.GuardedBy;
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the movement packets of animated blocks and sends them to the players that can see them in batches.
+ * <p>
+ * All packets created during a single step of an animation are queued. Once the step has been completed, the packets
+ * are grouped by the players that can see the animated blocks, and every player receives all of their packets at once.
+ * This means that the connection of each player is only flushed once per animation step, instead of once per animated
+ * block.
+ * <p>
+ * Packets for animated blocks whose animation is not registered with this dispatcher are sent right away.
+ *
+ * @author Pim
+ */
+@Flogger
+final class AnimationPacketDispatcher implements IAnimationHookFactory<IAnimatedBlock>
+{
+    /**
+     * Getter for the players that can see an entity: (EntityTracker) -> Set&lt;ServerPlayerConnection&gt;.
+     */
+    private static final @Nullable MethodHandle GETTER_SEEN_BY = MethodHandleUtil.unreflectGetter(
+        ReflectionBuilder.findField().inClass(PlayerChunkMap.EntityTracker.class).ofType(Set.class)
+                         .setAccessible().getNullable());
+
+    /**
+     * Getter for the network manager of a player connection: (PlayerConnection) -> NetworkManager.
+     */
+    private static final @Nullable MethodHandle GETTER_NETWORK_MANAGER = MethodHandleUtil.unreflectGetter(
+        ReflectionBuilder.findField().inClass(PlayerConnection.class).ofType(NetworkManager.class)
+                         .setAccessible().getNullable());
+
+    /**
+     * Getter for the channel of a network manager: (NetworkManager) -> Channel.
+     */
+    private static final @Nullable MethodHandle GETTER_CHANNEL = MethodHandleUtil.unreflectGetter(
+        ReflectionBuilder.findField().inClass(NetworkManager.class).ofType(Channel.class)
+                         .setAccessible().getNullable());
+
+    private final Map<Animation<?>, PacketBatch> batches = new ConcurrentHashMap<>();
+
+    @Override
+    public IAnimationHook newInstance(Animation<IAnimatedBlock> animation)
+    {
+        final PacketBatch batch = new PacketBatch(animation);
+        batches.put(animation, batch);
+        return batch;
+    }
+
+    /**
+     * Sends a packet to all players that can see an entity.
+     * <p>
+     * If the animation is registered with this dispatcher, the packet is queued until the current step of the
+     * animation has been completed. Otherwise, the packet is sent right away.
+     *
+     * @param animation
+     *     The animation the entity is part of.
+     * @param tracker
+     *     The tracker of the entity.
+     * @param packet
+     *     The packet to send.
+     */
+    void send(Animation<?> animation, PlayerChunkMap.EntityTracker tracker, Packet<?> packet)
+    {
+        final @Nullable PacketBatch batch = batches.get(animation);
+        if (batch == null)
+            tracker.a(packet);
+        else
+            batch.add(tracker, packet);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static @Nullable Set<ServerPlayerConnection> getViewers(PlayerChunkMap.EntityTracker tracker)
+    {
+        if (GETTER_SEEN_BY == null)
+            return null;
+        try
+        {
+            return (Set<ServerPlayerConnection>) GETTER_SEEN_BY.invokeExact(tracker);
+        }
+        catch (Throwable e)
+        {
+            log.atSevere().atMostEvery(10, TimeUnit.SECONDS).withCause(e).log("Failed to get entity viewers!");
+            return null;
+        }
+    }
+
+    private static @Nullable Channel getChannel(ServerPlayerConnection connection)
+    {
+        if (GETTER_NETWORK_MANAGER == null || GETTER_CHANNEL == null ||
+            !(connection instanceof PlayerConnection playerConnection))
+            return null;
+        try
+        {
+            final NetworkManager networkManager = (NetworkManager) GETTER_NETWORK_MANAGER.invokeExact(playerConnection);
+            return (Channel) GETTER_CHANNEL.invokeExact(networkManager);
+        }
+        catch (Throwable e)
+        {
+            log.atSevere().atMostEvery(10, TimeUnit.SECONDS).withCause(e).log("Failed to get player channel!");
+            return null;
+        }
+    }
+
+    /**
+     * Sends a list of packets to a player and flushes the connection only once all packets have been written.
+     */
+    private static void sendAll(ServerPlayerConnection connection, List<Packet<?>> packets)
+    {
+        final @Nullable Channel channel = getChannel(connection);
+        if (channel == null)
+        {
+            packets.forEach(connection::a);
+            return;
+        }
+
+        if (!channel.isOpen())
+            return;
+
+        channel.eventLoop().execute(
+            () ->
+            {
+                for (final Packet<?> packet : packets)
+                    channel.write(packet, channel.voidPromise());
+                channel.flush();
+            });
+    }
+
+    private record QueuedPacket(PlayerChunkMap.EntityTracker tracker, Packet<?> packet)
+    {
+    }
+
+    /**
+     * The packets queued for a single animation.
+     */
+    private final class PacketBatch implements IAnimationHook
+    {
+        private final Animation<?> animation;
+
+        @GuardedBy("this")
+        private List<QueuedPacket> queued = new ArrayList<>();
+
+        private PacketBatch(Animation<?> animation)
+        {
+            this.animation = animation;
+        }
+
+        private synchronized void add(PlayerChunkMap.EntityTracker tracker, Packet<?> packet)
+        {
+            queued.add(new QueuedPacket(tracker, packet));
+        }
+
+        private synchronized List<QueuedPacket> drain()
+        {
+            final List<QueuedPacket> ret = queued;
+            queued = new ArrayList<>(ret.size());
+            return ret;
+        }
+
+        /**
+         * Sends all queued packets grouped by the players that should receive them.
+         */
+        private void flush()
+        {
+            final List<QueuedPacket> packets = drain();
+            if (packets.isEmpty())
+                return;
+
+            final Map<ServerPlayerConnection, List<Packet<?>>> perPlayer = new IdentityHashMap<>();
+            for (final QueuedPacket packet : packets)
+            {
+                final @Nullable Set<ServerPlayerConnection> viewers = getViewers(packet.tracker());
+                if (viewers == null)
+                {
+                    packet.tracker().a(packet.packet());
+                    continue;
+                }
+                for (final ServerPlayerConnection viewer : viewers)
+                    perPlayer.computeIfAbsent(viewer, ignored -> new ArrayList<>()).add(packet.packet());
+            }
+            perPlayer.forEach(AnimationPacketDispatcher::sendAll);
+        }
+
+        private void unregister()
+        {
+            batches.remove(animation, this);
+            flush();
+        }
+
+        @Override
+        public String getName()
+        {
+            return "AnimationPacketDispatcher";
+        }
+
+        @Override
+        public void onPostAnimationStep()
+        {
+            flush();
+        }
+
+        @Override
+        public void onAnimationAborted()
+        {
+            unregister();
+        }
+
+        @Override
+        public void onAnimationCompleted()
+        {
+            unregister();
+        }
+    }
+}
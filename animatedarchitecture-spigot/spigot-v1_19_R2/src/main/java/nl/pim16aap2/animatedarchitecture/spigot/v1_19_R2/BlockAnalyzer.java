@@ -2,10 +2,18 @@ package nl.pim16aap2.animatedarchitecture.spigot.v1_19_R2;
 
 import nl.pim16aap2.animatedarchitecture.core.api.IBlockAnalyzer;
 import nl.pim16aap2.animatedarchitecture.core.api.ILocation;
+import nl.pim16aap2.animatedarchitecture.core.api.IWorld;
+import nl.pim16aap2.animatedarchitecture.core.util.Cuboid;
+import nl.pim16aap2.animatedarchitecture.core.util.ObstructionMap;
+import nl.pim16aap2.animatedarchitecture.core.util.Util;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Di;
 import nl.pim16aap2.animatedarchitecture.spigot.util.SpigotAdapter;
 import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
+import org.jetbrains.annotations.Nullable;
 
 import javax.inject.Singleton;
 import java.util.EnumSet;
@@ -289,4 +297,90 @@ public final class BlockAnalyzer implements IBlockAnalyzer
     {
         return isAllowedBlockStatic(location);
     }
+
+    /**
+     * Checks if a material is air or liquid. See {@link #isAirOrLiquidStatic(Block)}.
+     */
+    private static boolean isAirOrLiquidStatic(Material mat)
+    {
+        return mat.isAir() || mat == Material.WATER || mat == Material.LAVA;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The blocks are read from a single {@link ChunkSnapshot} per chunk instead of being retrieved one by one. Sections
+     * of the snapshot that contain only air are skipped entirely.
+     * <p>
+     * Chunks are never loaded by this method. As the blocks in chunks that are not loaded cannot be checked, all
+     * positions in those chunks are considered to be obstructed.
+     */
+    @Override
+    public ObstructionMap getObstructions(IWorld world, Cuboid cuboid, @Nullable Cuboid exclusion, boolean stopAtFirst)
+    {
+        final World bukkitWorld = Util.requireNonNull(SpigotAdapter.getBukkitWorld(world), "Bukkit World");
+        final ObstructionMap obstructions = new ObstructionMap(cuboid);
+
+        final Vector3Di min = cuboid.getMin();
+        final Vector3Di max = cuboid.getMax();
+        // Positions outside the height limits of the world are always empty.
+        final int minY = Math.max(min.y(), bukkitWorld.getMinHeight());
+        final int maxY = Math.min(max.y(), bukkitWorld.getMaxHeight() - 1);
+        if (minY > maxY)
+            return obstructions;
+
+        for (int chunkX = min.x() >> 4; chunkX <= max.x() >> 4; ++chunkX)
+            for (int chunkZ = min.z() >> 4; chunkZ <= max.z() >> 4; ++chunkZ)
+            {
+                final int minX = Math.max(min.x(), chunkX << 4);
+                final int maxX = Math.min(max.x(), (chunkX << 4) + 15);
+                final int minZ = Math.max(min.z(), chunkZ << 4);
+                final int maxZ = Math.min(max.z(), (chunkZ << 4) + 15);
+
+                if (exclusion != null && isInside(exclusion, minX, maxX, minY, maxY, minZ, maxZ))
+                    continue;
+
+                // This may be called off the main thread, where loading the chunk would block until it is loaded.
+                final @Nullable ChunkSnapshot snapshot = bukkitWorld.isChunkLoaded(chunkX, chunkZ) ?
+                                                         bukkitWorld.getChunkAt(chunkX, chunkZ)
+                                                                    .getChunkSnapshot(false, false, false) :
+                                                         null;
+
+                for (int y = minY; y <= maxY; ++y)
+                {
+                    if (snapshot != null && snapshot.isSectionEmpty((y - bukkitWorld.getMinHeight()) >> 4))
+                    {
+                        // Skip to the last position in this section.
+                        y |= 15;
+                        continue;
+                    }
+
+                    for (int x = minX; x <= maxX; ++x)
+                        for (int z = minZ; z <= maxZ; ++z)
+                        {
+                            if (exclusion != null && isInside(exclusion, x, x, y, y, z, z))
+                                continue;
+                            if (snapshot != null && isAirOrLiquidStatic(snapshot.getBlockType(x & 15, y, z & 15)))
+                                continue;
+
+                            obstructions.setObstructed(x, y, z);
+                            if (stopAtFirst)
+                                return obstructions;
+                        }
+                }
+            }
+        return obstructions;
+    }
+
+    /**
+     * Checks if a region lies entirely inside a cuboid.
+     */
+    private static boolean isInside(Cuboid cuboid, int minX, int maxX, int minY, int maxY, int minZ, int maxZ)
+    {
+        final Vector3Di min = cuboid.getMin();
+        final Vector3Di max = cuboid.getMax();
+        return minX >= min.x() && maxX <= max.x() &&
+            minY >= min.y() && maxY <= max.y() &&
+            minZ >= min.z() && maxZ <= max.z();
+    }
 }
@@ -0,0 +1,177 @@
+package nl.pim16aap2.animatedarchitecture.spigot.v1_19_R2;
+
+import lombok.extern.flogger.Flogger;
+import net.minecraft.core.BlockPosition;
+import net.minecraft.server.level.WorldServer;
+import net.minecraft.world.level.block.state.IBlockData;
+import net.minecraft.world.level.chunk.Chunk;
+import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlock;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Dd;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Di;
+import org.bukkit.Material;
+import org.bukkit.craftbukkit.v1_19_R2.block.data.CraftBlockData;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Places and removes the blocks of animated blocks in bulk.
+ * <p>
+ * Placing blocks through the world (or through the Bukkit API) does a lot of work for every single block. This
+ * includes wrapping every block and updating the pathfinding of every mob in the world.
+ * <p>
+ * This class groups the block changes by chunk section. It looks up each chunk only once and writes the blocks
+ * directly to it. Writing to the chunk skips the work that the world does after changing a block, so for every changed
+ * position, this class still does the parts of that work that matter here:
+ * <ul>
+ *     <li>The light is checked by the light engine, so light sources that are placed or removed are (un)lit.</li>
+ *     <li>The points of interest (e.g. beds and workstations) are updated, so villagers do not keep stale ones.</li>
+ *     <li>The position is registered with the chunk holder, so the server sends one multi-block-change packet per
+ *     section to the players that can see it.</li>
+ * </ul>
+ * <p>
+ * Just like {@link NMSBlock#putBlock}, no physics are applied and blocks do not run their placement logic.
+ * <p>
+ * This class must only be used on the main thread.
+ *
+ * @author Pim
+ */
+@Flogger
+final class BulkBlockPlacer
+{
+    private static final IBlockData AIR = ((CraftBlockData) Material.AIR.createBlockData()).getState();
+
+    private BulkBlockPlacer()
+    {
+    }
+
+    /**
+     * Places the blocks of the animated blocks at their final positions.
+     *
+     * @param animatedBlocks
+     *     The animated blocks whose blocks to place.
+     */
+    static void putBlocks(List<? extends IAnimatedBlock> animatedBlocks)
+    {
+        final Map<SectionKey, List<BlockChange>> changes = new LinkedHashMap<>();
+        for (final IAnimatedBlock animatedBlock : animatedBlocks)
+        {
+            if (!(animatedBlock.getAnimatedBlockData() instanceof NMSBlock nmsBlock))
+            {
+                animatedBlock.getAnimatedBlockData().putBlock(animatedBlock.getFinalPosition());
+                continue;
+            }
+            final Vector3Dd position = animatedBlock.getFinalPosition();
+            addChange(changes, nmsBlock, position.floor().toInteger(), nmsBlock.getMyBlockData());
+        }
+
+        applyChanges(changes);
+        for (final List<BlockChange> sectionChanges : changes.values())
+            for (final BlockChange change : sectionChanges)
+                change.block().onBlockPlaced();
+    }
+
+    /**
+     * Removes the original blocks of the animated blocks.
+     *
+     * @param animatedBlocks
+     *     The animated blocks whose original blocks to remove.
+     */
+    static void deleteOriginalBlocks(List<? extends IAnimatedBlock> animatedBlocks)
+    {
+        final Map<SectionKey, List<BlockChange>> changes = new LinkedHashMap<>();
+        for (final IAnimatedBlock animatedBlock : animatedBlocks)
+        {
+            if (!(animatedBlock.getAnimatedBlockData() instanceof NMSBlock nmsBlock))
+            {
+                animatedBlock.getAnimatedBlockData().deleteOriginalBlock(false);
+                continue;
+            }
+            addChange(changes, nmsBlock, nmsBlock.getOriginalPosition(), AIR);
+        }
+
+        applyChanges(changes);
+        for (final List<BlockChange> sectionChanges : changes.values())
+            for (final BlockChange change : sectionChanges)
+                change.block().onOriginalBlockDeleted();
+    }
+
+    private static void addChange(
+        Map<SectionKey, List<BlockChange>> changes, NMSBlock block, Vector3Di position, IBlockData blockData)
+    {
+        final SectionKey key = new SectionKey(
+            block.getWorldServer(), position.x() >> 4, position.y() >> 4, position.z() >> 4);
+        final BlockPosition blockPosition = new BlockPosition(position.x(), position.y(), position.z());
+        changes.computeIfAbsent(key, ignored -> new ArrayList<>())
+               .add(new BlockChange(block, blockPosition, blockData));
+    }
+
+    private static void applyChanges(Map<SectionKey, List<BlockChange>> changes)
+    {
+        for (final Map.Entry<SectionKey, List<BlockChange>> entry : changes.entrySet())
+        {
+            final SectionKey key = entry.getKey();
+            final WorldServer world = key.world();
+            // net.minecraft.world.level.Level#getChunk(int, int)
+            final Chunk chunk = world.d(key.chunkX(), key.chunkZ());
+
+            for (final BlockChange change : entry.getValue())
+            {
+                try
+                {
+                    // Do not apply physics and do not run the placement logic of the block, just like the flags
+                    // used by NMSBlock#putBlock.
+                    final @Nullable IBlockData oldData =
+                        chunk.setBlockState(change.position(), change.blockData(), false, false);
+                    if (oldData == null)
+                        continue;
+                    onBlockChanged(world, change.position(), oldData);
+                }
+                catch (Exception e)
+                {
+                    log.atSevere().withCause(e).log("Failed to place block %s at %s!",
+                                                    change.blockData(), change.position());
+                }
+            }
+        }
+    }
+
+    /**
+     * Does the work that the world does after a block has been changed by World#setBlock, except for applying physics
+     * and notifying neighbors.
+     *
+     * @param world
+     *     The world the block was changed in.
+     * @param position
+     *     The position of the block that was changed.
+     * @param oldData
+     *     The block data of the block before it was changed.
+     */
+    private static void onBlockChanged(WorldServer world, BlockPosition position, IBlockData oldData)
+    {
+        // net.minecraft.server.level.ServerChunkCache#getLightEngine()
+        // net.minecraft.world.level.lighting.LevelLightEngine#checkBlock(net.minecraft.core.BlockPos)
+        world.k().a().a(position);
+
+        // net.minecraft.server.level.ServerChunkCache#blockChanged(net.minecraft.core.BlockPos)
+        world.k().a(position);
+
+        // net.minecraft.server.level.ServerLevel#onBlockStateChange(BlockPos, BlockState, BlockState)
+        // net.minecraft.world.level.Level#getBlockState(net.minecraft.core.BlockPos)
+        world.a(position, oldData, world.a_(position));
+    }
+
+    /**
+     * Identifies a 16x16x16 section of a chunk in a world.
+     */
+    private record SectionKey(WorldServer world, int chunkX, int sectionY, int chunkZ)
+    {
+    }
+
+    private record BlockChange(NMSBlock block, BlockPosition position, IBlockData blockData)
+    {
+    }
+}
@@ -33,6 +33,7 @@ import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.AnimationContext
 import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlock;
 import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlockHook;
 import nl.pim16aap2.animatedarchitecture.core.managers.AnimatedBlockHookManager;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.Animation;
 import nl.pim16aap2.animatedarchitecture.core.moveblocks.Animator;
 import nl.pim16aap2.animatedarchitecture.core.util.MathUtil;
 import nl.pim16aap2.animatedarchitecture.core.util.Util;
@@ -51,7 +52,7 @@ import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
 import org.jetbrains.annotations.Nullable;
 
 import javax.annotation.concurrent.GuardedBy;
-import java.lang.reflect.Field;
+import java.lang.invoke.MethodHandle;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicReference;
@@ -70,12 +71,41 @@ public class CustomEntityFallingBlock extends EntityFallingBlock implements IAni
 {
     private static final @Nullable Class<?> CLASS_PAPER_ENTITY_LOOKUP =
         ReflectionBuilder.findClass("io.papermc.paper.chunk.system.entity.EntityLookup").getNullable();
-    private static final @Nullable Field FIELD_REMOVAL_REASON =
-        ReflectionBuilder.findField().inClass(Entity.class).ofType(RemovalReason.class).setAccessible().getNullable();
+
+    /**
+     * Setter for the removal reason of an entity: (Entity, RemovalReason) -> void.
+     */
+    private static final @Nullable MethodHandle SETTER_REMOVAL_REASON = MethodHandleUtil.unreflectSetter(
+        ReflectionBuilder.findField().inClass(Entity.class).ofType(RemovalReason.class).setAccessible().getNullable());
+
+    /**
+     * Getter for the server entity of an entity tracker: (EntityTracker) -> EntityTrackerEntry.
+     */
+    private static final @Nullable MethodHandle GETTER_TRACKER_ENTRY = MethodHandleUtil.unreflectGetter(
+        ReflectionBuilder.findField().inClass(PlayerChunkMap.EntityTracker.class).withName("b")
+                         .ofType(EntityTrackerEntry.class).setAccessible().getNullable());
+
+    /**
+     * Setter for the update interval of a server entity: (EntityTrackerEntry, int) -> void.
+     */
+    private static final @Nullable MethodHandle SETTER_UPDATE_INTERVAL = MethodHandleUtil.unreflectSetter(
+        ReflectionBuilder.findField().inClass(EntityTrackerEntry.class).withName("e")
+                         .ofType(int.class).setAccessible().getNullable());
+
+    /**
+     * The buffer used to serialize teleport packets.
+     * <p>
+     * The contents of the buffer are read when the packet is constructed, so the buffer can be reused afterwards.
+     */
+    private static final ThreadLocal<PacketDataSerializer> TELEPORT_SERIALIZER =
+        ThreadLocal.withInitial(() -> new PacketDataSerializer(Unpooled.buffer(31)));
 
     @ToString.Exclude @EqualsAndHashCode.Exclude
     private final IExecutor executor;
 
+    @ToString.Exclude @EqualsAndHashCode.Exclude
+    private final AnimationPacketDispatcher packetDispatcher;
+
     @Getter
     @ToString.Exclude @EqualsAndHashCode.Exclude
     private final AnimationContext context;
@@ -129,6 +159,13 @@ public class CustomEntityFallingBlock extends EntityFallingBlock implements IAni
 
     private final AtomicReference<@Nullable Vector3Dd> teleportedTo = new AtomicReference<>();
 
+    /**
+     * The position and rotation that were sent to the client in the most recent absolute teleport packet.
+     */
+    @GuardedBy("this")
+    @ToString.Exclude @EqualsAndHashCode.Exclude
+    private @Nullable AbsoluteTeleport lastAbsoluteTeleport;
+
     @Getter
     private final ILocation startLocation;
 
@@ -139,13 +176,14 @@ public class CustomEntityFallingBlock extends EntityFallingBlock implements IAni
     private final Vector3Dd finalPosition;
 
     public CustomEntityFallingBlock(
-        IExecutor executor, IWorld world, World bukkitWorld, double posX, double posY, double posZ, float radius,
-        float startAngle, Animator.MovementMethod movementMethod,
+        IExecutor executor, AnimationPacketDispatcher packetDispatcher, IWorld world, World bukkitWorld, double posX,
+        double posY, double posZ, float radius, float startAngle, Animator.MovementMethod movementMethod,
         boolean onEdge, AnimationContext context, AnimatedBlockHookManager animatedBlockHookManager,
         Vector3Dd finalPosition)
     {
         super(EntityTypes.F, ((CraftWorld) bukkitWorld).getHandle());
         this.executor = executor;
+        this.packetDispatcher = packetDispatcher;
         this.world = world;
         this.bukkitWorld = bukkitWorld;
         this.radius = radius;
@@ -306,12 +344,13 @@ public class CustomEntityFallingBlock extends EntityFallingBlock implements IAni
     {
         try
         {
-            Util.requireNonNull(FIELD_REMOVAL_REASON, "FIELD_REMOVAL_REASON").set(this, RemovalReason.b);
+            final MethodHandle setter = Util.requireNonNull(SETTER_REMOVAL_REASON, "SETTER_REMOVAL_REASON");
+            setter.invokeExact((Entity) this, RemovalReason.b);
             entityInLevelCallbackSectionManager.a(RemovalReason.b);
-            FIELD_REMOVAL_REASON.set(this, null);
+            setter.invokeExact((Entity) this, (RemovalReason) null);
             return true;
         }
-        catch (Exception e)
+        catch (Throwable e)
         {
             log.atSevere().withCause(e).log("Failed to remove entity!");
             return false;
@@ -373,11 +412,24 @@ public class CustomEntityFallingBlock extends EntityFallingBlock implements IAni
         final short relY = (short) ((int) MathHelper.c(deltaY * 4096.0));
         final short relZ = (short) ((int) MathHelper.c(deltaZ * 4096.0));
 
+        // The client would not move the entity anyway.
+        if (tracker == null || (relX == 0 && relY == 0 && relZ == 0))
+            return;
+        // The relative move is applied on top of the position the client has, which may differ from the last teleport.
+        lastAbsoluteTeleport = null;
+
         final PacketPlayOutEntity.PacketPlayOutRelEntityMove tpPacket =
             new PacketPlayOutEntity.PacketPlayOutRelEntityMove(getEntityId(), relX, relY, relZ, false);
 
-        if (tracker != null)
-            tracker.a(tpPacket);
+        packetDispatcher.send(context.getAnimation(), tracker, tpPacket);
+    }
+
+    private synchronized void silentTeleport()
+    {
+        // The new position is applied on the next tick. Clear the server-side velocity without marking it as changed,
+        // so the entity stays at the new position while the clients keep moving it based on its last velocity.
+        f(new Vec3D(0, 0, 0));
+        lastAbsoluteTeleport = null;
     }
 
     private synchronized void absoluteTeleport(IVector3D to, IVector3D rotation)
@@ -385,18 +437,26 @@ public class CustomEntityFallingBlock extends EntityFallingBlock implements IAni
         if (tracker == null)
             return;
 
+        final byte yaw = (byte) ((int) (rotation.yD() * 256.0F / 360.0F));
+        final byte pitch = (byte) ((int) (rotation.xD() * 256.0F / 360.0F));
+        final AbsoluteTeleport teleport = new AbsoluteTeleport(to, yaw, pitch);
+        if (teleport.equals(lastAbsoluteTeleport))
+            return;
+        lastAbsoluteTeleport = teleport;
+
         // int + 3 * double + 2 * byte + 1 * boolean = 4 + 3 * 8 + 2 + 1 = 31 bytes
-        final PacketDataSerializer dataSerializer = new PacketDataSerializer(Unpooled.directBuffer(31));
+        final PacketDataSerializer dataSerializer = TELEPORT_SERIALIZER.get();
+        dataSerializer.clear();
 
         dataSerializer.d(getEntityId());
         dataSerializer.writeDouble(to.xD());
         dataSerializer.writeDouble(to.yD());
         dataSerializer.writeDouble(to.zD());
-        dataSerializer.writeByte((byte) ((int) (rotation.yD() * 256.0F / 360.0F)));
-        dataSerializer.writeByte((byte) ((int) (rotation.xD() * 256.0F / 360.0F)));
+        dataSerializer.writeByte(yaw);
+        dataSerializer.writeByte(pitch);
         dataSerializer.writeBoolean(false);
 
-        tracker.a(new PacketPlayOutEntityTeleport(dataSerializer));
+        packetDispatcher.send(context.getAnimation(), tracker, new PacketPlayOutEntityTeleport(dataSerializer));
     }
 
     /**
@@ -438,16 +498,14 @@ public class CustomEntityFallingBlock extends EntityFallingBlock implements IAni
     {
         try
         {
-            final Field entryField = tracker.getClass().getDeclaredField("b");
-            entryField.setAccessible(true);
-            final EntityTrackerEntry entityTrackerEntry =
-                Objects.requireNonNull((EntityTrackerEntry) entryField.get(tracker));
-
-            final Field updateInterval = EntityTrackerEntry.class.getDeclaredField("e");
-            updateInterval.setAccessible(true);
-            updateInterval.set(entityTrackerEntry, Integer.MAX_VALUE);
+            final EntityTrackerEntry entityTrackerEntry = Objects.requireNonNull(
+                (EntityTrackerEntry) Util.requireNonNull(GETTER_TRACKER_ENTRY, "GETTER_TRACKER_ENTRY")
+                                         .invokeExact(tracker));
+
+            Util.requireNonNull(SETTER_UPDATE_INTERVAL, "SETTER_UPDATE_INTERVAL")
+                .invokeExact(entityTrackerEntry, Integer.MAX_VALUE);
         }
-        catch (Exception e)
+        catch (Throwable e)
         {
             log.atSevere().withCause(e)
                .log("Failed to modify entity tracker! Animated block movement will probably be choppy!");
@@ -458,7 +516,9 @@ public class CustomEntityFallingBlock extends EntityFallingBlock implements IAni
     public void moveToTarget(Vector3Dd target, int ticksRemaining)
     {
         cycleTargets(target);
-        movementMethod.apply(this, target, ticksRemaining);
+        final Animation<? extends IAnimatedBlock> animation = context.getAnimation();
+        movementMethod.apply(
+            this, target, ticksRemaining, animation.getLevelOfDetail(), animation.isResyncRequired());
     }
 
     @Override
@@ -469,7 +529,9 @@ public class CustomEntityFallingBlock extends EntityFallingBlock implements IAni
 
         final var from = Objects.requireNonNullElse(teleportedTo.getAndSet(newPosition), currentPosition);
         cyclePositions(newPosition);
-        if (teleportMode == TeleportMode.RELATIVE)
+        if (teleportMode == TeleportMode.SILENT)
+            silentTeleport();
+        else if (teleportMode == TeleportMode.RELATIVE)
             relativeTeleport(from, newPosition);
         else
             absoluteTeleport(newPosition, rotation);
@@ -482,6 +544,8 @@ public class CustomEntityFallingBlock extends EntityFallingBlock implements IAni
     {
         f(new Vec3D(vector.x(), vector.y(), vector.z()));
         D = true;
+        // The client moves the entity based on its velocity, so the last teleport may no longer be accurate.
+        lastAbsoluteTeleport = null;
     }
 
     @Override
@@ -630,4 +694,18 @@ public class CustomEntityFallingBlock extends EntityFallingBlock implements IAni
     {
         return currentTarget;
     }
+
+    /**
+     * The contents of an absolute teleport packet.
+     *
+     * @param position
+     *     The position the entity was teleported to.
+     * @param yaw
+     *     The yaw as sent to the client.
+     * @param pitch
+     *     The pitch as sent to the client.
+     */
+    private record AbsoluteTeleport(IVector3D position, byte yaw, byte pitch)
+    {
+    }
 }
@@ -1,5 +1,7 @@
 package nl.pim16aap2.animatedarchitecture.spigot.v1_19_R2;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import lombok.Getter;
 import lombok.extern.flogger.Flogger;
 import net.minecraft.network.PacketDataSerializer;
@@ -22,6 +24,8 @@ import org.bukkit.entity.Player;
 import org.bukkit.scoreboard.Team;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -56,6 +60,11 @@ public class GlowingBlock implements IGlowingBlock
     }
 
     private Optional<PlayerConnection> getConnection()
+    {
+        return getConnection(player);
+    }
+
+    private static Optional<PlayerConnection> getConnection(Player player)
     {
         final @Nullable EntityPlayer entityPlayer = ((CraftPlayer) player).getHandle();
         if (entityPlayer == null)
@@ -167,6 +176,31 @@ public class GlowingBlock implements IGlowingBlock
                 return Optional.empty();
             }
         }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * The glowing blocks are grouped per player, so every player receives only a single destroy packet.
+         */
+        @Override
+        public void killGlowingBlocks(Collection<? extends IGlowingBlock> glowingBlocks)
+        {
+            final Map<Player, IntList> entityIds = new HashMap<>();
+            for (final IGlowingBlock glowingBlock : glowingBlocks)
+            {
+                if (!(glowingBlock instanceof GlowingBlock block))
+                {
+                    glowingBlock.kill();
+                    continue;
+                }
+                if (block.alive.getAndSet(false))
+                    entityIds.computeIfAbsent(block.player, ignored -> new IntArrayList()).add(block.entityId);
+            }
+
+            entityIds.forEach(
+                (player, ids) -> getConnection(player).ifPresent(
+                    connection -> connection.a(new PacketPlayOutEntityDestroy(ids.toIntArray()))));
+        }
     }
 
     @Override
@@ -0,0 +1,61 @@
+package nl.pim16aap2.animatedarchitecture.spigot.v1_19_R2;
+
+import lombok.extern.flogger.Flogger;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+
+/**
+ * Creates {@link MethodHandle}s for fields that were found using reflection.
+ *
+ * @author Pim
+ */
+@Flogger
+final class MethodHandleUtil
+{
+    private MethodHandleUtil()
+    {
+    }
+
+    /**
+     * Creates a getter for a field that has already been made accessible.
+     *
+     * @return The getter, or null if the field is null or the getter could not be created.
+     */
+    static @Nullable MethodHandle unreflectGetter(@Nullable Field field)
+    {
+        if (field == null)
+            return null;
+        try
+        {
+            return MethodHandles.lookup().unreflectGetter(field);
+        }
+        catch (IllegalAccessException e)
+        {
+            log.atSevere().withCause(e).log("Failed to create getter for field: %s", field);
+            return null;
+        }
+    }
+
+    /**
+     * Creates a setter for a field that has already been made accessible.
+     *
+     * @return The setter, or null if the field is null or the setter could not be created.
+     */
+    static @Nullable MethodHandle unreflectSetter(@Nullable Field field)
+    {
+        if (field == null)
+            return null;
+        try
+        {
+            return MethodHandles.lookup().unreflectSetter(field);
+        }
+        catch (IllegalAccessException e)
+        {
+            log.atSevere().withCause(e).log("Failed to create setter for field: %s", field);
+            return null;
+        }
+    }
+}
@@ -16,6 +16,7 @@ import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlockHo
 import nl.pim16aap2.animatedarchitecture.core.util.BlockFace;
 import nl.pim16aap2.animatedarchitecture.core.util.MovementDirection;
 import nl.pim16aap2.animatedarchitecture.core.util.vector.IVector3D;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Di;
 import nl.pim16aap2.animatedarchitecture.spigot.util.SpigotUtil;
 import org.bukkit.Axis;
 import org.bukkit.Location;
@@ -52,6 +53,7 @@ public class NMSBlock extends BlockBase implements IAnimatedBlockData
     private IBlockData blockData;
     private final org.bukkit.block.data.BlockData bukkitBlockData;
     private final Location loc;
+    private final Vector3Di originalPosition;
 
     private static Block.Info newBlockInfo(CraftWorld craftWorld, BlockPosition blockPosition)
     {
@@ -82,6 +84,7 @@ public class NMSBlock extends BlockBase implements IAnimatedBlockData
         this.bukkitWorld = worldServer.getWorld();
 
         loc = new Location(worldServer.getWorld(), x, y, z);
+        originalPosition = new Vector3Di(x, y, z);
 
         bukkitBlockData = worldServer.getWorld().getBlockAt(x, y, z).getBlockData();
         if (bukkitBlockData instanceof Waterlogged waterlogged)
@@ -121,6 +124,43 @@ public class NMSBlock extends BlockBase implements IAnimatedBlockData
         return blockData;
     }
 
+    /**
+     * @return The world this block is in.
+     */
+    WorldServer getWorldServer()
+    {
+        return worldServer;
+    }
+
+    /**
+     * @return The position of the original block in the world.
+     */
+    Vector3Di getOriginalPosition()
+    {
+        return originalPosition;
+    }
+
+    /**
+     * Notifies the hooks of the animated block that its block was placed.
+     * <p>
+     * This should be called whenever the block is placed without going through {@link #putBlock(IVector3D)}.
+     */
+    void onBlockPlaced()
+    {
+        animatedBlock.forEachHook("putBlock", IAnimatedBlockHook::onBlockPlace);
+    }
+
+    /**
+     * Notifies the hooks of the animated block that its original block was deleted.
+     * <p>
+     * This should be called whenever the original block is removed without going through
+     * {@link #deleteOriginalBlock(boolean)}.
+     */
+    void onOriginalBlockDeleted()
+    {
+        animatedBlock.forEachHook("deleteOriginalBlock", IAnimatedBlockHook::onDeleteOriginalBlock);
+    }
+
     @Override
     @Synchronized("blockDataLock")
     public boolean canRotate()
@@ -173,7 +213,7 @@ public class NMSBlock extends BlockBase implements IAnimatedBlockData
             //                  net.minecraft.world.level.block.state.BlockState,int)
             worldServer.getMinecraftWorld().a(blockPosition, old, blockData, 3);
 
-        animatedBlock.forEachHook("putBlock", IAnimatedBlockHook::onBlockPlace);
+        onBlockPlaced();
     }
 
     /**
@@ -360,7 +400,7 @@ public class NMSBlock extends BlockBase implements IAnimatedBlockData
             bukkitWorld.getBlockAt(loc).setType(Material.AIR, true);
         }
 
-        animatedBlock.forEachHook("deleteOriginalBlock", IAnimatedBlockHook::onDeleteOriginalBlock);
+        onOriginalBlockDeleted();
     }
 
     @Override
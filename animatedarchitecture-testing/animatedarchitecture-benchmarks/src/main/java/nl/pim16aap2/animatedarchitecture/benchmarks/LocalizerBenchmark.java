@@ -0,0 +1,176 @@
+package nl.pim16aap2.animatedarchitecture.benchmarks;
+
+import nl.pim16aap2.animatedarchitecture.core.api.IConfig;
+import nl.pim16aap2.animatedarchitecture.core.api.restartable.RestartableHolder;
+import nl.pim16aap2.animatedarchitecture.core.localization.ILocalizer;
+import nl.pim16aap2.animatedarchitecture.core.localization.LocalizationManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the number of message lookups per second of the {@link ILocalizer} provided by the
+ * {@link LocalizationManager}.
+ * <p>
+ * The cached lookups go through {@link ILocalizer#getMessage(String, Locale, Object...)}. The uncached lookups retrieve
+ * the bundle generated by the {@link LocalizationManager} and format the message for every lookup, which is what the
+ * localizer did before it cached its messages.
+ *
+ * @author Pim
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@SuppressWarnings("NullAway") // The fields are initialized by JMH in setup().
+public class LocalizerBenchmark
+{
+    private static final String BASE_NAME = "Translations";
+    private static final int KEY_COUNT = 128;
+    private static final Locale LOCALE = Locale.forLanguageTag("nl-NL");
+
+    @Param({"CACHED", "UNCACHED"})
+    private LookupMode mode;
+
+    /**
+     * The number of arguments to format the messages with.
+     */
+    @Param({"0", "2"})
+    private int argumentCount;
+
+    private Path directory;
+    private LocalizationManager localizationManager;
+    private ILocalizer localizer;
+    private URLClassLoader classLoader;
+    private String[] keys;
+    private Object[] args;
+
+    @Setup
+    public void setup()
+        throws IOException
+    {
+        directory = Files.createTempDirectory("LocalizerBenchmark");
+
+        // The sources are kept out of the output directory, so they are not mistaken for user-defined patches.
+        final Path sources = Files.createDirectory(directory.resolve("sources"));
+        writeLocaleFile(sources.resolve(BASE_NAME + ".properties"), "Message");
+        writeLocaleFile(sources.resolve(BASE_NAME + "_nl_NL.properties"), "Bericht");
+
+        keys = new String[KEY_COUNT];
+        for (int idx = 0; idx < KEY_COUNT; ++idx)
+            keys[idx] = "benchmark.message." + idx;
+
+        args = new Object[argumentCount];
+        for (int idx = 0; idx < argumentCount; ++idx)
+            args[idx] = "argument" + idx;
+
+        final Path output = Files.createDirectory(directory.resolve("output"));
+        localizationManager = new LocalizationManager(new RestartableHolder(), output, BASE_NAME, createConfig());
+        localizationManager.addResources(sources, BASE_NAME);
+        localizer = localizationManager.getLocalizer();
+
+        final Path bundle = output.resolve(BASE_NAME + ".bundle");
+        classLoader = new URLClassLoader(new URL[]{bundle.toUri().toURL()});
+    }
+
+    /**
+     * Creates an {@link IConfig} that only provides the default locale, which is all the {@link LocalizationManager}
+     * needs.
+     */
+    private static IConfig createConfig()
+    {
+        return (IConfig) Proxy.newProxyInstance(
+            IConfig.class.getClassLoader(),
+            new Class<?>[]{IConfig.class},
+            (proxy, method, methodArgs) ->
+            {
+                if ("locale".equals(method.getName()))
+                    return Locale.ROOT;
+                throw new UnsupportedOperationException("Method not supported: " + method);
+            });
+    }
+
+    private static void writeLocaleFile(Path file, String prefix)
+        throws IOException
+    {
+        final StringBuilder sb = new StringBuilder();
+        for (int idx = 0; idx < KEY_COUNT; ++idx)
+            sb.append("benchmark.message.").append(idx).append('=')
+              .append(prefix).append(' ').append(idx).append(": {0} and {1}.\n");
+        Files.writeString(file, sb.toString(), StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown()
+        throws IOException
+    {
+        localizationManager.shutDown();
+        classLoader.close();
+        try (Stream<Path> files = Files.walk(directory))
+        {
+            for (final Path file : files.sorted(Comparator.reverseOrder()).toList())
+                Files.delete(file);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class KeyIndex
+    {
+        private int index = 0;
+
+        private int next()
+        {
+            final int ret = index;
+            index = (index + 1) % KEY_COUNT;
+            return ret;
+        }
+    }
+
+    @Benchmark
+    public String getMessage(KeyIndex keyIndex)
+    {
+        final String key = keys[keyIndex.next()];
+        return switch (mode)
+            {
+                case CACHED -> localizer.getMessage(key, LOCALE, args);
+                case UNCACHED -> getMessageUncached(key);
+            };
+    }
+
+    private String getMessageUncached(String key)
+    {
+        final String msg = ResourceBundle.getBundle(BASE_NAME, LOCALE, classLoader).getString(key);
+        return args.length == 0 ? msg : MessageFormat.format(msg, args);
+    }
+
+    public enum LookupMode
+    {
+        CACHED,
+        UNCACHED
+    }
+}
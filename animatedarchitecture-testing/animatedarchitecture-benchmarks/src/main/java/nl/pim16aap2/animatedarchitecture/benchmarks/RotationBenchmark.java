@@ -0,0 +1,117 @@
+package nl.pim16aap2.animatedarchitecture.benchmarks;
+
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationBlockState;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationKeyframes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares computing the goal positions of a rotating animation directly with looking them up in precomputed
+ * {@link AnimationKeyframes}.
+ * <p>
+ * Every invocation runs all the ticks of one full rotation of a 5-second perpetual animation (e.g. a windmill) for all
+ * blocks, using the same kernel as the rotating animation components. The keyframes are computed during setup, so
+ * this only measures the cost of replaying them, which is what perpetual animations do after their first rotation.
+ * <p>
+ * The keyframes of the largest configuration take up more than 100 MiB, which is far above
+ * {@link AnimationKeyframes#DEFAULT_MAX_VALUES}. The limit is lifted here to show how the lookup scales with the size
+ * of the keyframes.
+ *
+ * @author Pim
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@SuppressWarnings("NullAway") // The fields are initialized by JMH in setup().
+public class RotationBenchmark
+{
+    private static final int ANIMATION_DURATION = 100;
+    private static final double STEP = 2 * Math.PI / ANIMATION_DURATION;
+
+    @Param({"1000", "10000", "50000"})
+    private int blocks;
+
+    @Param({"DIRECT", "KEYFRAMES"})
+    private LookupMode mode;
+
+    private AnimationBlockState state;
+    private AnimationKeyframes keyframes;
+
+    @Setup
+    public void setup()
+    {
+        final Random random = new Random(0);
+        final double[] startX = new double[blocks];
+        final double[] startY = new double[blocks];
+        final double[] startZ = new double[blocks];
+        for (int idx = 0; idx < blocks; ++idx)
+        {
+            startX[idx] = random.nextInt(64);
+            startY[idx] = random.nextInt(64);
+            startZ[idx] = random.nextInt(64);
+        }
+        state = AnimationBlockState.of(startX, startY, startZ);
+
+        keyframes = new AnimationKeyframes(ANIMATION_DURATION, true, Long.MAX_VALUE, RotationBenchmark::rotate);
+        // The keyframes are computed when they are first used.
+        if (mode == LookupMode.KEYFRAMES)
+            keyframes.computeGoalPositions(state, 0, 0, blocks);
+    }
+
+    @Benchmark
+    public void animate(Blackhole blackhole)
+    {
+        for (int ticks = 0; ticks < ANIMATION_DURATION; ++ticks)
+        {
+            switch (mode)
+            {
+                case DIRECT -> rotate(state, ticks, 0, blocks);
+                case KEYFRAMES -> keyframes.computeGoalPositions(state, ticks, 0, blocks);
+            }
+        }
+        blackhole.consume(state.getTargetX(blocks - 1));
+    }
+
+    /**
+     * The same kernel as the one used by the rotating animation components.
+     */
+    private static void rotate(AnimationBlockState state, int ticks, int from, int to)
+    {
+        final double stepSum = STEP * ticks;
+        final double cos = Math.cos(stepSum);
+        final double sin = Math.sin(stepSum);
+
+        for (int idx = from; idx < to; ++idx)
+        {
+            final double translatedX = state.getStartX(idx) - 0.5;
+            final double translatedZ = state.getStartZ(idx) - 0.5;
+
+            state.setTarget(idx,
+                            0.5 + translatedX * cos - translatedZ * sin,
+                            state.getStartY(idx),
+                            0.5 + translatedX * sin + translatedZ * cos);
+        }
+    }
+
+    public enum LookupMode
+    {
+        DIRECT,
+        KEYFRAMES
+    }
+}
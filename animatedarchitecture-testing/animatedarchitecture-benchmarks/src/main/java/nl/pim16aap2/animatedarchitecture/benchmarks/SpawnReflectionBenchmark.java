@@ -0,0 +1,120 @@
+package nl.pim16aap2.animatedarchitecture.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the reflection that is done every time an animated block is spawned.
+ * <p>
+ * When an animated block is spawned, the update interval of the server entity of its entity tracker is modified. The
+ * reflection benchmark looks up the fields every time, which is what the animated blocks did before they resolved
+ * them once. The method handle benchmark uses {@link MethodHandle#invokeExact(Object...)} on handles that were created
+ * once, which is what the animated blocks do now.
+ * <p>
+ * The server classes are not available here, so {@link Tracker} and {@link TrackerEntry} stand in for them. They have
+ * the same (obfuscated) field names and types.
+ *
+ * @author Pim
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpawnReflectionBenchmark
+{
+    /**
+     * Getter for the server entity of an entity tracker: (Tracker) -> TrackerEntry.
+     */
+    private static final MethodHandle GETTER_TRACKER_ENTRY = unreflectGetter(Tracker.class, "b");
+
+    /**
+     * Setter for the update interval of a server entity: (TrackerEntry, int) -> void.
+     */
+    private static final MethodHandle SETTER_UPDATE_INTERVAL = unreflectSetter(TrackerEntry.class, "e");
+
+    private final Tracker tracker = new Tracker();
+
+    @Benchmark
+    public int reflection()
+        throws ReflectiveOperationException
+    {
+        final Field entryField = tracker.getClass().getDeclaredField("b");
+        entryField.setAccessible(true);
+        final TrackerEntry trackerEntry = Objects.requireNonNull((TrackerEntry) entryField.get(tracker));
+
+        final Field updateInterval = TrackerEntry.class.getDeclaredField("e");
+        updateInterval.setAccessible(true);
+        updateInterval.set(trackerEntry, Integer.MAX_VALUE);
+        return trackerEntry.e;
+    }
+
+    @Benchmark
+    public int methodHandles()
+        throws Throwable
+    {
+        final TrackerEntry trackerEntry =
+            Objects.requireNonNull((TrackerEntry) GETTER_TRACKER_ENTRY.invokeExact(tracker));
+
+        SETTER_UPDATE_INTERVAL.invokeExact(trackerEntry, Integer.MAX_VALUE);
+        return trackerEntry.e;
+    }
+
+    private static MethodHandle unreflectGetter(Class<?> clz, String name)
+    {
+        try
+        {
+            final Field field = clz.getDeclaredField(name);
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(field);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle unreflectSetter(Class<?> clz, String name)
+    {
+        try
+        {
+            final Field field = clz.getDeclaredField(name);
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectSetter(field);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Stand-in for {@code net.minecraft.server.level.ChunkMap.TrackedEntity}.
+     */
+    private static final class Tracker
+    {
+        private final TrackerEntry b = new TrackerEntry();
+    }
+
+    /**
+     * Stand-in for {@code net.minecraft.server.level.ServerEntity}.
+     */
+    private static final class TrackerEntry
+    {
+        private int e = 1;
+    }
+}
@@ -0,0 +1,103 @@
+package nl.pim16aap2.animatedarchitecture.structures.bigdoor;
+
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationBlockState;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationRequestData;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationUtil;
+import nl.pim16aap2.animatedarchitecture.core.structures.StructureSnapshot;
+import nl.pim16aap2.animatedarchitecture.core.util.Cuboid;
+import nl.pim16aap2.animatedarchitecture.core.util.MathUtil;
+import nl.pim16aap2.animatedarchitecture.core.util.MovementDirection;
+import nl.pim16aap2.animatedarchitecture.core.util.Util;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Dd;
+import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Di;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Verifies that the in-place goal positions of big doors match the goal positions of the vector-based computation
+ * that was used before.
+ */
+class BigDoorAnimationComponentTest
+{
+    private static final double ANIMATION_TIME = 2.5D;
+    private static final int SERVER_TICK_TIME = 50;
+    private static final Cuboid CUBOID = new Cuboid(new Vector3Di(-3, 64, 2), new Vector3Di(6, 70, 12));
+    private static final Vector3Di ROTATION_POINT = new Vector3Di(-3, 64, 7);
+
+    @Test
+    void testComputeGoalPositions()
+    {
+        for (int quarterCircles = 1; quarterCircles <= 4; ++quarterCircles)
+        {
+            verify(MovementDirection.CLOCKWISE, quarterCircles);
+            verify(MovementDirection.COUNTERCLOCKWISE, quarterCircles);
+        }
+    }
+
+    private static void verify(MovementDirection movementDirection, int quarterCircles)
+    {
+        final BigDoorAnimationComponent component =
+            new BigDoorAnimationComponent(requestData(), movementDirection, quarterCircles);
+
+        final int animationDuration = AnimationUtil.getAnimationTicks(ANIMATION_TIME, SERVER_TICK_TIME);
+        final double angle = (movementDirection == MovementDirection.CLOCKWISE ? 1 : -1) *
+            quarterCircles * MathUtil.HALF_PI;
+        final double step = angle / animationDuration;
+
+        final AnimationBlockState state = createState();
+        final int half = state.size() / 2;
+
+        // Include the ticks beyond the animation duration used by perpetual animations.
+        for (int ticks = 0; ticks <= 3 * animationDuration; ++ticks)
+        {
+            // Split the blocks into two ranges, like the parallel step executor does.
+            component.computeGoalPositions(state, ticks, 0, half);
+            component.computeGoalPositions(state, ticks, half, state.size());
+
+            final double stepSum = Util.clampAngleRad(step * ticks);
+            for (int idx = 0; idx < state.size(); ++idx)
+            {
+                final Vector3Dd expected =
+                    component.getGoalPos(stepSum, state.getStartX(idx), state.getStartY(idx), state.getStartZ(idx));
+                final String message = movementDirection + " x" + quarterCircles + ", tick " + ticks + ", idx " + idx;
+                Assertions.assertEquals(expected.x(), state.getTargetX(idx), 1E-9, message);
+                Assertions.assertEquals(expected.y(), state.getTargetY(idx), 1E-9, message);
+                Assertions.assertEquals(expected.z(), state.getTargetZ(idx), 1E-9, message);
+            }
+        }
+    }
+
+    private static AnimationBlockState createState()
+    {
+        final int size = CUBOID.getVolume();
+        final double[] startX = new double[size];
+        final double[] startY = new double[size];
+        final double[] startZ = new double[size];
+
+        int idx = 0;
+        for (int x = CUBOID.getMin().x(); x <= CUBOID.getMax().x(); ++x)
+            for (int y = CUBOID.getMin().y(); y <= CUBOID.getMax().y(); ++y)
+                for (int z = CUBOID.getMin().z(); z <= CUBOID.getMax().z(); ++z)
+                {
+                    startX[idx] = x + 0.5;
+                    startY[idx] = y;
+                    startZ[idx] = z + 0.5;
+                    ++idx;
+                }
+        return AnimationBlockState.of(startX, startY, startZ);
+    }
+
+    private static AnimationRequestData requestData()
+    {
+        final StructureSnapshot snapshot = Mockito.mock(StructureSnapshot.class);
+        Mockito.when(snapshot.getCuboid()).thenReturn(CUBOID);
+        Mockito.when(snapshot.getRotationPoint()).thenReturn(ROTATION_POINT);
+
+        final AnimationRequestData data = Mockito.mock(AnimationRequestData.class);
+        Mockito.when(data.getStructureSnapshot()).thenReturn(snapshot);
+        Mockito.when(data.getAnimationTime()).thenReturn(ANIMATION_TIME);
+        Mockito.when(data.getServerTickTime()).thenReturn(SERVER_TICK_TIME);
+        return data;
+    }
+}
@@ -2,6 +2,7 @@ package nl.pim16aap2.animatedarchitecture.core.storage;
 
 import com.google.common.flogger.LogSiteStackTrace;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.LongList;
 import lombok.extern.flogger.Flogger;
 import nl.pim16aap2.animatedarchitecture.core.UnitTestUtil;
@@ -36,6 +37,7 @@ import nl.pim16aap2.animatedarchitecture.testimplementations.TestWorldFactory;
 import nl.pim16aap2.testing.AssertionsUtil;
 import nl.pim16aap2.testing.logging.LogInspector;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -48,6 +50,12 @@ import java.lang.reflect.Field;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -85,6 +93,15 @@ public class SQLiteJDBCDriverConnectionTest
 
     private static final IWorld WORLD = new TestWorld(WORLD_NAME);
 
+    private static final List<String> INDICES = List.of(
+        "idx_structure_rotation_point_chunk",
+        "idx_structure_power_block_chunk",
+        "idx_structure_name",
+        "idx_structure_world",
+        "idx_structure_type",
+        "idx_structure_owner_player_structure"
+    );
+
     private static final Path DB_FILE;
     private static final Path DB_FILE_BACKUP;
 
@@ -139,6 +156,12 @@ public class SQLiteJDBCDriverConnectionTest
         initStorage();
     }
 
+    @AfterEach
+    void afterEach()
+    {
+        storage.shutDown();
+    }
+
     /**
      * Prepares files for a test run.
      */
@@ -148,6 +171,8 @@ public class SQLiteJDBCDriverConnectionTest
         try
         {
             Files.deleteIfExists(DB_FILE);
+            Files.deleteIfExists(DB_FILE.resolveSibling(DB_FILE.getFileName() + "-wal"));
+            Files.deleteIfExists(DB_FILE.resolveSibling(DB_FILE.getFileName() + "-shm"));
             Files.deleteIfExists(DB_FILE_BACKUP);
         }
         catch (Exception e)
@@ -225,6 +250,58 @@ public class SQLiteJDBCDriverConnectionTest
         partialIdentifiersFromId();
     }
 
+    /**
+     * Verifies that the most common lookups use the indices instead of scanning entire tables, both for new databases
+     * and for databases that were upgraded from a version without indices.
+     */
+    @Test
+    void queryPlans()
+        throws SQLException
+    {
+        verifyQueryPlans();
+
+        // Turn the database back into a database from before the indices were added.
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
+             Statement statement = conn.createStatement())
+        {
+            for (final String index : INDICES)
+                statement.execute("DROP INDEX IF EXISTS " + index + ";");
+            statement.execute("PRAGMA user_version = 100;");
+        }
+
+        storage.shutDown();
+        initStorage();
+        Assertions.assertEquals(IStorage.DatabaseState.OK, storage.getDatabaseState());
+        verifyQueryPlans();
+    }
+
+    private void verifyQueryPlans()
+        throws SQLException
+    {
+        assertUsesIndex(SQLStatement.GET_STRUCTURES_IN_CHUNK, "idx_structure_rotation_point_chunk");
+        assertUsesIndex(SQLStatement.GET_POWER_BLOCK_DATA_IN_CHUNK, "COVERING INDEX idx_structure_power_block_chunk");
+        assertUsesIndex(SQLStatement.GET_STRUCTURE_COUNT_BY_NAME, "idx_structure_name");
+        assertUsesIndex(SQLStatement.IS_ANIMATE_ARCHITECTURE_WORLD, "idx_structure_world");
+        assertUsesIndex(SQLStatement.GET_STRUCTURES_OF_TYPE, "idx_structure_type");
+        assertUsesIndex(SQLStatement.GET_STRUCTURE_OWNERS, "idx_structure_owner_player_structure");
+    }
+
+    private void assertUsesIndex(SQLStatement sqlStatement, String index)
+        throws SQLException
+    {
+        final List<String> plan = new ArrayList<>();
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
+             PreparedStatement ps = conn.prepareStatement(
+                 "EXPLAIN QUERY PLAN " + SQLStatement.getStatement(sqlStatement));
+             ResultSet rs = ps.executeQuery())
+        {
+            while (rs.next())
+                plan.add(rs.getString("detail"));
+        }
+        Assertions.assertTrue(plan.stream().anyMatch(detail -> detail.contains(index)),
+                              "Expected " + sqlStatement + " to use index '" + index + "', but got plan: " + plan);
+    }
+
     private void insertBulkStructures()
     {
         for (int idx = 0; idx < 10; ++idx)
@@ -324,6 +401,12 @@ public class SQLiteJDBCDriverConnectionTest
         Assertions.assertEquals(structure1.getPrimeOwner(), testStructure1.get().getPrimeOwner());
         Assertions.assertEquals(structure1, testStructure1.get());
         Assertions.assertFalse(storage.getStructure(9999999).isPresent());
+
+        final List<AbstractStructure> bulkStructures = storage.getStructures(LongList.of(11L, 12L, 13L, 9999999L));
+        Assertions.assertEquals(3, bulkStructures.size());
+        Assertions.assertTrue(bulkStructures.containsAll(List.of(structure1, structure2, structure3)));
+        Assertions.assertTrue(storage.getStructures(LongList.of()).isEmpty());
+
         Assertions.assertTrue(storage.isAnimatedArchitectureWorld(WORLD_NAME));
         Assertions.assertFalse(storage.isAnimatedArchitectureWorld("fakeWorld"));
 
@@ -469,6 +552,16 @@ public class SQLiteJDBCDriverConnectionTest
         final List<List<Long>> entries = new ArrayList<>(powerBlockData.values());
         Assertions.assertEquals(1, entries.size());
         Assertions.assertEquals(3, entries.get(0).size());
+
+        final Long2ObjectMap<LongList> worldPowerBlockData = storage.getPowerBlockData(WORLD_NAME);
+        Assertions.assertEquals(3, worldPowerBlockData.get(Util.getPositionKey(structure1.getPowerBlock())).size());
+        Assertions.assertTrue(storage.getPowerBlockData("fakeWorld").isEmpty());
+
+        final long emptyChunkId = Util.getChunkId(-100, -100);
+        final LongList chunkUIDs = storage.getStructureUIDsInChunks(WORLD_NAME, LongList.of(chunkId, emptyChunkId));
+        Assertions.assertTrue(chunkUIDs.containsAll(LongList.of(11L, 12L, 13L)));
+        Assertions.assertTrue(storage.getStructureUIDsInChunks("fakeWorld", LongList.of(chunkId)).isEmpty());
+        Assertions.assertTrue(storage.getStructureUIDsInChunks(WORLD_NAME, LongList.of(emptyChunkId)).isEmpty());
     }
 
     /**
@@ -591,7 +684,7 @@ public class SQLiteJDBCDriverConnectionTest
     private void initStorage()
     {
         storage = new SQLiteJDBCDriverConnection(DB_FILE, structureBaseBuilder, structureRegistry, structureTypeManager,
-                                                 worldFactory,
+                                                 worldFactory, restartableHolder,
                                                  debuggableRegistry);
     }
 
@@ -1,20 +1,22 @@
 package nl.pim16aap2.animatedarchitecture.structures.bigdoor;
 
 import lombok.extern.flogger.Flogger;
-import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlock;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationBlockState;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationKeyframes;
 import nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationRequestData;
 import nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationUtil;
-import nl.pim16aap2.animatedarchitecture.core.moveblocks.IAnimationComponent;
 import nl.pim16aap2.animatedarchitecture.core.moveblocks.IAnimator;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.IInPlaceAnimationComponent;
 import nl.pim16aap2.animatedarchitecture.core.structures.StructureSnapshot;
 import nl.pim16aap2.animatedarchitecture.core.util.MathUtil;
 import nl.pim16aap2.animatedarchitecture.core.util.MovementDirection;
 import nl.pim16aap2.animatedarchitecture.core.util.Util;
 import nl.pim16aap2.animatedarchitecture.core.util.vector.IVector3D;
 import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Dd;
+import org.jetbrains.annotations.VisibleForTesting;
 
 @Flogger
-public class BigDoorAnimationComponent implements IAnimationComponent
+public class BigDoorAnimationComponent implements IInPlaceAnimationComponent
 {
     private final MovementDirection movementDirection;
     private final StructureSnapshot snapshot;
@@ -23,6 +25,7 @@ public class BigDoorAnimationComponent implements IAnimationComponent
     private final int rotateCountOffset;
     private final double angle;
     private final double step;
+    private final AnimationKeyframes keyframes;
 
     public BigDoorAnimationComponent(AnimationRequestData data, MovementDirection movementDirection, int quarterCircles)
     {
@@ -46,6 +49,10 @@ public class BigDoorAnimationComponent implements IAnimationComponent
             AnimationUtil.getAnimationTicks(data.getAnimationTime(), data.getServerTickTime());
 
         this.step = this.angle / animationDuration;
+        // Every full circle ends where it started, so animations that only rotate in full circles repeat themselves.
+        final boolean fullCircles = quarterCircles % 4 == 0;
+        this.keyframes = new AnimationKeyframes(
+            fullCircles ? animationDuration : animationDuration + 1, fullCircles, this::computeGoalPositionsDirect);
         this.rotateCount = animationDuration / quarterCircles;
         this.rotateCountOffset = this.rotateCount / 2;
     }
@@ -62,12 +69,34 @@ public class BigDoorAnimationComponent implements IAnimationComponent
         if ((ticks - rotateCountOffset) % rotateCount == 0)
             animator.applyRotation(movementDirection);
 
+        animator.applyGoalPositions(this, ticks, ticksRemaining);
+    }
+
+    @Override
+    public void computeGoalPositions(AnimationBlockState state, int ticks, int from, int to)
+    {
+        keyframes.computeGoalPositions(state, ticks, from, to);
+    }
+
+    private void computeGoalPositionsDirect(AnimationBlockState state, int ticks, int from, int to)
+    {
         final double stepSum = Util.clampAngleRad(step * ticks);
         final double cos = Math.cos(stepSum);
         final double sin = Math.sin(stepSum);
 
-        for (final IAnimatedBlock animatedBlock : animator.getAnimatedBlocks())
-            animator.applyMovement(animatedBlock, getGoalPos(animatedBlock, cos, sin), ticksRemaining);
+        final double centerX = rotationCenter.x();
+        final double centerZ = rotationCenter.z();
+
+        for (int idx = from; idx < to; ++idx)
+        {
+            final double translatedX = state.getStartX(idx) - centerX;
+            final double translatedZ = state.getStartZ(idx) - centerZ;
+
+            state.setTarget(idx,
+                            centerX + translatedX * cos - translatedZ * sin,
+                            state.getStartY(idx),
+                            centerZ + translatedX * sin + translatedZ * cos);
+        }
     }
 
     private Vector3Dd getGoalPos(double cos, double sin, double startX, double startY, double startZ)
@@ -81,16 +110,12 @@ public class BigDoorAnimationComponent implements IAnimationComponent
         return new Vector3Dd(rotationCenter.x() + changeX, startY, rotationCenter.z() + changeZ);
     }
 
-    private Vector3Dd getGoalPos(double angle, double startX, double startY, double startZ)
+    @VisibleForTesting
+    Vector3Dd getGoalPos(double angle, double startX, double startY, double startZ)
     {
         return getGoalPos(Math.cos(angle), Math.sin(angle), startX, startY, startZ);
     }
 
-    private Vector3Dd getGoalPos(IAnimatedBlock animatedBlock, double cos, double sin)
-    {
-        return getGoalPos(cos, sin, animatedBlock.getStartX(), animatedBlock.getStartY(), animatedBlock.getStartZ());
-    }
-
     static float getRadius(IVector3D rotationPoint, int xAxis, int zAxis)
     {
         final double deltaA = rotationPoint.xD() - xAxis;
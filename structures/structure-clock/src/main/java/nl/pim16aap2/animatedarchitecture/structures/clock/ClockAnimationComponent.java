@@ -101,11 +101,9 @@ public final class ClockAnimationComponent extends DrawbridgeAnimationComponent
         final double hourAngle = angleDirectionMultiplier * hoursToAngle(worldTime.getHours(), worldTime.getMinutes());
         final double minuteAngle = angleDirectionMultiplier * minutesToAngle(worldTime.getMinutes());
 
-        for (final IAnimatedBlock animatedBlock : animator.getAnimatedBlocks())
-        {
-            final double timeAngle = isHourArm.test(animatedBlock) ? hourAngle : minuteAngle;
-            animator.applyMovement(animatedBlock, getGoalPos(timeAngle, animatedBlock), ticksRemaining);
-        }
+        animator.applyMovement(
+            animatedBlock -> getGoalPos(isHourArm.test(animatedBlock) ? hourAngle : minuteAngle, animatedBlock),
+            ticksRemaining);
     }
 
     /**
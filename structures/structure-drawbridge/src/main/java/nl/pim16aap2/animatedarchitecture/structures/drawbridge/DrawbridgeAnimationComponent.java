@@ -1,11 +1,13 @@
 package nl.pim16aap2.animatedarchitecture.structures.drawbridge;
 
 import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlock;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationBlockState;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationKeyframes;
 import nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationRequestData;
 import nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationUtil;
 import nl.pim16aap2.animatedarchitecture.core.moveblocks.Animator;
-import nl.pim16aap2.animatedarchitecture.core.moveblocks.IAnimationComponent;
 import nl.pim16aap2.animatedarchitecture.core.moveblocks.IAnimator;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.IInPlaceAnimationComponent;
 import nl.pim16aap2.animatedarchitecture.core.structures.StructureSnapshot;
 import nl.pim16aap2.animatedarchitecture.core.util.MathUtil;
 import nl.pim16aap2.animatedarchitecture.core.util.MovementDirection;
@@ -19,15 +21,21 @@ import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Dd;
  *
  * @author Pim
  */
-public class DrawbridgeAnimationComponent implements IAnimationComponent
+public class DrawbridgeAnimationComponent implements IInPlaceAnimationComponent
 {
     private final Vector3Dd rotationCenter;
     private final boolean northSouth;
     private final TriFunction<Vector3Dd, Vector3Dd, Double, Vector3Dd> rotator;
+
+    /**
+     * True if the blocks rotate around the x-axis, false if they rotate around the z-axis.
+     */
+    private final boolean rotateAroundXAxis;
     private final StructureSnapshot snapshot;
 
     private final double angle;
     private final double step;
+    private final AnimationKeyframes keyframes;
     private final int rotateCount;
     private final int rotateCountOffset;
     private final MovementDirection movementDirection;
@@ -46,21 +54,25 @@ public class DrawbridgeAnimationComponent implements IAnimationComponent
             {
                 angle = quarterCircles * -MathUtil.HALF_PI;
                 rotator = Vector3Dd::rotateAroundXAxis;
+                rotateAroundXAxis = true;
             }
             case SOUTH ->
             {
                 angle = quarterCircles * MathUtil.HALF_PI;
                 rotator = Vector3Dd::rotateAroundXAxis;
+                rotateAroundXAxis = true;
             }
             case EAST ->
             {
                 angle = quarterCircles * MathUtil.HALF_PI;
                 rotator = Vector3Dd::rotateAroundZAxis;
+                rotateAroundXAxis = false;
             }
             case WEST ->
             {
                 angle = quarterCircles * -MathUtil.HALF_PI;
                 rotator = Vector3Dd::rotateAroundZAxis;
+                rotateAroundXAxis = false;
             }
             default -> throw new IllegalArgumentException("Movement direction \"" + movementDirection.name() +
                                                               "\" is not valid for this type!");
@@ -70,6 +82,10 @@ public class DrawbridgeAnimationComponent implements IAnimationComponent
             AnimationUtil.getAnimationTicks(data.getAnimationTime(), data.getServerTickTime());
 
         this.step = angle / animationDuration;
+        // Every full circle ends where it started, so animations that only rotate in full circles repeat themselves.
+        final boolean fullCircles = quarterCircles % 4 == 0;
+        this.keyframes = new AnimationKeyframes(
+            fullCircles ? animationDuration : animationDuration + 1, fullCircles, this::computeGoalPositionsDirect);
         this.rotateCount = animationDuration / quarterCircles;
         this.rotateCountOffset = this.rotateCount / 2;
     }
@@ -93,13 +109,48 @@ public class DrawbridgeAnimationComponent implements IAnimationComponent
     @Override
     public void executeAnimationStep(IAnimator animator, int ticks, int ticksRemaining)
     {
-        final double stepSum = Util.clampAngleRad(step * ticks);
-
         if ((ticks - rotateCountOffset) % rotateCount == 0)
             animator.applyRotation(this.movementDirection);
 
-        for (final IAnimatedBlock animatedBlock : animator.getAnimatedBlocks())
-            animator.applyMovement(animatedBlock, getGoalPos(stepSum, animatedBlock), ticksRemaining);
+        animator.applyGoalPositions(this, ticks, ticksRemaining);
+    }
+
+    @Override
+    public void computeGoalPositions(AnimationBlockState state, int ticks, int from, int to)
+    {
+        keyframes.computeGoalPositions(state, ticks, from, to);
+    }
+
+    private void computeGoalPositionsDirect(AnimationBlockState state, int ticks, int from, int to)
+    {
+        final double stepSum = Util.clampAngleRad(step * ticks);
+        final double cos = Math.cos(stepSum);
+        final double sin = Math.sin(stepSum);
+
+        final double centerX = rotationCenter.x();
+        final double centerY = rotationCenter.y();
+        final double centerZ = rotationCenter.z();
+
+        for (int idx = from; idx < to; ++idx)
+        {
+            final double translatedY = state.getStartY(idx) - centerY;
+            if (rotateAroundXAxis)
+            {
+                final double translatedZ = state.getStartZ(idx) - centerZ;
+                state.setTarget(idx,
+                                state.getStartX(idx),
+                                centerY + cos * translatedY - sin * translatedZ,
+                                centerZ + sin * translatedY + cos * translatedZ);
+            }
+            else
+            {
+                final double translatedX = state.getStartX(idx) - centerX;
+                state.setTarget(idx,
+                                centerX + sin * translatedY + cos * translatedX,
+                                centerY + cos * translatedY - sin * translatedX,
+                                state.getStartZ(idx));
+            }
+        }
     }
 
     public static float getRadius(boolean northSouthAligned, IVector3D rotationPoint, int xAxis, int yAxis, int zAxis)
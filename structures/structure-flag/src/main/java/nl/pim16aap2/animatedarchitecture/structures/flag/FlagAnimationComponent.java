@@ -3,17 +3,23 @@ package nl.pim16aap2.animatedarchitecture.structures.flag;
 import lombok.extern.flogger.Flogger;
 import nl.pim16aap2.animatedarchitecture.core.api.IConfig;
 import nl.pim16aap2.animatedarchitecture.core.api.animatedblock.IAnimatedBlock;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationBlockState;
 import nl.pim16aap2.animatedarchitecture.core.moveblocks.AnimationRequestData;
 import nl.pim16aap2.animatedarchitecture.core.moveblocks.Animator;
-import nl.pim16aap2.animatedarchitecture.core.moveblocks.IAnimationComponent;
 import nl.pim16aap2.animatedarchitecture.core.moveblocks.IAnimator;
+import nl.pim16aap2.animatedarchitecture.core.moveblocks.IInPlaceAnimationComponent;
 import nl.pim16aap2.animatedarchitecture.core.structures.StructureSnapshot;
 import nl.pim16aap2.animatedarchitecture.core.util.Cuboid;
+import nl.pim16aap2.animatedarchitecture.core.util.formula.Formula;
 import nl.pim16aap2.animatedarchitecture.core.util.vector.IVector3D;
 import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Dd;
 import nl.pim16aap2.animatedarchitecture.core.util.vector.Vector3Di;
 import nl.pim16aap2.jcalculator.JCalculator;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.BiFunction;
 
 /**
@@ -23,9 +29,38 @@ import java.util.function.BiFunction;
  */
 @SuppressWarnings({"FieldCanBeLocal", "unused", "squid:S1172", "PMD"})
 @Flogger
-public final class FlagAnimationComponent implements IAnimationComponent
+public final class FlagAnimationComponent implements IInPlaceAnimationComponent
 {
+    /**
+     * The names of the variables that can be used in the flag movement formula, in order of their slots.
+     */
+    private static final String[] FORMULA_VARIABLES = {"radius", "counter", "length", "height"};
+    private static final int SLOT_RADIUS = 0;
+    private static final int SLOT_COUNTER = 1;
+    private static final int SLOT_LENGTH = 2;
+    private static final int SLOT_HEIGHT = 3;
+
+    /**
+     * The formula used for blocks that do not move (i.e. blocks with a radius of 0).
+     */
+    private static final Formula ZERO_OFFSET = Formula.compile("0");
+
     private final IConfig config;
+    /**
+     * The compiled flag movement formula.
+     * <p>
+     * This is null if the formula could not be compiled, in which case the formula is evaluated using
+     * {@link JCalculator} instead.
+     */
+    private final @Nullable Formula formula;
+    /**
+     * The formula of every animated block, indexed by the index of the block in the list of animated blocks.
+     * <p>
+     * Every formula is bound to the values of its block, so only the counter is variable.
+     * <p>
+     * This is null until {@link #prepareAnimation(IAnimator)} has been called or if the formula could not be compiled.
+     */
+    private volatile Formula @Nullable [] blockFormulas;
     private final BiFunction<IAnimatedBlock, Integer, Vector3Dd> getGoalPos;
     private final StructureSnapshot snapshot;
     private final boolean isNorthSouthAligned;
@@ -46,6 +81,59 @@ public final class FlagAnimationComponent implements IAnimationComponent
         getGoalPos = this.isNorthSouthAligned ? this::getGoalPosNS : this::getGoalPosEW;
 
         length = this.isNorthSouthAligned ? dims.z() : dims.x();
+
+        formula = compileFormula(config.flagMovementFormula());
+    }
+
+    private static @Nullable Formula compileFormula(String formula)
+    {
+        try
+        {
+            return Formula.compile(formula, FORMULA_VARIABLES);
+        }
+        catch (IllegalArgumentException e)
+        {
+            log.atWarning().withCause(e)
+               .log("Failed to compile flag formula '%s', falling back to interpreting it every step!", formula);
+            return null;
+        }
+    }
+
+    @Override
+    public void prepareAnimation(IAnimator animator)
+    {
+        final @Nullable Formula formula0 = formula;
+        if (formula0 == null)
+            return;
+
+        final List<IAnimatedBlock> animatedBlocks = animator.getAnimatedBlocks();
+        final Formula[] formulas = new Formula[animatedBlocks.size()];
+
+        // Many blocks share the same radius and height, so they can share the same bound formula.
+        final Map<Long, Formula> boundFormulas = new HashMap<>();
+        final double[] values = new double[FORMULA_VARIABLES.length];
+        values[SLOT_LENGTH] = length;
+
+        for (int idx = 0; idx < formulas.length; ++idx)
+        {
+            final IAnimatedBlock animatedBlock = animatedBlocks.get(idx);
+            final float radius = animatedBlock.getRadius();
+            if (radius <= 0)
+            {
+                formulas[idx] = ZERO_OFFSET;
+                continue;
+            }
+
+            final long height = Math.round(animatedBlock.getStartY() - minY);
+            final long key = ((long) Float.floatToIntBits(radius) << 32) | (height & 0xFFFFFFFFL);
+            formulas[idx] = boundFormulas.computeIfAbsent(key, ignored ->
+            {
+                values[SLOT_RADIUS] = radius;
+                values[SLOT_HEIGHT] = height;
+                return formula0.bind(values, SLOT_COUNTER);
+            });
+        }
+        blockFormulas = formulas;
     }
 
     @Override
@@ -97,8 +185,30 @@ public final class FlagAnimationComponent implements IAnimationComponent
     @Override
     public void executeAnimationStep(IAnimator animator, int ticks, int ticksRemaining)
     {
-        for (final IAnimatedBlock animatedBlock : animator.getAnimatedBlocks())
-            animator.applyMovement(animatedBlock, getGoalPos.apply(animatedBlock, ticks), ticksRemaining);
+        if (blockFormulas == null)
+            animator.applyMovement(animatedBlock -> getGoalPos.apply(animatedBlock, ticks), ticksRemaining);
+        else
+            animator.applyGoalPositions(this, ticks, ticksRemaining);
+    }
+
+    @Override
+    public void computeGoalPositions(AnimationBlockState state, int ticks, int from, int to)
+    {
+        final Formula @Nullable [] formulas = blockFormulas;
+        if (formulas == null)
+            throw new IllegalStateException("Trying to compute goal positions before preparing the animation!");
+
+        final double[] values = new double[FORMULA_VARIABLES.length];
+        values[SLOT_COUNTER] = ticks;
+
+        for (int idx = from; idx < to; ++idx)
+        {
+            final double offset = formulas[idx].evaluate(values);
+            if (isNorthSouthAligned)
+                state.setTarget(idx, state.getStartX(idx) + offset, state.getStartY(idx), state.getStartZ(idx));
+            else
+                state.setTarget(idx, state.getStartX(idx), state.getStartY(idx), state.getStartZ(idx) + offset);
+        }
     }
 
     @Override
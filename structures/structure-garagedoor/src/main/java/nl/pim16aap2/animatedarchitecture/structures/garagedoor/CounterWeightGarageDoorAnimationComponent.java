@@ -118,8 +118,7 @@ public class CounterWeightGarageDoorAnimationComponent implements IAnimationComp
     {
         final double stepSum = Util.clampAngleRad(step * ticks);
 
-        for (final IAnimatedBlock animatedBlock : animator.getAnimatedBlocks())
-            animator.applyMovement(animatedBlock, getGoalPos(stepSum, animatedBlock), ticksRemaining);
+        animator.applyMovement(animatedBlock -> getGoalPos(stepSum, animatedBlock), ticksRemaining);
     }
 
     @Override
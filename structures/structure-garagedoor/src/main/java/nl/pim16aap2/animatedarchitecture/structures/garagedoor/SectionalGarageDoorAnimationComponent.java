@@ -167,7 +167,6 @@ public final class SectionalGarageDoorAnimationComponent extends CounterWeightGa
     {
         final double stepSum = step * ticks;
 
-        for (final IAnimatedBlock animatedBlock : animator.getAnimatedBlocks())
-            animator.applyMovement(animatedBlock, getVector.apply(animatedBlock, stepSum), ticksRemaining);
+        animator.applyMovement(animatedBlock -> getVector.apply(animatedBlock, stepSum), ticksRemaining);
     }
 }
@@ -43,7 +43,6 @@ public final class VerticalAnimationComponent implements IAnimationComponent
     public void executeAnimationStep(IAnimator animator, int ticks, int ticksRemaining)
     {
         final double stepSum = step * ticks;
-        for (final IAnimatedBlock animatedBlock : animator.getAnimatedBlocks())
-            animator.applyMovement(animatedBlock, getGoalPos(animatedBlock, stepSum), ticksRemaining);
+        animator.applyMovement(animatedBlock -> getGoalPos(animatedBlock, stepSum), ticksRemaining);
     }
 }
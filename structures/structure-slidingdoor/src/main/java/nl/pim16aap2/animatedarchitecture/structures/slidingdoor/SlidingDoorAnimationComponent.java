@@ -71,7 +71,6 @@ public class SlidingDoorAnimationComponent implements IAnimationComponent
             return;
 
         final double stepSum = step * ticks;
-        for (final IAnimatedBlock animatedBlock : animator.getAnimatedBlocks())
-            animator.applyMovement(animatedBlock, getGoalPos(animatedBlock, stepSum), ticksRemaining);
+        animator.applyMovement(animatedBlock -> getGoalPos(animatedBlock, stepSum), ticksRemaining);
     }
 }